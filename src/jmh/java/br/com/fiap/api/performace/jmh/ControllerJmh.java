@@ -0,0 +1,77 @@
+package br.com.fiap.api.performace.jmh;
+
+import br.com.fiap.api.controller.MensagemController;
+import br.com.fiap.api.model.Mensagem;
+import br.com.fiap.api.service.MensagemService;
+import br.com.fiap.api.stream.TransmissorMensagens;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Conversão do ID recebido no caminho e despacho de GET /mensagens/{id} pelo Spring MVC, com o
+ * serviço substituído por um dublê para isolar o custo da camada web.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ControllerJmh {
+
+    private String id;
+    private MockMvc mockMvc;
+
+    @Setup
+    public void preparar() {
+        var uuid = UUID.randomUUID();
+        id = uuid.toString();
+        var mensagem = Mensagem.builder()
+                .id(uuid)
+                .usuario("Jose")
+                .conteudo("conteúdo da mensagem")
+                .dataCriacao(LocalDateTime.now())
+                .build();
+        var mensagemService = mock(MensagemService.class);
+        when(mensagemService.buscarMensagem(any(UUID.class))).thenReturn(mensagem);
+        mockMvc = MockMvcBuilders.standaloneSetup(
+                new MensagemController(mensagemService, new ObjectMapper().registerModule(new JavaTimeModule()),
+                        TransmissorMensagens.desabilitado()))
+                .build();
+    }
+
+    @Benchmark
+    public UUID converterId() {
+        return UUID.fromString(id);
+    }
+
+    @Benchmark
+    public String converterIdInvalido() {
+        try {
+            return UUID.fromString("id-invalido").toString();
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public String buscarMensagem() throws Exception {
+        return mockMvc.perform(get("/mensagens/{id}", id))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+    }
+}
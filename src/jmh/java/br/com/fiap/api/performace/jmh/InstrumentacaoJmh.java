@@ -0,0 +1,75 @@
+package br.com.fiap.api.performace.jmh;
+
+import br.com.fiap.api.RestApiApplication;
+import br.com.fiap.api.model.Mensagem;
+import br.com.fiap.api.model.PaginaCursor;
+import br.com.fiap.api.performace.BenchmarkHelper;
+import br.com.fiap.api.service.MensagemService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo da instrumentação (timers de serviço e repositório, estatísticas do Hibernate) sobre as
+ * operações de {@link MensagemService}, comparando a aplicação com e sem métricas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InstrumentacaoJmh {
+
+    private static final int REGISTROS = 10_000;
+
+    @Param({"true", "false"})
+    public boolean metricas;
+
+    private ConfigurableApplicationContext contexto;
+    private MensagemService mensagemService;
+    private List<UUID> ids;
+
+    @Setup
+    public void preparar() {
+        contexto = new SpringApplicationBuilder(RestApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:jmh-instrumentacao;DB_CLOSE_DELAY=-1",
+                        "spring.sql.init.mode=never",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        // sem cache, cada busca passa pelo repositório e pelo Hibernate
+                        "mensagem.cache.habilitado=false",
+                        "management.metrics.enable.all=" + metricas,
+                        "management.observations.annotations.enabled=" + metricas,
+                        "spring.jpa.properties.hibernate.generate_statistics=" + metricas)
+                .run();
+        mensagemService = contexto.getBean(MensagemService.class);
+        var jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+        BenchmarkHelper.popularMensagens(jdbcTemplate, REGISTROS);
+        ids = jdbcTemplate.queryForList("SELECT id FROM mensagem", UUID.class);
+    }
+
+    @TearDown
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Mensagem buscarMensagem() {
+        return mensagemService.buscarMensagem(ids.get(ThreadLocalRandom.current().nextInt(ids.size())));
+    }
+
+    @Benchmark
+    public PaginaCursor<Mensagem> listarPorCursor() {
+        return mensagemService.listarMensagens(null, 20);
+    }
+}
@@ -0,0 +1,121 @@
+package br.com.fiap.api.performace.jmh;
+
+import br.com.fiap.api.RestApiApplication;
+import br.com.fiap.api.model.Mensagem;
+import br.com.fiap.api.model.MensagemCursor;
+import br.com.fiap.api.model.PaginaCursor;
+import br.com.fiap.api.performace.BenchmarkHelper;
+import br.com.fiap.api.service.MensagemService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operações de {@link MensagemService} com o contexto Spring completo sobre um banco real.
+ * <p>
+ * O parâmetro {@code banco} aceita {@code h2}, {@code h2-postgres} (H2 em modo de compatibilidade
+ * com PostgreSQL) e {@code postgres}, que usa a instância de {@code make docker-start} e pode ser
+ * alterada com {@code -Dbenchmark.postgres.url}, {@code -Dbenchmark.postgres.usuario} e
+ * {@code -Dbenchmark.postgres.senha}. Para incluí-lo: {@code -Djmh.includes="MensagemServiceJmh -p banco=postgres"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MensagemServiceJmh {
+
+    private static final int REGISTROS = 100_000;
+
+    @Param({"h2", "h2-postgres"})
+    public String banco;
+
+    @Param({"true", "false"})
+    public boolean cache;
+
+    private ConfigurableApplicationContext contexto;
+    private MensagemService mensagemService;
+    private List<UUID> ids;
+    private MensagemCursor cursorMeio;
+
+    @Setup
+    public void preparar() {
+        contexto = new SpringApplicationBuilder(RestApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties(propriedadesBanco())
+                .properties(
+                        "spring.sql.init.mode=never",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "mensagem.cache.habilitado=" + cache)
+                .run();
+        mensagemService = contexto.getBean(MensagemService.class);
+        var jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+        BenchmarkHelper.popularMensagens(jdbcTemplate, REGISTROS);
+        ids = jdbcTemplate.queryForList("SELECT id FROM mensagem", UUID.class);
+        var meio = mensagemService.listarMensagens(null, REGISTROS / 2);
+        cursorMeio = MensagemCursor.decodificar(meio.nextCursor());
+    }
+
+    @TearDown
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Mensagem buscarMensagem() {
+        return mensagemService.buscarMensagem(ids.get(ThreadLocalRandom.current().nextInt(ids.size())));
+    }
+
+    @Benchmark
+    public Mensagem registrarMensagem() {
+        return mensagemService.registrarMensagem(Mensagem.builder()
+                .usuario("jmh")
+                .conteudo("conteúdo da mensagem")
+                .build());
+    }
+
+    @Benchmark
+    public Page<Mensagem> listarPaginaProfunda() {
+        return mensagemService.listarMensagens(PageRequest.of(REGISTROS / 10 / 2, 10));
+    }
+
+    @Benchmark
+    public Slice<Mensagem> listarFatiaProfunda() {
+        return mensagemService.listarFatiaMensagens(PageRequest.of(REGISTROS / 10 / 2, 10));
+    }
+
+    @Benchmark
+    public PaginaCursor<Mensagem> listarPorCursor() {
+        return mensagemService.listarMensagens(cursorMeio, 10);
+    }
+
+    private String[] propriedadesBanco() {
+        return switch (banco) {
+            case "h2" -> new String[]{
+                    "spring.datasource.url=jdbc:h2:mem:jmh;DB_CLOSE_DELAY=-1"};
+            case "h2-postgres" -> new String[]{
+                    "spring.datasource.url=jdbc:h2:mem:jmh-postgres;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1"};
+            case "postgres" -> new String[]{
+                    "spring.datasource.url=" + System.getProperty("benchmark.postgres.url",
+                            "jdbc:postgresql://localhost:5432/backend?reWriteBatchedInserts=true"),
+                    "spring.datasource.username=" + System.getProperty("benchmark.postgres.usuario", "root"),
+                    "spring.datasource.password=" + System.getProperty("benchmark.postgres.senha", "toor"),
+                    "spring.datasource.driver-class-name=org.postgresql.Driver",
+                    "spring.jpa.database=postgresql",
+                    "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect"};
+            default -> throw new IllegalArgumentException("Banco desconhecido: " + banco);
+        };
+    }
+}
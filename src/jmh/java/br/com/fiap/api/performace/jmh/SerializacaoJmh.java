@@ -0,0 +1,89 @@
+package br.com.fiap.api.performace.jmh;
+
+import br.com.fiap.api.model.Mensagem;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Serialização de {@link Mensagem}, incluindo o {@code @JsonFormat} de {@code dataCriacao}, e da
+ * {@link Page} devolvida por GET /mensagens, em JSON, CBOR e Smile. O tamanho em bytes de cada
+ * formato, com e sem gzip, é comparado por {@code FormatoBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializacaoJmh {
+
+    @Param({"10", "50", "100"})
+    public int tamanhoPagina;
+
+    @Param({"json", "cbor", "smile"})
+    public String formato;
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter escritorMensagem;
+    private ObjectReader leitorMensagem;
+    private Mensagem mensagem;
+    private byte[] mensagemSerializada;
+    private Page<Mensagem> pagina;
+
+    @Setup
+    public void preparar() throws Exception {
+        objectMapper = switch (formato) {
+            case "cbor" -> new ObjectMapper(new CBORFactory());
+            case "smile" -> new ObjectMapper(new SmileFactory());
+            default -> new ObjectMapper();
+        };
+        objectMapper.registerModule(new JavaTimeModule());
+        escritorMensagem = objectMapper.writerFor(Mensagem.class);
+        leitorMensagem = objectMapper.readerFor(Mensagem.class);
+        mensagem = gerarMensagem(0);
+        mensagemSerializada = escritorMensagem.writeValueAsBytes(mensagem);
+        pagina = new PageImpl<>(
+                IntStream.range(0, tamanhoPagina).mapToObj(SerializacaoJmh::gerarMensagem).toList(),
+                PageRequest.of(0, tamanhoPagina),
+                1_000_000);
+    }
+
+    @Benchmark
+    public byte[] serializarMensagem() throws Exception {
+        return escritorMensagem.writeValueAsBytes(mensagem);
+    }
+
+    @Benchmark
+    public Mensagem desserializarMensagem() throws Exception {
+        return leitorMensagem.readValue(mensagemSerializada);
+    }
+
+    // ObjectMapper genérico, como o conversor do Spring MVC resolve o tipo da resposta
+    @Benchmark
+    public byte[] serializarPagina() throws Exception {
+        return objectMapper.writeValueAsBytes(pagina);
+    }
+
+    private static Mensagem gerarMensagem(int indice) {
+        return Mensagem.builder()
+                .id(UUID.randomUUID())
+                .usuario("usuario-" + indice)
+                .conteudo("conteúdo da mensagem " + indice)
+                .dataCriacao(LocalDateTime.now().minusSeconds(indice))
+                .gostei(indice)
+                .build();
+    }
+}
@@ -1,9 +1,14 @@
 package br.com.fiap.api;
 
+import br.com.fiap.api.config.ImagemNativaHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
+@ImportRuntimeHints(ImagemNativaHints.class)
 public class RestApiApplication {
     public static void main(String[] args) {
         SpringApplication.run(RestApiApplication.class, args);
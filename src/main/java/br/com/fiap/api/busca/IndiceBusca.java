@@ -0,0 +1,25 @@
+package br.com.fiap.api.busca;
+
+import br.com.fiap.api.model.Mensagem;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Índice invertido sobre {@link Mensagem#getConteudo()} usado por GET /mensagens/busca.
+ * <p>
+ * Os resultados são ordenados por relevância e, em caso de empate, pelas mensagens mais recentes.
+ * Todos os termos da consulta precisam estar presentes na mensagem.
+ */
+public interface IndiceBusca {
+
+    void indexar(Mensagem mensagem);
+
+    default void indexar(List<Mensagem> mensagens) {
+        mensagens.forEach(this::indexar);
+    }
+
+    void remover(UUID id);
+
+    List<Mensagem> buscar(String consulta, int limite);
+}
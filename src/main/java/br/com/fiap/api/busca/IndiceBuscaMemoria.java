@@ -0,0 +1,185 @@
+package br.com.fiap.api.busca;
+
+import br.com.fiap.api.model.Mensagem;
+import br.com.fiap.api.repository.MensagemRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Índice invertido em memória para o H2 e o perfil de testes.
+ * <p>
+ * Cada termo (em minúsculas, sem acentos e sem stopwords) aponta para as mensagens que o contêm e
+ * a frequência nelas. A relevância é a soma de tf-idf dos termos da consulta. O índice é
+ * reconstruído a partir do banco na inicialização e atualizado a cada inclusão, alteração e remoção.
+ */
+public class IndiceBuscaMemoria implements IndiceBusca {
+
+    private static final Pattern SEPARADOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Pattern DIACRITICOS = Pattern.compile("\\p{M}+");
+
+    private static final Set<String> STOPWORDS = Set.of(
+            "a", "o", "as", "os", "um", "uma", "de", "da", "do", "das", "dos", "e", "em", "no", "na",
+            "nos", "nas", "para", "por", "com", "que", "se", "ao", "aos", "ou");
+
+    private static final Comparator<Resultado> ORDEM = Comparator
+            .comparingDouble(Resultado::relevancia)
+            .thenComparing(Resultado::dataCriacao, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(Resultado::id);
+
+    private final MensagemRepository mensagemRepository;
+
+    private final Map<String, Map<UUID, Integer>> postagens = new ConcurrentHashMap<>();
+
+    private final Map<UUID, Documento> documentos = new ConcurrentHashMap<>();
+
+    public IndiceBuscaMemoria(MensagemRepository mensagemRepository) {
+        this.mensagemRepository = mensagemRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        postagens.clear();
+        documentos.clear();
+        mensagemRepository.exportar(this::indexar);
+    }
+
+    @Override
+    public void indexar(Mensagem mensagem) {
+        var frequencias = tokenizar(mensagem.getConteudo()).stream()
+                .collect(Collectors.toMap(Function.identity(), termo -> 1, Integer::sum));
+        var documento = new Documento(frequencias.keySet(), tokens(frequencias), mensagem.getDataCriacao());
+        // o compute serializa as atualizações da mesma mensagem
+        documentos.compute(mensagem.getId(), (id, anterior) -> {
+            if (anterior != null) {
+                desindexar(id, anterior);
+            }
+            // a inclusão acontece dentro do compute do termo para não competir com a remoção da lista vazia
+            frequencias.forEach((termo, frequencia) -> postagens.compute(termo, (chave, lista) -> {
+                var postagem = lista == null ? new ConcurrentHashMap<UUID, Integer>() : lista;
+                postagem.put(id, frequencia);
+                return postagem;
+            }));
+            return documento;
+        });
+    }
+
+    @Override
+    public void remover(UUID id) {
+        documentos.computeIfPresent(id, (chave, anterior) -> {
+            desindexar(chave, anterior);
+            return null;
+        });
+    }
+
+    @Override
+    public List<Mensagem> buscar(String consulta, int limite) {
+        var ids = pesquisar(consulta, limite);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        var mensagens = mensagemRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Mensagem::getId, Function.identity()));
+        return ids.stream().map(mensagens::get).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * IDs das mensagens que contêm todos os termos da consulta, da mais para a menos relevante.
+     */
+    public List<UUID> pesquisar(String consulta, int limite) {
+        var termos = new LinkedHashSet<>(tokenizar(consulta));
+        if (termos.isEmpty() || limite < 1) {
+            return List.of();
+        }
+        var listas = new ArrayList<Map<UUID, Integer>>(termos.size());
+        for (var termo : termos) {
+            var lista = postagens.get(termo);
+            if (lista == null || lista.isEmpty()) {
+                return List.of();
+            }
+            listas.add(lista);
+        }
+        // percorre a lista mais curta e consulta as demais
+        listas.sort(Comparator.comparingInt(Map::size));
+        double total = Math.max(1, documentos.size());
+        var idf = listas.stream().mapToDouble(lista -> Math.log(1 + total / lista.size())).toArray();
+
+        var melhores = new PriorityQueue<Resultado>(limite + 1, ORDEM);
+        candidatos:
+        for (var entrada : listas.get(0).entrySet()) {
+            var id = entrada.getKey();
+            double relevancia = entrada.getValue() * idf[0];
+            for (int i = 1; i < listas.size(); i++) {
+                var frequencia = listas.get(i).get(id);
+                if (frequencia == null) {
+                    continue candidatos;
+                }
+                relevancia += frequencia * idf[i];
+            }
+            var documento = documentos.get(id);
+            if (documento == null) {
+                continue;
+            }
+            melhores.add(new Resultado(id, relevancia / Math.sqrt(documento.tamanho()), documento.dataCriacao()));
+            if (melhores.size() > limite) {
+                melhores.poll();
+            }
+        }
+
+        var ordenados = new ArrayList<Resultado>(melhores);
+        ordenados.sort(ORDEM.reversed());
+        return ordenados.stream().map(Resultado::id).toList();
+    }
+
+    public int tamanho() {
+        return documentos.size();
+    }
+
+    static List<String> tokenizar(String texto) {
+        if (texto == null || texto.isBlank()) {
+            return List.of();
+        }
+        var semAcentos = DIACRITICOS.matcher(Normalizer.normalize(texto.toLowerCase(), Normalizer.Form.NFD))
+                .replaceAll("");
+        var termos = new ArrayList<String>();
+        for (var termo : SEPARADOR.split(semAcentos)) {
+            if (termo.length() > 1 && !STOPWORDS.contains(termo)) {
+                termos.add(termo);
+            }
+        }
+        return termos;
+    }
+
+    private void desindexar(UUID id, Documento documento) {
+        documento.termos().forEach(termo -> postagens.computeIfPresent(termo, (chave, lista) -> {
+            lista.remove(id);
+            return lista.isEmpty() ? null : lista;
+        }));
+    }
+
+    private static int tokens(Map<String, Integer> frequencias) {
+        return frequencias.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    private record Documento(Set<String> termos, int tamanho, LocalDateTime dataCriacao) {
+    }
+
+    private record Resultado(UUID id, double relevancia, LocalDateTime dataCriacao) {
+    }
+}
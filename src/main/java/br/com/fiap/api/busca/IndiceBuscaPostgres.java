@@ -0,0 +1,83 @@
+package br.com.fiap.api.busca;
+
+import br.com.fiap.api.model.Mensagem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Busca textual do PostgreSQL: uma coluna {@code tsvector} gerada a partir de {@code conteudo} e
+ * um índice GIN. O banco mantém coluna e índice a cada INSERT, UPDATE e DELETE, por isso
+ * {@link #indexar} e {@link #remover} não fazem nada. Coluna e índice são criados por
+ * {@code db/mensagem-busca.sql} (ou por {@code db/mensagem-particionada.sql}).
+ */
+public class IndiceBuscaPostgres implements IndiceBusca {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(IndiceBuscaPostgres.class);
+
+    private static final String CONFIGURACAO = "portuguese";
+
+    private static final ClassPathResource MIGRACAO = new ClassPathResource("db/mensagem-busca.sql");
+
+    private static final String COLUNA_EXISTE = "SELECT EXISTS (SELECT 1 FROM information_schema.columns "
+            + "WHERE table_schema = current_schema() AND table_name = 'mensagem' AND column_name = 'conteudo_busca')";
+
+    private static final String TABELA_VAZIA = "SELECT NOT EXISTS (SELECT 1 FROM mensagem)";
+
+    private static final RowMapper<Mensagem> MAPEADOR = BeanPropertyRowMapper.newInstance(Mensagem.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IndiceBuscaPostgres(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Só consulta o catálogo, sem bloquear a tabela. Em uma tabela vazia (esquema recém-criado pelo
+     * Hibernate) aplica {@code db/mensagem-busca.sql}, já que reescrevê-la não custa nada; com dados,
+     * a migração fica a cargo de quem opera o banco.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void verificarIndice() {
+        var existe = Boolean.TRUE.equals(jdbcTemplate.queryForObject(COLUNA_EXISTE, Boolean.class));
+        if (existe) {
+            return;
+        }
+        if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(TABELA_VAZIA, Boolean.class))) {
+            var script = new ResourceDatabasePopulator(MIGRACAO);
+            script.execute(Objects.requireNonNull(jdbcTemplate.getDataSource()));
+            return;
+        }
+        LOGGER.error("Coluna conteudo_busca ausente: a busca textual falhará até que {} seja aplicado "
+                + "(make migrar-busca)", MIGRACAO.getPath());
+    }
+
+    @Override
+    public void indexar(Mensagem mensagem) {
+    }
+
+    @Override
+    public void remover(UUID id) {
+    }
+
+    @Override
+    public List<Mensagem> buscar(String consulta, int limite) {
+        return jdbcTemplate.query(
+                "SELECT m.id, m.usuario, m.conteudo, m.data_criacao, m.gostei, m.versao " +
+                        "FROM mensagem m, websearch_to_tsquery('" + CONFIGURACAO + "', ?) q " +
+                        "WHERE m.conteudo_busca @@ q " +
+                        "ORDER BY ts_rank(m.conteudo_busca, q) DESC, m.data_criacao DESC, m.id DESC " +
+                        "LIMIT ?",
+                MAPEADOR, consulta, limite);
+    }
+}
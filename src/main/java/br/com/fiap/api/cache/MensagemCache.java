@@ -0,0 +1,118 @@
+package br.com.fiap.api.cache;
+
+import br.com.fiap.api.model.Mensagem;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+/**
+ * Cache em memória, limitado por tamanho e TTL, para leituras de {@link Mensagem} por ID.
+ * <p>
+ * Cada chave guarda um {@link CompletableFuture}: o primeiro leitor instala o futuro e executa a
+ * consulta fora de qualquer trava do mapa, e os leitores concorrentes da mesma chave aguardam esse
+ * futuro. Assim a consulta bloqueante ao banco não prende a thread virtual à thread da plataforma.
+ * Uma invalidação remove o futuro em andamento, de modo que o valor carregado antes da escrita não
+ * volta ao cache.
+ */
+public class MensagemCache {
+
+    private final AsyncCache<UUID, Mensagem> cache;
+
+    public MensagemCache(boolean habilitado, long tamanhoMaximo, Duration ttl) {
+        this(habilitado, tamanhoMaximo, ttl, Ticker.systemTicker(), ForkJoinPool.commonPool());
+    }
+
+    MensagemCache(boolean habilitado, long tamanhoMaximo, Duration ttl, Ticker ticker, Executor executor) {
+        this.cache = habilitado
+                ? Caffeine.newBuilder()
+                        .maximumSize(tamanhoMaximo)
+                        .expireAfterWrite(ttl)
+                        .ticker(ticker)
+                        .executor(executor)
+                        .recordStats()
+                        .buildAsync()
+                : null;
+    }
+
+    public static MensagemCache desabilitado() {
+        return new MensagemCache(false, 0, Duration.ZERO);
+    }
+
+    public boolean isHabilitado() {
+        return cache != null;
+    }
+
+    public Mensagem buscar(UUID id, Function<UUID, Mensagem> carregador) {
+        if (cache == null) {
+            return carregador.apply(id);
+        }
+        var carregamento = new CompletableFuture<Mensagem>();
+        var futuro = cache.get(id, (chave, executor) -> carregamento);
+        if (futuro == carregamento) {
+            try {
+                carregamento.complete(carregador.apply(id));
+            } catch (RuntimeException e) {
+                cache.asMap().remove(id, carregamento);
+                carregamento.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return futuro.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Devolve a mensagem já carregada no cache, sem consultar o banco nem aguardar carregamentos
+     * em andamento.
+     */
+    public Optional<Mensagem> consultar(UUID id) {
+        if (cache == null) {
+            return Optional.empty();
+        }
+        var futuro = cache.getIfPresent(id);
+        if (futuro == null || !futuro.isDone() || futuro.isCompletedExceptionally()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(futuro.getNow(null));
+    }
+
+    public void invalidar(UUID id) {
+        if (cache != null) {
+            cache.synchronous().invalidate(id);
+        }
+    }
+
+    public CacheStats estatisticas() {
+        return cache == null ? CacheStats.empty() : cache.synchronous().stats();
+    }
+
+    public void invalidarTodos() {
+        if (cache != null) {
+            cache.synchronous().invalidateAll();
+        }
+    }
+
+    public long tamanho() {
+        if (cache == null) {
+            return 0;
+        }
+        cache.synchronous().cleanUp();
+        return cache.synchronous().estimatedSize();
+    }
+}
@@ -0,0 +1,173 @@
+package br.com.fiap.api.cache;
+
+import br.com.fiap.api.model.Mensagem;
+import br.com.fiap.api.model.MensagemCursor;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Cache das mensagens mais recentes de cada usuário, usado pela timeline por usuário.
+ * <p>
+ * Guarda até {@code mensagensPorUsuario} mensagens por usuário e até {@code tamanhoMaximo}
+ * usuários; a política de admissão do Caffeine mantém os usuários mais consultados e descarta os
+ * demais. Como em {@link MensagemCache}, o carregamento acontece fora de travas e uma invalidação
+ * remove também os carregamentos em andamento.
+ */
+public class TimelineCache {
+
+    private final AsyncCache<String, Timeline> cache;
+
+    private final int mensagensPorUsuario;
+
+    public TimelineCache(boolean habilitado, long tamanhoMaximo, int mensagensPorUsuario, Duration ttl) {
+        this(habilitado, tamanhoMaximo, mensagensPorUsuario, ttl, Ticker.systemTicker(), ForkJoinPool.commonPool());
+    }
+
+    TimelineCache(boolean habilitado, long tamanhoMaximo, int mensagensPorUsuario, Duration ttl,
+                  Ticker ticker, Executor executor) {
+        this.mensagensPorUsuario = mensagensPorUsuario;
+        this.cache = habilitado
+                ? Caffeine.newBuilder()
+                        .maximumSize(tamanhoMaximo)
+                        .expireAfterWrite(ttl)
+                        .ticker(ticker)
+                        .executor(executor)
+                        .recordStats()
+                        .buildAsync()
+                : null;
+    }
+
+    public static TimelineCache desabilitado() {
+        return new TimelineCache(false, 0, 0, Duration.ZERO);
+    }
+
+    public boolean isHabilitado() {
+        return cache != null;
+    }
+
+    public int mensagensPorUsuario() {
+        return mensagensPorUsuario;
+    }
+
+    /**
+     * Devolve até {@code tamanho + 1} mensagens do usuário a partir do cursor, ou vazio quando a
+     * página não está inteira no trecho em cache e precisa ser lida do banco.
+     *
+     * @param carregador consulta as {@code limite} mensagens mais recentes do usuário
+     */
+    public Optional<List<Mensagem>> buscar(String usuario, MensagemCursor cursor, int tamanho,
+                                           Function<Integer, List<Mensagem>> carregador) {
+        if (cache == null || tamanho >= mensagensPorUsuario) {
+            return Optional.empty();
+        }
+        return carregar(usuario, carregador).pagina(cursor, tamanho);
+    }
+
+    public void invalidar(String usuario) {
+        if (cache != null) {
+            cache.synchronous().invalidate(usuario);
+        }
+    }
+
+    /**
+     * Remove as timelines que contêm alguma das mensagens, e as que ainda estão sendo carregadas,
+     * quando só o ID da mensagem alterada é conhecido.
+     */
+    public void invalidarMensagens(Collection<UUID> ids) {
+        if (cache == null || ids.isEmpty()) {
+            return;
+        }
+        cache.asMap().forEach((usuario, futuro) -> {
+            var timeline = futuro.isDone() && !futuro.isCompletedExceptionally() ? futuro.getNow(null) : null;
+            if (timeline == null || ids.stream().anyMatch(timeline.ids()::contains)) {
+                cache.asMap().remove(usuario, futuro);
+            }
+        });
+    }
+
+    public void invalidarTodas() {
+        if (cache != null) {
+            cache.synchronous().invalidateAll();
+        }
+    }
+
+    public long tamanho() {
+        if (cache == null) {
+            return 0;
+        }
+        cache.synchronous().cleanUp();
+        return cache.synchronous().estimatedSize();
+    }
+
+    private Timeline carregar(String usuario, Function<Integer, List<Mensagem>> carregador) {
+        var carregamento = new CompletableFuture<Timeline>();
+        var futuro = cache.get(usuario, (chave, executor) -> carregamento);
+        if (futuro == carregamento) {
+            try {
+                // uma mensagem a mais indica se a timeline do usuário cabe inteira no cache
+                var mensagens = carregador.apply(mensagensPorUsuario + 1);
+                carregamento.complete(Timeline.de(mensagens, mensagensPorUsuario));
+            } catch (RuntimeException e) {
+                cache.asMap().remove(usuario, carregamento);
+                carregamento.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return futuro.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    private record Timeline(List<Mensagem> mensagens, Set<UUID> ids, boolean completa) {
+
+        static Timeline de(List<Mensagem> mensagens, int capacidade) {
+            var completa = mensagens.size() <= capacidade;
+            var trecho = List.copyOf(completa ? mensagens : mensagens.subList(0, capacidade));
+            return new Timeline(trecho, trecho.stream().map(Mensagem::getId).collect(Collectors.toSet()), completa);
+        }
+
+        Optional<List<Mensagem>> pagina(MensagemCursor cursor, int tamanho) {
+            var inicio = 0;
+            if (cursor != null) {
+                // a posição é localizada pelo ID para não depender da ordenação de UUID do banco
+                inicio = posicao(cursor.id()) + 1;
+                if (inicio == 0) {
+                    return Optional.empty();
+                }
+            }
+            var fim = Math.min(inicio + tamanho + 1, mensagens.size());
+            if (fim - inicio < tamanho + 1 && !completa) {
+                return Optional.empty();
+            }
+            return Optional.of(mensagens.subList(inicio, fim));
+        }
+
+        private int posicao(UUID id) {
+            for (int i = 0; i < mensagens.size(); i++) {
+                if (mensagens.get(i).getId().equals(id)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -1,9 +1,26 @@
 package br.com.fiap.api.config;
 
+import br.com.fiap.api.busca.IndiceBusca;
+import br.com.fiap.api.busca.IndiceBuscaMemoria;
+import br.com.fiap.api.busca.IndiceBuscaPostgres;
+import br.com.fiap.api.cache.MensagemCache;
+import br.com.fiap.api.cache.TimelineCache;
+import br.com.fiap.api.id.UuidV7IdGenerator;
+import br.com.fiap.api.ingestao.IngestaoAssincrona;
+import br.com.fiap.api.ranking.RankingGostei;
+import br.com.fiap.api.repository.MensagemRepository;
+import br.com.fiap.api.stream.TransmissorMensagens;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.IdGenerator;
+import org.springframework.util.JdkIdGenerator;
 import org.springframework.web.filter.CharacterEncodingFilter;
 
+import java.time.Duration;
+
 @Configuration
 public class ApplicationConfig {
 
@@ -14,4 +31,70 @@ public class ApplicationConfig {
         filter.setForceEncoding(true);
         return filter;
     }
+
+    @Bean
+    public MensagemCache mensagemCache(
+            @Value("${mensagem.cache.habilitado:true}") boolean habilitado,
+            @Value("${mensagem.cache.tamanho-maximo:10000}") long tamanhoMaximo,
+            @Value("${mensagem.cache.ttl:5m}") Duration ttl) {
+        return new MensagemCache(habilitado, tamanhoMaximo, ttl);
+    }
+
+    @Bean
+    public TimelineCache timelineCache(
+            @Value("${mensagem.timeline.habilitado:true}") boolean habilitado,
+            @Value("${mensagem.timeline.tamanho-maximo:1000}") long tamanhoMaximo,
+            @Value("${mensagem.timeline.mensagens-por-usuario:100}") int mensagensPorUsuario,
+            @Value("${mensagem.timeline.ttl:1m}") Duration ttl) {
+        return new TimelineCache(habilitado, tamanhoMaximo, mensagensPorUsuario, ttl);
+    }
+
+    @Bean
+    public RankingGostei rankingGostei(
+            @Value("${mensagem.ranking.habilitado:true}") boolean habilitado,
+            @Value("${mensagem.ranking.capacidade:1000}") int capacidade,
+            @Value("${mensagem.ranking.tamanho-maximo:100}") int tamanhoMaximo) {
+        return habilitado ? new RankingGostei(capacidade, tamanhoMaximo) : RankingGostei.desabilitado();
+    }
+
+    @Bean
+    public IngestaoAssincrona ingestaoAssincrona(
+            @Value("${mensagem.ingestao.assincrona:false}") boolean habilitada,
+            @Value("${mensagem.ingestao.capacidade:65536}") int capacidade,
+            @Value("${mensagem.ingestao.tamanho-lote:500}") int tamanhoLote) {
+        return new IngestaoAssincrona(habilitada, capacidade, tamanhoLote);
+    }
+
+    @Bean
+    public TransmissorMensagens transmissorMensagens(
+            ObjectMapper objectMapper,
+            @Value("${mensagem.stream.habilitado:true}") boolean habilitado,
+            @Value("${mensagem.stream.capacidade-assinante:256}") int capacidadeAssinante,
+            @Value("${mensagem.stream.historico:10000}") int tamanhoHistorico,
+            @Value("${mensagem.stream.maximo-assinantes:20000}") int maximoAssinantes,
+            @Value("${mensagem.stream.intervalo-batimento:15s}") Duration intervaloBatimento,
+            @Value("${mensagem.stream.timeout:30m}") Duration timeout) {
+        return new TransmissorMensagens(habilitado, objectMapper, capacidadeAssinante, tamanhoHistorico,
+                maximoAssinantes, intervaloBatimento, timeout);
+    }
+
+    @Bean
+    public IdGenerator idGenerator(@Value("${mensagem.id.gerador:v7}") String gerador) {
+        return switch (gerador) {
+            case "v7" -> new UuidV7IdGenerator();
+            case "v4" -> new JdkIdGenerator();
+            default -> throw new IllegalArgumentException("Gerador de ID desconhecido: " + gerador);
+        };
+    }
+
+    @Bean
+    public IndiceBusca indiceBusca(@Value("${mensagem.busca.modo:memoria}") String modo,
+                                   JdbcTemplate jdbcTemplate,
+                                   MensagemRepository mensagemRepository) {
+        return switch (modo) {
+            case "postgres" -> new IndiceBuscaPostgres(jdbcTemplate);
+            case "memoria" -> new IndiceBuscaMemoria(mensagemRepository);
+            default -> throw new IllegalArgumentException("Modo de busca desconhecido: " + modo);
+        };
+    }
 }
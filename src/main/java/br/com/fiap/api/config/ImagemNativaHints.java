@@ -0,0 +1,56 @@
+package br.com.fiap.api.config;
+
+import br.com.fiap.api.model.Mensagem;
+import br.com.fiap.api.model.MensagemAlteracao;
+import br.com.fiap.api.model.MensagemResumo;
+import br.com.fiap.api.model.MensagemVersao;
+import br.com.fiap.api.model.PaginaCursor;
+import br.com.fiap.api.model.PaginaFatia;
+import br.com.fiap.api.model.ResultadoLote;
+import br.com.fiap.api.repository.MensagemRepository;
+import org.springframework.aop.SpringProxy;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.core.DecoratingProxy;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.repository.Repository;
+import org.springframework.transaction.interceptor.TransactionalProxy;
+
+/**
+ * Reflexão, proxies e recursos que o Spring AOT não deduz sozinho e que a imagem nativa
+ * ({@code mvn -P native native:compile}) precisa em tempo de execução.
+ * <p>
+ * Os controllers devolvem {@code ResponseEntity<?>}, então os tipos serializados pelo Jackson são
+ * registrados aqui, com os getters e setters gerados pelo Lombok. A entidade {@link Mensagem} é lida
+ * por campo pelo Hibernate e validada pelo Hibernate Validator, e {@link MensagemVersao} e
+ * {@link MensagemResumo} são instanciadas pelo construtor nas consultas {@code SELECT new}.
+ */
+public class ImagemNativaHints implements RuntimeHintsRegistrar {
+
+    private final BindingReflectionHintsRegistrar binding = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        binding.registerReflectionHints(hints.reflection(), Mensagem.class, MensagemAlteracao.class,
+                MensagemVersao.class, MensagemResumo.class, PaginaCursor.class, PaginaFatia.class,
+                ResultadoLote.class, ResultadoLote.Erro.class, PageImpl.class);
+
+        hints.reflection().registerType(Mensagem.class, MemberCategory.DECLARED_FIELDS,
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+        hints.reflection().registerType(MensagemVersao.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        hints.reflection().registerType(MensagemResumo.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+
+        // mesmas interfaces, na mesma ordem, do proxy criado pelo Spring Data para o repositório
+        hints.proxies().registerJdkProxy(TypeReference.of(MensagemRepository.class),
+                TypeReference.of(Repository.class), TypeReference.of(TransactionalProxy.class),
+                TypeReference.of(SpringProxy.class), TypeReference.of(Advised.class),
+                TypeReference.of(DecoratingProxy.class));
+
+        // fora dos padrões schema*.sql e data*.sql registrados pelo Spring Boot
+        hints.resources().registerPattern("db/*.sql");
+    }
+}
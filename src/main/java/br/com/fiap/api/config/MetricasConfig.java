@@ -0,0 +1,97 @@
+package br.com.fiap.api.config;
+
+import br.com.fiap.api.cache.MensagemCache;
+import br.com.fiap.api.cache.TimelineCache;
+import br.com.fiap.api.ingestao.IngestaoAssincrona;
+import br.com.fiap.api.ranking.RankingGostei;
+import br.com.fiap.api.service.MensagemContador;
+import br.com.fiap.api.service.MensagemGosteiAcumulador;
+import br.com.fiap.api.stream.TransmissorMensagens;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Métricas dos componentes da aplicação que não são cobertos pela instrumentação automática do
+ * Spring Boot (requisições HTTP, repositórios, HikariCP, Hibernate e JVM).
+ */
+@Configuration
+public class MetricasConfig {
+
+    @Bean
+    public MeterBinder mensagemCacheMetricas(MensagemCache mensagemCache, TimelineCache timelineCache) {
+        return registry -> {
+            FunctionCounter.builder("mensagem.cache.gets", mensagemCache, cache -> cache.estatisticas().hitCount())
+                    .tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("mensagem.cache.gets", mensagemCache, cache -> cache.estatisticas().missCount())
+                    .tag("result", "miss")
+                    .register(registry);
+            FunctionCounter.builder("mensagem.cache.evictions", mensagemCache, cache -> cache.estatisticas().evictionCount())
+                    .register(registry);
+            Gauge.builder("mensagem.cache.size", mensagemCache, MensagemCache::tamanho)
+                    .register(registry);
+            Gauge.builder("mensagem.timeline.cache.size", timelineCache, TimelineCache::tamanho)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder mensagemMetricas(MensagemContador mensagemContador, MensagemGosteiAcumulador gosteiAcumulador) {
+        return registry -> {
+            Gauge.builder("mensagem.total", mensagemContador, MensagemContador::total)
+                    .register(registry);
+            Gauge.builder("mensagem.gostei.pendentes", gosteiAcumulador, MensagemGosteiAcumulador::mensagensPendentes)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder rankingMetricas(RankingGostei rankingGostei) {
+        return registry -> {
+            Gauge.builder("mensagem.ranking.tamanho", rankingGostei, RankingGostei::tamanho)
+                    .register(registry);
+            FunctionCounter.builder("mensagem.ranking.reconstrucoes", rankingGostei, RankingGostei::reconstrucoes)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder ingestaoMetricas(IngestaoAssincrona ingestaoAssincrona) {
+        return registry -> {
+            Gauge.builder("mensagem.ingestao.fila", ingestaoAssincrona, IngestaoAssincrona::tamanhoFila)
+                    .register(registry);
+            FunctionCounter.builder("mensagem.ingestao.recusadas", ingestaoAssincrona, IngestaoAssincrona::recusadas)
+                    .register(registry);
+            FunctionCounter.builder("mensagem.ingestao.descartadas", ingestaoAssincrona,
+                            IngestaoAssincrona::descartadas)
+                    .description("Mensagens aceitas e depois recusadas pelo banco na gravação")
+                    .register(registry);
+            // mensagens gravadas / lotes gravados = tamanho médio do lote
+            FunctionCounter.builder("mensagem.ingestao.lotes", ingestaoAssincrona, IngestaoAssincrona::lotesGravados)
+                    .register(registry);
+            ingestaoAssincrona.definirTempoAteGravacao(Timer.builder("mensagem.ingestao.gravacao")
+                    .description("Tempo entre o aceite da mensagem e a confirmação da gravação")
+                    .publishPercentileHistogram()
+                    .register(registry));
+        };
+    }
+
+    @Bean
+    public MeterBinder streamMetricas(TransmissorMensagens transmissorMensagens) {
+        return registry -> {
+            Gauge.builder("mensagem.stream.assinantes", transmissorMensagens, TransmissorMensagens::assinantes)
+                    .register(registry);
+            FunctionCounter.builder("mensagem.stream.eventos", transmissorMensagens,
+                            TransmissorMensagens::eventosPublicados)
+                    .register(registry);
+            FunctionCounter.builder("mensagem.stream.descartados", transmissorMensagens,
+                            TransmissorMensagens::assinantesDescartados)
+                    .description("Assinantes encerrados por não acompanharem o ritmo dos eventos")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,51 @@
+package br.com.fiap.api.config;
+
+import br.com.fiap.api.cache.MensagemCache;
+import br.com.fiap.api.cache.TimelineCache;
+import br.com.fiap.api.particionamento.ParticionamentoMensagem;
+import br.com.fiap.api.ranking.RankingGostei;
+import br.com.fiap.api.service.MensagemContador;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Clock;
+
+/**
+ * Particionamento mensal e retenção da tabela {@code mensagem}, habilitado por
+ * {@code mensagem.particionamento.habilitado} (apenas PostgreSQL, perfil "particionado").
+ */
+@Configuration
+@ConditionalOnProperty(name = "mensagem.particionamento.habilitado", havingValue = "true")
+public class ParticionamentoConfig {
+
+    @Bean
+    public ParticionamentoMensagem particionamentoMensagem(
+            JdbcTemplate jdbcTemplate,
+            MensagemContador mensagemContador,
+            RankingGostei rankingGostei,
+            MensagemCache mensagemCache,
+            TimelineCache timelineCache,
+            @Value("${mensagem.particionamento.meses-antecipados:3}") int mesesAntecipados,
+            @Value("${mensagem.particionamento.retencao-meses:0}") int retencaoMeses) {
+        return new ParticionamentoMensagem(jdbcTemplate, Clock.systemDefaultZone(), mesesAntecipados, retencaoMeses,
+                () -> {
+                    mensagemContador.recalcular();
+                    rankingGostei.solicitarReconstrucao();
+                    mensagemCache.invalidarTodos();
+                    timelineCache.invalidarTodas();
+                });
+    }
+
+    @Bean
+    public MeterBinder particionamentoMetricas(ParticionamentoMensagem particionamentoMensagem) {
+        return registry -> FunctionCounter.builder("mensagem.particionamento.removidas", particionamentoMensagem,
+                        ParticionamentoMensagem::particoesRemovidas)
+                .description("Partições removidas pela política de retenção")
+                .register(registry);
+    }
+}
@@ -0,0 +1,100 @@
+package br.com.fiap.api.config;
+
+import br.com.fiap.api.datasource.LeituraPropriaFilter;
+import br.com.fiap.api.datasource.RoteamentoDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Leituras em réplicas, habilitado por {@code mensagem.replicas.habilitado}. O primário continua
+ * configurado em {@code spring.datasource.*}; cada réplica usa as mesmas credenciais e um pool
+ * próprio, com {@code mensagem.replicas.tamanho-pool} conexões.
+ */
+@Configuration
+@ConditionalOnProperty(name = "mensagem.replicas.habilitado", havingValue = "true")
+public class ReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primarioDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public RoteamentoDataSource roteamentoDataSource(
+            HikariDataSource primarioDataSource,
+            DataSourceProperties properties,
+            @Value("${mensagem.replicas.urls}") List<String> urls,
+            @Value("${mensagem.replicas.tamanho-pool:20}") int tamanhoPool,
+            @Value("${mensagem.replicas.timeout-conexao:1s}") Duration timeoutConexao,
+            @Value("${mensagem.replicas.intervalo-verificacao:5s}") Duration intervaloVerificacao,
+            @Value("${mensagem.replicas.consulta-atraso:}") String consultaAtraso,
+            @Value("${mensagem.replicas.atraso-maximo:5s}") Duration atrasoMaximo) {
+        var replicas = new ArrayList<DataSource>(urls.size());
+        for (var url : urls) {
+            var replica = properties.initializeDataSourceBuilder().url(url).type(HikariDataSource.class).build();
+            replica.setPoolName("replica-" + replicas.size());
+            replica.setMaximumPoolSize(tamanhoPool);
+            // réplica lenta para entregar conexão cai para o primário em vez de segurar a requisição
+            replica.setConnectionTimeout(timeoutConexao.toMillis());
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        return new RoteamentoDataSource(primarioDataSource, replicas, intervaloVerificacao, consultaAtraso,
+                atrasoMaximo);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(RoteamentoDataSource roteamentoDataSource) {
+        return new LazyConnectionDataSourceProxy(roteamentoDataSource);
+    }
+
+    @Bean
+    public FilterRegistrationBean<LeituraPropriaFilter> leituraPropriaFilter(
+            @Value("${mensagem.replicas.janela-leitura-propria:2s}") Duration janela) {
+        var registro = new FilterRegistrationBean<>(new LeituraPropriaFilter(janela));
+        registro.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registro;
+    }
+
+    @Bean
+    public MeterBinder replicaMetricas(RoteamentoDataSource roteamentoDataSource) {
+        return registry -> {
+            FunctionCounter.builder("mensagem.datasource.conexoes", roteamentoDataSource,
+                            RoteamentoDataSource::conexoesPrimario)
+                    .tag("destino", "primario")
+                    .register(registry);
+            FunctionCounter.builder("mensagem.datasource.conexoes", roteamentoDataSource,
+                            RoteamentoDataSource::conexoesReplica)
+                    .tag("destino", "replica")
+                    .register(registry);
+            FunctionCounter.builder("mensagem.datasource.falhas.replica", roteamentoDataSource,
+                            RoteamentoDataSource::falhasReplica)
+                    .register(registry);
+            for (var replica : roteamentoDataSource.replicas()) {
+                Gauge.builder("mensagem.datasource.replica.disponivel", roteamentoDataSource,
+                                roteamento -> roteamento.isDisponivel(replica) ? 1 : 0)
+                        .tag("replica", replica)
+                        .register(registry);
+            }
+        };
+    }
+}
@@ -0,0 +1,36 @@
+package br.com.fiap.api.config;
+
+import br.com.fiap.api.controller.CamposResponseBodyAdvice;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Conversores CBOR e Smile para a negociação de conteúdo. São criados a partir do
+ * {@link Jackson2ObjectMapperBuilder} do Spring Boot, com os mesmos módulos e configurações
+ * {@code spring.jackson.*} do JSON, para que os três formatos tragam os mesmos campos.
+ */
+@Configuration
+public class SerializacaoConfig {
+
+    // filtro das respostas parciais (?fields=) nos três formatos e no ObjectMapper do stream e da exportação
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer camposObjectMapperCustomizer() {
+        return CamposResponseBodyAdvice::configurar;
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
@@ -0,0 +1,76 @@
+package br.com.fiap.api.controller;
+
+import br.com.fiap.api.model.Mensagem;
+import br.com.fiap.api.model.MensagemResumo;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+/**
+ * Respostas parciais: {@code GET ...?fields=usuario,gostei} serializa apenas os campos informados de
+ * cada mensagem ({@link Mensagem} ou {@link MensagemResumo}), em JSON, CBOR ou Smile. O {@code id} é
+ * sempre incluído e os envelopes das páginas ({@code content}, {@code nextCursor}...) não são filtrados.
+ * <p>
+ * O filtro só é aplicado pelos ObjectMappers configurados por {@link #configurar}; nos demais as
+ * mensagens são serializadas por completo.
+ */
+@ControllerAdvice(assignableTypes = MensagemController.class)
+public class CamposResponseBodyAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    static final String PARAMETRO = "fields";
+
+    private static final String FILTRO = "campos";
+
+    // sem "fields" nenhum filtro é registrado e as mensagens saem completas
+    private static final SimpleFilterProvider SEM_FILTRO = new SimpleFilterProvider().setFailOnUnknownId(false);
+
+    public static void configurar(Jackson2ObjectMapperBuilder builder) {
+        builder.mixIn(Mensagem.class, CamposFiltraveis.class)
+                .mixIn(MensagemResumo.class, CamposFiltraveis.class)
+                .filters(SEM_FILTRO);
+    }
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        if (!HttpMethod.GET.equals(request.getMethod())
+                || !(request instanceof ServletServerHttpRequest servletRequest)) {
+            return;
+        }
+        var campos = servletRequest.getServletRequest().getParameter(PARAMETRO);
+        if (campos == null || campos.isBlank()) {
+            return;
+        }
+        bodyContainer.setFilters(filtro(campos));
+    }
+
+    /**
+     * Filtro que mantém o {@code id} e os campos da lista separada por vírgulas, para uso com
+     * {@code ObjectMapper#writer(FilterProvider)} fora das requisições.
+     */
+    public static FilterProvider filtro(String campos) {
+        var incluidos = new HashSet<String>();
+        incluidos.add("id");
+        Arrays.stream(campos.split(",")).map(String::strip).filter(campo -> !campo.isEmpty()).forEach(incluidos::add);
+        return new SimpleFilterProvider().addFilter(FILTRO, SimpleBeanPropertyFilter.filterOutAllExcept(incluidos));
+    }
+
+    @JsonFilter(FILTRO)
+    private interface CamposFiltraveis {
+    }
+}
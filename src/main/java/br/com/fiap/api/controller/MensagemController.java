@@ -1,64 +1,340 @@
 package br.com.fiap.api.controller;
 
+import br.com.fiap.api.exception.AssinaturaRecusadaException;
+import br.com.fiap.api.exception.IngestaoSaturadaException;
+import br.com.fiap.api.exception.MensagemConflitoException;
 import br.com.fiap.api.exception.MensagemNotFoundException;
+import br.com.fiap.api.exception.MensagemPendenteException;
 import br.com.fiap.api.model.Mensagem;
+import br.com.fiap.api.model.MensagemAlteracao;
+import br.com.fiap.api.model.MensagemCursor;
+import br.com.fiap.api.model.MensagemVersao;
+import br.com.fiap.api.model.PaginaFatia;
 import br.com.fiap.api.service.MensagemService;
+import br.com.fiap.api.stream.TransmissorMensagens;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/mensagens")
 @RequiredArgsConstructor
 public class MensagemController {
 
+    static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    // além de JSON, as respostas e os corpos aceitos podem ser CBOR ou Smile, conforme Accept e Content-Type
+    static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    private static final MediaType APPLICATION_SMILE = MediaType.parseMediaType(APPLICATION_SMILE_VALUE);
+
+    private static final List<MediaType> FORMATOS =
+            List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, APPLICATION_SMILE);
+
+    private static final int TAMANHO_BUFFER_GZIP = 64 * 1024;
+
+    private static final int TAMANHO_MAXIMO_BUSCA = 100;
+
+    private static final int TAMANHO_MAXIMO_PAGINA = 100;
+
+    private static final int TAMANHO_MAXIMO_RANKING = 100;
+
+    // tamanho da coluna conteudo
+    private static final int TAMANHO_MAXIMO_PREVIA = 255;
+
     private final MensagemService mensagemService;
 
+    private final ObjectMapper objectMapper;
+
+    private final TransmissorMensagens transmissorMensagens;
+
     @PostMapping(
-            consumes = MediaType.APPLICATION_JSON_VALUE,
-            produces = MediaType.APPLICATION_JSON_VALUE
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE},
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE}
+    )
+    public ResponseEntity<?> registrarMensagem(@RequestBody Mensagem mensagem) {
+        try {
+            var mensagemRegistrada = mensagemService.registrarMensagem(mensagem);
+            // no registro assíncrono a mensagem foi apenas aceita; a gravação acontece em segundo plano
+            var status = mensagemService.registroAssincrono() ? HttpStatus.ACCEPTED : HttpStatus.CREATED;
+            return new ResponseEntity<>(mensagemRegistrada, status);
+        } catch (IllegalArgumentException illegalArgumentException) {
+            return new ResponseEntity<>(illegalArgumentException.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (IngestaoSaturadaException ingestaoSaturadaException) {
+            return ResponseEntity
+                    .status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(ingestaoSaturadaException.getMessage());
+        }
+    }
+
+    @PostMapping(value = "/lote",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE},
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE}
+    )
+    public ResponseEntity<?> registrarMensagens(@RequestBody List<Mensagem> mensagens) {
+        try {
+            var resultado = mensagemService.registrarMensagens(mensagens);
+            var status = resultado.registradas().isEmpty() ? HttpStatus.BAD_REQUEST : HttpStatus.CREATED;
+            return new ResponseEntity<>(resultado, status);
+        } catch (IllegalArgumentException illegalArgumentException) {
+            return new ResponseEntity<>(illegalArgumentException.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @GetMapping(value = "/export",
+            produces = APPLICATION_NDJSON_VALUE
+    )
+    public ResponseEntity<StreamingResponseBody> exportarMensagens(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        var gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        StreamingResponseBody corpo = saida -> {
+            if (gzip) {
+                var saidaCompactada = new GZIPOutputStream(saida, TAMANHO_BUFFER_GZIP);
+                escreverNdjson(saidaCompactada);
+                saidaCompactada.finish();
+            } else {
+                escreverNdjson(saida);
+            }
+        };
+
+        var resposta = ResponseEntity.ok().contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE));
+        if (gzip) {
+            resposta.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return resposta.body(corpo);
+    }
+
+    @GetMapping(value = "/stream",
+            produces = MediaType.TEXT_EVENT_STREAM_VALUE
+    )
+    public ResponseEntity<SseEmitter> acompanharMensagens(
+            @RequestHeader(value = "Last-Event-ID", required = false) String ultimoEventoId) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(transmissorMensagens.assinar(ultimoEventoId));
+    }
+
+    // o emitter só é tratado como resposta assíncrona quando o tipo declarado é ResponseEntity<SseEmitter>,
+    // por isso a recusa da assinatura sai por aqui e não por um ResponseEntity<?> no próprio endpoint
+    @ExceptionHandler(AssinaturaRecusadaException.class)
+    public ResponseEntity<String> recusarAssinatura(AssinaturaRecusadaException assinaturaRecusadaException) {
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(assinaturaRecusadaException.getMessage());
+    }
+
+    @GetMapping(value = "/busca",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE}
+    )
+    public ResponseEntity<?> buscarMensagensPorConteudo(
+            @RequestParam(defaultValue = "") String q,
+            @RequestParam(defaultValue = "10") int size) {
+        if (q.isBlank()) {
+            return new ResponseEntity<>("Consulta inválida", HttpStatus.BAD_REQUEST);
+        }
+        if (size < 1 || size > TAMANHO_MAXIMO_BUSCA) {
+            return new ResponseEntity<>("Tamanho de página inválido", HttpStatus.BAD_REQUEST);
+        }
+
+        var mensagens = mensagemService.buscarMensagens(q, size);
+        return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(mensagens);
+    }
+
+    @GetMapping(value = "/top",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE}
     )
-    public ResponseEntity<Mensagem> registrarMensagem(@RequestBody Mensagem mensagem) {
-        var mensagemRegistrada = mensagemService.registrarMensagem(mensagem);
-        return new ResponseEntity<>(mensagemRegistrada, HttpStatus.CREATED);
+    public ResponseEntity<?> listarMaisCurtidas(@RequestParam(defaultValue = "10") int n) {
+        if (n < 1 || n > TAMANHO_MAXIMO_RANKING) {
+            return new ResponseEntity<>("Tamanho do ranking inválido", HttpStatus.BAD_REQUEST);
+        }
+
+        var mensagens = mensagemService.listarMaisCurtidas(n);
+        return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(mensagens);
     }
 
     @GetMapping(value = "/{id}",
-            produces = MediaType.APPLICATION_JSON_VALUE
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE}
     )
-    public ResponseEntity<?> buscarMensagem(@PathVariable String id) {
+    public ResponseEntity<?> buscarMensagem(@PathVariable String id, WebRequest webRequest) {
         var uuid = UUID.fromString(id);
 
         try {
+            // com If-None-Match, a versão basta para responder 304 sem carregar nem serializar a mensagem
+            if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                    && webRequest.checkNotModified(etag(mensagemService.etagMensagem(uuid), webRequest))) {
+                return naoModificado();
+            }
             var mensagem = mensagemService.buscarMensagem(uuid);
-            return new ResponseEntity<>(mensagem, HttpStatus.OK);
+            return ResponseEntity.ok()
+                    .eTag(etag(MensagemVersao.de(mensagem).etag(), webRequest))
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .body(mensagem);
         } catch (MensagemNotFoundException mensagemNotFoundException) {
             return new ResponseEntity<>("ID Inválido", HttpStatus.BAD_REQUEST);
         }
     }
 
+    @PostMapping(value = "/{id}/gostei",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE}
+    )
+    public ResponseEntity<?> registrarGostei(@PathVariable String id) {
+        var uuid = UUID.fromString(id);
+
+        try {
+            var mensagem = mensagemService.registrarGostei(uuid);
+            return new ResponseEntity<>(mensagem, HttpStatus.OK);
+        } catch (MensagemNotFoundException mensagemNotFoundException) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(mensagemNotFoundException.getMessage());
+        }
+    }
+
     @GetMapping(
-            produces = MediaType.APPLICATION_JSON_VALUE
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE}
     )
     public ResponseEntity<Page<Mensagem>> listarMensagens(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            WebRequest webRequest) {
         Pageable pageable = PageRequest.of(page, size);
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && webRequest.checkNotModified(etag(mensagemService.etagMensagens(pageable), webRequest))) {
+            return naoModificado();
+        }
         Page<Mensagem> mensagens = mensagemService.listarMensagens(pageable);
-        return new ResponseEntity<>(mensagens, HttpStatus.OK);
+        return ResponseEntity.ok()
+                .eTag(etag(MensagemVersao.etag(mensagens.map(MensagemVersao::de)), webRequest))
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(mensagens);
+    }
+
+    @GetMapping(
+            params = "modo=slice",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE}
+    )
+    public ResponseEntity<?> listarFatiaMensagens(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean total) {
+        // valores fora do intervalo fariam o PageRequest lançar exceção e a resposta seria 500
+        if (page < 0) {
+            return new ResponseEntity<>("Página inválida", HttpStatus.BAD_REQUEST);
+        }
+        if (size < 1 || size > TAMANHO_MAXIMO_PAGINA) {
+            return new ResponseEntity<>("Tamanho de página inválido", HttpStatus.BAD_REQUEST);
+        }
+        Pageable pageable = PageRequest.of(page, size);
+        var mensagens = mensagemService.listarFatiaMensagens(pageable);
+        var totalElements = total ? mensagemService.totalMensagens() : null;
+        var fatia = new PaginaFatia<>(mensagens.getContent(), mensagens.getNumber(), mensagens.getSize(),
+                mensagens.hasNext(), totalElements);
+        return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(fatia);
+    }
+
+    @GetMapping(
+            params = "modo=cursor",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE}
+    )
+    public ResponseEntity<?> listarMensagensPorCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        if (size < 1 || size > TAMANHO_MAXIMO_PAGINA) {
+            return new ResponseEntity<>("Tamanho de página inválido", HttpStatus.BAD_REQUEST);
+        }
+
+        MensagemCursor posicao = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                posicao = MensagemCursor.decodificar(cursor);
+            } catch (IllegalArgumentException illegalArgumentException) {
+                return new ResponseEntity<>(illegalArgumentException.getMessage(), HttpStatus.BAD_REQUEST);
+            }
+        }
+
+        var mensagens = mensagemService.listarMensagens(posicao, size);
+        return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(mensagens);
     }
 
+    @GetMapping(
+            params = "modo=resumo",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE}
+    )
+    public ResponseEntity<?> listarResumos(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "100") int previa) {
+        if (size < 1 || size > TAMANHO_MAXIMO_PAGINA) {
+            return new ResponseEntity<>("Tamanho de página inválido", HttpStatus.BAD_REQUEST);
+        }
+        if (previa < 0 || previa > TAMANHO_MAXIMO_PREVIA) {
+            return new ResponseEntity<>("Tamanho da prévia inválido", HttpStatus.BAD_REQUEST);
+        }
+
+        MensagemCursor posicao = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                posicao = MensagemCursor.decodificar(cursor);
+            } catch (IllegalArgumentException illegalArgumentException) {
+                return new ResponseEntity<>(illegalArgumentException.getMessage(), HttpStatus.BAD_REQUEST);
+            }
+        }
+
+        var resumos = mensagemService.listarResumos(posicao, size, previa);
+        return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(resumos);
+    }
+
+
+    @GetMapping(value = "/usuario/{usuario}",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE}
+    )
+    public ResponseEntity<?> listarMensagensPorUsuario(
+            @PathVariable String usuario,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        if (size < 1 || size > TAMANHO_MAXIMO_PAGINA) {
+            return new ResponseEntity<>("Tamanho de página inválido", HttpStatus.BAD_REQUEST);
+        }
+
+        MensagemCursor posicao = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                posicao = MensagemCursor.decodificar(cursor);
+            } catch (IllegalArgumentException illegalArgumentException) {
+                return new ResponseEntity<>(illegalArgumentException.getMessage(), HttpStatus.BAD_REQUEST);
+            }
+        }
+
+        var mensagens = mensagemService.listarMensagensPorUsuario(usuario, posicao, size);
+        return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(mensagens);
+    }
 
     @PutMapping(value = "/{id}",
-            consumes = MediaType.APPLICATION_JSON_VALUE,
-            produces = MediaType.APPLICATION_JSON_VALUE
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE},
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE}
     )
     public ResponseEntity<?> alterarMensagem(@PathVariable String id, @RequestBody Mensagem mensagem) {
         var uuid = UUID.fromString(id);
@@ -66,10 +342,67 @@ public class MensagemController {
         try {
             var mensagemAlterada = mensagemService.alterarMensagem(uuid, mensagem);
             return new ResponseEntity<>(mensagemAlterada, HttpStatus.ACCEPTED);
-        } catch (MensagemNotFoundException mensagemNotFoundException) {
+        } catch (MensagemPendenteException mensagemPendenteException) {
+            return mensagemPendente(mensagemPendenteException);
+        } catch (IllegalArgumentException | MensagemNotFoundException exception) {
             return ResponseEntity
                     .status(HttpStatus.BAD_REQUEST)
-                    .body(mensagemNotFoundException.getMessage());
+                    .body(exception.getMessage());
+        }
+    }
+
+    @PatchMapping(value = "/{id}",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE},
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE}
+    )
+    public ResponseEntity<?> alterarMensagemParcialmente(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestBody MensagemAlteracao alteracao) {
+        var uuid = UUID.fromString(id);
+        if (ifMatch == null) {
+            return ResponseEntity
+                    .status(HttpStatus.PRECONDITION_REQUIRED)
+                    .body("Informe a versão da mensagem no cabeçalho If-Match");
+        }
+        var qualquerVersao = "*".equals(ifMatch.trim());
+        var versoes = MensagemVersao.versoesDoIfMatch(ifMatch);
+        if (!qualquerVersao && versoes.isEmpty()) {
+            return ResponseEntity
+                    .status(HttpStatus.PRECONDITION_FAILED)
+                    .body("Versão inválida");
+        }
+
+        try {
+            long versao;
+            if (versoes.size() == 1) {
+                versao = versoes.iterator().next();
+            } else {
+                // com "*" ou uma lista, a alteração fica condicionada à versão atual, se ela for aceita
+                var etagAtual = mensagemService.etagMensagem(uuid);
+                versao = MensagemVersao.versaoDoEtag(etagAtual).orElseThrow();
+                if (!qualquerVersao && !versoes.contains(versao)) {
+                    throw new MensagemConflitoException("A mensagem foi alterada por outra requisição", etagAtual);
+                }
+            }
+            var mensagemAlterada = mensagemService.alterarMensagem(uuid, alteracao, versao);
+            return ResponseEntity.ok()
+                    .eTag(etag(MensagemVersao.de(mensagemAlterada).etag(), accept))
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .body(mensagemAlterada);
+        } catch (MensagemConflitoException mensagemConflitoException) {
+            // o ETag atual permite ao cliente repetir a alteração sem uma nova leitura
+            return ResponseEntity
+                    .status(HttpStatus.PRECONDITION_FAILED)
+                    .eTag(etag(mensagemConflitoException.getEtag(), accept))
+                    .body(mensagemConflitoException.getMessage());
+        } catch (MensagemPendenteException mensagemPendenteException) {
+            return mensagemPendente(mensagemPendenteException);
+        } catch (IllegalArgumentException | MensagemNotFoundException exception) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(exception.getMessage());
         }
     }
 
@@ -80,10 +413,80 @@ public class MensagemController {
         try {
             mensagemService.removerMensagem(uuid);
             return new ResponseEntity<>("mensagem removida",HttpStatus.OK);
+        } catch (MensagemPendenteException mensagemPendenteException) {
+            return mensagemPendente(mensagemPendenteException);
         } catch (MensagemNotFoundException mensagemNotFoundException) {
             return ResponseEntity
                     .status(HttpStatus.BAD_REQUEST)
                     .body(mensagemNotFoundException.getMessage());
         }
     }
+
+    // aceita pela ingestão assíncrona e ainda não gravada: a gravação costuma levar milissegundos
+    private static ResponseEntity<String> mensagemPendente(MensagemPendenteException mensagemPendenteException) {
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(mensagemPendenteException.getMessage());
+    }
+
+    private static String etag(String valor, WebRequest webRequest) {
+        return etag(valor, webRequest.getHeader(HttpHeaders.ACCEPT));
+    }
+
+    // ETag forte por representação: em CBOR e Smile os bytes diferem do JSON, por isso o formato entra no ETag
+    private static String etag(String valor, String accept) {
+        var formato = formatoNegociado(accept);
+        if (MediaType.APPLICATION_CBOR.equalsTypeAndSubtype(formato)) {
+            return valor + "-cbor";
+        }
+        if (APPLICATION_SMILE.equalsTypeAndSubtype(formato)) {
+            return valor + "-smile";
+        }
+        return valor;
+    }
+
+    // mesma escolha da negociação de conteúdo do Spring entre os formatos produzidos: tipos compatíveis
+    // com o Accept ordenados por qualidade e especificidade, JSON quando o Accept não restringe
+    static MediaType formatoNegociado(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        try {
+            var compativeis = new ArrayList<MediaType>();
+            for (var aceito : MediaType.parseMediaTypes(accept)) {
+                for (var formato : FORMATOS) {
+                    if (aceito.isCompatibleWith(formato)) {
+                        compativeis.add(formato.copyQualityValue(aceito));
+                    }
+                }
+            }
+            MimeTypeUtils.sortBySpecificity(compativeis);
+            return compativeis.isEmpty() ? MediaType.APPLICATION_JSON : compativeis.get(0);
+        } catch (IllegalArgumentException e) {
+            return MediaType.APPLICATION_JSON;
+        }
+    }
+
+    // status e ETag já definidos por checkNotModified; o 304 repete o Vary da resposta completa
+    private static <T> ResponseEntity<T> naoModificado() {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).varyBy(HttpHeaders.ACCEPT).build();
+    }
+
+    private void escreverNdjson(OutputStream saida) throws IOException {
+        try (var escritor = objectMapper.writerFor(Mensagem.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n")
+                .writeValues(saida)) {
+            mensagemService.exportarMensagens(mensagem -> {
+                try {
+                    escritor.write(mensagem);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        saida.write('\n');
+        saida.flush();
+    }
 }
@@ -0,0 +1,78 @@
+package br.com.fiap.api.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Mantém no primário as leituras de quem acabou de escrever.
+ * <p>
+ * Requisições de escrita leem do primário do início ao fim, já que a mensagem recém-gravada pode
+ * ainda não ter chegado à réplica, e recebem um cookie com o instante da escrita. Enquanto ele
+ * estiver dentro de {@code janela}, as requisições seguintes do mesmo cliente também leem do
+ * primário. O estado fica no cliente, então vale para qualquer instância da aplicação.
+ */
+public class LeituraPropriaFilter extends OncePerRequestFilter {
+
+    static final String COOKIE_ESCRITA = "mensagem-escrita";
+
+    private static final Set<String> METODOS_ESCRITA = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+    private final Duration janela;
+
+    private final Clock clock;
+
+    public LeituraPropriaFilter(Duration janela) {
+        this(janela, Clock.systemUTC());
+    }
+
+    LeituraPropriaFilter(Duration janela, Clock clock) {
+        this.janela = janela;
+        this.clock = clock;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        var escrita = METODOS_ESCRITA.contains(request.getMethod());
+        if (escrita && !janela.isZero()) {
+            // antes da cadeia, pois o corpo pode confirmar a resposta antes de voltar ao filtro
+            var cookie = new Cookie(COOKIE_ESCRITA, Long.toString(clock.millis()));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, janela.toSeconds()));
+            response.addCookie(cookie);
+        }
+        RoteamentoDataSource.definirLeituraNoPrimario(escrita || escreveuRecentemente(request));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RoteamentoDataSource.definirLeituraNoPrimario(false);
+        }
+    }
+
+    private boolean escreveuRecentemente(HttpServletRequest request) {
+        if (janela.isZero() || request.getCookies() == null) {
+            return false;
+        }
+        for (var cookie : request.getCookies()) {
+            if (COOKIE_ESCRITA.equals(cookie.getName())) {
+                try {
+                    var decorrido = clock.millis() - Long.parseLong(cookie.getValue());
+                    return decorrido >= 0 && decorrido < janela.toMillis();
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
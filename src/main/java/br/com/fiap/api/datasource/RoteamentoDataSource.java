@@ -0,0 +1,234 @@
+package br.com.fiap.api.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * DataSource que envia as transações somente leitura ({@code @Transactional(readOnly = true)},
+ * incluindo as consultas dos repositórios do Spring Data) às réplicas e todo o resto ao primário.
+ * <p>
+ * A escolha acontece quando a conexão é de fato obtida, por isso este DataSource deve ficar atrás de
+ * um {@link LazyConnectionDataSourceProxy}: a conexão só é pedida no primeiro comando, quando o
+ * Spring já marcou a transação como somente leitura. As réplicas são usadas em rodízio. Uma réplica
+ * que falha ao fornecer conexão, não responde à verificação periódica ou está atrasada além do
+ * limite sai do rodízio até voltar a responder, e a leitura segue no primário.
+ * <p>
+ * A thread que chamou {@link #definirLeituraNoPrimario(boolean)} lê sempre do primário, o que
+ * garante ler as próprias escritas enquanto a réplica não as recebeu, e {@link #lerNoPrimario(Supplier)}
+ * faz o mesmo para as leituras que alimentam os caches.
+ */
+public class RoteamentoDataSource extends AbstractDataSource implements InitializingBean, AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RoteamentoDataSource.class);
+
+    private static final int TIMEOUT_VERIFICACAO_SEGUNDOS = 2;
+
+    private static final ThreadLocal<Boolean> LEITURA_NO_PRIMARIO = new ThreadLocal<>();
+
+    private final DataSource primario;
+
+    private final List<Replica> replicas;
+
+    private final Duration intervaloVerificacao;
+
+    // consulta que devolve o atraso da réplica em milissegundos; nula quando não verificado
+    private final String consultaAtraso;
+
+    private final Duration atrasoMaximo;
+
+    private final AtomicInteger proxima = new AtomicInteger();
+
+    private final LongAdder conexoesPrimario = new LongAdder();
+
+    private final LongAdder conexoesReplica = new LongAdder();
+
+    private final LongAdder falhasReplica = new LongAdder();
+
+    private ScheduledExecutorService verificador;
+
+    public RoteamentoDataSource(DataSource primario, List<DataSource> replicas, Duration intervaloVerificacao,
+                                String consultaAtraso, Duration atrasoMaximo) {
+        this.primario = primario;
+        this.replicas = new ArrayList<>(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            this.replicas.add(new Replica("replica-" + i, replicas.get(i)));
+        }
+        this.intervaloVerificacao = intervaloVerificacao;
+        this.consultaAtraso = consultaAtraso == null || consultaAtraso.isBlank() ? null : consultaAtraso;
+        this.atrasoMaximo = atrasoMaximo;
+    }
+
+    public static void definirLeituraNoPrimario(boolean leituraNoPrimario) {
+        if (leituraNoPrimario) {
+            LEITURA_NO_PRIMARIO.set(Boolean.TRUE);
+        } else {
+            LEITURA_NO_PRIMARIO.remove();
+        }
+    }
+
+    /**
+     * Executa a leitura no primário. Para leituras cujo resultado é guardado em cache: lida de uma
+     * réplica atrasada, a versão anterior a uma invalidação voltaria ao cache até expirar.
+     */
+    public static <T> T lerNoPrimario(Supplier<T> leitura) {
+        if (isLeituraNoPrimario()) {
+            return leitura.get();
+        }
+        definirLeituraNoPrimario(true);
+        try {
+            return leitura.get();
+        } finally {
+            definirLeituraNoPrimario(false);
+        }
+    }
+
+    static boolean isLeituraNoPrimario() {
+        return LEITURA_NO_PRIMARIO.get() != null;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return obterConexao(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return obterConexao(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection obterConexao(Conexao conexao) throws SQLException {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !isLeituraNoPrimario()) {
+            // tenta cada réplica disponível uma vez antes de recorrer ao primário
+            for (int tentativa = 0; tentativa < replicas.size(); tentativa++) {
+                var replica = replicas.get(Math.floorMod(proxima.getAndIncrement(), replicas.size()));
+                if (!replica.disponivel) {
+                    continue;
+                }
+                try {
+                    var obtida = conexao.obter(replica.dataSource);
+                    conexoesReplica.increment();
+                    return obtida;
+                } catch (SQLException e) {
+                    falhasReplica.increment();
+                    marcarIndisponivel(replica, e.getMessage());
+                }
+            }
+        }
+        conexoesPrimario.increment();
+        return conexao.obter(primario);
+    }
+
+    /**
+     * Confere cada réplica: conexão válida e, quando configurado, atraso de replicação dentro do limite.
+     */
+    public void verificarReplicas() {
+        for (var replica : replicas) {
+            try (var conexao = replica.dataSource.getConnection()) {
+                if (!conexao.isValid(TIMEOUT_VERIFICACAO_SEGUNDOS)) {
+                    marcarIndisponivel(replica, "conexão inválida");
+                } else if (consultaAtraso != null && atrasoMs(conexao) > atrasoMaximo.toMillis()) {
+                    marcarIndisponivel(replica, "atraso de replicação acima de " + atrasoMaximo);
+                } else if (!replica.disponivel) {
+                    replica.disponivel = true;
+                    LOGGER.warn("Réplica {} disponível novamente", replica.nome);
+                }
+            } catch (SQLException | RuntimeException e) {
+                marcarIndisponivel(replica, e.getMessage());
+            }
+        }
+    }
+
+    public List<String> replicas() {
+        return replicas.stream().map(replica -> replica.nome).toList();
+    }
+
+    public boolean isDisponivel(String replica) {
+        return replicas.stream().anyMatch(r -> r.nome.equals(replica) && r.disponivel);
+    }
+
+    public long conexoesPrimario() {
+        return conexoesPrimario.sum();
+    }
+
+    public long conexoesReplica() {
+        return conexoesReplica.sum();
+    }
+
+    public long falhasReplica() {
+        return falhasReplica.sum();
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (replicas.isEmpty() || intervaloVerificacao.isZero()) {
+            return;
+        }
+        verificador = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("mensagem-replicas").daemon().factory());
+        verificador.scheduleWithFixedDelay(this::verificarReplicas, intervaloVerificacao.toMillis(),
+                intervaloVerificacao.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (verificador != null) {
+            verificador.shutdownNow();
+        }
+        for (var replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable fechavel) {
+                fechavel.close();
+            }
+        }
+    }
+
+    private long atrasoMs(Connection conexao) throws SQLException {
+        try (var comando = conexao.createStatement();
+             var resultado = comando.executeQuery(consultaAtraso)) {
+            return resultado.next() ? resultado.getLong(1) : 0;
+        }
+    }
+
+    private void marcarIndisponivel(Replica replica, String motivo) {
+        if (replica.disponivel) {
+            replica.disponivel = false;
+            LOGGER.error("Réplica {} retirada do rodízio: {}", replica.nome, motivo);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Conexao {
+
+        Connection obter(DataSource dataSource) throws SQLException;
+    }
+
+    private static final class Replica {
+
+        private final String nome;
+
+        private final DataSource dataSource;
+
+        private volatile boolean disponivel = true;
+
+        private Replica(String nome, DataSource dataSource) {
+            this.nome = nome;
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package br.com.fiap.api.exception;
+
+public class AssinaturaRecusadaException extends RuntimeException {
+    public AssinaturaRecusadaException(String message) {
+      super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package br.com.fiap.api.exception;
+
+public class IngestaoSaturadaException extends RuntimeException {
+    public IngestaoSaturadaException(String message) {
+      super(message);
+    }
+}
@@ -0,0 +1,18 @@
+package br.com.fiap.api.exception;
+
+import lombok.Getter;
+
+/**
+ * A mensagem foi alterada depois da versão informada pelo cliente. O ETag atual acompanha a
+ * exceção para que o cliente possa repetir a alteração sem uma nova leitura.
+ */
+@Getter
+public class MensagemConflitoException extends RuntimeException {
+
+    private final String etag;
+
+    public MensagemConflitoException(String message, String etag) {
+      super(message);
+      this.etag = etag;
+    }
+}
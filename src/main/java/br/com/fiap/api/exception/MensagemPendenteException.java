@@ -0,0 +1,11 @@
+package br.com.fiap.api.exception;
+
+/**
+ * A mensagem foi aceita pela ingestão assíncrona e ainda não foi gravada, por isso não pode ser
+ * alterada nem removida. O cliente pode repetir a requisição em seguida.
+ */
+public class MensagemPendenteException extends RuntimeException {
+    public MensagemPendenteException(String message) {
+      super(message);
+    }
+}
@@ -0,0 +1,58 @@
+package br.com.fiap.api.id;
+
+import org.springframework.util.IdGenerator;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Gera UUIDs versão 7 (RFC 9562): os 48 bits mais significativos guardam o instante em
+ * milissegundos, seguidos de um contador de 12 bits que garante ordem estritamente crescente
+ * dentro do mesmo milissegundo, mesmo com várias threads ou com o relógio voltando no tempo.
+ * <p>
+ * IDs ordenados pelo tempo fazem as inclusões ocuparem sempre o fim do índice da chave primária,
+ * ao contrário do UUID v4, que espalha as inclusões por toda a árvore.
+ */
+public class UuidV7IdGenerator implements IdGenerator {
+
+    private static final int BITS_SEQUENCIA = 12;
+    private static final long MASCARA_SEQUENCIA = (1L << BITS_SEQUENCIA) - 1;
+    private static final long VERSAO = 0x7000L;
+    private static final long MASCARA_ALEATORIO = 0x3FFF_FFFF_FFFF_FFFFL;
+    private static final long VARIANTE = 0x8000_0000_0000_0000L;
+
+    private final LongSupplier relogio;
+
+    // instante em milissegundos deslocado de 12 bits, somado ao contador
+    private final AtomicLong ultimaMarca = new AtomicLong();
+
+    public UuidV7IdGenerator() {
+        this(System::currentTimeMillis);
+    }
+
+    UuidV7IdGenerator(LongSupplier relogio) {
+        this.relogio = relogio;
+    }
+
+    @Override
+    public UUID generateId() {
+        var marca = proximaMarca();
+        var maisSignificativos = (marca >>> BITS_SEQUENCIA) << 16 | VERSAO | (marca & MASCARA_SEQUENCIA);
+        var menosSignificativos = ThreadLocalRandom.current().nextLong() & MASCARA_ALEATORIO | VARIANTE;
+        return new UUID(maisSignificativos, menosSignificativos);
+    }
+
+    /**
+     * Ao esgotar o contador, a marca avança para o milissegundo seguinte em vez de repetir valores.
+     */
+    private long proximaMarca() {
+        var agora = relogio.getAsLong() << BITS_SEQUENCIA;
+        return ultimaMarca.accumulateAndGet(agora, (anterior, atual) -> Math.max(anterior + 1, atual));
+    }
+
+    public static long instante(UUID uuid) {
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+}
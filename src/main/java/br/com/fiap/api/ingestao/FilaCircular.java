@@ -0,0 +1,100 @@
+package br.com.fiap.api.ingestao;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fila circular limitada e sem travas para vários produtores e um único consumidor.
+ * <p>
+ * Cada posição do anel guarda um número de sequência que indica se ela está livre para a volta
+ * atual do produtor ou preenchida para o consumidor. Os produtores disputam apenas um CAS na
+ * cauda; o consumidor avança a cabeça sem nenhuma operação atômica de leitura-escrita.
+ */
+final class FilaCircular<E> {
+
+    private final int capacidade;
+
+    private final int mascara;
+
+    private final AtomicReferenceArray<E> elementos;
+
+    private final AtomicLongArray sequencias;
+
+    private final AtomicLong cauda = new AtomicLong();
+
+    // escrita apenas pelo consumidor; atômica para que tamanho() possa ser lido de outras threads
+    private final AtomicLong cabeca = new AtomicLong();
+
+    FilaCircular(int capacidadeMinima) {
+        if (capacidadeMinima < 1 || capacidadeMinima > 1 << 30) {
+            throw new IllegalArgumentException("Capacidade inválida: " + capacidadeMinima);
+        }
+        // potência de dois, para trocar o resto da divisão por uma máscara, e ao menos duas posições,
+        // para que a sequência de uma posição preenchida nunca coincida com a da volta seguinte
+        this.capacidade = Integer.highestOneBit(Math.max(2, capacidadeMinima) - 1) << 1;
+        this.mascara = capacidade - 1;
+        this.elementos = new AtomicReferenceArray<>(capacidade);
+        this.sequencias = new AtomicLongArray(capacidade);
+        for (int i = 0; i < capacidade; i++) {
+            sequencias.set(i, i);
+        }
+    }
+
+    /**
+     * Insere o elemento, devolvendo {@code false} sem bloquear quando a fila está cheia.
+     */
+    boolean oferecer(E elemento) {
+        var posicao = cauda.get();
+        while (true) {
+            var indice = (int) (posicao & mascara);
+            var diferenca = sequencias.get(indice) - posicao;
+            if (diferenca == 0) {
+                if (cauda.compareAndSet(posicao, posicao + 1)) {
+                    elementos.lazySet(indice, elemento);
+                    // publica o elemento: o consumidor só o lê depois de ver a nova sequência
+                    sequencias.set(indice, posicao + 1);
+                    return true;
+                }
+                posicao = cauda.get();
+            } else if (diferenca < 0) {
+                // a posição ainda guarda um elemento da volta anterior
+                return false;
+            } else {
+                posicao = cauda.get();
+            }
+        }
+    }
+
+    /**
+     * Move até {@code maximo} elementos para {@code destino}, na ordem de inserção. Deve ser chamado
+     * sempre pela mesma thread.
+     */
+    int drenar(List<E> destino, int maximo) {
+        var posicao = cabeca.get();
+        var drenados = 0;
+        while (drenados < maximo) {
+            var indice = (int) (posicao & mascara);
+            if (sequencias.get(indice) != posicao + 1) {
+                break;
+            }
+            destino.add(elementos.get(indice));
+            elementos.lazySet(indice, null);
+            // libera a posição para a próxima volta dos produtores
+            sequencias.set(indice, posicao + capacidade);
+            posicao++;
+            drenados++;
+        }
+        cabeca.set(posicao);
+        return drenados;
+    }
+
+    int tamanho() {
+        return (int) Math.max(0, cauda.get() - cabeca.get());
+    }
+
+    int capacidade() {
+        return capacidade;
+    }
+}
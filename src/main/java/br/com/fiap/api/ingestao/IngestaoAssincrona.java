@@ -0,0 +1,273 @@
+package br.com.fiap.api.ingestao;
+
+import br.com.fiap.api.exception.IngestaoSaturadaException;
+import br.com.fiap.api.model.Mensagem;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.ValidationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Registro de mensagens em segundo plano ("write-behind"), habilitado por
+ * {@code mensagem.ingestao.assincrona}.
+ * <p>
+ * A requisição apenas enfileira a mensagem, já com o ID atribuído, em uma {@link FilaCircular} e
+ * responde sem aguardar o banco. Uma única thread drena a fila e grava as mensagens em lotes, uma
+ * transação por lote. Com a fila cheia a mensagem é recusada com {@link IngestaoSaturadaException}.
+ * Falhas transitórias repetem o lote; se o banco recusar o lote, as mensagens são gravadas uma a uma
+ * e as recusadas são descartadas e contadas em {@link #descartadas()}.
+ * Até a gravação ser confirmada, a mensagem continua disponível em {@link #pendente(UUID)}, o que
+ * permite ler o próprio registro logo após o aceite. No encerramento da aplicação novos registros
+ * são recusados e a fila é drenada por completo antes de o banco ser desconectado.
+ */
+public class IngestaoAssincrona implements SmartLifecycle {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(IngestaoAssincrona.class);
+
+    private static final long ESPERA_OCIOSA_NANOS = Duration.ofMillis(1).toNanos();
+
+    private static final long ESPERA_MAXIMA_NANOS = Duration.ofSeconds(1).toNanos();
+
+    // sem limite durante a execução; no encerramento o banco indisponível não pode travar a parada
+    private static final int TENTATIVAS_NO_ENCERRAMENTO = 5;
+
+    private final boolean habilitada;
+
+    private final int tamanhoLote;
+
+    private final FilaCircular<Registro> fila;
+
+    private final Map<UUID, Mensagem> pendentes = new ConcurrentHashMap<>();
+
+    // produtores entre a verificação de "aceitando" e a inserção na fila
+    private final AtomicInteger produtores = new AtomicInteger();
+
+    private final LongAdder recusadas = new LongAdder();
+
+    private final LongAdder descartadas = new LongAdder();
+
+    private final LongAdder lotesGravados = new LongAdder();
+
+    private final LongAdder mensagensGravadas = new LongAdder();
+
+    // substituído pelo registrado em MetricasConfig; este só evita exigir um registro de métricas
+    private volatile Timer tempoAteGravacao = new SimpleMeterRegistry().timer("mensagem.ingestao.gravacao");
+
+    private volatile Consumer<List<Mensagem>> gravador;
+
+    private volatile boolean aceitando;
+
+    private volatile Thread escritor;
+
+    public IngestaoAssincrona(boolean habilitada, int capacidade, int tamanhoLote) {
+        this.habilitada = habilitada;
+        this.tamanhoLote = tamanhoLote;
+        this.fila = habilitada ? new FilaCircular<>(capacidade) : null;
+    }
+
+    public static IngestaoAssincrona desabilitada() {
+        return new IngestaoAssincrona(false, 0, 0);
+    }
+
+    public boolean isHabilitada() {
+        return habilitada;
+    }
+
+    /**
+     * Define quem grava cada lote. Deve ser chamado antes do início do ciclo de vida.
+     */
+    public void definirGravador(Consumer<List<Mensagem>> gravador) {
+        this.gravador = gravador;
+    }
+
+    public void enfileirar(Mensagem mensagem) {
+        if (!habilitada) {
+            throw new IllegalStateException("Ingestão assíncrona desabilitada");
+        }
+        produtores.incrementAndGet();
+        try {
+            if (!aceitando) {
+                recusadas.increment();
+                throw new IngestaoSaturadaException("Aplicação em encerramento, tente novamente");
+            }
+            // visível para leitura antes de entrar na fila, para que o gravador sempre a encontre ao removê-la
+            pendentes.put(mensagem.getId(), mensagem);
+            if (!fila.oferecer(new Registro(mensagem, System.nanoTime()))) {
+                pendentes.remove(mensagem.getId());
+                recusadas.increment();
+                throw new IngestaoSaturadaException("Fila de registro cheia, tente novamente");
+            }
+        } finally {
+            produtores.decrementAndGet();
+        }
+    }
+
+    public Optional<Mensagem> pendente(UUID id) {
+        return habilitada ? Optional.ofNullable(pendentes.get(id)) : Optional.empty();
+    }
+
+    public int tamanhoFila() {
+        return habilitada ? fila.tamanho() : 0;
+    }
+
+    public long recusadas() {
+        return recusadas.sum();
+    }
+
+    public long descartadas() {
+        return descartadas.sum();
+    }
+
+    public long lotesGravados() {
+        return lotesGravados.sum();
+    }
+
+    public long mensagensGravadas() {
+        return mensagensGravadas.sum();
+    }
+
+    public Timer tempoAteGravacao() {
+        return tempoAteGravacao;
+    }
+
+    /**
+     * Define o {@link Timer} que registra o tempo entre o aceite e a gravação de cada mensagem.
+     * Deve ser chamado antes do início do ciclo de vida.
+     */
+    public void definirTempoAteGravacao(Timer tempoAteGravacao) {
+        this.tempoAteGravacao = tempoAteGravacao;
+    }
+
+    @Override
+    public void start() {
+        if (!habilitada || escritor != null) {
+            return;
+        }
+        if (gravador == null) {
+            throw new IllegalStateException("Gravador da ingestão assíncrona não definido");
+        }
+        aceitando = true;
+        escritor = Thread.ofPlatform().name("mensagem-ingestao").start(this::executar);
+    }
+
+    @Override
+    public void stop() {
+        var thread = escritor;
+        if (thread == null) {
+            return;
+        }
+        aceitando = false;
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        escritor = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return escritor != null;
+    }
+
+    // abaixo da fase do servidor web (Integer.MAX_VALUE - 2048), que por isso para antes e deixa de aceitar
+    // requisições; o pool de conexões só é fechado depois, na destruição dos beans
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE - 4096;
+    }
+
+    private void executar() {
+        var lote = new ArrayList<Registro>(tamanhoLote);
+        while (true) {
+            fila.drenar(lote, tamanhoLote);
+            if (!lote.isEmpty()) {
+                gravar(lote);
+                lote.clear();
+            } else if (!aceitando && produtores.get() == 0 && fila.tamanho() == 0) {
+                return;
+            } else {
+                LockSupport.parkNanos(ESPERA_OCIOSA_NANOS);
+            }
+        }
+    }
+
+    private void gravar(List<Registro> lote) {
+        var mensagens = lote.stream().map(Registro::mensagem).toList();
+        var resultado = gravarComTentativas(mensagens);
+        if (resultado == Resultado.RECUSADO && lote.size() > 1) {
+            // uma mensagem recusada pelo banco não pode travar o lote: cada uma é gravada à parte para isolá-la
+            lote.forEach(registro -> gravar(List.of(registro)));
+            return;
+        }
+
+        if (resultado == Resultado.GRAVADO) {
+            var agora = System.nanoTime();
+            lote.forEach(registro -> tempoAteGravacao.record(agora - registro.aceitoEm(), TimeUnit.NANOSECONDS));
+            mensagensGravadas.add(lote.size());
+            lotesGravados.increment();
+        } else if (resultado == Resultado.RECUSADO) {
+            descartadas.add(lote.size());
+        }
+        lote.forEach(registro -> pendentes.remove(registro.mensagem().getId()));
+    }
+
+    private Resultado gravarComTentativas(List<Mensagem> mensagens) {
+        var espera = ESPERA_OCIOSA_NANOS;
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                gravador.accept(mensagens);
+                return Resultado.GRAVADO;
+            } catch (RuntimeException e) {
+                // o persist da tentativa anterior atribuiu a versão; com ela a mensagem passaria por já gravada
+                mensagens.forEach(mensagem -> mensagem.setVersao(null));
+                if (recusadaPeloBanco(e)) {
+                    if (mensagens.size() == 1) {
+                        LOGGER.error("Descartando mensagem {} recusada pelo banco", mensagens.get(0).getId(), e);
+                    }
+                    return Resultado.RECUSADO;
+                }
+                if (!aceitando && tentativa >= TENTATIVAS_NO_ENCERRAMENTO) {
+                    LOGGER.error("Descartando {} mensagens não gravadas no encerramento", mensagens.size(), e);
+                    return Resultado.DESCARTADO;
+                }
+                LOGGER.error("Falha ao gravar lote de {} mensagens, tentativa {}", mensagens.size(), tentativa, e);
+                LockSupport.parkNanos(espera);
+                espera = Math.min(espera * 2, ESPERA_MAXIMA_NANOS);
+            }
+        }
+    }
+
+    // erros que se repetiriam em toda nova tentativa: restrições do banco e validação da entidade
+    private static boolean recusadaPeloBanco(Throwable erro) {
+        for (var causa = erro; causa != null; causa = causa.getCause()) {
+            if (causa instanceof DataIntegrityViolationException || causa instanceof ValidationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private enum Resultado {
+        GRAVADO, RECUSADO, DESCARTADO
+    }
+
+    private record Registro(Mensagem mensagem, long aceitoEm) {
+    }
+}
@@ -4,7 +4,11 @@ import com.fasterxml.jackson.annotation.JsonFormat;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -14,20 +18,30 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_mensagem_data_criacao_id", columnList = "data_criacao DESC, id DESC"),
+        @Index(name = "idx_mensagem_usuario_data_criacao_id", columnList = "usuario, data_criacao DESC, id DESC")
+})
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class Mensagem {
+
+    // tamanho padrão das colunas varchar
+    public static final int TAMANHO_MAXIMO = 255;
+
     @Id
     private UUID id;
 
     @Column(nullable = false)
     @NotEmpty(message = "O campo usuario é obrigatório")
+    @Size(max = TAMANHO_MAXIMO, message = "O campo usuario deve ter no máximo {max} caracteres")
     private String usuario;
 
     @Column(nullable = false)
     @NotEmpty(message = "O campo conteudo é obrigatório")
+    @Size(max = TAMANHO_MAXIMO, message = "O campo conteudo deve ter no máximo {max} caracteres")
     private String conteudo;
 
     @Builder.Default
@@ -36,4 +50,8 @@ public class Mensagem {
 
     @Builder.Default
     private int gostei = 0;
+
+    // incrementada a cada alteração de conteúdo; o "gostei" é contabilizado à parte e não a altera
+    @Version
+    private Long versao;
 }
@@ -0,0 +1,21 @@
+package br.com.fiap.api.model;
+
+/**
+ * Campos enviados em um PATCH de mensagem; os ausentes ({@code null}) mantêm o valor atual.
+ */
+public record MensagemAlteracao(String usuario, String conteudo) {
+
+    public boolean vazia() {
+        return usuario == null && conteudo == null;
+    }
+
+    // a cópia em cache é compartilhada entre leitores, por isso a alteração gera uma nova instância
+    public Mensagem aplicar(Mensagem mensagem) {
+        var versao = mensagem.getVersao() == null ? 0 : mensagem.getVersao();
+        return mensagem.toBuilder()
+                .usuario(usuario == null ? mensagem.getUsuario() : usuario)
+                .conteudo(conteudo == null ? mensagem.getConteudo() : conteudo)
+                .versao(versao + 1)
+                .build();
+    }
+}
@@ -0,0 +1,39 @@
+package br.com.fiap.api.model;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Posição opaca na listagem ordenada por (dataCriacao DESC, id DESC), usada na paginação por cursor.
+ */
+public record MensagemCursor(LocalDateTime dataCriacao, UUID id) {
+
+    private static final String SEPARADOR = "|";
+
+    public static MensagemCursor de(Mensagem mensagem) {
+        return new MensagemCursor(mensagem.getDataCriacao(), mensagem.getId());
+    }
+
+    public static MensagemCursor de(MensagemResumo resumo) {
+        return new MensagemCursor(resumo.dataCriacao(), resumo.id());
+    }
+
+    public String codificar() {
+        var valor = dataCriacao + SEPARADOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static MensagemCursor decodificar(String cursor) {
+        try {
+            var valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            var separador = valor.indexOf(SEPARADOR);
+            return new MensagemCursor(
+                    LocalDateTime.parse(valor.substring(0, separador)),
+                    UUID.fromString(valor.substring(separador + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+}
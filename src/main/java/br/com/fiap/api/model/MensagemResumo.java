@@ -0,0 +1,23 @@
+package br.com.fiap.api.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Mensagem como aparece no feed: usuário e os primeiros caracteres do conteúdo. Lida por projeção,
+ * sem criar entidades gerenciadas; {@code previa} é omitida quando não solicitada.
+ */
+public record MensagemResumo(
+        UUID id,
+        String usuario,
+        @JsonInclude(JsonInclude.Include.NON_EMPTY) String previa,
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss.SSSSS") LocalDateTime dataCriacao,
+        int gostei) {
+
+    public MensagemResumo comGostei(long pendente) {
+        return pendente == 0 ? this : new MensagemResumo(id, usuario, previa, dataCriacao, (int) (gostei + pendente));
+    }
+}
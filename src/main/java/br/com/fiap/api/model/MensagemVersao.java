@@ -0,0 +1,69 @@
+package br.com.fiap.api.model;
+
+import org.springframework.data.domain.Page;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Apenas o necessário para calcular o ETag de uma mensagem, sem carregar o conteúdo.
+ * <p>
+ * O ETag combina a versão, que muda a cada alteração de conteúdo, com o total de "gostei", que é
+ * acumulado fora da versão: uma resposta em cache só é válida se os dois forem iguais.
+ */
+public record MensagemVersao(UUID id, Long versao, int gostei) {
+
+    // o sufixo identifica o formato da representação (CBOR ou Smile); sem ele, JSON
+    private static final Pattern ETAG = Pattern.compile("\"?v(\\d{1,18})g\\d+(?:-[a-z]+)?\"?");
+
+    public static MensagemVersao de(Mensagem mensagem) {
+        return new MensagemVersao(mensagem.getId(), mensagem.getVersao(), mensagem.getGostei());
+    }
+
+    public MensagemVersao comGostei(long pendente) {
+        return pendente == 0 ? this : new MensagemVersao(id, versao, (int) (gostei + pendente));
+    }
+
+    public String etag() {
+        return "v" + (versao == null ? 0 : versao) + "g" + gostei;
+    }
+
+    /**
+     * Extrai a versão de um ETag emitido por {@link #etag()}. Apenas a versão é comparada em um
+     * If-Match: "gostei" registrados depois da leitura não invalidam a alteração do conteúdo. ETags
+     * fracos não são aceitos, já que o If-Match exige comparação forte.
+     */
+    public static Optional<Long> versaoDoEtag(String etag) {
+        var matcher = ETAG.matcher(etag.trim());
+        return matcher.matches() ? Optional.of(Long.parseLong(matcher.group(1))) : Optional.empty();
+    }
+
+    /**
+     * Versões de um If-Match com um ou mais ETags separados por vírgula. Os que não foram emitidos
+     * por {@link #etag()}, inclusive os fracos, nunca coincidem e são ignorados.
+     */
+    public static Set<Long> versoesDoIfMatch(String ifMatch) {
+        var versoes = new LinkedHashSet<Long>();
+        for (var etag : ifMatch.split(",")) {
+            versaoDoEtag(etag).ifPresent(versoes::add);
+        }
+        return versoes;
+    }
+
+    // a página muda se qualquer mensagem, a posição ou o total de elementos mudar
+    public static String etag(Page<MensagemVersao> pagina) {
+        var valor = new StringBuilder()
+                .append(pagina.getNumber()).append('|')
+                .append(pagina.getSize()).append('|')
+                .append(pagina.getTotalElements());
+        for (var versao : pagina) {
+            valor.append('|').append(versao.id()).append(':').append(versao.etag());
+        }
+        return DigestUtils.md5DigestAsHex(valor.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,9 @@
+package br.com.fiap.api.model;
+
+import java.util.List;
+
+/**
+ * Página da listagem por cursor; {@code nextCursor} é nulo quando não há próxima página.
+ */
+public record PaginaCursor<T>(List<T> content, int size, boolean hasNext, String nextCursor) {
+}
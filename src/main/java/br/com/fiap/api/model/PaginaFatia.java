@@ -0,0 +1,13 @@
+package br.com.fiap.api.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Página da listagem sem {@code COUNT(*)}; {@code totalElements} só é informado quando solicitado
+ * e vem do total mantido pela aplicação.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PaginaFatia<T>(List<T> content, int number, int size, boolean hasNext, Long totalElements) {
+}
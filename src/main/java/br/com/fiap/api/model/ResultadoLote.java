@@ -0,0 +1,14 @@
+package br.com.fiap.api.model;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Resultado do registro em lote: IDs das mensagens persistidas e os erros de validação por posição
+ * no lote recebido.
+ */
+public record ResultadoLote(int total, List<UUID> registradas, List<Erro> erros) {
+
+    public record Erro(int indice, List<String> mensagens) {
+    }
+}
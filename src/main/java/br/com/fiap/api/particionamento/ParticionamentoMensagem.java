@@ -0,0 +1,156 @@
+package br.com.fiap.api.particionamento;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Partições mensais da tabela {@code mensagem} no PostgreSQL, por {@code data_criacao}.
+ * <p>
+ * A tabela particionada é criada por {@code db/mensagem-particionada.sql} (perfil "particionado").
+ * Aqui são criadas a partição do mês corrente e as dos próximos {@code mesesAntecipados}. Com
+ * retenção configurada, as partições cujo mês inteiro é mais antigo que o limite são desanexadas e
+ * removidas de uma vez, em vez de um DELETE linha a linha.
+ * <p>
+ * Não há partição padrão: com ela o PostgreSQL deixaria de percorrer as partições em ordem nas
+ * listagens das mais recentes ({@code ORDER BY data_criacao DESC ... LIMIT}), que assim param na
+ * primeira partição que completa a página.
+ */
+public class ParticionamentoMensagem {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParticionamentoMensagem.class);
+
+    private static final Pattern NOME_PARTICAO = Pattern.compile("mensagem_p(\\d{4})_(\\d{2})");
+
+    private static final DateTimeFormatter SUFIXO = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private static final String CRIAR_PARTICAO = "CREATE TABLE IF NOT EXISTS %s PARTITION OF mensagem " +
+            "FOR VALUES FROM ('%s') TO ('%s')";
+
+    private static final String LISTAR_PARTICOES = "SELECT c.relname FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = 'mensagem'::regclass ORDER BY c.relname";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Clock clock;
+
+    private final int mesesAntecipados;
+
+    // zero mantém todas as partições
+    private final int retencaoMeses;
+
+    // executado depois de remover partições, para descartar contagens e cópias em memória
+    private final Runnable aposExpurgo;
+
+    private final LongAdder particoesRemovidas = new LongAdder();
+
+    private volatile boolean particionada;
+
+    public ParticionamentoMensagem(JdbcTemplate jdbcTemplate, Clock clock, int mesesAntecipados, int retencaoMeses,
+                                   Runnable aposExpurgo) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+        this.mesesAntecipados = mesesAntecipados;
+        this.retencaoMeses = retencaoMeses;
+        this.aposExpurgo = aposExpurgo;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        var tipo = jdbcTemplate.queryForObject(
+                "SELECT relkind::text FROM pg_class WHERE oid = 'mensagem'::regclass", String.class);
+        particionada = "p".equals(tipo);
+        if (!particionada) {
+            // uma tabela existente não é convertida: é preciso criar a particionada e copiar os dados
+            LOGGER.error("A tabela mensagem não é particionada; partições e retenção desabilitadas");
+            return;
+        }
+        manter();
+    }
+
+    @Scheduled(cron = "${mensagem.particionamento.cron:0 0 3 * * *}")
+    public void manter() {
+        if (!particionada) {
+            return;
+        }
+        var atual = YearMonth.now(clock);
+        garantirParticoes(atual, atual.plusMonths(mesesAntecipados));
+        expurgar();
+    }
+
+    /**
+     * Cria as partições de {@code inicio} a {@code fim}, inclusive, que ainda não existem.
+     */
+    public void garantirParticoes(YearMonth inicio, YearMonth fim) {
+        for (var mes = inicio; !mes.isAfter(fim); mes = mes.plusMonths(1)) {
+            try {
+                jdbcTemplate.execute(CRIAR_PARTICAO.formatted(nome(mes), mes.atDay(1), mes.plusMonths(1).atDay(1)));
+            } catch (DataAccessException e) {
+                // outra instância pode ter criado a mesma partição ao mesmo tempo
+                LOGGER.warn("Não foi possível criar a partição {}: {}", nome(mes), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Remove as partições cujo mês terminou antes de {@code retencaoMeses} atrás.
+     *
+     * @return nomes das partições removidas
+     */
+    public List<String> expurgar() {
+        if (retencaoMeses <= 0) {
+            return List.of();
+        }
+        var limite = LocalDateTime.now(clock).minusMonths(retencaoMeses);
+        var removidas = new ArrayList<String>();
+        for (var particao : particoes()) {
+            var matcher = NOME_PARTICAO.matcher(particao);
+            if (!matcher.matches()) {
+                continue;
+            }
+            var mes = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+            if (mes.plusMonths(1).atDay(1).atStartOfDay().isAfter(limite)) {
+                continue;
+            }
+            try {
+                // CONCURRENTLY não bloqueia as leituras e escritas na tabela (PostgreSQL 14+)
+                jdbcTemplate.execute("ALTER TABLE mensagem DETACH PARTITION " + particao + " CONCURRENTLY");
+                jdbcTemplate.execute("DROP TABLE " + particao);
+                removidas.add(particao);
+                particoesRemovidas.increment();
+            } catch (DataAccessException e) {
+                LOGGER.error("Não foi possível remover a partição {}: {}", particao, e.getMessage());
+            }
+        }
+        if (!removidas.isEmpty()) {
+            LOGGER.warn("Partições removidas pela retenção de {} meses: {}", retencaoMeses, removidas);
+            aposExpurgo.run();
+        }
+        return removidas;
+    }
+
+    public List<String> particoes() {
+        return jdbcTemplate.queryForList(LISTAR_PARTICOES, String.class);
+    }
+
+    public long particoesRemovidas() {
+        return particoesRemovidas.sum();
+    }
+
+    static String nome(YearMonth mes) {
+        return "mensagem_p" + mes.format(SUFIXO);
+    }
+}
@@ -0,0 +1,9 @@
+package br.com.fiap.api.ranking;
+
+import java.util.UUID;
+
+/**
+ * Total de "gostei" gravado de uma mensagem, como ocupa o {@link RankingGostei}.
+ */
+public record MensagemGostei(UUID id, int gostei) {
+}
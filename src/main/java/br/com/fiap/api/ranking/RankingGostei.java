@@ -0,0 +1,234 @@
+package br.com.fiap.api.ranking;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Mensagens mais curtidas, mantidas em memória e atualizadas a cada gravação dos "gostei", sem
+ * ordenar a tabela inteira por consulta.
+ * <p>
+ * Acompanha até {@code capacidade} mensagens e guarda o {@code piso}: nenhuma mensagem fora do
+ * ranking tem mais "gostei" que ele. Uma mensagem de fora entra quando o total gravado supera o
+ * piso; ao exceder a capacidade, a última sai e o piso sobe até o total dela. Enquanto restarem ao
+ * menos {@code tamanhoMaximo} mensagens, as primeiras são exatamente as mais curtidas do banco; se
+ * remoções deixarem menos que isso com piso acima de zero, o ranking pede uma reconstrução.
+ * <p>
+ * As alterações acontecem sob uma trava, e cada uma publica uma lista imutável com as
+ * {@code tamanhoMaximo} primeiras posições. Os leitores apenas leem essa lista, sem travas.
+ */
+public class RankingGostei {
+
+    private static final Comparator<MensagemGostei> ORDEM = Comparator
+            .comparingInt(MensagemGostei::gostei).reversed()
+            .thenComparing(MensagemGostei::id);
+
+    private final int capacidade;
+
+    private final int tamanhoMaximo;
+
+    private final ReentrantLock atualizacao = new ReentrantLock();
+
+    // as duas estruturas e o piso só são lidos e alterados sob a trava de atualização
+    private final Map<UUID, MensagemGostei> acompanhadas = new HashMap<>();
+
+    private final TreeSet<MensagemGostei> ordem = new TreeSet<>(ORDEM);
+
+    private int piso;
+
+    private volatile List<MensagemGostei> primeiras = List.of();
+
+    private volatile boolean reconstrucaoPendente;
+
+    private final LongAdder reconstrucoes = new LongAdder();
+
+    public RankingGostei(int capacidade, int tamanhoMaximo) {
+        if (tamanhoMaximo > capacidade) {
+            throw new IllegalArgumentException("O tamanho máximo não pode exceder a capacidade do ranking");
+        }
+        this.capacidade = capacidade;
+        this.tamanhoMaximo = tamanhoMaximo;
+    }
+
+    public static RankingGostei desabilitado() {
+        return new RankingGostei(0, 0);
+    }
+
+    public boolean isHabilitado() {
+        return capacidade > 0;
+    }
+
+    public int capacidade() {
+        return capacidade;
+    }
+
+    public int tamanhoMaximo() {
+        return tamanhoMaximo;
+    }
+
+    /**
+     * As {@code quantidade} mensagens mais curtidas, da mais para a menos curtida, até
+     * {@link #tamanhoMaximo()}.
+     */
+    public List<MensagemGostei> maisCurtidas(int quantidade) {
+        var atuais = primeiras;
+        return quantidade >= atuais.size() ? atuais : atuais.subList(0, Math.max(0, quantidade));
+    }
+
+    /**
+     * Substitui o conteúdo pelas mensagens mais curtidas do banco, em qualquer ordem, com no máximo
+     * {@link #capacidade()} itens.
+     */
+    public void reconstruir(Collection<MensagemGostei> maisCurtidas) {
+        atualizacao.lock();
+        try {
+            acompanhadas.clear();
+            ordem.clear();
+            piso = 0;
+            for (var mensagem : maisCurtidas) {
+                if (mensagem.gostei() > 0) {
+                    acompanhadas.put(mensagem.id(), mensagem);
+                    ordem.add(mensagem);
+                }
+            }
+            // as que ficaram de fora têm no máximo o total da última que entrou
+            if (ordem.size() >= capacidade && !ordem.isEmpty()) {
+                piso = ordem.last().gostei();
+            }
+            reconstrucaoPendente = false;
+            reconstrucoes.increment();
+            publicar();
+        } finally {
+            atualizacao.unlock();
+        }
+    }
+
+    /**
+     * IDs que não estão no ranking e precisam ter o total consultado para {@link #somar}.
+     */
+    public List<UUID> foraDoRanking(Collection<UUID> ids) {
+        if (!isHabilitado()) {
+            return List.of();
+        }
+        atualizacao.lock();
+        try {
+            return ids.stream().filter(id -> !acompanhadas.containsKey(id)).toList();
+        } finally {
+            atualizacao.unlock();
+        }
+    }
+
+    /**
+     * Aplica uma gravação de "gostei": as mensagens do ranking somam o incremento ao total conhecido e
+     * as demais usam o total consultado em {@code totais}, quando presente.
+     */
+    public void somar(Map<UUID, Long> incrementos, Map<UUID, Integer> totais) {
+        if (!isHabilitado()) {
+            return;
+        }
+        atualizacao.lock();
+        try {
+            incrementos.forEach((id, incremento) -> {
+                var atual = acompanhadas.get(id);
+                if (atual != null) {
+                    atualizar(id, (int) (atual.gostei() + incremento));
+                } else if (totais.containsKey(id)) {
+                    atualizar(id, totais.get(id));
+                }
+            });
+            publicar();
+        } finally {
+            atualizacao.unlock();
+        }
+    }
+
+    /**
+     * Mensagem criada já com "gostei", que pode entrar no ranking sem passar por uma gravação.
+     */
+    public void registrar(UUID id, int gostei) {
+        if (!isHabilitado() || gostei <= 0) {
+            return;
+        }
+        atualizacao.lock();
+        try {
+            atualizar(id, gostei);
+            publicar();
+        } finally {
+            atualizacao.unlock();
+        }
+    }
+
+    public void remover(UUID id) {
+        if (!isHabilitado()) {
+            return;
+        }
+        atualizacao.lock();
+        try {
+            var anterior = acompanhadas.remove(id);
+            if (anterior == null) {
+                return;
+            }
+            ordem.remove(anterior);
+            // abaixo do tamanho máximo, as que estão fora podem superar as que restaram
+            if (ordem.size() < tamanhoMaximo && piso > 0) {
+                reconstrucaoPendente = true;
+            }
+            publicar();
+        } finally {
+            atualizacao.unlock();
+        }
+    }
+
+    public boolean isReconstrucaoPendente() {
+        return reconstrucaoPendente;
+    }
+
+    public void solicitarReconstrucao() {
+        if (isHabilitado()) {
+            reconstrucaoPendente = true;
+        }
+    }
+
+    public int tamanho() {
+        return primeiras.size();
+    }
+
+    public long reconstrucoes() {
+        return reconstrucoes.sum();
+    }
+
+    private void atualizar(UUID id, int gostei) {
+        var anterior = acompanhadas.get(id);
+        if (anterior != null) {
+            ordem.remove(anterior);
+        } else if (gostei <= piso) {
+            return;
+        }
+        var atual = new MensagemGostei(id, gostei);
+        acompanhadas.put(id, atual);
+        ordem.add(atual);
+        if (ordem.size() > capacidade) {
+            var ultima = ordem.pollLast();
+            acompanhadas.remove(ultima.id());
+            piso = Math.max(piso, ultima.gostei());
+        }
+    }
+
+    private void publicar() {
+        var lista = new ArrayList<MensagemGostei>(Math.min(tamanhoMaximo, ordem.size()));
+        for (var mensagem : ordem) {
+            if (lista.size() == tamanhoMaximo) {
+                break;
+            }
+            lista.add(mensagem);
+        }
+        primeiras = List.copyOf(lista);
+    }
+}
@@ -1,14 +1,100 @@
 package br.com.fiap.api.repository;
 
 import br.com.fiap.api.model.Mensagem;
+import br.com.fiap.api.model.MensagemResumo;
+import br.com.fiap.api.model.MensagemVersao;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
-public interface MensagemRepository extends JpaRepository<Mensagem, UUID> {
+public interface MensagemRepository extends JpaRepository<Mensagem, UUID>, MensagemRepositoryCustom {
     @Query("SELECT m FROM Mensagem m ORDER BY m.dataCriacao DESC")
     Page<Mensagem> listarMensagem(Pageable pageable);
+
+    // mesma ordenação de listarMensagem, mas sem ler o conteúdo: usada para responder If-None-Match
+    @Query(value = "SELECT new br.com.fiap.api.model.MensagemVersao(m.id, m.versao, m.gostei) " +
+            "FROM Mensagem m ORDER BY m.dataCriacao DESC",
+            countQuery = "SELECT COUNT(m) FROM Mensagem m")
+    Page<MensagemVersao> listarVersoes(Pageable pageable);
+
+    @Query("SELECT new br.com.fiap.api.model.MensagemVersao(m.id, m.versao, m.gostei) FROM Mensagem m WHERE m.id = :id")
+    Optional<MensagemVersao> buscarVersao(@Param("id") UUID id);
+
+    @Query("SELECT m FROM Mensagem m ORDER BY m.dataCriacao DESC")
+    Slice<Mensagem> listarFatiaMensagem(Pageable pageable);
+
+    @Query("SELECT m FROM Mensagem m ORDER BY m.dataCriacao DESC, m.id DESC")
+    List<Mensagem> listarMensagem(Limit limit);
+
+    // o predicado redundante em dataCriacao permite ao banco posicionar no índice em vez de varrer desde o topo
+    @Query("SELECT m FROM Mensagem m " +
+            "WHERE m.dataCriacao <= :dataCriacao " +
+            "AND (m.dataCriacao < :dataCriacao OR m.id < :id) " +
+            "ORDER BY m.dataCriacao DESC, m.id DESC")
+    List<Mensagem> listarMensagemApos(@Param("dataCriacao") LocalDateTime dataCriacao,
+                                      @Param("id") UUID id,
+                                      Limit limit);
+
+    // projeção do feed: só as colunas exibidas e o conteúdo cortado no banco, sem entidades gerenciadas
+    @Query("SELECT new br.com.fiap.api.model.MensagemResumo(m.id, m.usuario, " +
+            "SUBSTRING(m.conteudo, 1, :tamanhoPrevia), m.dataCriacao, m.gostei) " +
+            "FROM Mensagem m ORDER BY m.dataCriacao DESC, m.id DESC")
+    List<MensagemResumo> listarResumos(@Param("tamanhoPrevia") int tamanhoPrevia, Limit limit);
+
+    @Query("SELECT new br.com.fiap.api.model.MensagemResumo(m.id, m.usuario, " +
+            "SUBSTRING(m.conteudo, 1, :tamanhoPrevia), m.dataCriacao, m.gostei) " +
+            "FROM Mensagem m " +
+            "WHERE m.dataCriacao <= :dataCriacao " +
+            "AND (m.dataCriacao < :dataCriacao OR m.id < :id) " +
+            "ORDER BY m.dataCriacao DESC, m.id DESC")
+    List<MensagemResumo> listarResumosApos(@Param("dataCriacao") LocalDateTime dataCriacao,
+                                           @Param("id") UUID id,
+                                           @Param("tamanhoPrevia") int tamanhoPrevia,
+                                           Limit limit);
+
+    @Query("SELECT m FROM Mensagem m WHERE m.usuario = :usuario ORDER BY m.dataCriacao DESC, m.id DESC")
+    List<Mensagem> listarMensagemPorUsuario(@Param("usuario") String usuario, Limit limit);
+
+    // mesmo predicado de listarMensagemApos, prefixado pelo usuário do índice composto
+    @Query("SELECT m FROM Mensagem m " +
+            "WHERE m.usuario = :usuario " +
+            "AND m.dataCriacao <= :dataCriacao " +
+            "AND (m.dataCriacao < :dataCriacao OR m.id < :id) " +
+            "ORDER BY m.dataCriacao DESC, m.id DESC")
+    List<Mensagem> listarMensagemPorUsuarioApos(@Param("usuario") String usuario,
+                                                @Param("dataCriacao") LocalDateTime dataCriacao,
+                                                @Param("id") UUID id,
+                                                Limit limit);
+
+    // as escritas por ID são um único comando; o número de linhas afetadas indica se a mensagem existe
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Mensagem m SET m.conteudo = :conteudo, m.versao = COALESCE(m.versao, 0) + 1 WHERE m.id = :id")
+    int alterarConteudo(@Param("id") UUID id, @Param("conteudo") String conteudo);
+
+    // só altera se ninguém escreveu depois da versão lida; zero linhas indica mensagem inexistente ou alterada.
+    // Campos nulos mantêm o valor atual, então um PATCH parcial continua sendo um único comando
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Mensagem m SET m.usuario = COALESCE(:usuario, m.usuario), " +
+            "m.conteudo = COALESCE(:conteudo, m.conteudo), m.versao = COALESCE(m.versao, 0) + 1 " +
+            "WHERE m.id = :id AND COALESCE(m.versao, 0) = :versao")
+    int alterarNaVersao(@Param("id") UUID id, @Param("usuario") String usuario, @Param("conteudo") String conteudo,
+                        @Param("versao") long versao);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Mensagem m WHERE m.id = :id")
+    int removerPorId(@Param("id") UUID id);
 }
@@ -0,0 +1,14 @@
+package br.com.fiap.api.repository;
+
+import br.com.fiap.api.model.Mensagem;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Operações de {@link MensagemRepository} que não se expressam como consultas derivadas.
+ */
+public interface MensagemRepositoryCustom {
+    void inserirEmLote(List<Mensagem> mensagens);
+    void exportar(Consumer<Mensagem> consumidor);
+}
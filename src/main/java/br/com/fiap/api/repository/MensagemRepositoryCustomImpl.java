@@ -0,0 +1,70 @@
+package br.com.fiap.api.repository;
+
+import br.com.fiap.api.model.Mensagem;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceUnit;
+import org.hibernate.ScrollMode;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+class MensagemRepositoryCustomImpl implements MensagemRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @PersistenceUnit
+    private EntityManagerFactory entityManagerFactory;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:500}")
+    private int tamanhoLote;
+
+    @Value("${mensagem.exportacao.tamanho-busca:1000}")
+    private int tamanhoBusca;
+
+    /**
+     * Usa {@code persist} diretamente: com o ID atribuído pela aplicação, {@code save} faria um
+     * {@code merge} com SELECT por mensagem e impediria o agrupamento dos INSERTs em lotes JDBC.
+     */
+    @Override
+    @Transactional
+    public void inserirEmLote(List<Mensagem> mensagens) {
+        for (int i = 0; i < mensagens.size(); i++) {
+            entityManager.persist(mensagens.get(i));
+            if ((i + 1) % tamanhoLote == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    /**
+     * Percorre a tabela com um cursor do banco em uma sessão sem estado: nenhuma entidade fica no
+     * contexto de persistência, então a memória usada não cresce com o número de linhas. O
+     * PostgreSQL só respeita o tamanho de busca dentro de uma transação, por isso ela é aberta aqui.
+     */
+    @Override
+    public void exportar(Consumer<Mensagem> consumidor) {
+        try (var sessao = entityManagerFactory.unwrap(SessionFactory.class).openStatelessSession()) {
+            var transacao = sessao.beginTransaction();
+            try (var resultados = sessao.createSelectionQuery("SELECT m FROM Mensagem m", Mensagem.class)
+                    .setFetchSize(tamanhoBusca)
+                    .scroll(ScrollMode.FORWARD_ONLY)) {
+                while (resultados.next()) {
+                    consumidor.accept(resultados.get());
+                }
+                transacao.commit();
+            } catch (RuntimeException e) {
+                transacao.rollback();
+                throw e;
+            }
+        }
+    }
+}
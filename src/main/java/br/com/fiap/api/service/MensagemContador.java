@@ -0,0 +1,51 @@
+package br.com.fiap.api.service;
+
+import br.com.fiap.api.repository.MensagemRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Total de mensagens mantido de forma incremental nas inclusões e remoções, evitando um
+ * {@code COUNT(*)} por requisição. É recalculado periodicamente para corrigir desvios.
+ */
+@Component
+@RequiredArgsConstructor
+public class MensagemContador {
+
+    private static final long NAO_CALCULADO = -1;
+
+    private final MensagemRepository mensagemRepository;
+
+    private final AtomicLong total = new AtomicLong(NAO_CALCULADO);
+
+    public long total() {
+        var atual = total.get();
+        return atual == NAO_CALCULADO ? recalcular() : atual;
+    }
+
+    public void incrementar(long quantidade) {
+        total.updateAndGet(atual -> atual == NAO_CALCULADO ? atual : atual + quantidade);
+    }
+
+    public void decrementar() {
+        total.updateAndGet(atual -> atual == NAO_CALCULADO ? atual : Math.max(0, atual - 1));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${mensagem.contador.intervalo-recalculo:PT5M}",
+            initialDelayString = "${mensagem.contador.intervalo-recalculo:PT5M}")
+    public void atualizar() {
+        recalcular();
+    }
+
+    public long recalcular() {
+        var recalculado = mensagemRepository.count();
+        total.set(recalculado);
+        return recalculado;
+    }
+}
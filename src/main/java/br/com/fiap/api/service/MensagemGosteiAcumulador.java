@@ -0,0 +1,247 @@
+package br.com.fiap.api.service;
+
+import br.com.fiap.api.cache.MensagemCache;
+import br.com.fiap.api.cache.TimelineCache;
+import br.com.fiap.api.ingestao.IngestaoAssincrona;
+import br.com.fiap.api.model.Mensagem;
+import br.com.fiap.api.ranking.MensagemGostei;
+import br.com.fiap.api.ranking.RankingGostei;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Acumula os "gostei" em memória, com um {@link LongAdder} por mensagem, e os grava em lote
+ * periodicamente. Assim, curtidas simultâneas na mesma mensagem não disputam o bloqueio da linha
+ * no banco a cada incremento.
+ * <p>
+ * Cada gravação também atualiza o {@link RankingGostei}; a reconstrução do ranking acontece sob a
+ * mesma trava, para que nenhum incremento seja contado duas vezes ou perdido entre as duas.
+ * <p>
+ * Com a ingestão assíncrona, a mensagem curtida pode ainda não ter sido gravada; o incremento que não
+ * encontra a linha volta para a próxima gravação enquanto a mensagem estiver na fila.
+ */
+@Component
+@RequiredArgsConstructor
+public class MensagemGosteiAcumulador {
+
+    private static final String ATUALIZAR_GOSTEI = "UPDATE mensagem SET gostei = gostei + ? WHERE id = ?";
+
+    private static final String CONSULTAR_GOSTEI = "SELECT id, gostei FROM mensagem WHERE id IN (%s)";
+
+    private static final String LISTAR_MAIS_CURTIDAS =
+            "SELECT id, gostei FROM mensagem WHERE gostei > 0 ORDER BY gostei DESC, id LIMIT ?";
+
+    private static final int TAMANHO_MAXIMO_CONSULTA = 1_000;
+
+    private static final int CICLOS_OCIOSOS_PARA_REMOCAO = 2;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionOperations transactionOperations;
+
+    private final MensagemCache mensagemCache;
+
+    private final TimelineCache timelineCache;
+
+    private final RankingGostei rankingGostei;
+
+    private final IngestaoAssincrona ingestaoAssincrona;
+
+    private final Map<UUID, Contador> pendentes = new ConcurrentHashMap<>();
+
+    // incrementos retirados de "pendentes" cuja gravação ainda não foi confirmada
+    private final Map<UUID, Long> emGravacao = new ConcurrentHashMap<>();
+
+    // contadores ociosos removidos na gravação anterior; são somados mais uma vez para não perder
+    // um incremento de quem obteve a referência logo antes da remoção
+    private List<Map.Entry<UUID, Contador>> aposentados = new ArrayList<>();
+
+    private final ReentrantLock gravacao = new ReentrantLock();
+
+    public void registrar(UUID id) {
+        pendentes.computeIfAbsent(id, chave -> new Contador()).increment();
+    }
+
+    public long pendente(UUID id) {
+        // mensagens ainda não gravadas não têm id, e ConcurrentHashMap não aceita chave nula
+        if (id == null) {
+            return 0;
+        }
+        var adder = pendentes.get(id);
+        return (adder == null ? 0 : adder.sum()) + emGravacao.getOrDefault(id, 0L);
+    }
+
+    public int mensagensPendentes() {
+        return pendentes.size();
+    }
+
+    public Mensagem aplicarPendentes(Mensagem mensagem) {
+        var pendente = pendente(mensagem.getId());
+        if (pendente == 0) {
+            return mensagem;
+        }
+        // a instância pode estar em cache, por isso o total é aplicado em uma cópia
+        return mensagem.toBuilder()
+                .gostei((int) (mensagem.getGostei() + pendente))
+                .build();
+    }
+
+    @Scheduled(fixedDelayString = "${mensagem.gostei.intervalo-gravacao:PT1S}")
+    public void gravar() {
+        gravacao.lock();
+        try {
+            if (rankingGostei.isReconstrucaoPendente()) {
+                reconstruirRanking();
+            }
+            var deltas = coletar();
+            if (deltas.isEmpty()) {
+                return;
+            }
+            deltas.forEach((id, delta) -> emGravacao.merge(id, delta, Long::sum));
+
+            // consultado antes do UPDATE: a mensagem só sai da fila depois de o INSERT ser confirmado
+            var aguardandoIngestao = deltas.keySet().stream()
+                    .filter(id -> ingestaoAssincrona.pendente(id).isPresent())
+                    .collect(Collectors.toSet());
+            Map<UUID, Integer> totais;
+            Map<UUID, Long> naoGravados = new TreeMap<>();
+            try {
+                // IDs ordenados mantêm a mesma ordem de bloqueio das linhas entre transações
+                List<Object[]> parametros = deltas.entrySet().stream()
+                        .map(delta -> new Object[]{delta.getValue(), delta.getKey()})
+                        .toList();
+                var foraDoRanking = rankingGostei.foraDoRanking(deltas.keySet());
+                totais = transactionOperations.execute(status -> {
+                    var atualizadas = jdbcTemplate.batchUpdate(ATUALIZAR_GOSTEI, parametros);
+                    for (int i = 0; i < atualizadas.length; i++) {
+                        var id = (UUID) parametros.get(i)[1];
+                        // mensagem ainda na fila da ingestão assíncrona: o incremento espera o INSERT
+                        if (atualizadas[i] == 0 && aguardandoIngestao.contains(id)) {
+                            naoGravados.put(id, deltas.get(id));
+                        }
+                    }
+                    return consultarTotais(foraDoRanking);
+                });
+            } catch (RuntimeException e) {
+                // devolve os incrementos para a próxima gravação antes de retirá-los de "emGravacao"
+                devolver(deltas);
+                descontar(deltas);
+                throw e;
+            }
+            devolver(naoGravados);
+
+            var gravados = new TreeMap<>(deltas);
+            gravados.keySet().removeAll(naoGravados.keySet());
+            // invalidar antes de descontar evita que uma leitura some o cache antigo sem o incremento
+            gravados.keySet().forEach(mensagemCache::invalidar);
+            timelineCache.invalidarMensagens(gravados.keySet());
+            rankingGostei.somar(gravados, totais);
+            descontar(deltas);
+        } finally {
+            gravacao.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        gravar();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciarRanking() {
+        if (!rankingGostei.isHabilitado()) {
+            return;
+        }
+        gravacao.lock();
+        try {
+            reconstruirRanking();
+        } finally {
+            gravacao.unlock();
+        }
+    }
+
+    // lê apenas os totais gravados; os incrementos ainda em memória entram na próxima gravação
+    private void reconstruirRanking() {
+        rankingGostei.reconstruir(jdbcTemplate.query(LISTAR_MAIS_CURTIDAS,
+                (resultado, linha) -> new MensagemGostei(resultado.getObject(1, UUID.class), resultado.getInt(2)),
+                rankingGostei.capacidade()));
+    }
+
+    // total gravado das mensagens que não estão no ranking, lido na mesma transação do incremento
+    private Map<UUID, Integer> consultarTotais(List<UUID> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        var totais = new HashMap<UUID, Integer>(ids.size() * 2);
+        for (int inicio = 0; inicio < ids.size(); inicio += TAMANHO_MAXIMO_CONSULTA) {
+            var trecho = ids.subList(inicio, Math.min(ids.size(), inicio + TAMANHO_MAXIMO_CONSULTA));
+            var marcadores = String.join(",", Collections.nCopies(trecho.size(), "?"));
+            jdbcTemplate.query(CONSULTAR_GOSTEI.formatted(marcadores),
+                    resultado -> {
+                        totais.put(resultado.getObject(1, UUID.class), resultado.getInt(2));
+                    },
+                    trecho.toArray());
+        }
+        return totais;
+    }
+
+    private Map<UUID, Long> coletar() {
+        Map<UUID, Long> deltas = new TreeMap<>();
+        for (var aposentado : aposentados) {
+            somar(deltas, aposentado.getKey(), aposentado.getValue().sumThenReset());
+        }
+
+        var ociosos = new ArrayList<Map.Entry<UUID, Contador>>();
+        for (var entrada : pendentes.entrySet()) {
+            var contador = entrada.getValue();
+            var delta = contador.sumThenReset();
+            if (delta != 0) {
+                contador.ciclosOciosos = 0;
+                somar(deltas, entrada.getKey(), delta);
+            } else if (++contador.ciclosOciosos >= CICLOS_OCIOSOS_PARA_REMOCAO
+                    && pendentes.remove(entrada.getKey(), contador)) {
+                ociosos.add(Map.entry(entrada.getKey(), contador));
+            }
+        }
+        aposentados = ociosos;
+        return deltas;
+    }
+
+    private void devolver(Map<UUID, Long> deltas) {
+        deltas.forEach((id, delta) -> pendentes.computeIfAbsent(id, chave -> new Contador()).add(delta));
+    }
+
+    private void descontar(Map<UUID, Long> deltas) {
+        deltas.forEach((id, delta) -> emGravacao.computeIfPresent(id, (chave, atual) ->
+                atual - delta == 0 ? null : atual - delta));
+    }
+
+    private static void somar(Map<UUID, Long> deltas, UUID id, long delta) {
+        if (delta != 0) {
+            deltas.merge(id, delta, Long::sum);
+        }
+    }
+
+    // ciclosOciosos só é lido e alterado sob o bloqueio de gravação
+    private static final class Contador extends LongAdder {
+        private int ciclosOciosos;
+    }
+}
@@ -1,17 +1,40 @@
 package br.com.fiap.api.service;
 
 import br.com.fiap.api.model.Mensagem;
+import br.com.fiap.api.model.MensagemAlteracao;
+import br.com.fiap.api.model.MensagemCursor;
+import br.com.fiap.api.model.MensagemResumo;
+import br.com.fiap.api.model.PaginaCursor;
+import br.com.fiap.api.model.ResultadoLote;
+
+import java.util.List;
+import java.util.function.Consumer;
 import java.util.UUID;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 /**
  * Interface que define os métodos que devem ser implementados pela classe de serviço de Mensagem.
  */
 public interface  MensagemService {
     Mensagem registrarMensagem(Mensagem mensagem);
+    ResultadoLote registrarMensagens(List<Mensagem> mensagens);
+    boolean registroAssincrono();
     Mensagem buscarMensagem(UUID id);
+    Mensagem registrarGostei(UUID id);
     Mensagem alterarMensagem(UUID id, Mensagem mensagemAtualizada);
+    Mensagem alterarMensagem(UUID id, MensagemAlteracao alteracao, long versaoEsperada);
     boolean removerMensagem(UUID id);
+    String etagMensagem(UUID id);
+    String etagMensagens(Pageable pageable);
     Page<Mensagem> listarMensagens(Pageable pageable);
+    Slice<Mensagem> listarFatiaMensagens(Pageable pageable);
+    long totalMensagens();
+    void exportarMensagens(Consumer<Mensagem> consumidor);
+    PaginaCursor<Mensagem> listarMensagens(MensagemCursor cursor, int tamanho);
+    PaginaCursor<MensagemResumo> listarResumos(MensagemCursor cursor, int tamanho, int tamanhoPrevia);
+    List<Mensagem> buscarMensagens(String consulta, int tamanho);
+    List<Mensagem> listarMaisCurtidas(int quantidade);
+    PaginaCursor<Mensagem> listarMensagensPorUsuario(String usuario, MensagemCursor cursor, int tamanho);
 }
@@ -1,51 +1,423 @@
 package br.com.fiap.api.service;
 
+import br.com.fiap.api.busca.IndiceBusca;
+import br.com.fiap.api.cache.MensagemCache;
+import br.com.fiap.api.cache.TimelineCache;
+import br.com.fiap.api.datasource.RoteamentoDataSource;
+import br.com.fiap.api.exception.MensagemConflitoException;
 import br.com.fiap.api.exception.MensagemNotFoundException;
+import br.com.fiap.api.exception.MensagemPendenteException;
+import br.com.fiap.api.ingestao.IngestaoAssincrona;
 import br.com.fiap.api.model.Mensagem;
+import br.com.fiap.api.model.MensagemAlteracao;
+import br.com.fiap.api.model.MensagemCursor;
+import br.com.fiap.api.model.MensagemResumo;
+import br.com.fiap.api.model.MensagemVersao;
+import br.com.fiap.api.model.PaginaCursor;
+import br.com.fiap.api.model.ResultadoLote;
+import br.com.fiap.api.ranking.RankingGostei;
 import br.com.fiap.api.repository.MensagemRepository;
+import br.com.fiap.api.stream.MensagemEvento;
+import br.com.fiap.api.stream.TransmissorMensagens;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.IdGenerator;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "mensagem.service", histogram = true)
 public class MensagemServiceImpl implements MensagemService {
 
+    static final int TAMANHO_MAXIMO_LOTE = 5_000;
+
     private final MensagemRepository mensagemRepository;
 
+    private final MensagemCache mensagemCache;
+
+    private final MensagemContador mensagemContador;
+
+    private final Validator validator;
+
+    private final IdGenerator idGenerator;
+
+    private final MensagemGosteiAcumulador gosteiAcumulador;
+
+    private final IndiceBusca indiceBusca;
+
+    private final TimelineCache timelineCache;
+
+    private final IngestaoAssincrona ingestaoAssincrona;
+
+    private final TransmissorMensagens transmissorMensagens;
+
+    private final RankingGostei rankingGostei;
+
+    @Value("${mensagem.particionamento.habilitado:false}")
+    private boolean particionamentoHabilitado;
+
+    @PostConstruct
+    void configurarIngestao() {
+        ingestaoAssincrona.definirGravador(this::gravarLote);
+    }
+
     @Override
     public Mensagem registrarMensagem(Mensagem mensagem) {
-        mensagem.setId(UUID.randomUUID());
-        return mensagemRepository.save(mensagem);
+        // na ingestão assíncrona a mensagem é aceita antes do banco, então tudo que ele recusaria é verificado aqui
+        var violacoes = validar(mensagem);
+        if (!violacoes.isEmpty()) {
+            throw new IllegalArgumentException(String.join(", ", violacoes));
+        }
+        prepararRegistro(mensagem);
+        if (ingestaoAssincrona.isHabilitada()) {
+            // contador, índice de busca e timelines são atualizados quando o lote for gravado
+            ingestaoAssincrona.enfileirar(mensagem);
+            return mensagem;
+        }
+        var mensagemRegistrada = mensagemRepository.save(mensagem);
+        mensagemContador.incrementar(1);
+        indiceBusca.indexar(mensagemRegistrada);
+        timelineCache.invalidar(mensagemRegistrada.getUsuario());
+        rankingGostei.registrar(mensagemRegistrada.getId(), mensagemRegistrada.getGostei());
+        transmissorMensagens.publicar(MensagemEvento.Tipo.CRIADA, mensagemRegistrada.getId(), mensagemRegistrada);
+        return mensagemRegistrada;
+    }
+
+    @Override
+    public ResultadoLote registrarMensagens(List<Mensagem> mensagens) {
+        if (mensagens.size() > TAMANHO_MAXIMO_LOTE) {
+            throw new IllegalArgumentException("O lote excede o limite de " + TAMANHO_MAXIMO_LOTE + " mensagens");
+        }
+
+        var validas = new ArrayList<Mensagem>(mensagens.size());
+        var erros = new ArrayList<ResultadoLote.Erro>();
+        for (int i = 0; i < mensagens.size(); i++) {
+            var mensagem = mensagens.get(i);
+            if (mensagem == null) {
+                erros.add(new ResultadoLote.Erro(i, List.of("A mensagem é obrigatória")));
+                continue;
+            }
+            var violacoes = validar(mensagem);
+            if (!violacoes.isEmpty()) {
+                erros.add(new ResultadoLote.Erro(i, violacoes));
+                continue;
+            }
+            prepararRegistro(mensagem);
+            validas.add(mensagem);
+        }
+
+        if (!validas.isEmpty()) {
+            gravarLote(validas);
+        }
+        var registradas = validas.stream().map(Mensagem::getId).toList();
+        return new ResultadoLote(mensagens.size(), registradas, erros);
+    }
+
+    @Override
+    public boolean registroAssincrono() {
+        return ingestaoAssincrona.isHabilitada();
     }
 
     @Override
     public Mensagem buscarMensagem(UUID id) {
-        return mensagemRepository.findById(id).orElseThrow(() -> new MensagemNotFoundException("Mensagem não encontrada"));
+        return gosteiAcumulador.aplicarPendentes(mensagemCache.buscar(id, this::carregarMensagem));
+    }
+
+    @Override
+    public Mensagem registrarGostei(UUID id) {
+        var mensagem = mensagemCache.buscar(id, this::carregarMensagem);
+        gosteiAcumulador.registrar(id);
+        return gosteiAcumulador.aplicarPendentes(mensagem);
     }
 
     @Override
     public Mensagem alterarMensagem(UUID id, Mensagem mensagemAtualizada) {
-        var mensagem = buscarMensagem(id);
-        if (!mensagem.getId().equals(mensagemAtualizada.getId())) {
+        if (!id.equals(mensagemAtualizada.getId())) {
             throw new MensagemNotFoundException("Mensagem atualizada não apresenta o ID correto");
         }
-        mensagem.setConteudo(mensagemAtualizada.getConteudo());
-        return mensagemRepository.save(mensagem);
+        // o UPDATE em massa não passa pela validação da entidade que o save() fazia
+        if (mensagemAtualizada.getConteudo() == null || mensagemAtualizada.getConteudo().isBlank()) {
+            throw new IllegalArgumentException("O campo conteudo é obrigatório");
+        }
+        validarTamanho("conteudo", mensagemAtualizada.getConteudo());
+        verificarGravada(id);
+        var alteracao = new MensagemAlteracao(null, mensagemAtualizada.getConteudo());
+        // lida antes da escrita: depois dela a cópia em cache é invalidada
+        var mensagemEmCache = mensagemCache.consultar(id).filter(emCache -> emCache.getVersao() != null).orElse(null);
+        Mensagem mensagem = null;
+        try {
+            // condicionada à versão em cache, a escrita confirma que a cópia ainda é a atual e dispensa recarregar
+            if (mensagemEmCache != null && mensagemRepository.alterarNaVersao(id, null, alteracao.conteudo(),
+                    mensagemEmCache.getVersao()) > 0) {
+                mensagem = alteracao.aplicar(mensagemEmCache);
+            } else if (mensagemRepository.alterarConteudo(id, alteracao.conteudo()) == 0) {
+                throw new MensagemNotFoundException("Mensagem não encontrada");
+            }
+        } finally {
+            mensagemCache.invalidar(id);
+        }
+        if (mensagem == null) {
+            mensagem = carregarMensagem(id);
+        }
+        indiceBusca.indexar(mensagem);
+        timelineCache.invalidar(mensagem.getUsuario());
+        return publicarAlteracao(gosteiAcumulador.aplicarPendentes(mensagem));
+    }
+
+    @Override
+    public Mensagem alterarMensagem(UUID id, MensagemAlteracao alteracao, long versaoEsperada) {
+        if (alteracao.vazia()) {
+            throw new IllegalArgumentException("Nenhum campo informado para alteração");
+        }
+        if (alteracao.usuario() != null && alteracao.usuario().isBlank()) {
+            throw new IllegalArgumentException("O campo usuario é obrigatório");
+        }
+        if (alteracao.conteudo() != null && alteracao.conteudo().isBlank()) {
+            throw new IllegalArgumentException("O campo conteudo é obrigatório");
+        }
+        validarTamanho("usuario", alteracao.usuario());
+        validarTamanho("conteudo", alteracao.conteudo());
+        verificarGravada(id);
+        var mensagemEmCache = mensagemCache.consultar(id)
+                .filter(emCache -> Objects.requireNonNullElse(emCache.getVersao(), 0L) == versaoEsperada)
+                .orElse(null);
+        int alteradas;
+        try {
+            alteradas = mensagemRepository.alterarNaVersao(id, alteracao.usuario(), alteracao.conteudo(),
+                    versaoEsperada);
+        } finally {
+            mensagemCache.invalidar(id);
+        }
+        if (alteradas == 0) {
+            // nenhuma trava é mantida: o conflito só custa esta consulta, que devolve a versão para a nova tentativa
+            var atual = mensagemRepository.buscarVersao(id)
+                    .orElseThrow(() -> new MensagemNotFoundException("Mensagem não encontrada"));
+            throw new MensagemConflitoException("A mensagem foi alterada por outra requisição",
+                    atual.comGostei(gosteiAcumulador.pendente(id)).etag());
+        }
+        var mensagem = mensagemEmCache != null ? alteracao.aplicar(mensagemEmCache) : carregarMensagem(id);
+        indiceBusca.indexar(mensagem);
+        // se o usuário mudou, a timeline anterior é localizada pelo ID
+        timelineCache.invalidarMensagens(Set.of(id));
+        timelineCache.invalidar(mensagem.getUsuario());
+        return publicarAlteracao(gosteiAcumulador.aplicarPendentes(mensagem));
     }
 
     @Override
     public boolean removerMensagem(UUID id) {
-        var mensagem = buscarMensagem(id);
-        mensagemRepository.delete(mensagem);
+        verificarGravada(id);
+        int removidas;
+        try {
+            removidas = mensagemRepository.removerPorId(id);
+        } finally {
+            mensagemCache.invalidar(id);
+        }
+        if (removidas == 0) {
+            throw new MensagemNotFoundException("Mensagem não encontrada");
+        }
+        indiceBusca.remover(id);
+        rankingGostei.remover(id);
+        // o DELETE não devolve o usuário, por isso as timelines são localizadas pelo ID
+        timelineCache.invalidarMensagens(Set.of(id));
+        mensagemContador.decrementar();
+        transmissorMensagens.publicar(MensagemEvento.Tipo.REMOVIDA, id, null);
         return true;
     }
 
     @Override
+    public String etagMensagem(UUID id) {
+        // a cópia em cache já traz a versão; sem ela basta uma consulta por ID que não lê o conteúdo
+        var versao = mensagemCache.consultar(id)
+                .or(() -> ingestaoAssincrona.pendente(id))
+                .map(MensagemVersao::de)
+                .or(() -> mensagemRepository.buscarVersao(id))
+                .orElseThrow(() -> new MensagemNotFoundException("Mensagem não encontrada"));
+        return versao.comGostei(gosteiAcumulador.pendente(id)).etag();
+    }
+
+    // página e contagem na mesma transação somente leitura: uma só conexão, na réplica quando habilitada
+    @Override
+    @Transactional(readOnly = true)
+    public String etagMensagens(Pageable pageable) {
+        return MensagemVersao.etag(mensagemRepository.listarVersoes(pageable)
+                .map(versao -> versao.comGostei(gosteiAcumulador.pendente(versao.id()))));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Page<Mensagem> listarMensagens(Pageable pageable) {
-        return mensagemRepository.listarMensagem(pageable);
+        return mensagemRepository.listarMensagem(pageable).map(gosteiAcumulador::aplicarPendentes);
+    }
+
+    @Override
+    public Slice<Mensagem> listarFatiaMensagens(Pageable pageable) {
+        return mensagemRepository.listarFatiaMensagem(pageable).map(gosteiAcumulador::aplicarPendentes);
+    }
+
+    @Override
+    public long totalMensagens() {
+        return mensagemContador.total();
+    }
+
+    @Override
+    public void exportarMensagens(Consumer<Mensagem> consumidor) {
+        mensagemRepository.exportar(mensagem -> consumidor.accept(gosteiAcumulador.aplicarPendentes(mensagem)));
+    }
+
+    @Override
+    public PaginaCursor<Mensagem> listarMensagens(MensagemCursor cursor, int tamanho) {
+        // busca um registro a mais apenas para saber se existe próxima página
+        var limite = Limit.of(tamanho + 1);
+        var mensagens = cursor == null
+                ? mensagemRepository.listarMensagem(limite)
+                : mensagemRepository.listarMensagemApos(cursor.dataCriacao(), cursor.id(), limite);
+
+        return paginar(mensagens, tamanho);
+    }
+
+    @Override
+    public PaginaCursor<MensagemResumo> listarResumos(MensagemCursor cursor, int tamanho, int tamanhoPrevia) {
+        var limite = Limit.of(tamanho + 1);
+        var resumos = cursor == null
+                ? mensagemRepository.listarResumos(tamanhoPrevia, limite)
+                : mensagemRepository.listarResumosApos(cursor.dataCriacao(), cursor.id(), tamanhoPrevia, limite);
+
+        var temProxima = resumos.size() > tamanho;
+        var conteudo = temProxima ? resumos.subList(0, tamanho) : resumos;
+        var proximoCursor = temProxima ? MensagemCursor.de(conteudo.get(tamanho - 1)).codificar() : null;
+        return new PaginaCursor<>(conteudo.stream()
+                .map(resumo -> resumo.comGostei(gosteiAcumulador.pendente(resumo.id())))
+                .toList(), tamanho, temProxima, proximoCursor);
+    }
+
+    @Override
+    public PaginaCursor<Mensagem> listarMensagensPorUsuario(String usuario, MensagemCursor cursor, int tamanho) {
+        var mensagens = timelineCache.buscar(usuario, cursor, tamanho, limite -> RoteamentoDataSource.lerNoPrimario(
+                        () -> mensagemRepository.listarMensagemPorUsuario(usuario, Limit.of(limite))))
+                .orElseGet(() -> {
+                    var limite = Limit.of(tamanho + 1);
+                    return cursor == null
+                            ? mensagemRepository.listarMensagemPorUsuario(usuario, limite)
+                            : mensagemRepository.listarMensagemPorUsuarioApos(usuario, cursor.dataCriacao(),
+                                    cursor.id(), limite);
+                });
+        return paginar(mensagens, tamanho);
+    }
+
+    @Override
+    public List<Mensagem> buscarMensagens(String consulta, int tamanho) {
+        return indiceBusca.buscar(consulta, tamanho).stream().map(gosteiAcumulador::aplicarPendentes).toList();
+    }
+
+    @Override
+    public List<Mensagem> listarMaisCurtidas(int quantidade) {
+        var posicoes = rankingGostei.maisCurtidas(quantidade);
+        if (posicoes.isEmpty()) {
+            return List.of();
+        }
+        // as cópias em cache dispensam a consulta; as demais são lidas de uma vez
+        var mensagens = new HashMap<UUID, Mensagem>(posicoes.size() * 2);
+        var ausentes = new ArrayList<UUID>();
+        for (var posicao : posicoes) {
+            mensagemCache.consultar(posicao.id()).ifPresentOrElse(
+                    mensagem -> mensagens.put(posicao.id(), mensagem), () -> ausentes.add(posicao.id()));
+        }
+        if (!ausentes.isEmpty()) {
+            // no primário: uma mensagem ausente de uma réplica atrasada seria retirada do ranking
+            RoteamentoDataSource.lerNoPrimario(() -> mensagemRepository.findAllById(ausentes))
+                    .forEach(mensagem -> mensagens.put(mensagem.getId(), mensagem));
+            // removida enquanto a gravação dos "gostei" a recolocava no ranking
+            ausentes.stream().filter(id -> !mensagens.containsKey(id)).forEach(rankingGostei::remover);
+        }
+        // o ranking usa os totais gravados; com os pendentes somados, a ordenação estável corrige a ordem
+        return posicoes.stream()
+                .map(posicao -> mensagens.get(posicao.id()))
+                .filter(Objects::nonNull)
+                .map(gosteiAcumulador::aplicarPendentes)
+                .sorted(Comparator.comparingInt(Mensagem::getGostei).reversed())
+                .toList();
+    }
+
+    // "mensagens" traz um registro além da página apenas para saber se existe próxima página
+    private PaginaCursor<Mensagem> paginar(List<Mensagem> mensagens, int tamanho) {
+        var temProxima = mensagens.size() > tamanho;
+        var conteudo = temProxima ? mensagens.subList(0, tamanho) : mensagens;
+        var proximoCursor = temProxima ? MensagemCursor.de(conteudo.get(tamanho - 1)).codificar() : null;
+        return new PaginaCursor<>(conteudo.stream().map(gosteiAcumulador::aplicarPendentes).toList(),
+                tamanho, temProxima, proximoCursor);
+    }
+
+    private void gravarLote(List<Mensagem> mensagens) {
+        mensagemRepository.inserirEmLote(mensagens);
+        mensagemContador.incrementar(mensagens.size());
+        indiceBusca.indexar(mensagens);
+        mensagens.stream().map(Mensagem::getUsuario).distinct().forEach(timelineCache::invalidar);
+        mensagens.forEach(mensagem -> rankingGostei.registrar(mensagem.getId(), mensagem.getGostei()));
+        // na ingestão assíncrona o evento sai quando a mensagem é gravada, não quando é aceita
+        mensagens.forEach(mensagem ->
+                transmissorMensagens.publicar(MensagemEvento.Tipo.CRIADA, mensagem.getId(), mensagem));
+    }
+
+    // com a tabela particionada a data de criação vem do servidor: a do cliente pode cair fora das partições
+    // mensais existentes e o INSERT seria recusado
+    private void prepararRegistro(Mensagem mensagem) {
+        mensagem.setId(idGenerator.generateId());
+        if (particionamentoHabilitado || mensagem.getDataCriacao() == null) {
+            mensagem.setDataCriacao(LocalDateTime.now());
+        }
+    }
+
+    private List<String> validar(Mensagem mensagem) {
+        return validator.validate(mensagem).stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .toList();
+    }
+
+    // as alterações usam UPDATE em massa, que não passa pelo @Size da entidade
+    private static void validarTamanho(String campo, String valor) {
+        if (valor != null && valor.length() > Mensagem.TAMANHO_MAXIMO) {
+            throw new IllegalArgumentException("O campo " + campo + " deve ter no máximo " + Mensagem.TAMANHO_MAXIMO
+                    + " caracteres");
+        }
+    }
+
+    // o UPDATE e o DELETE não encontrariam a linha de uma mensagem que ainda está na fila de ingestão
+    private void verificarGravada(UUID id) {
+        if (ingestaoAssincrona.pendente(id).isPresent()) {
+            throw new MensagemPendenteException("A mensagem ainda está sendo gravada, tente novamente");
+        }
+    }
+
+    private Mensagem publicarAlteracao(Mensagem mensagem) {
+        transmissorMensagens.publicar(MensagemEvento.Tipo.ALTERADA, mensagem.getId(), mensagem);
+        return mensagem;
+    }
+
+    // uma mensagem aceita pela ingestão assíncrona é lida da fila até a gravação ser confirmada; as demais
+    // vão para o cache, por isso são lidas do primário
+    private Mensagem carregarMensagem(UUID id) {
+        return ingestaoAssincrona.pendente(id)
+                .or(() -> RoteamentoDataSource.lerNoPrimario(() -> mensagemRepository.findById(id)))
+                .orElseThrow(() -> new MensagemNotFoundException("Mensagem não encontrada"));
     }
 }
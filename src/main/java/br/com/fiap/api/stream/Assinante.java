@@ -0,0 +1,16 @@
+package br.com.fiap.api.stream;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Conexão de um cliente do stream. Os métodos de envio são chamados por uma thread de cada vez.
+ */
+interface Assinante {
+
+    void enviar(List<MensagemEvento> eventos) throws IOException;
+
+    void batimento() throws IOException;
+
+    void encerrar();
+}
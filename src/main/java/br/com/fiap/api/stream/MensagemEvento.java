@@ -0,0 +1,18 @@
+package br.com.fiap.api.stream;
+
+/**
+ * Evento do stream de mensagens. {@code dados} já está serializado em JSON, uma única vez para
+ * todos os assinantes.
+ */
+public record MensagemEvento(long sequencia, String id, Tipo tipo, String dados) {
+
+    public enum Tipo {
+        CRIADA, ALTERADA, REMOVIDA,
+        // o cliente deve recarregar a listagem: os eventos desde o último recebido não estão mais no histórico
+        REINICIO;
+
+        public String nome() {
+            return name().toLowerCase();
+        }
+    }
+}
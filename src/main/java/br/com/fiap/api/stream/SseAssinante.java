@@ -0,0 +1,38 @@
+package br.com.fiap.api.stream;
+
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+final class SseAssinante implements Assinante {
+
+    private final SseEmitter emitter;
+
+    SseAssinante(SseEmitter emitter) {
+        this.emitter = emitter;
+    }
+
+    @Override
+    public void enviar(List<MensagemEvento> eventos) throws IOException {
+        // o lote inteiro sai com um único flush
+        var dados = new LinkedHashSet<ResponseBodyEmitter.DataWithMediaType>();
+        for (var evento : eventos) {
+            var builder = SseEmitter.event().id(evento.id()).name(evento.tipo().nome());
+            dados.addAll((evento.dados() != null ? builder.data(evento.dados()) : builder.data("")).build());
+        }
+        emitter.send(dados);
+    }
+
+    @Override
+    public void batimento() throws IOException {
+        emitter.send(SseEmitter.event().comment(""));
+    }
+
+    @Override
+    public void encerrar() {
+        emitter.complete();
+    }
+}
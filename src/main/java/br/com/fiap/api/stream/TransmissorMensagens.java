@@ -0,0 +1,393 @@
+package br.com.fiap.api.stream;
+
+import br.com.fiap.api.exception.AssinaturaRecusadaException;
+import br.com.fiap.api.model.Mensagem;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Transmissão das mensagens criadas, alteradas e removidas para os clientes de
+ * {@code GET /mensagens/stream} (Server-Sent Events).
+ * <p>
+ * Publicar apenas coloca o evento em uma fila. Uma única thread numera os eventos, serializa cada
+ * um uma vez, guarda os mais recentes em um histórico circular e os distribui para a fila limitada
+ * de cada assinante. A escrita na conexão acontece em threads virtuais, uma por assinante com
+ * eventos pendentes, de modo que um cliente lento não atrasa os demais: quando a fila dele enche, a
+ * assinatura é encerrada e o cliente retoma pelo {@code Last-Event-ID}, reenviado do histórico.
+ * Assinantes ociosos não ocupam threads, apenas a conexão e a fila vazia.
+ * <p>
+ * O ID do evento é {@code geracao-sequencia}; a geração muda a cada inicialização. Um
+ * {@code Last-Event-ID} de outra geração, ou anterior ao evento mais antigo do histórico, recebe o
+ * evento {@code reinicio}: o cliente deve recarregar a listagem antes de seguir no stream.
+ */
+public class TransmissorMensagens implements SmartLifecycle {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TransmissorMensagens.class);
+
+    private static final int CAPACIDADE_ENTRADA = 65_536;
+
+    private static final int TAMANHO_LOTE_ENVIO = 64;
+
+    private final boolean habilitado;
+
+    private final ObjectMapper objectMapper;
+
+    private final int capacidadeAssinante;
+
+    private final int maximoAssinantes;
+
+    private final Duration intervaloBatimento;
+
+    private final Duration timeout;
+
+    // publicações e novas assinaturas, na ordem em que o distribuidor deve tratá-las
+    private final BlockingQueue<Object> entrada = new LinkedBlockingQueue<>(CAPACIDADE_ENTRADA);
+
+    private final Set<Inscricao> inscricoes = ConcurrentHashMap.newKeySet();
+
+    private final AtomicInteger ativas = new AtomicInteger();
+
+    // uma publicação recusada pela entrada cheia deixa uma lacuna que o histórico não cobre
+    private final AtomicBoolean lacuna = new AtomicBoolean();
+
+    private final LongAdder eventosPublicados = new LongAdder();
+
+    private final LongAdder assinantesDescartados = new LongAdder();
+
+    // histórico, geração e sequência são acessados apenas pelo distribuidor
+    private final MensagemEvento[] historico;
+
+    private String geracao = novaGeracao();
+
+    private long sequencia;
+
+    private volatile ExecutorService envio;
+
+    private volatile boolean executando;
+
+    private volatile Thread distribuidor;
+
+    public TransmissorMensagens(boolean habilitado, ObjectMapper objectMapper, int capacidadeAssinante,
+                                int tamanhoHistorico, int maximoAssinantes, Duration intervaloBatimento,
+                                Duration timeout) {
+        this.habilitado = habilitado;
+        this.objectMapper = objectMapper;
+        this.capacidadeAssinante = capacidadeAssinante;
+        this.maximoAssinantes = maximoAssinantes;
+        this.intervaloBatimento = intervaloBatimento;
+        this.timeout = timeout;
+        this.historico = new MensagemEvento[habilitado ? tamanhoHistorico : 0];
+    }
+
+    public static TransmissorMensagens desabilitado() {
+        return new TransmissorMensagens(false, null, 0, 0, 0, Duration.ZERO, Duration.ZERO);
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    public void publicar(MensagemEvento.Tipo tipo, UUID id, Mensagem mensagem) {
+        if (!habilitado) {
+            return;
+        }
+        if (!entrada.offer(new Publicacao(tipo, id, mensagem))) {
+            lacuna.set(true);
+        }
+    }
+
+    /**
+     * Abre uma assinatura do stream, retomando após {@code ultimoEventoId} quando informado.
+     */
+    public SseEmitter assinar(String ultimoEventoId) {
+        var emitter = new SseEmitter(timeout.toMillis());
+        var inscricao = assinar(ultimoEventoId, new SseAssinante(emitter));
+        emitter.onCompletion(inscricao::cancelar);
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(erro -> inscricao.cancelar());
+        return emitter;
+    }
+
+    Inscricao assinar(String ultimoEventoId, Assinante assinante) {
+        if (!habilitado || !executando) {
+            throw new AssinaturaRecusadaException("Stream de mensagens indisponível");
+        }
+        if (ativas.incrementAndGet() > maximoAssinantes) {
+            ativas.decrementAndGet();
+            throw new AssinaturaRecusadaException("Limite de assinantes atingido, tente novamente");
+        }
+        var inscricao = new Inscricao(assinante, ultimoEventoId);
+        if (!entrada.offer(inscricao)) {
+            ativas.decrementAndGet();
+            throw new AssinaturaRecusadaException("Stream de mensagens sobrecarregado, tente novamente");
+        }
+        return inscricao;
+    }
+
+    public int assinantes() {
+        return ativas.get();
+    }
+
+    public long eventosPublicados() {
+        return eventosPublicados.sum();
+    }
+
+    public long assinantesDescartados() {
+        return assinantesDescartados.sum();
+    }
+
+    @Override
+    public void start() {
+        if (!habilitado || distribuidor != null) {
+            return;
+        }
+        envio = Executors.newVirtualThreadPerTaskExecutor();
+        executando = true;
+        distribuidor = Thread.ofPlatform().name("mensagem-stream").start(this::executar);
+    }
+
+    @Override
+    public void stop() {
+        var thread = distribuidor;
+        if (thread == null) {
+            return;
+        }
+        executando = false;
+        thread.interrupt();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        inscricoes.forEach(Inscricao::encerrar);
+        envio.shutdown();
+        distribuidor = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return distribuidor != null;
+    }
+
+    // encerra as conexões abertas antes do desligamento do servidor web, que aguardaria por elas
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE - 512;
+    }
+
+    private void executar() {
+        var intervalo = intervaloBatimento.toNanos();
+        var proximoBatimento = System.nanoTime() + intervalo;
+        while (executando) {
+            Object comando;
+            try {
+                comando = entrada.poll(Math.max(0, proximoBatimento - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (lacuna.getAndSet(false)) {
+                reiniciar();
+            }
+            if (comando instanceof Publicacao publicacao) {
+                distribuir(publicacao);
+            } else if (comando instanceof Inscricao inscricao) {
+                registrar(inscricao);
+            }
+            // mantém vivas as conexões ociosas através de proxies e detecta clientes que já saíram
+            if (System.nanoTime() - proximoBatimento >= 0) {
+                inscricoes.forEach(Inscricao::batimento);
+                proximoBatimento = System.nanoTime() + intervalo;
+            }
+        }
+    }
+
+    private void distribuir(Publicacao publicacao) {
+        String dados;
+        try {
+            dados = objectMapper.writeValueAsString(publicacao.mensagem() != null
+                    ? publicacao.mensagem()
+                    : Map.of("id", publicacao.id()));
+        } catch (JsonProcessingException e) {
+            LOGGER.error("Falha ao serializar evento da mensagem {}", publicacao.id(), e);
+            return;
+        }
+        sequencia++;
+        var evento = new MensagemEvento(sequencia, geracao + "-" + sequencia, publicacao.tipo(), dados);
+        historico[(int) (sequencia % historico.length)] = evento;
+        eventosPublicados.increment();
+        for (var inscricao : inscricoes) {
+            inscricao.entregar(evento);
+        }
+    }
+
+    private void registrar(Inscricao inscricao) {
+        if (inscricao.encerrada.get()) {
+            return;
+        }
+        inscricao.reenvio = reenvio(inscricao.ultimoEventoId);
+        inscricoes.add(inscricao);
+        // o primeiro envio confirma a conexão ao cliente mesmo sem eventos a reenviar
+        inscricao.batimento();
+    }
+
+    private List<MensagemEvento> reenvio(String ultimoEventoId) {
+        if (ultimoEventoId == null || ultimoEventoId.isBlank()) {
+            return List.of();
+        }
+        var separador = ultimoEventoId.lastIndexOf('-');
+        long ultimo;
+        try {
+            if (separador < 0 || !geracao.equals(ultimoEventoId.substring(0, separador))) {
+                return List.of(reinicio());
+            }
+            ultimo = Long.parseLong(ultimoEventoId.substring(separador + 1));
+        } catch (NumberFormatException e) {
+            return List.of(reinicio());
+        }
+        var maisAntigo = Math.max(1, sequencia - historico.length + 1);
+        if (ultimo > sequencia || ultimo < maisAntigo - 1) {
+            return List.of(reinicio());
+        }
+        var eventos = new ArrayList<MensagemEvento>((int) (sequencia - ultimo));
+        for (var i = ultimo + 1; i <= sequencia; i++) {
+            eventos.add(historico[(int) (i % historico.length)]);
+        }
+        return eventos;
+    }
+
+    // o ID do reinício aponta para o evento atual, de onde o cliente segue depois de recarregar
+    private MensagemEvento reinicio() {
+        return new MensagemEvento(sequencia, geracao + "-" + sequencia, MensagemEvento.Tipo.REINICIO, null);
+    }
+
+    private void reiniciar() {
+        LOGGER.error("Eventos do stream descartados com a entrada cheia; encerrando as assinaturas");
+        geracao = novaGeracao();
+        sequencia = 0;
+        Arrays.fill(historico, null);
+        // ao reconectar com um ID da geração anterior, cada cliente recebe o reinício
+        inscricoes.forEach(Inscricao::encerrar);
+    }
+
+    private static String novaGeracao() {
+        return Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    }
+
+    private record Publicacao(MensagemEvento.Tipo tipo, UUID id, Mensagem mensagem) {
+    }
+
+    final class Inscricao {
+
+        private final Assinante assinante;
+
+        private final String ultimoEventoId;
+
+        private final BlockingQueue<MensagemEvento> fila;
+
+        private final AtomicBoolean agendada = new AtomicBoolean();
+
+        private final AtomicBoolean encerrada = new AtomicBoolean();
+
+        private volatile boolean batimentoPendente;
+
+        // definido pelo distribuidor antes do primeiro envio; depois disso usado apenas pelo envio
+        private List<MensagemEvento> reenvio = List.of();
+
+        private Inscricao(Assinante assinante, String ultimoEventoId) {
+            this.assinante = assinante;
+            this.ultimoEventoId = ultimoEventoId;
+            this.fila = new ArrayBlockingQueue<>(capacidadeAssinante);
+        }
+
+        private void entregar(MensagemEvento evento) {
+            if (!fila.offer(evento)) {
+                // cliente lento: a reconexão com Last-Event-ID retoma pelo histórico
+                assinantesDescartados.increment();
+                encerrar();
+                return;
+            }
+            agendar();
+        }
+
+        private void batimento() {
+            batimentoPendente = true;
+            agendar();
+        }
+
+        private void agendar() {
+            if (!encerrada.get() && agendada.compareAndSet(false, true)) {
+                try {
+                    envio.execute(this::enviar);
+                } catch (RejectedExecutionException e) {
+                    encerrar();
+                }
+            }
+        }
+
+        private void enviar() {
+            var lote = new ArrayList<MensagemEvento>(TAMANHO_LOTE_ENVIO);
+            try {
+                do {
+                    for (int i = 0; i < reenvio.size(); i += TAMANHO_LOTE_ENVIO) {
+                        assinante.enviar(reenvio.subList(i, Math.min(reenvio.size(), i + TAMANHO_LOTE_ENVIO)));
+                    }
+                    reenvio = List.of();
+                    while (!encerrada.get() && fila.drainTo(lote, TAMANHO_LOTE_ENVIO) > 0) {
+                        assinante.enviar(lote);
+                        lote.clear();
+                    }
+                    if (batimentoPendente && !encerrada.get()) {
+                        batimentoPendente = false;
+                        assinante.batimento();
+                    }
+                    agendada.set(false);
+                    // um evento entregue depois do último drainTo encontrou o envio ainda agendado
+                } while (!encerrada.get() && (!fila.isEmpty() || batimentoPendente)
+                        && agendada.compareAndSet(false, true));
+            } catch (IOException | RuntimeException e) {
+                // conexão fechada pelo cliente
+                encerrar();
+            }
+        }
+
+        void encerrar() {
+            if (cancelar()) {
+                assinante.encerrar();
+            }
+        }
+
+        boolean cancelar() {
+            if (!encerrada.compareAndSet(false, true)) {
+                return false;
+            }
+            inscricoes.remove(this);
+            ativas.decrementAndGet();
+            return true;
+        }
+    }
+}
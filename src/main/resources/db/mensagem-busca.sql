@@ -0,0 +1,9 @@
+-- Busca textual do PostgreSQL (mensagem.busca.modo=postgres) em uma tabela mensagem já existente.
+-- Migração executada uma vez, fora da inicialização da aplicação (make migrar-busca): a coluna
+-- gerada reescreve a tabela sob bloqueio exclusivo, por isso deve rodar em janela de manutenção;
+-- o índice é criado sem bloquear as escritas. Cada comando roda fora de transação, como exige o
+-- CONCURRENTLY. A tabela particionada já é criada com coluna e índice por mensagem-particionada.sql.
+ALTER TABLE mensagem ADD COLUMN IF NOT EXISTS conteudo_busca tsvector
+    GENERATED ALWAYS AS (to_tsvector('portuguese', coalesce(conteudo, ''))) STORED;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_mensagem_conteudo_busca ON mensagem USING GIN (conteudo_busca);
@@ -0,0 +1,20 @@
+-- Tabela mensagem particionada por mês em data_criacao (perfil "particionado"). Executado antes do
+-- esquema do Hibernate; as partições são criadas e removidas por ParticionamentoMensagem.
+-- A chave primária de uma tabela particionada precisa conter a coluna de particionamento.
+CREATE TABLE IF NOT EXISTS mensagem (
+    id uuid NOT NULL,
+    usuario varchar(255) NOT NULL,
+    conteudo varchar(255) NOT NULL,
+    data_criacao timestamp(6) NOT NULL,
+    gostei integer NOT NULL,
+    versao bigint,
+    -- busca textual (IndiceBuscaPostgres)
+    conteudo_busca tsvector GENERATED ALWAYS AS (to_tsvector('portuguese', coalesce(conteudo, ''))) STORED,
+    PRIMARY KEY (id, data_criacao)
+) PARTITION BY RANGE (data_criacao);
+
+CREATE INDEX IF NOT EXISTS idx_mensagem_data_criacao_id ON mensagem (data_criacao DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_mensagem_usuario_data_criacao_id ON mensagem (usuario, data_criacao DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_mensagem_conteudo_busca ON mensagem USING GIN (conteudo_busca);
@@ -0,0 +1,157 @@
+package br.com.fiap.api.busca;
+
+import br.com.fiap.api.model.Mensagem;
+import br.com.fiap.api.repository.MensagemRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+class IndiceBuscaMemoriaTest {
+
+    @Mock
+    private MensagemRepository mensagemRepository;
+
+    private IndiceBuscaMemoria indiceBusca;
+
+    private final LocalDateTime agora = LocalDateTime.now();
+
+    AutoCloseable openMocks;
+
+    @BeforeEach
+    void setup() {
+        openMocks = MockitoAnnotations.openMocks(this);
+        indiceBusca = new IndiceBuscaMemoria(mensagemRepository);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        openMocks.close();
+    }
+
+    @Test
+    void deveNormalizarTermos_QuandoTokenizar() {
+        assertThat(IndiceBuscaMemoria.tokenizar("Olá, MUNDO! A reunião é às 10h"))
+                .containsExactly("ola", "mundo", "reuniao", "10h");
+    }
+
+    @Test
+    void devePermitirBuscarMensagens_QuandoTodosOsTermosPresentes() {
+        // Arrange
+        var ambos = indexar("reunião de planejamento amanhã", agora);
+        var apenasUm = indexar("planejamento do trimestre", agora);
+
+        // Act
+        var ids = indiceBusca.pesquisar("Reuniao planejamento", 10);
+
+        // Assert
+        assertThat(ids).containsExactly(ambos.getId());
+        assertThat(ids).doesNotContain(apenasUm.getId());
+    }
+
+    @Test
+    void deveOrdenarPorRelevanciaEDepoisPorRecencia() {
+        // Arrange
+        var antiga = indexar("deploy em produção", agora.minusDays(2));
+        var recente = indexar("deploy em homologação", agora);
+        var repetida = indexar("deploy deploy deploy", agora.minusDays(5));
+
+        // Act
+        var ids = indiceBusca.pesquisar("deploy", 10);
+
+        // Assert
+        assertThat(ids).containsExactly(repetida.getId(), recente.getId(), antiga.getId());
+    }
+
+    @Test
+    void deveLimitarResultados_QuandoMaisMensagensQueOLimite() {
+        // Arrange
+        for (int i = 0; i < 50; i++) {
+            indexar("mensagem número " + i, agora.minusSeconds(i));
+        }
+
+        // Act
+        var ids = indiceBusca.pesquisar("mensagem", 5);
+
+        // Assert
+        assertThat(ids).hasSize(5);
+    }
+
+    @Test
+    void deveAtualizarIndice_QuandoMensagemAlteradaOuRemovida() {
+        // Arrange
+        var mensagem = indexar("conteúdo original", agora);
+
+        // Act
+        mensagem.setConteudo("conteúdo alterado");
+        indiceBusca.indexar(mensagem);
+        var porTermoAntigo = indiceBusca.pesquisar("original", 10);
+        var porTermoNovo = indiceBusca.pesquisar("alterado", 10);
+        indiceBusca.remover(mensagem.getId());
+        var aposRemocao = indiceBusca.pesquisar("alterado", 10);
+
+        // Assert
+        assertThat(porTermoAntigo).isEmpty();
+        assertThat(porTermoNovo).containsExactly(mensagem.getId());
+        assertThat(aposRemocao).isEmpty();
+        assertThat(indiceBusca.tamanho()).isZero();
+    }
+
+    @Test
+    void devePermitirReconstruirIndice_APartirDoBanco() {
+        // Arrange
+        var mensagem = gerarMensagem("mensagem persistida", agora);
+        doAnswer(invocation -> {
+            Consumer<Mensagem> consumidor = invocation.getArgument(0);
+            consumidor.accept(mensagem);
+            return null;
+        }).when(mensagemRepository).exportar(any());
+        when(mensagemRepository.findAllById(anyIterable())).thenReturn(List.of(mensagem));
+
+        // Act
+        indiceBusca.reconstruir();
+        var mensagens = indiceBusca.buscar("persistida", 10);
+
+        // Assert
+        assertThat(mensagens).containsExactly(mensagem);
+    }
+
+    @Test
+    void naoDeveConsultarBanco_QuandoConsultaSemResultados() {
+        // Arrange
+        indexar("conteúdo qualquer", agora);
+
+        // Act
+        var mensagens = indiceBusca.buscar("inexistente", 10);
+
+        // Assert
+        assertThat(mensagens).isEmpty();
+        verify(mensagemRepository, never()).findAllById(anyIterable());
+    }
+
+    private Mensagem indexar(String conteudo, LocalDateTime dataCriacao) {
+        var mensagem = gerarMensagem(conteudo, dataCriacao);
+        indiceBusca.indexar(mensagem);
+        return mensagem;
+    }
+
+    private static Mensagem gerarMensagem(String conteudo, LocalDateTime dataCriacao) {
+        return Mensagem.builder()
+                .id(UUID.randomUUID())
+                .usuario("Jose")
+                .conteudo(conteudo)
+                .dataCriacao(dataCriacao)
+                .build();
+    }
+}
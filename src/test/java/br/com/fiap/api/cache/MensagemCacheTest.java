@@ -0,0 +1,235 @@
+package br.com.fiap.api.cache;
+
+import br.com.fiap.api.exception.MensagemNotFoundException;
+import br.com.fiap.api.model.Mensagem;
+import br.com.fiap.api.utils.MensagemHelper;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MensagemCacheTest {
+
+    private final AtomicLong relogio = new AtomicLong();
+
+    private MensagemCache criarCache(long tamanhoMaximo, Duration ttl) {
+        return new MensagemCache(true, tamanhoMaximo, ttl, relogio::get, Runnable::run);
+    }
+
+    @Test
+    void devePermitirBuscarMensagem_QuandoEmCache() {
+        // Arrange
+        var cache = criarCache(10, Duration.ofMinutes(5));
+        var id = UUID.randomUUID();
+        var carregamentos = new AtomicInteger();
+
+        // Act
+        var primeira = cache.buscar(id, chave -> gerarMensagem(chave, carregamentos.incrementAndGet()));
+        var segunda = cache.buscar(id, chave -> gerarMensagem(chave, carregamentos.incrementAndGet()));
+
+        // Assert
+        assertThat(segunda).isSameAs(primeira);
+        assertThat(carregamentos).hasValue(1);
+        assertThat(cache.estatisticas().hitCount()).isEqualTo(1);
+        assertThat(cache.estatisticas().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void devePermitirRecarregarMensagem_QuandoInvalidada() {
+        // Arrange
+        var cache = criarCache(10, Duration.ofMinutes(5));
+        var id = UUID.randomUUID();
+        var carregamentos = new AtomicInteger();
+        cache.buscar(id, chave -> gerarMensagem(chave, carregamentos.incrementAndGet()));
+
+        // Act
+        cache.invalidar(id);
+        var mensagem = cache.buscar(id, chave -> gerarMensagem(chave, carregamentos.incrementAndGet()));
+
+        // Assert
+        assertThat(mensagem.getConteudo()).isEqualTo("2");
+        assertThat(cache.estatisticas().missCount()).isEqualTo(2);
+    }
+
+    @Test
+    void devePermitirExpirarMensagem_QuandoTtlExcedido() {
+        // Arrange
+        var cache = criarCache(10, Duration.ofSeconds(30));
+        var id = UUID.randomUUID();
+        var carregamentos = new AtomicInteger();
+        cache.buscar(id, chave -> gerarMensagem(chave, carregamentos.incrementAndGet()));
+
+        // Act
+        relogio.addAndGet(TimeUnit.SECONDS.toNanos(31));
+        cache.buscar(id, chave -> gerarMensagem(chave, carregamentos.incrementAndGet()));
+
+        // Assert
+        assertThat(carregamentos).hasValue(2);
+        assertThat(cache.estatisticas().evictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void devePermitirDescartarMensagens_QuandoTamanhoMaximoExcedido() {
+        // Arrange
+        var cache = criarCache(5, Duration.ofMinutes(5));
+
+        // Act
+        for (int i = 0; i < 50; i++) {
+            cache.buscar(UUID.randomUUID(), chave -> gerarMensagem(chave, 0));
+        }
+
+        // Assert
+        assertThat(cache.tamanho()).isLessThanOrEqualTo(5);
+        assertThat(cache.estatisticas().evictionCount()).isGreaterThanOrEqualTo(45);
+    }
+
+    @Test
+    void naoDeveArmazenarResultado_QuandoMensagemNaoExistir() {
+        // Arrange
+        var cache = criarCache(10, Duration.ofMinutes(5));
+        var id = UUID.randomUUID();
+
+        // Act & Assert
+        assertThatThrownBy(() -> cache.buscar(id, chave -> {
+            throw new MensagemNotFoundException("Mensagem não encontrada");
+        }))
+                .isInstanceOf(MensagemNotFoundException.class);
+        assertThat(cache.tamanho()).isZero();
+    }
+
+    @Test
+    void deveConsultarCarregador_QuandoCacheDesabilitado() {
+        // Arrange
+        var cache = MensagemCache.desabilitado();
+        var id = UUID.randomUUID();
+        var carregamentos = new AtomicInteger();
+
+        // Act
+        cache.buscar(id, chave -> gerarMensagem(chave, carregamentos.incrementAndGet()));
+        cache.buscar(id, chave -> gerarMensagem(chave, carregamentos.incrementAndGet()));
+
+        // Assert
+        assertThat(cache.isHabilitado()).isFalse();
+        assertThat(carregamentos).hasValue(2);
+    }
+
+    @Test
+    void naoDeveBloquearInvalidacao_QuandoCarregamentoEmAndamento() throws Exception {
+        // Arrange
+        var cache = criarCache(10, Duration.ofMinutes(5));
+        var id = UUID.randomUUID();
+        var carregando = new CountDownLatch(1);
+        var liberar = new CountDownLatch(1);
+        var executor = Executors.newVirtualThreadPerTaskExecutor();
+        var leitura = executor.submit(() -> cache.buscar(id, chave -> {
+            carregando.countDown();
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return gerarMensagem(chave, 1);
+        }));
+        carregando.await();
+
+        // Act
+        var invalidacao = executor.submit(() -> cache.invalidar(id));
+        invalidacao.get(5, TimeUnit.SECONDS);
+        liberar.countDown();
+        var lida = leitura.get(5, TimeUnit.SECONDS);
+        var recarregada = cache.buscar(id, chave -> gerarMensagem(chave, 2));
+        executor.shutdown();
+
+        // Assert
+        assertThat(lida.getConteudo()).isEqualTo("1");
+        assertThat(recarregada.getConteudo()).isEqualTo("2");
+    }
+
+    @Test
+    void naoDeveRetornarConteudoAntigo_QuandoLeitoresEEscritoresConcorrentes() throws Exception {
+        // Arrange
+        var cache = new MensagemCache(true, 1_000, Duration.ofMinutes(5));
+        var ids = new ArrayList<UUID>();
+        Map<UUID, Integer> banco = new ConcurrentHashMap<>();
+        for (int i = 0; i < 8; i++) {
+            var id = UUID.randomUUID();
+            ids.add(id);
+            banco.put(id, 0);
+        }
+        var executor = Executors.newFixedThreadPool(16);
+        var inicio = new CountDownLatch(1);
+        var escritoresAtivos = new AtomicBoolean(true);
+        List<Future<?>> tarefas = new ArrayList<>();
+
+        // leitores simulam uma consulta lenta ao banco para alargar a janela de corrida
+        for (int leitor = 0; leitor < 8; leitor++) {
+            tarefas.add(executor.submit(() -> {
+                inicio.await();
+                while (escritoresAtivos.get()) {
+                    var id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+                    cache.buscar(id, chave -> {
+                        var versao = banco.get(chave);
+                        Thread.onSpinWait();
+                        return gerarMensagem(chave, versao);
+                    });
+                }
+                return null;
+            }));
+        }
+
+        // cada escritor é dono de uma chave: grava, invalida e exige ler a própria escrita
+        List<Future<?>> escritores = new ArrayList<>();
+        for (var id : ids) {
+            escritores.add(executor.submit(() -> {
+                inicio.await();
+                for (int versao = 1; versao <= 500; versao++) {
+                    banco.put(id, versao);
+                    cache.invalidar(id);
+                    var lida = cache.buscar(id, chave -> gerarMensagem(chave, banco.get(chave)));
+                    assertThat(Integer.parseInt(lida.getConteudo())).isGreaterThanOrEqualTo(versao);
+                }
+                return null;
+            }));
+        }
+
+        // Act
+        inicio.countDown();
+        for (var escritor : escritores) {
+            escritor.get(30, TimeUnit.SECONDS);
+        }
+        escritoresAtivos.set(false);
+        for (var tarefa : tarefas) {
+            tarefa.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Assert
+        for (var id : ids) {
+            var mensagem = cache.buscar(id, chave -> gerarMensagem(chave, banco.get(chave)));
+            assertThat(mensagem.getConteudo()).isEqualTo("500");
+        }
+    }
+
+    private static Mensagem gerarMensagem(UUID id, int versao) {
+        var mensagem = MensagemHelper.gerarMensagem();
+        mensagem.setId(id);
+        mensagem.setConteudo(String.valueOf(versao));
+        return mensagem;
+    }
+}
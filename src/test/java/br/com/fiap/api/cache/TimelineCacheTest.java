@@ -0,0 +1,137 @@
+package br.com.fiap.api.cache;
+
+import br.com.fiap.api.model.Mensagem;
+import br.com.fiap.api.model.MensagemCursor;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimelineCacheTest {
+
+    private static final int MENSAGENS_POR_USUARIO = 10;
+
+    private final AtomicLong relogio = new AtomicLong();
+
+    private final AtomicInteger carregamentos = new AtomicInteger();
+
+    private TimelineCache criarCache() {
+        return new TimelineCache(true, 100, MENSAGENS_POR_USUARIO, Duration.ofMinutes(1), relogio::get, Runnable::run);
+    }
+
+    @Test
+    void devePermitirListarPrimeiraPagina_SemConsultarBancoNovamente() {
+        // Arrange
+        var cache = criarCache();
+        var timeline = gerarTimeline("jose", 30);
+
+        // Act
+        var primeira = cache.buscar("jose", null, 5, limite -> carregar(timeline, limite));
+        var segunda = cache.buscar("jose", null, 5, limite -> carregar(timeline, limite));
+
+        // Assert
+        assertThat(primeira).hasValue(timeline.subList(0, 6));
+        assertThat(segunda).hasValue(timeline.subList(0, 6));
+        assertThat(carregamentos).hasValue(1);
+    }
+
+    @Test
+    void devePermitirListarPaginaSeguinte_QuandoDentroDoTrechoEmCache() {
+        // Arrange
+        var cache = criarCache();
+        var timeline = gerarTimeline("jose", 30);
+        var cursor = MensagemCursor.de(timeline.get(2));
+
+        // Act
+        var pagina = cache.buscar("jose", cursor, 3, limite -> carregar(timeline, limite));
+
+        // Assert
+        assertThat(pagina).hasValue(timeline.subList(3, 7));
+    }
+
+    @Test
+    void naoDeveResponder_QuandoPaginaUltrapassaTrechoEmCache() {
+        // Arrange
+        var cache = criarCache();
+        var timeline = gerarTimeline("jose", 30);
+        var cursor = MensagemCursor.de(timeline.get(7));
+
+        // Act
+        var pagina = cache.buscar("jose", cursor, 3, limite -> carregar(timeline, limite));
+        var paginaGrande = cache.buscar("jose", null, MENSAGENS_POR_USUARIO, limite -> carregar(timeline, limite));
+
+        // Assert
+        assertThat(pagina).isEmpty();
+        assertThat(paginaGrande).isEmpty();
+    }
+
+    @Test
+    void devePermitirListarUltimaPagina_QuandoTimelineInteiraEmCache() {
+        // Arrange
+        var cache = criarCache();
+        var timeline = gerarTimeline("jose", 4);
+        var cursor = MensagemCursor.de(timeline.get(1));
+
+        // Act
+        var pagina = cache.buscar("jose", cursor, 5, limite -> carregar(timeline, limite));
+
+        // Assert
+        assertThat(pagina).hasValue(timeline.subList(2, 4));
+    }
+
+    @Test
+    void deveInvalidarApenasTimelinesComAMensagem() {
+        // Arrange
+        var cache = criarCache();
+        var timelineJose = gerarTimeline("jose", 5);
+        var timelineMaria = gerarTimeline("maria", 5);
+        cache.buscar("jose", null, 3, limite -> carregar(timelineJose, limite));
+        cache.buscar("maria", null, 3, limite -> carregar(timelineMaria, limite));
+
+        // Act
+        cache.invalidarMensagens(Set.of(timelineJose.get(4).getId()));
+        cache.buscar("jose", null, 3, limite -> carregar(timelineJose, limite));
+        cache.buscar("maria", null, 3, limite -> carregar(timelineMaria, limite));
+
+        // Assert
+        assertThat(carregamentos).hasValue(3);
+    }
+
+    @Test
+    void naoDeveResponder_QuandoCacheDesabilitado() {
+        // Arrange
+        var cache = TimelineCache.desabilitado();
+
+        // Act
+        var pagina = cache.buscar("jose", null, 5, limite -> carregar(gerarTimeline("jose", 5), limite));
+
+        // Assert
+        assertThat(pagina).isEmpty();
+        assertThat(carregamentos).hasValue(0);
+    }
+
+    private List<Mensagem> carregar(List<Mensagem> timeline, int limite) {
+        carregamentos.incrementAndGet();
+        return timeline.subList(0, Math.min(limite, timeline.size()));
+    }
+
+    private static List<Mensagem> gerarTimeline(String usuario, int total) {
+        var agora = LocalDateTime.now();
+        return IntStream.range(0, total)
+                .mapToObj(i -> Mensagem.builder()
+                        .id(UUID.randomUUID())
+                        .usuario(usuario)
+                        .conteudo("mensagem " + i)
+                        .dataCriacao(agora.minusSeconds(i))
+                        .build())
+                .toList();
+    }
+}
@@ -0,0 +1,54 @@
+package br.com.fiap.api.config;
+
+import br.com.fiap.api.model.Mensagem;
+import br.com.fiap.api.model.MensagemResumo;
+import br.com.fiap.api.model.MensagemVersao;
+import br.com.fiap.api.model.ResultadoLote;
+import br.com.fiap.api.repository.MensagemRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.SpringProxy;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.core.DecoratingProxy;
+import org.springframework.data.repository.Repository;
+import org.springframework.transaction.interceptor.TransactionalProxy;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImagemNativaHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @Test
+    void deveRegistrarReflexaoDaEntidadeEDosTiposSerializados() throws NoSuchMethodException {
+        // Act
+        new ImagemNativaHints().registerHints(hints, getClass().getClassLoader());
+
+        // Assert
+        var reflexao = RuntimeHintsPredicates.reflection();
+        assertThat(reflexao.onType(Mensagem.class).withMemberCategory(MemberCategory.DECLARED_FIELDS)).accepts(hints);
+        assertThat(reflexao.onMethod(Mensagem.class, "getConteudo")).accepts(hints);
+        assertThat(reflexao.onMethod(Mensagem.class, "setConteudo")).accepts(hints);
+        assertThat(reflexao.onType(ResultadoLote.Erro.class)).accepts(hints);
+        assertThat(reflexao.onConstructor(MensagemVersao.class.getConstructor(UUID.class, Long.class, int.class)))
+                .accepts(hints);
+        assertThat(reflexao.onConstructor(MensagemResumo.class.getConstructor(UUID.class, String.class, String.class,
+                LocalDateTime.class, int.class))).accepts(hints);
+    }
+
+    @Test
+    void deveRegistrarProxyDoRepositorioERecursosSql() {
+        // Act
+        new ImagemNativaHints().registerHints(hints, getClass().getClassLoader());
+
+        // Assert
+        assertThat(RuntimeHintsPredicates.proxies().forInterfaces(MensagemRepository.class, Repository.class,
+                TransactionalProxy.class, SpringProxy.class, Advised.class, DecoratingProxy.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource("db/mensagem-particionada.sql")).accepts(hints);
+    }
+}
@@ -0,0 +1,55 @@
+package br.com.fiap.api.config;
+
+import io.qameta.allure.restassured.AllureRestAssured;
+import io.restassured.RestAssured;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.containsString;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase
+@AutoConfigureObservability
+public class MetricasIT {
+
+    @LocalServerPort
+    private int port;
+
+    @BeforeEach
+    void setup() {
+        RestAssured.port = port;
+        RestAssured.enableLoggingOfRequestAndResponseIfValidationFails();
+    }
+
+    @Test
+    void devePermitirConsultarMetricasNoFormatoPrometheus() {
+        given()
+                .filter(new AllureRestAssured())
+                .when()
+                .get("/mensagens?modo=cursor&size=5")
+                .then()
+                .statusCode(HttpStatus.OK.value());
+
+        given()
+                .filter(new AllureRestAssured())
+                .when()
+                .get("/actuator/prometheus")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body(containsString("http_server_requests_seconds_bucket"))
+                .body(containsString("mensagem_service_seconds_bucket"))
+                .body(containsString("spring_data_repository_invocations_seconds_bucket"))
+                .body(containsString("hikaricp_connections_active"))
+                .body(containsString("hibernate_sessions_open_total"))
+                .body(containsString("jvm_memory_used_bytes"))
+                .body(containsString("mensagem_cache_gets_total"));
+    }
+}
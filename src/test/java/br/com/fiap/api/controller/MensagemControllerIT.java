@@ -2,23 +2,41 @@ package br.com.fiap.api.controller;
 
 import br.com.fiap.api.model.Mensagem;
 import br.com.fiap.api.utils.MensagemHelper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 import io.qameta.allure.restassured.AllureRestAssured;
 import io.restassured.RestAssured;
+import io.restassured.response.Response;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
 
 import static io.restassured.RestAssured.given;
 import static io.restassured.RestAssured.when;
 import static io.restassured.module.jsv.JsonSchemaValidator.matchesJsonSchemaInClasspath;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -83,6 +101,29 @@ public class MensagemControllerIT {
                     .statusCode(HttpStatus.OK.value());
         }
 
+        @Test
+        void deveResponderNaoModificado_QuandoETagNaoMudar() {
+            var id = "3ab78d54-fe97-4044-806f-583f88065d3b";
+            var etag = given()
+                    .filter(new AllureRestAssured())
+                    .when()
+                    .get("/mensagens/{id}", id)
+                    .then()
+                    .statusCode(HttpStatus.OK.value())
+                    .header(HttpHeaders.ETAG, notNullValue())
+                    .extract().header(HttpHeaders.ETAG);
+
+            given()
+                    .filter(new AllureRestAssured())
+                    .header(HttpHeaders.IF_NONE_MATCH, etag)
+                    .when()
+                    .get("/mensagens/{id}", id)
+                    .then()
+                    .statusCode(HttpStatus.NOT_MODIFIED.value())
+                    .header(HttpHeaders.ETAG, equalTo(etag))
+                    .body(emptyString());
+        }
+
         @Test
         void deveGerarExcecao_QuandoBuscarMensagem_IdNaoExistir() {
             var id = "3ab78d54-fe97-4044-806f-583f88065d3";
@@ -178,6 +219,93 @@ public class MensagemControllerIT {
         }
     }
 
+    @Nested
+    class AlterarMensagemParcialmente {
+
+        @Test
+        void deveGerarConflito_QuandoAlterarMensagemParcialmente_VersaoDesatualizada() {
+            var id = registrarMensagem("0");
+            var etag = when().get("/mensagens/{id}", id).then().extract().header(HttpHeaders.ETAG);
+            alterar(id, etag, "1").then().statusCode(HttpStatus.OK.value());
+
+            given()
+                    .filter(new AllureRestAssured())
+                    .header(HttpHeaders.IF_MATCH, etag)
+                    .contentType(MediaType.APPLICATION_JSON_VALUE)
+                    .body("{\"conteudo\": \"2\"}")
+                    .when()
+                    .patch("/mensagens/{id}", id)
+                    .then()
+                    .statusCode(HttpStatus.PRECONDITION_FAILED.value())
+                    .header(HttpHeaders.ETAG, not(equalTo(etag)));
+        }
+
+        @Test
+        void naoDevePerderAlteracoes_QuandoMuitosEscritoresNaMesmaMensagem() throws Exception {
+            var id = registrarMensagem("0");
+            var escritores = 16;
+            var alteracoesPorEscritor = 25;
+            var conflitos = new AtomicInteger();
+            var executor = Executors.newFixedThreadPool(escritores);
+            var inicio = new CountDownLatch(1);
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int e = 0; e < escritores; e++) {
+                tarefas.add(executor.submit(() -> {
+                    inicio.await();
+                    for (int i = 0; i < alteracoesPorEscritor; i++) {
+                        // lê, incrementa e grava na versão lida; em conflito, relê e tenta de novo
+                        while (true) {
+                            var leitura = when().get("/mensagens/{id}", id).then().extract();
+                            var valor = Integer.parseInt(leitura.path("conteudo"));
+                            var status = alterar(id, leitura.header(HttpHeaders.ETAG), String.valueOf(valor + 1))
+                                    .statusCode();
+                            if (status == HttpStatus.OK.value()) {
+                                break;
+                            }
+                            assertThat(status).isEqualTo(HttpStatus.PRECONDITION_FAILED.value());
+                            conflitos.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+
+            inicio.countDown();
+            for (var tarefa : tarefas) {
+                tarefa.get(60, TimeUnit.SECONDS);
+            }
+            executor.shutdown();
+
+            // sem conflitos o teste não teria exercitado a concorrência
+            assertThat(conflitos.get()).isPositive();
+            when().get("/mensagens/{id}", id)
+                    .then()
+                    .statusCode(HttpStatus.OK.value())
+                    .body("conteudo", equalTo(String.valueOf(escritores * alteracoesPorEscritor)))
+                    .header(HttpHeaders.ETAG, startsWith("\"v" + escritores * alteracoesPorEscritor + "g"));
+        }
+
+        private String registrarMensagem(String conteudo) {
+            return given()
+                    .contentType(MediaType.APPLICATION_JSON_VALUE)
+                    .body(Mensagem.builder().usuario("Ana").conteudo(conteudo).build())
+                    .when()
+                    .post("/mensagens")
+                    .then()
+                    .statusCode(HttpStatus.CREATED.value())
+                    .extract().path("id");
+        }
+
+        private Response alterar(String id, String etag, String conteudo) {
+            return given()
+                    .header(HttpHeaders.IF_MATCH, etag)
+                    .contentType(MediaType.APPLICATION_JSON_VALUE)
+                    .body("{\"conteudo\": \"" + conteudo + "\"}")
+                    .when()
+                    .patch("/mensagens/{id}", id);
+        }
+    }
+
     @Nested
     class RemoverMensagem {
         @Test
@@ -204,6 +332,128 @@ public class MensagemControllerIT {
         }
     }
 
+    @Nested
+    class BuscarMensagensPorConteudo {
+
+        @Test
+        void devePermitirBuscarMensagensPorConteudo() {
+            given()
+                    .filter(new AllureRestAssured())
+                    .queryParam("q", "mensagem 01")
+                    .when()
+                    .get("/mensagens/busca")
+                    .then()
+                    .statusCode(HttpStatus.OK.value())
+                    .body("id", hasItem("a520c636-6205-48bb-ac5f-3e4eaddb56f4"));
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoBuscarMensagens_SemConsulta() {
+            given()
+                    .filter(new AllureRestAssured())
+                    .when()
+                    .get("/mensagens/busca")
+                    .then()
+                    .statusCode(HttpStatus.BAD_REQUEST.value());
+        }
+    }
+
+    @Nested
+    class ListarMensagensPorUsuario {
+
+        @Test
+        void devePermitirListarMensagensPorUsuario() {
+            given()
+                    .filter(new AllureRestAssured())
+                    .queryParam("size", 5)
+                    .when()
+                    .get("/mensagens/usuario/{usuario}", "José")
+                    .then()
+                    .statusCode(HttpStatus.OK.value())
+                    .body("content.usuario", everyItem(equalTo("José")))
+                    .body("content.id", hasItem("a520c636-6205-48bb-ac5f-3e4eaddb56f4"));
+        }
+    }
+
+    @Nested
+    class ListarResumos {
+
+        @Test
+        void devePermitirListarResumos_ComPreviaTruncada() {
+            given()
+                    .filter(new AllureRestAssured())
+                    .queryParam("modo", "resumo")
+                    .queryParam("size", 2)
+                    .queryParam("previa", 8)
+                    .when()
+                    .get("/mensagens")
+                    .then()
+                    .statusCode(HttpStatus.OK.value())
+                    .body("content", hasSize(2))
+                    .body("content.previa", everyItem(matchesPattern("(?s).{0,8}")))
+                    .body("content[0]", not(hasKey("conteudo")))
+                    .body("hasNext", equalTo(true))
+                    .body("nextCursor", notNullValue());
+        }
+    }
+
+    @Nested
+    class CamposParciais {
+
+        @Test
+        void devePermitirBuscarMensagem_ApenasCamposInformados() {
+            given()
+                    .filter(new AllureRestAssured())
+                    .queryParam("fields", "usuario")
+                    .when()
+                    .get("/mensagens/{id}", "4f38bddc-3358-4e6a-8bd7-38048fb0ea1c")
+                    .then()
+                    .statusCode(HttpStatus.OK.value())
+                    .body("id", equalTo("4f38bddc-3358-4e6a-8bd7-38048fb0ea1c"))
+                    .body("usuario", equalTo("Matheus"))
+                    .body("$", not(hasKey("conteudo")))
+                    .body("$", not(hasKey("dataCriacao")));
+        }
+
+        @Test
+        void devePermitirListarMensagens_ApenasCamposInformados() {
+            given()
+                    .filter(new AllureRestAssured())
+                    .queryParam("modo", "cursor")
+                    .queryParam("size", 2)
+                    .queryParam("fields", "usuario,gostei")
+                    .when()
+                    .get("/mensagens")
+                    .then()
+                    .statusCode(HttpStatus.OK.value())
+                    .body("content", hasSize(2))
+                    .body("content[0]", allOf(hasKey("id"), hasKey("usuario"), hasKey("gostei")))
+                    .body("content[0]", not(hasKey("conteudo")))
+                    .body("nextCursor", notNullValue());
+        }
+    }
+
+    @Nested
+    class ExportarMensagens {
+
+        @Test
+        void devePermitirExportarMensagens() {
+            var corpo = given()
+                    .filter(new AllureRestAssured())
+                    .when()
+                    .get("/mensagens/export")
+                    .then()
+                    .statusCode(HttpStatus.OK.value())
+                    .contentType("application/x-ndjson")
+                    .extract()
+                    .asString();
+
+            org.assertj.core.api.Assertions.assertThat(corpo.lines().toList())
+                    .isNotEmpty()
+                    .allSatisfy(linha -> org.assertj.core.api.Assertions.assertThat(linha).contains("\"conteudo\""));
+        }
+    }
+
     @Nested
     class ListarMensagem {
 
@@ -229,5 +479,49 @@ public class MensagemControllerIT {
                     .statusCode(HttpStatus.OK.value())
                     .body(matchesJsonSchemaInClasspath("schemas/mensagem.page.schema.json"));
         }
+
+        @Test
+        void devePermitirListarMensagem_SemContagemTotal() {
+            given()
+                    .filter(new AllureRestAssured())
+                    .queryParam("modo", "slice")
+                    .queryParam("size", 1)
+                    .when()
+                    .get("/mensagens")
+                    .then()
+                    .statusCode(HttpStatus.OK.value())
+                    .body("content", hasSize(1))
+                    .body("hasNext", equalTo(true))
+                    .body("$", not(hasKey("totalElements")));
+        }
+
+        // HttpClient não descompacta a resposta, o que permite conferir o Content-Encoding
+        @Test
+        void devePermitirListarMensagem_EmCborCompactado() throws Exception {
+            // acima do min-response-size da compressão
+            for (int i = 0; i < 30; i++) {
+                given()
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .body(MensagemHelper.gerarMensagem())
+                        .post("/mensagens")
+                        .then()
+                        .statusCode(HttpStatus.CREATED.value());
+            }
+            var resposta = HttpClient.newHttpClient().send(
+                    HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/mensagens?size=50"))
+                            .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_CBOR_VALUE)
+                            .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                            .GET()
+                            .build(),
+                    HttpResponse.BodyHandlers.ofByteArray());
+
+            assertThat(resposta.statusCode()).isEqualTo(HttpStatus.OK.value());
+            assertThat(resposta.headers().firstValue(HttpHeaders.CONTENT_TYPE))
+                    .hasValueSatisfying(tipo -> assertThat(tipo).startsWith(MediaType.APPLICATION_CBOR_VALUE));
+            assertThat(resposta.headers().firstValue(HttpHeaders.CONTENT_ENCODING)).contains("gzip");
+            var pagina = new ObjectMapper(new CBORFactory())
+                    .readTree(new GZIPInputStream(new ByteArrayInputStream(resposta.body())));
+            assertThat(pagina.get("content")).isNotEmpty();
+        }
     }
 }
@@ -1,11 +1,25 @@
 package br.com.fiap.api.controller;
 
+import br.com.fiap.api.exception.AssinaturaRecusadaException;
+import br.com.fiap.api.exception.IngestaoSaturadaException;
+import br.com.fiap.api.exception.MensagemConflitoException;
 import br.com.fiap.api.exception.MensagemNotFoundException;
+import br.com.fiap.api.exception.MensagemPendenteException;
 import br.com.fiap.api.model.Mensagem;
+import br.com.fiap.api.model.MensagemAlteracao;
+import br.com.fiap.api.model.MensagemCursor;
+import br.com.fiap.api.model.MensagemResumo;
+import br.com.fiap.api.model.MensagemVersao;
+import br.com.fiap.api.model.PaginaCursor;
+import br.com.fiap.api.model.ResultadoLote;
 import br.com.fiap.api.service.MensagemService;
+import br.com.fiap.api.stream.TransmissorMensagens;
 import br.com.fiap.api.utils.MensagemHelper;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import jdk.jfr.Description;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -14,13 +28,33 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.endsWith;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -33,12 +67,17 @@ public class MensagemControllerTest {
     @Mock
     private MensagemService mensagemService;
 
+    @Mock
+    private TransmissorMensagens transmissorMensagens;
+
     AutoCloseable mock;
 
     @BeforeEach
     void setup() {
         mock = MockitoAnnotations.openMocks(this);
-        MensagemController mensagemController = new MensagemController(mensagemService);
+        var objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        MensagemController mensagemController = new MensagemController(mensagemService, objectMapper,
+                transmissorMensagens);
         mockMvc = MockMvcBuilders.standaloneSetup(mensagemController)
                 .addFilter((request, response, chain) -> {
                     response.setCharacterEncoding("UTF-8");
@@ -73,6 +112,82 @@ public class MensagemControllerTest {
 
         }
 
+        @Test
+        void deveGerarExcecao_QuandoRegistrarMensagem_Invalida() throws Exception {
+            // Arrange
+            when(mensagemService.registrarMensagem(any(Mensagem.class)))
+                    .thenThrow(new IllegalArgumentException("O campo conteudo é obrigatório"));
+
+            // Act & Assert
+            mockMvc.perform(
+                        post("/mensagens")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(Mensagem.builder().usuario("Jose").build()))
+                    )
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string("O campo conteudo é obrigatório"));
+        }
+
+        @Test
+        void devePermitirAceitarMensagem_QuandoRegistroAssincrono() throws Exception {
+            // Arrange
+            var mensagem = MensagemHelper.gerarMensagem();
+            when(mensagemService.registrarMensagem(any(Mensagem.class)))
+                    .thenAnswer(i -> i.getArgument(0));
+            when(mensagemService.registroAssincrono()).thenReturn(true);
+
+            // Act & Assert
+            mockMvc.perform(
+                        post("/mensagens")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(mensagem))
+                    )
+                    .andExpect(status().isAccepted());
+        }
+
+        @Test
+        void devePermitirRegistrarMensagem_EmSmile() throws Exception {
+            // Arrange
+            var smile = new ObjectMapper(new SmileFactory()).registerModule(new JavaTimeModule());
+            var mensagem = MensagemHelper.gerarMensagem();
+            when(mensagemService.registrarMensagem(any(Mensagem.class)))
+                    .thenAnswer(i -> i.getArgument(0));
+
+            // Act
+            var resposta = mockMvc.perform(
+                        post("/mensagens")
+                        .contentType(MensagemController.APPLICATION_SMILE_VALUE)
+                        .accept(MensagemController.APPLICATION_SMILE_VALUE)
+                        .content(smile.writeValueAsBytes(mensagem))
+                    )
+                    .andExpect(status().isCreated())
+                    .andExpect(content().contentTypeCompatibleWith(MensagemController.APPLICATION_SMILE_VALUE))
+                    .andReturn()
+                    .getResponse()
+                    .getContentAsByteArray();
+
+            // Assert
+            assertThat(smile.readValue(resposta, Mensagem.class).getUsuario()).isEqualTo(mensagem.getUsuario());
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoRegistrarMensagem_FilaCheia() throws Exception {
+            // Arrange
+            var mensagem = MensagemHelper.gerarMensagem();
+            when(mensagemService.registrarMensagem(any(Mensagem.class)))
+                    .thenThrow(new IngestaoSaturadaException("Fila de registro cheia, tente novamente"));
+
+            // Act & Assert
+            mockMvc.perform(
+                        post("/mensagens")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(mensagem))
+                    )
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                    .andExpect(content().string("Fila de registro cheia, tente novamente"));
+        }
+
         @Test
         void deveGerarExcecao_QuandoRegistrarMensagem_PayloadXML() throws Exception {
             // Arrange
@@ -89,6 +204,46 @@ public class MensagemControllerTest {
         }
     }
 
+    @Nested
+    class RegistrarMensagensEmLote {
+
+        @Test
+        void devePermitirRegistrarMensagensEmLote() throws Exception {
+            // Arrange
+            var mensagens = List.of(MensagemHelper.gerarMensagem(), MensagemHelper.gerarMensagem());
+            when(mensagemService.registrarMensagens(anyList()))
+                    .thenReturn(new ResultadoLote(2, List.of(UUID.randomUUID(), UUID.randomUUID()), List.of()));
+
+            // Act & Assert
+            mockMvc.perform(
+                        post("/mensagens/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(mensagens))
+                    )
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.registradas.length()").value(2));
+            verify(mensagemService, times(1)).registrarMensagens(anyList());
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoRegistrarMensagensEmLote_NenhumaValida() throws Exception {
+            // Arrange
+            var mensagens = List.of(new Mensagem());
+            when(mensagemService.registrarMensagens(anyList()))
+                    .thenReturn(new ResultadoLote(1, List.of(),
+                            List.of(new ResultadoLote.Erro(0, List.of("O campo usuario é obrigatório")))));
+
+            // Act & Assert
+            mockMvc.perform(
+                        post("/mensagens/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(mensagens))
+                    )
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.erros[0].indice").value(0));
+        }
+    }
+
     @Nested
     class BuscarMensagem {
 
@@ -109,6 +264,32 @@ public class MensagemControllerTest {
             verify(mensagemService, times(1)).buscarMensagem(any(UUID.class));
         }
 
+        @Test
+        void devePermitirBuscarMensagem_EmCbor() throws Exception {
+            // Arrange
+            var mensagem = MensagemHelper.gerarMensagem();
+            mensagem.setId(UUID.randomUUID());
+            when(mensagemService.buscarMensagem(any(UUID.class))).thenReturn(mensagem);
+
+            // Act
+            var resposta = mockMvc.perform(
+                        get("/mensagens/{id}", mensagem.getId())
+                        .accept(MediaType.APPLICATION_CBOR)
+                    )
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                    .andReturn()
+                    .getResponse()
+                    .getContentAsByteArray();
+
+            // Assert
+            var cbor = new ObjectMapper(new CBORFactory()).registerModule(new JavaTimeModule());
+            var recebida = cbor.readValue(resposta, Mensagem.class);
+            assertThat(recebida.getId()).isEqualTo(mensagem.getId());
+            assertThat(recebida.getConteudo()).isEqualTo(mensagem.getConteudo());
+            assertThat(resposta.length).isLessThan(asJsonString(mensagem).getBytes(StandardCharsets.UTF_8).length);
+        }
+
         @Test
         @Description("Valida o cenário de exeção ao efetuar uma busca de mensagem quando o ID não existir")
         void deveGerarExcecao_QuandoBuscarMensagem_IdNaoExistir() throws Exception {
@@ -123,6 +304,143 @@ public class MensagemControllerTest {
                     .andExpect(status().isBadRequest());
             verify(mensagemService, times(1)).buscarMensagem(any(UUID.class));
         }
+
+        @Test
+        void devePermitirBuscarMensagem_ComETag() throws Exception {
+            // Arrange
+            var id = UUID.fromString("612bffb7-d39f-421b-aa53-140fbcb6d682");
+            var mensagem = MensagemHelper.gerarMensagem();
+            mensagem.setId(id);
+            mensagem.setVersao(2L);
+            mensagem.setGostei(5);
+            when(mensagemService.buscarMensagem(any(UUID.class)))
+                    .thenReturn(mensagem);
+
+            // Act & Assert
+            mockMvc.perform(get("/mensagens/{id}", id))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"v2g5\""))
+                    .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+            verify(mensagemService, never()).etagMensagem(any(UUID.class));
+        }
+
+        @Test
+        void deveResponderNaoModificado_QuandoETagNaoMudar() throws Exception {
+            // Arrange
+            var id = UUID.fromString("612bffb7-d39f-421b-aa53-140fbcb6d682");
+            when(mensagemService.etagMensagem(any(UUID.class)))
+                    .thenReturn("v2g5");
+
+            // Act & Assert
+            mockMvc.perform(get("/mensagens/{id}", id)
+                            .header(HttpHeaders.IF_NONE_MATCH, "\"v2g5\""))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"v2g5\""))
+                    .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                    .andExpect(content().string(""));
+            verify(mensagemService, never()).buscarMensagem(any(UUID.class));
+        }
+
+        @Test
+        void devePermitirBuscarMensagem_QuandoETagMudar() throws Exception {
+            // Arrange
+            var id = UUID.fromString("612bffb7-d39f-421b-aa53-140fbcb6d682");
+            var mensagem = MensagemHelper.gerarMensagem();
+            mensagem.setId(id);
+            mensagem.setVersao(3L);
+            when(mensagemService.etagMensagem(any(UUID.class)))
+                    .thenReturn("v3g0");
+            when(mensagemService.buscarMensagem(any(UUID.class)))
+                    .thenReturn(mensagem);
+
+            // Act & Assert
+            mockMvc.perform(get("/mensagens/{id}", id)
+                            .header(HttpHeaders.IF_NONE_MATCH, "\"v2g0\""))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"v3g0\""));
+            verify(mensagemService, times(1)).buscarMensagem(id);
+        }
+    }
+
+    @Nested
+    class ListarMensagens {
+
+        @Test
+        void deveResponderNaoModificado_QuandoPaginaNaoMudar() throws Exception {
+            // Arrange
+            var mensagem = MensagemHelper.gerarMensagem();
+            mensagem.setId(UUID.randomUUID());
+            mensagem.setVersao(0L);
+            var pagina = new PageImpl<>(List.of(mensagem), PageRequest.of(0, 10), 1);
+            when(mensagemService.listarMensagens(any(Pageable.class)))
+                    .thenReturn(pagina);
+            when(mensagemService.etagMensagens(any(Pageable.class)))
+                    .thenReturn(MensagemVersao.etag(pagina.map(MensagemVersao::de)));
+            var etag = mockMvc.perform(get("/mensagens"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+            // Act & Assert
+            mockMvc.perform(get("/mensagens").header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isNotModified());
+            verify(mensagemService, times(1)).listarMensagens(any(Pageable.class));
+            verify(mensagemService, times(1)).etagMensagens(PageRequest.of(0, 10));
+        }
+
+        @Test
+        void deveIdentificarFormatoNoETag_QuandoListarMensagensEmCbor() throws Exception {
+            // Arrange
+            var mensagem = MensagemHelper.gerarMensagem();
+            mensagem.setId(UUID.randomUUID());
+            mensagem.setVersao(0L);
+            var pagina = new PageImpl<>(List.of(mensagem), PageRequest.of(0, 10), 1);
+            when(mensagemService.listarMensagens(any(Pageable.class)))
+                    .thenReturn(pagina);
+
+            // Act & Assert
+            mockMvc.perform(get("/mensagens").accept(MediaType.APPLICATION_CBOR))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                    .andExpect(header().string(HttpHeaders.ETAG, endsWith("-cbor\"")))
+                    .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+        }
+    }
+
+    @Nested
+    class RegistrarGostei {
+
+        @Test
+        void devePermitirRegistrarGostei() throws Exception {
+            // Arrange
+            var id = UUID.fromString("612bffb7-d39f-421b-aa53-140fbcb6d682");
+            var mensagem = MensagemHelper.gerarMensagem();
+            mensagem.setGostei(1);
+            when(mensagemService.registrarGostei(any(UUID.class)))
+                    .thenReturn(mensagem);
+
+            // Act & Assert
+            mockMvc.perform(
+                        post("/mensagens/{id}/gostei", id)
+                    )
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.gostei").value(1));
+            verify(mensagemService, times(1)).registrarGostei(id);
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoRegistrarGostei_IdNaoExistir() throws Exception {
+            // Arrange
+            var id = UUID.fromString("dcc8b985-556d-45be-8136-1c860b567b78");
+            when(mensagemService.registrarGostei(any(UUID.class)))
+                    .thenThrow(new MensagemNotFoundException("Mensagem não encontrada"));
+
+            // Act & Assert
+            mockMvc.perform(
+                        post("/mensagens/{id}/gostei", id)
+                    )
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string("Mensagem não encontrada"));
+        }
     }
 
     @Nested
@@ -149,6 +467,24 @@ public class MensagemControllerTest {
                     .alterarMensagem(any(UUID.class), any(Mensagem.class));
         }
 
+        @Test
+        void deveGerarExcecao_QuandoAlterarMensagem_ConteudoVazio() throws Exception {
+            // Arrange
+            var id = UUID.randomUUID();
+            var mensagem = Mensagem.builder().id(id).usuario("Jose").conteudo("").build();
+            when(mensagemService.alterarMensagem(any(UUID.class), any(Mensagem.class)))
+                    .thenThrow(new IllegalArgumentException("O campo conteudo é obrigatório"));
+
+            // Act & Assert
+            mockMvc.perform(
+                        put("/mensagens/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(mensagem))
+                    )
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string("O campo conteudo é obrigatório"));
+        }
+
         @Test
         void deveGerarExcecao_QuandoAlterarMensagem_IdNaoExiste() throws Exception {
             // Arrange
@@ -193,6 +529,26 @@ public class MensagemControllerTest {
                     .alterarMensagem(any(UUID.class), any(Mensagem.class));
         }
 
+        @Test
+        void deveGerarConflito_QuandoAlterarMensagem_GravacaoPendente() throws Exception {
+            // Arrange
+            var id = UUID.fromString("dcc8b985-556d-45be-8136-1c860b567b78");
+            var mensagem = MensagemHelper.gerarMensagem();
+            mensagem.setId(id);
+            when(mensagemService.alterarMensagem(any(UUID.class), any(Mensagem.class)))
+                    .thenThrow(new MensagemPendenteException("A mensagem ainda está sendo gravada, tente novamente"));
+
+            // Act & Assert
+            mockMvc.perform(
+                            put("/mensagens/{id}", id)
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(asJsonString(mensagem))
+                    )
+                    .andExpect(status().isConflict())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                    .andExpect(content().string("A mensagem ainda está sendo gravada, tente novamente"));
+        }
+
         @Test
         void deveGerarExcecao_QuandoAlterarMensagem_PayloadXML() throws Exception {
             // Arrange
@@ -210,6 +566,177 @@ public class MensagemControllerTest {
         }
     }
 
+    @Nested
+    class AlterarMensagemParcialmente {
+
+        @Test
+        void devePermitirAlterarMensagemParcialmente() throws Exception {
+            // Arrange
+            var id = UUID.fromString("d8f8d2f6-96fb-420e-8eb8-3914bea91624");
+            var mensagem = MensagemHelper.gerarMensagem();
+            mensagem.setId(id);
+            mensagem.setConteudo("ABCD 12345");
+            mensagem.setVersao(4L);
+            when(mensagemService.alterarMensagem(any(UUID.class), any(MensagemAlteracao.class), anyLong()))
+                    .thenReturn(mensagem);
+
+            // Act & Assert
+            mockMvc.perform(
+                        patch("/mensagens/{id}", id)
+                        .header(HttpHeaders.IF_MATCH, "\"v3g7\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"conteudo\": \"ABCD 12345\"}")
+                    )
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"v4g0\""));
+            verify(mensagemService, times(1))
+                    .alterarMensagem(id, new MensagemAlteracao(null, "ABCD 12345"), 3L);
+        }
+
+        @Test
+        void deveExigirVersao_QuandoAlterarMensagemParcialmente_SemIfMatch() throws Exception {
+            // Act & Assert
+            mockMvc.perform(
+                        patch("/mensagens/{id}", UUID.randomUUID())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"conteudo\": \"ABCD 12345\"}")
+                    )
+                    .andExpect(status().isPreconditionRequired());
+            verify(mensagemService, never())
+                    .alterarMensagem(any(UUID.class), any(MensagemAlteracao.class), anyLong());
+        }
+
+        @Test
+        void deveGerarConflito_QuandoAlterarMensagemParcialmente_VersaoDesatualizada() throws Exception {
+            // Arrange
+            when(mensagemService.alterarMensagem(any(UUID.class), any(MensagemAlteracao.class), anyLong()))
+                    .thenThrow(new MensagemConflitoException("A mensagem foi alterada por outra requisição", "v5g0"));
+
+            // Act & Assert
+            mockMvc.perform(
+                        patch("/mensagens/{id}", UUID.randomUUID())
+                        .header(HttpHeaders.IF_MATCH, "\"v3g0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"conteudo\": \"ABCD 12345\"}")
+                    )
+                    .andExpect(status().isPreconditionFailed())
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"v5g0\""))
+                    .andExpect(content().string("A mensagem foi alterada por outra requisição"));
+        }
+
+        @Test
+        void deveGerarConflito_QuandoAlterarMensagemParcialmente_GravacaoPendente() throws Exception {
+            // Arrange
+            when(mensagemService.alterarMensagem(any(UUID.class), any(MensagemAlteracao.class), anyLong()))
+                    .thenThrow(new MensagemPendenteException("A mensagem ainda está sendo gravada, tente novamente"));
+
+            // Act & Assert
+            mockMvc.perform(
+                        patch("/mensagens/{id}", UUID.randomUUID())
+                        .header(HttpHeaders.IF_MATCH, "\"v0g0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"conteudo\": \"ABCD 12345\"}")
+                    )
+                    .andExpect(status().isConflict())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                    .andExpect(content().string("A mensagem ainda está sendo gravada, tente novamente"));
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoAlterarMensagemParcialmente_VersaoInvalida() throws Exception {
+            // Act & Assert
+            mockMvc.perform(
+                        patch("/mensagens/{id}", UUID.randomUUID())
+                        .header(HttpHeaders.IF_MATCH, "W/\"abc\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"conteudo\": \"ABCD 12345\"}")
+                    )
+                    .andExpect(status().isPreconditionFailed())
+                    .andExpect(content().string("Versão inválida"));
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoAlterarMensagemParcialmente_ETagFraco() throws Exception {
+            // Act & Assert
+            mockMvc.perform(
+                        patch("/mensagens/{id}", UUID.randomUUID())
+                        .header(HttpHeaders.IF_MATCH, "W/\"v3g0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"conteudo\": \"ABCD 12345\"}")
+                    )
+                    .andExpect(status().isPreconditionFailed())
+                    .andExpect(content().string("Versão inválida"));
+            verify(mensagemService, never())
+                    .alterarMensagem(any(UUID.class), any(MensagemAlteracao.class), anyLong());
+        }
+
+        @Test
+        void devePermitirAlterarMensagemParcialmente_QualquerVersao() throws Exception {
+            // Arrange
+            var id = UUID.fromString("d8f8d2f6-96fb-420e-8eb8-3914bea91624");
+            var mensagem = MensagemHelper.gerarMensagem();
+            mensagem.setId(id);
+            mensagem.setVersao(8L);
+            when(mensagemService.etagMensagem(id)).thenReturn("v7g2");
+            when(mensagemService.alterarMensagem(any(UUID.class), any(MensagemAlteracao.class), anyLong()))
+                    .thenReturn(mensagem);
+
+            // Act & Assert
+            mockMvc.perform(
+                        patch("/mensagens/{id}", id)
+                        .header(HttpHeaders.IF_MATCH, "*")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"conteudo\": \"ABCD 12345\"}")
+                    )
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"v8g0\""));
+            verify(mensagemService, times(1))
+                    .alterarMensagem(id, new MensagemAlteracao(null, "ABCD 12345"), 7L);
+        }
+
+        @Test
+        void devePermitirAlterarMensagemParcialmente_ListaDeVersoes() throws Exception {
+            // Arrange
+            var id = UUID.fromString("d8f8d2f6-96fb-420e-8eb8-3914bea91624");
+            var mensagem = MensagemHelper.gerarMensagem();
+            mensagem.setId(id);
+            mensagem.setVersao(5L);
+            when(mensagemService.etagMensagem(id)).thenReturn("v4g0");
+            when(mensagemService.alterarMensagem(any(UUID.class), any(MensagemAlteracao.class), anyLong()))
+                    .thenReturn(mensagem);
+
+            // Act & Assert
+            mockMvc.perform(
+                        patch("/mensagens/{id}", id)
+                        .header(HttpHeaders.IF_MATCH, "\"v3g0\", W/\"v9g0\", \"v4g1-cbor\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"conteudo\": \"ABCD 12345\"}")
+                    )
+                    .andExpect(status().isOk());
+            verify(mensagemService, times(1))
+                    .alterarMensagem(id, new MensagemAlteracao(null, "ABCD 12345"), 4L);
+        }
+
+        @Test
+        void deveGerarConflito_QuandoAlterarMensagemParcialmente_VersaoForaDaLista() throws Exception {
+            // Arrange
+            var id = UUID.randomUUID();
+            when(mensagemService.etagMensagem(id)).thenReturn("v6g0");
+
+            // Act & Assert
+            mockMvc.perform(
+                        patch("/mensagens/{id}", id)
+                        .header(HttpHeaders.IF_MATCH, "\"v3g0\", \"v4g0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"conteudo\": \"ABCD 12345\"}")
+                    )
+                    .andExpect(status().isPreconditionFailed())
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"v6g0\""));
+            verify(mensagemService, never())
+                    .alterarMensagem(any(UUID.class), any(MensagemAlteracao.class), anyLong());
+        }
+    }
+
     @Nested
     class RemoverMensagem {
 
@@ -246,6 +773,444 @@ public class MensagemControllerTest {
                     .andExpect(content().string(mensagem));
             verify(mensagemService, times(1)).removerMensagem(id);
         }
+
+        @Test
+        void deveGerarConflito_QuandoRemoverMensagem_GravacaoPendente() throws Exception {
+            // Arrange
+            var id = UUID.fromString("dcc8b985-556d-45be-8136-1c860b567b78");
+            when(mensagemService.removerMensagem(id))
+                    .thenThrow(new MensagemPendenteException("A mensagem ainda está sendo gravada, tente novamente"));
+
+            // Act & Assert
+            mockMvc.perform(
+                        delete("/mensagens/{id}", id)
+                    )
+                    .andExpect(status().isConflict())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                    .andExpect(content().string("A mensagem ainda está sendo gravada, tente novamente"));
+        }
+    }
+
+    @Nested
+    class ExportarMensagens {
+
+        @Test
+        void devePermitirExportarMensagens_EmNdjson() throws Exception {
+            // Arrange
+            doAnswer(i -> {
+                Consumer<Mensagem> consumidor = i.getArgument(0);
+                consumidor.accept(MensagemHelper.gerarMensagem());
+                consumidor.accept(MensagemHelper.gerarMensagem());
+                return null;
+            }).when(mensagemService).exportarMensagens(any());
+
+            // Act
+            var resultado = mockMvc.perform(get("/mensagens/export"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            // Assert
+            var corpo = mockMvc.perform(asyncDispatch(resultado))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MensagemController.APPLICATION_NDJSON_VALUE))
+                    .andReturn()
+                    .getResponse()
+                    .getContentAsString(StandardCharsets.UTF_8);
+            assertThat(corpo.lines().toList())
+                    .hasSize(2)
+                    .allSatisfy(linha -> assertThat(linha).startsWith("{\"id\":"));
+        }
+
+        @Test
+        void devePermitirExportarMensagens_Compactadas() throws Exception {
+            // Arrange
+            doAnswer(i -> {
+                Consumer<Mensagem> consumidor = i.getArgument(0);
+                consumidor.accept(MensagemHelper.gerarMensagem());
+                return null;
+            }).when(mensagemService).exportarMensagens(any());
+
+            // Act
+            var resultado = mockMvc.perform(get("/mensagens/export").header("Accept-Encoding", "gzip"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            // Assert
+            var corpo = mockMvc.perform(asyncDispatch(resultado))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Content-Encoding", "gzip"))
+                    .andReturn()
+                    .getResponse()
+                    .getContentAsByteArray();
+            try (var entrada = new GZIPInputStream(new ByteArrayInputStream(corpo))) {
+                assertThat(new String(entrada.readAllBytes(), StandardCharsets.UTF_8))
+                        .contains("\"usuario\":\"Jose\"")
+                        .endsWith("\n");
+            }
+        }
+    }
+
+    @Nested
+    class ListarFatiaMensagens {
+
+        @Test
+        void devePermitirListarFatiaMensagens_SemTotal() throws Exception {
+            // Arrange
+            when(mensagemService.listarFatiaMensagens(any(Pageable.class)))
+                    .thenReturn(new SliceImpl<>(List.of(MensagemHelper.gerarMensagem()), PageRequest.of(0, 10), false));
+
+            // Act & Assert
+            mockMvc.perform(
+                        get("/mensagens")
+                        .param("modo", "slice")
+                    )
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.hasNext").value(false))
+                    .andExpect(jsonPath("$.totalElements").doesNotExist());
+            verify(mensagemService, never()).totalMensagens();
+        }
+
+        @Test
+        void devePermitirListarFatiaMensagens_ComTotalMantido() throws Exception {
+            // Arrange
+            when(mensagemService.listarFatiaMensagens(any(Pageable.class)))
+                    .thenReturn(new SliceImpl<>(List.of(MensagemHelper.gerarMensagem()), PageRequest.of(0, 10), true));
+            when(mensagemService.totalMensagens()).thenReturn(42L);
+
+            // Act & Assert
+            mockMvc.perform(
+                        get("/mensagens")
+                        .param("modo", "slice")
+                        .param("total", "true")
+                    )
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.hasNext").value(true))
+                    .andExpect(jsonPath("$.totalElements").value(42));
+            verify(mensagemService, times(1)).totalMensagens();
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoListarFatiaMensagens_TamanhoInvalido() throws Exception {
+            // Act & Assert
+            mockMvc.perform(get("/mensagens").param("modo", "slice").param("size", "0"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string("Tamanho de página inválido"));
+            mockMvc.perform(get("/mensagens").param("modo", "slice").param("size", "101"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string("Tamanho de página inválido"));
+            verify(mensagemService, never()).listarFatiaMensagens(any(Pageable.class));
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoListarFatiaMensagens_PaginaNegativa() throws Exception {
+            // Act & Assert
+            mockMvc.perform(get("/mensagens").param("modo", "slice").param("page", "-1"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string("Página inválida"));
+            verify(mensagemService, never()).listarFatiaMensagens(any(Pageable.class));
+        }
+    }
+
+    @Nested
+    class ListarMensagensPorCursor {
+
+        @Test
+        void devePermitirListarMensagens_PorCursor() throws Exception {
+            // Arrange
+            var cursor = new MensagemCursor(LocalDateTime.of(2024, 10, 4, 0, 0), UUID.randomUUID());
+            when(mensagemService.listarMensagens(any(MensagemCursor.class), anyInt()))
+                    .thenReturn(new PaginaCursor<>(List.of(MensagemHelper.gerarMensagem()), 10, false, null));
+
+            // Act & Assert
+            mockMvc.perform(
+                        get("/mensagens")
+                        .param("modo", "cursor")
+                        .param("cursor", cursor.codificar())
+                    )
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.hasNext").value(false));
+            verify(mensagemService, times(1)).listarMensagens(cursor, 10);
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoListarMensagens_CursorInvalido() throws Exception {
+            // Act & Assert
+            mockMvc.perform(
+                        get("/mensagens")
+                        .param("modo", "cursor")
+                        .param("cursor", "invalido")
+                    )
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string("Cursor inválido"));
+            verify(mensagemService, never()).listarMensagens(any(MensagemCursor.class), anyInt());
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoListarMensagens_TamanhoAcimaDoMaximo() throws Exception {
+            // Act & Assert
+            mockMvc.perform(
+                        get("/mensagens")
+                        .param("modo", "cursor")
+                        .param("size", String.valueOf(Integer.MAX_VALUE))
+                    )
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string("Tamanho de página inválido"));
+            verify(mensagemService, never()).listarMensagens(any(), anyInt());
+        }
+    }
+
+    @Nested
+    class ListarResumos {
+
+        @Test
+        void devePermitirListarResumos() throws Exception {
+            // Arrange
+            var resumo = new MensagemResumo(UUID.randomUUID(), "Jose", "Olá", LocalDateTime.now(), 2);
+            when(mensagemService.listarResumos(any(), anyInt(), anyInt()))
+                    .thenReturn(new PaginaCursor<>(List.of(resumo), 20, false, null));
+
+            // Act & Assert
+            mockMvc.perform(
+                        get("/mensagens")
+                        .param("modo", "resumo")
+                        .param("size", "20")
+                        .param("previa", "3")
+                    )
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content[0].usuario").value("Jose"))
+                    .andExpect(jsonPath("$.content[0].previa").value("Olá"))
+                    .andExpect(jsonPath("$.content[0].conteudo").doesNotExist());
+            verify(mensagemService, times(1)).listarResumos(null, 20, 3);
+        }
+
+        @Test
+        void deveOmitirPrevia_QuandoTamanhoZero() throws Exception {
+            // Arrange
+            var resumo = new MensagemResumo(UUID.randomUUID(), "Jose", "", LocalDateTime.now(), 0);
+            when(mensagemService.listarResumos(any(), anyInt(), anyInt()))
+                    .thenReturn(new PaginaCursor<>(List.of(resumo), 10, false, null));
+
+            // Act & Assert
+            mockMvc.perform(get("/mensagens").param("modo", "resumo").param("previa", "0"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content[0].previa").doesNotExist());
+            verify(mensagemService, times(1)).listarResumos(null, 10, 0);
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoListarResumos_PreviaInvalida() throws Exception {
+            // Act & Assert
+            mockMvc.perform(get("/mensagens").param("modo", "resumo").param("previa", "256"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string("Tamanho da prévia inválido"));
+            verify(mensagemService, never()).listarResumos(any(), anyInt(), anyInt());
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoListarResumos_TamanhoAcimaDoMaximo() throws Exception {
+            // Act & Assert
+            mockMvc.perform(
+                        get("/mensagens")
+                        .param("modo", "resumo")
+                        .param("size", String.valueOf(Integer.MAX_VALUE))
+                    )
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string("Tamanho de página inválido"));
+            verify(mensagemService, never()).listarResumos(any(), anyInt(), anyInt());
+        }
+    }
+
+    @Nested
+    class CamposParciais {
+
+        private MockMvc mockMvcCampos;
+
+        @BeforeEach
+        void setup() {
+            var builder = Jackson2ObjectMapperBuilder.json();
+            CamposResponseBodyAdvice.configurar(builder);
+            var objectMapper = builder.build();
+            mockMvcCampos = MockMvcBuilders
+                    .standaloneSetup(new MensagemController(mensagemService, objectMapper, transmissorMensagens))
+                    .setControllerAdvice(new CamposResponseBodyAdvice())
+                    .setMessageConverters(new MappingJackson2HttpMessageConverter(objectMapper))
+                    .addFilter((request, response, chain) -> {
+                        response.setCharacterEncoding("UTF-8");
+                        chain.doFilter(request, response);
+                    }, "/*")
+                    .build();
+        }
+
+        @Test
+        void deveSerializarApenasCamposInformados_QuandoFields() throws Exception {
+            // Arrange
+            var mensagem = MensagemHelper.gerarMensagem();
+            mensagem.setId(UUID.randomUUID());
+            when(mensagemService.listarMensagens(any(), anyInt()))
+                    .thenReturn(new PaginaCursor<>(List.of(mensagem), 10, true, "proximo"));
+
+            // Act & Assert
+            mockMvcCampos.perform(
+                        get("/mensagens")
+                        .param("modo", "cursor")
+                        .param("fields", "usuario, gostei")
+                    )
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content[0].id").value(mensagem.getId().toString()))
+                    .andExpect(jsonPath("$.content[0].usuario").value(mensagem.getUsuario()))
+                    .andExpect(jsonPath("$.content[0].gostei").value(mensagem.getGostei()))
+                    .andExpect(jsonPath("$.content[0].conteudo").doesNotExist())
+                    .andExpect(jsonPath("$.content[0].dataCriacao").doesNotExist())
+                    .andExpect(jsonPath("$.nextCursor").value("proximo"));
+        }
+
+        @Test
+        void deveSerializarTodosOsCampos_QuandoSemFields() throws Exception {
+            // Arrange
+            var mensagem = MensagemHelper.gerarMensagem();
+            mensagem.setId(UUID.randomUUID());
+            when(mensagemService.buscarMensagem(any(UUID.class))).thenReturn(mensagem);
+
+            // Act & Assert
+            mockMvcCampos.perform(get("/mensagens/{id}", mensagem.getId()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.conteudo").value(mensagem.getConteudo()))
+                    .andExpect(jsonPath("$.usuario").value(mensagem.getUsuario()));
+        }
+    }
+
+    @Nested
+    class BuscarMensagensPorConteudo {
+
+        @Test
+        void devePermitirBuscarMensagens() throws Exception {
+            // Arrange
+            var mensagem = MensagemHelper.gerarMensagem();
+            when(mensagemService.buscarMensagens(anyString(), anyInt())).thenReturn(List.of(mensagem));
+
+            // Act & Assert
+            mockMvc.perform(
+                        get("/mensagens/busca")
+                        .param("q", "conteúdo")
+                        .param("size", "5")
+                    )
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].conteudo").value(mensagem.getConteudo()));
+            verify(mensagemService, times(1)).buscarMensagens("conteúdo", 5);
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoBuscarMensagens_ConsultaVazia() throws Exception {
+            // Act & Assert
+            mockMvc.perform(get("/mensagens/busca").param("q", " "))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string("Consulta inválida"));
+            verify(mensagemService, never()).buscarMensagens(anyString(), anyInt());
+        }
+    }
+
+    @Nested
+    class ListarMaisCurtidas {
+
+        @Test
+        void devePermitirListarMaisCurtidas() throws Exception {
+            // Arrange
+            var mensagem = MensagemHelper.gerarMensagem();
+            mensagem.setGostei(42);
+            when(mensagemService.listarMaisCurtidas(anyInt())).thenReturn(List.of(mensagem));
+
+            // Act & Assert
+            mockMvc.perform(get("/mensagens/top").param("n", "5"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].gostei").value(42));
+            verify(mensagemService, times(1)).listarMaisCurtidas(5);
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoListarMaisCurtidas_TamanhoInvalido() throws Exception {
+            // Act & Assert
+            mockMvc.perform(get("/mensagens/top").param("n", "101"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string("Tamanho do ranking inválido"));
+            verify(mensagemService, never()).listarMaisCurtidas(anyInt());
+        }
+    }
+
+    @Nested
+    class AcompanharMensagens {
+
+        @Test
+        void devePermitirAssinarStream_RetomandoDoUltimoEvento() throws Exception {
+            // Arrange
+            when(transmissorMensagens.assinar(anyString())).thenReturn(new SseEmitter());
+
+            // Act & Assert
+            mockMvc.perform(
+                        get("/mensagens/stream")
+                        .header("Last-Event-ID", "abc-42")
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                    )
+                    .andExpect(request().asyncStarted());
+            verify(transmissorMensagens, times(1)).assinar("abc-42");
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoAssinarStream_LimiteAtingido() throws Exception {
+            // Arrange
+            when(transmissorMensagens.assinar(any()))
+                    .thenThrow(new AssinaturaRecusadaException("Limite de assinantes atingido, tente novamente"));
+
+            // Act & Assert
+            mockMvc.perform(get("/mensagens/stream"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "5"))
+                    .andExpect(content().string("Limite de assinantes atingido, tente novamente"));
+        }
+    }
+
+    @Nested
+    class ListarMensagensPorUsuario {
+
+        @Test
+        void devePermitirListarMensagensPorUsuario() throws Exception {
+            // Arrange
+            when(mensagemService.listarMensagensPorUsuario(anyString(), any(), anyInt()))
+                    .thenReturn(new PaginaCursor<>(List.of(MensagemHelper.gerarMensagem()), 5, false, null));
+
+            // Act & Assert
+            mockMvc.perform(
+                        get("/mensagens/usuario/{usuario}", "Jose")
+                        .param("size", "5")
+                    )
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content[0].usuario").value("Jose"))
+                    .andExpect(jsonPath("$.hasNext").value(false));
+            verify(mensagemService, times(1)).listarMensagensPorUsuario("Jose", null, 5);
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoListarMensagensPorUsuario_CursorInvalido() throws Exception {
+            // Act & Assert
+            mockMvc.perform(
+                        get("/mensagens/usuario/{usuario}", "Jose")
+                        .param("cursor", "invalido")
+                    )
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string("Cursor inválido"));
+            verify(mensagemService, never()).listarMensagensPorUsuario(anyString(), any(), anyInt());
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoListarMensagensPorUsuario_TamanhoAcimaDoMaximo() throws Exception {
+            // Act & Assert
+            mockMvc.perform(
+                        get("/mensagens/usuario/{usuario}", "Jose")
+                        .param("size", String.valueOf(Integer.MAX_VALUE))
+                    )
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string("Tamanho de página inválido"));
+            verify(mensagemService, never()).listarMensagensPorUsuario(anyString(), any(), anyInt());
+        }
     }
 
     private static String asJsonString(final Object object) throws JsonProcessingException {
@@ -0,0 +1,72 @@
+package br.com.fiap.api.datasource;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LeituraPropriaFilterTest {
+
+    private final Instant agora = Instant.parse("2024-10-04T00:00:10Z");
+
+    private final LeituraPropriaFilter filtro =
+            new LeituraPropriaFilter(Duration.ofSeconds(2), Clock.fixed(agora, ZoneOffset.UTC));
+
+    @Test
+    void deveLerDoPrimario_EMarcarCliente_QuandoEscrever() throws Exception {
+        // Arrange
+        var request = new MockHttpServletRequest("POST", "/mensagens");
+        var response = new MockHttpServletResponse();
+        var noPrimario = new AtomicBoolean();
+
+        // Act
+        filtro.doFilter(request, response, (req, res) -> noPrimario.set(RoteamentoDataSource.isLeituraNoPrimario()));
+
+        // Assert
+        assertThat(noPrimario).isTrue();
+        assertThat(response.getCookie(LeituraPropriaFilter.COOKIE_ESCRITA).getValue())
+                .isEqualTo(Long.toString(agora.toEpochMilli()));
+        assertThat(RoteamentoDataSource.isLeituraNoPrimario()).isFalse();
+    }
+
+    @Test
+    void deveLerDoPrimario_QuandoEscritaDentroDaJanela() throws Exception {
+        // Arrange
+        var request = new MockHttpServletRequest("GET", "/mensagens");
+        request.setCookies(new Cookie(LeituraPropriaFilter.COOKIE_ESCRITA,
+                Long.toString(agora.minusMillis(1_500).toEpochMilli())));
+        var noPrimario = new AtomicBoolean();
+
+        // Act
+        filtro.doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> noPrimario.set(RoteamentoDataSource.isLeituraNoPrimario()));
+
+        // Assert
+        assertThat(noPrimario).isTrue();
+    }
+
+    @Test
+    void deveLerDaReplica_QuandoEscritaForaDaJanela() throws Exception {
+        // Arrange
+        var request = new MockHttpServletRequest("GET", "/mensagens");
+        request.setCookies(new Cookie(LeituraPropriaFilter.COOKIE_ESCRITA,
+                Long.toString(agora.minusSeconds(3).toEpochMilli())));
+        var response = new MockHttpServletResponse();
+        var noPrimario = new AtomicBoolean(true);
+
+        // Act
+        filtro.doFilter(request, response, (req, res) -> noPrimario.set(RoteamentoDataSource.isLeituraNoPrimario()));
+
+        // Assert
+        assertThat(noPrimario).isFalse();
+        assertThat(response.getCookie(LeituraPropriaFilter.COOKIE_ESCRITA)).isNull();
+    }
+}
@@ -0,0 +1,46 @@
+package br.com.fiap.api.datasource;
+
+import br.com.fiap.api.service.MensagemService;
+import br.com.fiap.api.utils.MensagemHelper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// a "réplica" é um segundo pool sobre o mesmo banco H2 em memória
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:replicas",
+        "mensagem.replicas.habilitado=true",
+        "mensagem.replicas.urls=jdbc:h2:mem:replicas"
+})
+@ActiveProfiles("test")
+class RoteamentoDataSourceIT {
+
+    @Autowired
+    private MensagemService mensagemService;
+
+    @Autowired
+    private RoteamentoDataSource roteamentoDataSource;
+
+    @Test
+    void deveListarMensagensNaReplica_EGravarNoPrimario() {
+        // Arrange
+        var conexoesPrimario = roteamentoDataSource.conexoesPrimario();
+        var conexoesReplica = roteamentoDataSource.conexoesReplica();
+
+        // Act
+        var mensagem = mensagemService.registrarMensagem(MensagemHelper.gerarMensagem());
+        var aposEscrita = roteamentoDataSource.conexoesReplica();
+        var pagina = mensagemService.listarMensagens(PageRequest.of(0, 10));
+
+        // Assert
+        assertThat(roteamentoDataSource.conexoesPrimario()).isGreaterThan(conexoesPrimario);
+        assertThat(aposEscrita).isEqualTo(conexoesReplica);
+        assertThat(roteamentoDataSource.conexoesReplica()).isGreaterThan(aposEscrita);
+        assertThat(pagina.getContent()).extracting("id").contains(mensagem.getId());
+        assertThat(roteamentoDataSource.isDisponivel("replica-0")).isTrue();
+    }
+}
@@ -0,0 +1,183 @@
+package br.com.fiap.api.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class RoteamentoDataSourceTest {
+
+    private final DataSource primario = mock(DataSource.class);
+    private final DataSource replica0 = mock(DataSource.class);
+    private final DataSource replica1 = mock(DataSource.class);
+    private final Connection conexaoPrimario = mock(Connection.class);
+    private final Connection conexaoReplica0 = mock(Connection.class);
+    private final Connection conexaoReplica1 = mock(Connection.class);
+
+    private RoteamentoDataSource roteamento;
+
+    @BeforeEach
+    void setup() throws SQLException {
+        when(primario.getConnection()).thenReturn(conexaoPrimario);
+        when(replica0.getConnection()).thenReturn(conexaoReplica0);
+        when(replica1.getConnection()).thenReturn(conexaoReplica1);
+        when(conexaoReplica0.isValid(anyInt())).thenReturn(true);
+        when(conexaoReplica1.isValid(anyInt())).thenReturn(true);
+        roteamento = new RoteamentoDataSource(primario, List.of(replica0, replica1), Duration.ZERO, null,
+                Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        RoteamentoDataSource.definirLeituraNoPrimario(false);
+    }
+
+    @Test
+    void deveUsarPrimario_ForaDeTransacaoSomenteLeitura() throws SQLException {
+        // Act
+        var conexao = roteamento.getConnection();
+
+        // Assert
+        assertThat(conexao).isSameAs(conexaoPrimario);
+        assertThat(roteamento.conexoesPrimario()).isEqualTo(1);
+        verifyNoInteractions(replica0, replica1);
+    }
+
+    @Test
+    void deveAlternarEntreReplicas_QuandoTransacaoSomenteLeitura() throws SQLException {
+        // Arrange
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // Act
+        var primeira = roteamento.getConnection();
+        var segunda = roteamento.getConnection();
+        var terceira = roteamento.getConnection();
+
+        // Assert
+        assertThat(List.of(primeira, segunda, terceira))
+                .containsExactly(conexaoReplica0, conexaoReplica1, conexaoReplica0);
+        assertThat(roteamento.conexoesReplica()).isEqualTo(3);
+        verifyNoInteractions(primario);
+    }
+
+    @Test
+    void deveRepassarCredenciais_ComOMesmoRoteamento() throws SQLException {
+        // Arrange
+        when(primario.getConnection("leitor", "senha")).thenReturn(conexaoPrimario);
+        when(replica0.getConnection("leitor", "senha")).thenReturn(conexaoReplica0);
+
+        // Act
+        var escrita = roteamento.getConnection("leitor", "senha");
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        var leitura = roteamento.getConnection("leitor", "senha");
+
+        // Assert
+        assertThat(escrita).isSameAs(conexaoPrimario);
+        assertThat(leitura).isSameAs(conexaoReplica0);
+        verify(replica0, never()).getConnection();
+    }
+
+    @Test
+    void deveUsarPrimario_QuandoLeituraNoPrimarioDefinida() throws SQLException {
+        // Arrange
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        RoteamentoDataSource.definirLeituraNoPrimario(true);
+
+        // Act & Assert
+        assertThat(roteamento.getConnection()).isSameAs(conexaoPrimario);
+    }
+
+    @Test
+    void deveUsarPrimario_SomenteDuranteLeituraNoPrimario() throws SQLException {
+        // Arrange
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // Act
+        var durante = RoteamentoDataSource.lerNoPrimario(() -> {
+            try {
+                return roteamento.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        var depois = roteamento.getConnection();
+
+        // Assert
+        assertThat(durante).isSameAs(conexaoPrimario);
+        assertThat(depois).isSameAs(conexaoReplica0);
+        assertThat(RoteamentoDataSource.isLeituraNoPrimario()).isFalse();
+    }
+
+    @Test
+    void deveUsarOutraReplica_QuandoReplicaFalhar_EVoltarAoRodizioAposVerificacao() throws SQLException {
+        // Arrange
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(replica0.getConnection()).thenThrow(new SQLException("conexão recusada")).thenReturn(conexaoReplica0);
+
+        // Act
+        var aposFalha = roteamento.getConnection();
+        var seguinte = roteamento.getConnection();
+        var disponivelAntes = roteamento.isDisponivel("replica-0");
+        roteamento.verificarReplicas();
+
+        // Assert
+        assertThat(aposFalha).isSameAs(conexaoReplica1);
+        assertThat(seguinte).isSameAs(conexaoReplica1);
+        assertThat(disponivelAntes).isFalse();
+        assertThat(roteamento.isDisponivel("replica-0")).isTrue();
+        assertThat(roteamento.falhasReplica()).isEqualTo(1);
+    }
+
+    @Test
+    void deveUsarPrimario_QuandoNenhumaReplicaDisponivel() throws SQLException {
+        // Arrange
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(conexaoReplica0.isValid(anyInt())).thenReturn(false);
+        when(replica1.getConnection()).thenThrow(new SQLException("conexão recusada"));
+        roteamento.verificarReplicas();
+
+        // Act
+        var conexao = roteamento.getConnection();
+
+        // Assert
+        assertThat(conexao).isSameAs(conexaoPrimario);
+        assertThat(roteamento.isDisponivel("replica-0")).isFalse();
+        assertThat(roteamento.isDisponivel("replica-1")).isFalse();
+    }
+
+    @Test
+    void deveRetirarReplicaDoRodizio_QuandoAtrasoAcimaDoLimite() throws SQLException {
+        // Arrange
+        roteamento = new RoteamentoDataSource(primario, List.of(replica0), Duration.ZERO, "SELECT atraso",
+                Duration.ofSeconds(5));
+        var comando = mock(Statement.class);
+        var resultado = mock(ResultSet.class);
+        when(conexaoReplica0.createStatement()).thenReturn(comando);
+        when(comando.executeQuery(anyString())).thenReturn(resultado);
+        when(resultado.next()).thenReturn(true);
+        when(resultado.getLong(1)).thenReturn(10_000L, 100L);
+
+        // Act
+        roteamento.verificarReplicas();
+        var comAtraso = roteamento.isDisponivel("replica-0");
+        roteamento.verificarReplicas();
+
+        // Assert
+        assertThat(comAtraso).isFalse();
+        assertThat(roteamento.isDisponivel("replica-0")).isTrue();
+    }
+}
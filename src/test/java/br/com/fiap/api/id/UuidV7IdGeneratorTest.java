@@ -0,0 +1,99 @@
+package br.com.fiap.api.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidV7IdGeneratorTest {
+
+    private final AtomicLong relogio = new AtomicLong(1_728_000_000_000L);
+
+    private final UuidV7IdGenerator gerador = new UuidV7IdGenerator(relogio::get);
+
+    @Test
+    void deveGerarUuidVersao7() {
+        // Act
+        var id = gerador.generateId();
+
+        // Assert
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        assertThat(UuidV7IdGenerator.instante(id)).isEqualTo(relogio.get());
+        assertThat(UUID.fromString(id.toString())).isEqualTo(id);
+    }
+
+    @Test
+    void deveGerarIdsCrescentes_QuandoMesmoMilissegundo() {
+        // Act
+        var ids = new ArrayList<UUID>();
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(gerador.generateId());
+        }
+
+        // Assert
+        for (int i = 1; i < ids.size(); i++) {
+            assertThat(compararSemSinal(ids.get(i - 1), ids.get(i))).isNegative();
+        }
+    }
+
+    @Test
+    void deveGerarIdsCrescentes_QuandoRelogioRetroceder() {
+        // Arrange
+        var anterior = gerador.generateId();
+        relogio.addAndGet(-5_000);
+
+        // Act
+        var posterior = gerador.generateId();
+
+        // Assert
+        assertThat(compararSemSinal(anterior, posterior)).isNegative();
+        assertThat(posterior.version()).isEqualTo(7);
+    }
+
+    @Test
+    void deveGerarIdsUnicosECrescentesPorThread_QuandoConcorrente() throws Exception {
+        // Arrange
+        var geradorReal = new UuidV7IdGenerator();
+        var executor = Executors.newFixedThreadPool(8);
+        var todos = ConcurrentHashMap.<UUID>newKeySet();
+        List<Callable<List<UUID>>> tarefas = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            tarefas.add(() -> {
+                var gerados = new ArrayList<UUID>();
+                for (int i = 0; i < 50_000; i++) {
+                    gerados.add(geradorReal.generateId());
+                }
+                return gerados;
+            });
+        }
+
+        // Act
+        var resultados = executor.invokeAll(tarefas);
+        executor.shutdown();
+
+        // Assert
+        for (var resultado : resultados) {
+            var gerados = resultado.get();
+            todos.addAll(gerados);
+            for (int i = 1; i < gerados.size(); i++) {
+                assertThat(compararSemSinal(gerados.get(i - 1), gerados.get(i))).isNegative();
+            }
+        }
+        assertThat(todos).hasSize(8 * 50_000);
+    }
+
+    // o PostgreSQL compara UUIDs byte a byte, equivalente à comparação sem sinal
+    private static int compararSemSinal(UUID a, UUID b) {
+        var resultado = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return resultado != 0 ? resultado
+                : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}
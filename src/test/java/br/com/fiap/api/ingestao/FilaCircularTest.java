@@ -0,0 +1,91 @@
+package br.com.fiap.api.ingestao;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FilaCircularTest {
+
+    @Test
+    void devePermitirDrenarElementos_NaOrdemDeInsercao() {
+        // Arrange
+        var fila = new FilaCircular<Integer>(8);
+        for (int i = 0; i < 5; i++) {
+            fila.oferecer(i);
+        }
+        var destino = new ArrayList<Integer>();
+
+        // Act
+        var drenados = fila.drenar(destino, 3);
+
+        // Assert
+        assertThat(drenados).isEqualTo(3);
+        assertThat(destino).containsExactly(0, 1, 2);
+        assertThat(fila.tamanho()).isEqualTo(2);
+    }
+
+    @Test
+    void deveRecusarElemento_QuandoFilaCheia() {
+        // Arrange
+        var fila = new FilaCircular<Integer>(3);
+        for (int i = 0; i < fila.capacidade(); i++) {
+            assertThat(fila.oferecer(i)).isTrue();
+        }
+
+        // Act & Assert
+        assertThat(fila.capacidade()).isEqualTo(4);
+        assertThat(fila.oferecer(99)).isFalse();
+        fila.drenar(new ArrayList<>(), 1);
+        assertThat(fila.oferecer(99)).isTrue();
+    }
+
+    @Test
+    void naoDevePerderElementos_QuandoProdutoresConcorrentes() throws Exception {
+        // Arrange
+        var fila = new FilaCircular<Integer>(64);
+        var produtores = 8;
+        var elementosPorProdutor = 50_000;
+        var executor = Executors.newFixedThreadPool(produtores);
+        var inicio = new CountDownLatch(1);
+        List<Future<?>> tarefas = new ArrayList<>();
+        for (int p = 0; p < produtores; p++) {
+            var base = p * elementosPorProdutor;
+            tarefas.add(executor.submit(() -> {
+                inicio.await();
+                for (int i = 0; i < elementosPorProdutor; i++) {
+                    while (!fila.oferecer(base + i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        // Act
+        inicio.countDown();
+        var recebidos = new HashSet<Integer>();
+        var destino = new ArrayList<Integer>();
+        var total = produtores * elementosPorProdutor;
+        while (recebidos.size() < total) {
+            destino.clear();
+            fila.drenar(destino, 16);
+            recebidos.addAll(destino);
+        }
+        for (var tarefa : tarefas) {
+            tarefa.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Assert
+        assertThat(recebidos).hasSize(total);
+        assertThat(fila.tamanho()).isZero();
+    }
+}
@@ -0,0 +1,55 @@
+package br.com.fiap.api.ingestao;
+
+import br.com.fiap.api.repository.MensagemRepository;
+import br.com.fiap.api.service.MensagemService;
+import br.com.fiap.api.utils.MensagemHelper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "mensagem.ingestao.assincrona=true")
+@AutoConfigureTestDatabase
+@ActiveProfiles("test")
+class IngestaoAssincronaIT {
+
+    @Autowired
+    private MensagemService mensagemService;
+
+    @Autowired
+    private MensagemRepository mensagemRepository;
+
+    @Autowired
+    private IngestaoAssincrona ingestaoAssincrona;
+
+    @Test
+    void devePermitirRegistrarMensagens_EmSegundoPlano() throws Exception {
+        // Arrange
+        var ids = new ArrayList<UUID>();
+
+        // Act
+        for (int i = 0; i < 2_000; i++) {
+            var mensagem = mensagemService.registrarMensagem(MensagemHelper.gerarMensagem());
+            ids.add(mensagem.getId());
+            // leitura do próprio registro, gravado ou ainda na fila
+            assertThat(mensagemService.buscarMensagem(mensagem.getId()).getConteudo())
+                    .isEqualTo("conteúdo da mensagem");
+        }
+        var limite = System.nanoTime() + 10_000_000_000L;
+        while (ingestaoAssincrona.mensagensGravadas() < ids.size() && System.nanoTime() < limite) {
+            Thread.sleep(10);
+        }
+
+        // Assert
+        assertThat(mensagemService.registroAssincrono()).isTrue();
+        assertThat(ingestaoAssincrona.mensagensGravadas()).isEqualTo(ids.size());
+        assertThat(ingestaoAssincrona.lotesGravados()).isLessThanOrEqualTo(ids.size());
+        assertThat(mensagemRepository.findAllById(ids)).hasSize(ids.size());
+    }
+}
@@ -0,0 +1,185 @@
+package br.com.fiap.api.ingestao;
+
+import br.com.fiap.api.exception.IngestaoSaturadaException;
+import br.com.fiap.api.model.Mensagem;
+import br.com.fiap.api.utils.MensagemHelper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IngestaoAssincronaTest {
+
+    private final Set<UUID> gravadas = ConcurrentHashMap.newKeySet();
+
+    private IngestaoAssincrona ingestao;
+
+    @AfterEach
+    void tearDown() {
+        if (ingestao != null) {
+            ingestao.stop();
+        }
+    }
+
+    private IngestaoAssincrona criarIngestao(int capacidade, int tamanhoLote, CountDownLatch liberarGravacao) {
+        var ingestaoAssincrona = new IngestaoAssincrona(true, capacidade, tamanhoLote);
+        ingestaoAssincrona.definirGravador(lote -> {
+            try {
+                liberarGravacao.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            lote.forEach(mensagem -> gravadas.add(mensagem.getId()));
+        });
+        return ingestaoAssincrona;
+    }
+
+    @Test
+    void devePermitirLerMensagem_EnquantoGravacaoPendente() {
+        // Arrange
+        var liberarGravacao = new CountDownLatch(1);
+        ingestao = criarIngestao(16, 10, liberarGravacao);
+        ingestao.start();
+        var mensagem = gerarMensagem();
+
+        // Act
+        ingestao.enfileirar(mensagem);
+
+        // Assert
+        assertThat(ingestao.pendente(mensagem.getId())).contains(mensagem);
+        liberarGravacao.countDown();
+        ingestao.stop();
+        assertThat(ingestao.pendente(mensagem.getId())).isEmpty();
+        assertThat(gravadas).containsExactly(mensagem.getId());
+        assertThat(ingestao.mensagensGravadas()).isEqualTo(1);
+        assertThat(ingestao.tempoAteGravacao().count()).isEqualTo(1);
+        assertThat(ingestao.tempoAteGravacao().totalTime(TimeUnit.NANOSECONDS)).isPositive();
+    }
+
+    @Test
+    void deveRecusarMensagem_QuandoFilaCheia() {
+        // Arrange
+        var liberarGravacao = new CountDownLatch(1);
+        ingestao = criarIngestao(4, 1, liberarGravacao);
+        ingestao.start();
+
+        // Act
+        var aceitas = 0;
+        IngestaoSaturadaException recusa = null;
+        // o gravador retém um lote, então no máximo capacidade + 1 mensagens são aceitas
+        for (int i = 0; i < 10 && recusa == null; i++) {
+            try {
+                ingestao.enfileirar(gerarMensagem());
+                aceitas++;
+            } catch (IngestaoSaturadaException e) {
+                recusa = e;
+            }
+        }
+        liberarGravacao.countDown();
+
+        // Assert
+        assertThat(recusa).isNotNull().hasMessage("Fila de registro cheia, tente novamente");
+        assertThat(aceitas).isBetween(4, 5);
+        assertThat(ingestao.recusadas()).isEqualTo(1);
+    }
+
+    @Test
+    void deveGravarTodasAsMensagens_QuandoEncerrar() {
+        // Arrange
+        var liberarGravacao = new CountDownLatch(1);
+        ingestao = criarIngestao(2_048, 100, liberarGravacao);
+        ingestao.start();
+        for (int i = 0; i < 1_000; i++) {
+            ingestao.enfileirar(gerarMensagem());
+        }
+        liberarGravacao.countDown();
+
+        // Act
+        ingestao.stop();
+
+        // Assert
+        assertThat(gravadas).hasSize(1_000);
+        assertThat(ingestao.tamanhoFila()).isZero();
+        assertThat(ingestao.lotesGravados()).isBetween(10L, 1_000L);
+        assertThatThrownBy(() -> ingestao.enfileirar(gerarMensagem()))
+                .isInstanceOf(IngestaoSaturadaException.class);
+    }
+
+    @Test
+    void deveRepetirGravacao_QuandoBancoFalhar() {
+        // Arrange
+        var falhas = new AtomicInteger(2);
+        ingestao = new IngestaoAssincrona(true, 16, 10);
+        ingestao.definirGravador(lote -> {
+            if (falhas.getAndDecrement() > 0) {
+                throw new IllegalStateException("banco indisponível");
+            }
+            lote.forEach(mensagem -> gravadas.add(mensagem.getId()));
+        });
+        ingestao.start();
+        var mensagem = gerarMensagem();
+
+        // Act
+        ingestao.enfileirar(mensagem);
+        ingestao.stop();
+
+        // Assert
+        assertThat(gravadas).containsExactly(mensagem.getId());
+        assertThat(ingestao.lotesGravados()).isEqualTo(1);
+    }
+
+    @Test
+    void deveDescartarMensagemRecusada_SemTravarAsDemais() {
+        // Arrange
+        var recusada = gerarMensagem();
+        ingestao = new IngestaoAssincrona(true, 16, 10);
+        ingestao.definirGravador(lote -> {
+            if (lote.contains(recusada)) {
+                throw new DataIntegrityViolationException("valor muito longo");
+            }
+            lote.forEach(mensagem -> gravadas.add(mensagem.getId()));
+        });
+        ingestao.start();
+        var anterior = gerarMensagem();
+        var posterior = gerarMensagem();
+
+        // Act
+        ingestao.enfileirar(anterior);
+        ingestao.enfileirar(recusada);
+        ingestao.enfileirar(posterior);
+        ingestao.stop();
+
+        // Assert
+        assertThat(gravadas).containsExactlyInAnyOrder(anterior.getId(), posterior.getId());
+        assertThat(ingestao.descartadas()).isEqualTo(1);
+        assertThat(ingestao.mensagensGravadas()).isEqualTo(2);
+        assertThat(ingestao.pendente(recusada.getId())).isEmpty();
+    }
+
+    @Test
+    void deveGerarExcecao_QuandoDesabilitada() {
+        // Arrange
+        var desabilitada = IngestaoAssincrona.desabilitada();
+
+        // Act & Assert
+        assertThat(desabilitada.isHabilitada()).isFalse();
+        assertThat(desabilitada.pendente(UUID.randomUUID())).isEmpty();
+        assertThatThrownBy(() -> desabilitada.enfileirar(gerarMensagem()))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static Mensagem gerarMensagem() {
+        var mensagem = MensagemHelper.gerarMensagem();
+        mensagem.setId(UUID.randomUUID());
+        return mensagem;
+    }
+}
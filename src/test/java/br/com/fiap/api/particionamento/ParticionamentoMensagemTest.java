@@ -0,0 +1,120 @@
+package br.com.fiap.api.particionamento;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ParticionamentoMensagemTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    private final Clock clock = Clock.fixed(Instant.parse("2024-10-15T12:00:00Z"), ZoneOffset.UTC);
+
+    private final AtomicInteger expurgos = new AtomicInteger();
+
+    @BeforeEach
+    void setup() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(String.class))).thenReturn("p");
+    }
+
+    @Test
+    void deveCriarParticoesDoMesCorrenteEAntecipadas_QuandoIniciar() {
+        // Arrange
+        var particionamento = new ParticionamentoMensagem(jdbcTemplate, clock, 2, 0, expurgos::incrementAndGet);
+
+        // Act
+        particionamento.iniciar();
+
+        // Assert
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS mensagem_p2024_10 PARTITION OF mensagem " +
+                "FOR VALUES FROM ('2024-10-01') TO ('2024-11-01')");
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS mensagem_p2024_11 PARTITION OF mensagem " +
+                "FOR VALUES FROM ('2024-11-01') TO ('2024-12-01')");
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS mensagem_p2024_12 PARTITION OF mensagem " +
+                "FOR VALUES FROM ('2024-12-01') TO ('2025-01-01')");
+        verify(jdbcTemplate, never()).queryForList(anyString(), eq(String.class));
+    }
+
+    @Test
+    void deveRemoverApenasParticoesExpiradas_QuandoRetencaoConfigurada() {
+        // Arrange
+        var particionamento = new ParticionamentoMensagem(jdbcTemplate, clock, 0, 3, expurgos::incrementAndGet);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class))).thenReturn(List.of(
+                "mensagem_p2024_05", "mensagem_p2024_06", "mensagem_p2024_07", "mensagem_p2024_08", "outra_tabela"));
+
+        // Act
+        var removidas = particionamento.expurgar();
+
+        // Assert
+        assertThat(removidas).containsExactly("mensagem_p2024_05", "mensagem_p2024_06");
+        verify(jdbcTemplate).execute("ALTER TABLE mensagem DETACH PARTITION mensagem_p2024_05 CONCURRENTLY");
+        verify(jdbcTemplate).execute("DROP TABLE mensagem_p2024_06");
+        verify(jdbcTemplate, never()).execute("DROP TABLE mensagem_p2024_07");
+        assertThat(particionamento.particoesRemovidas()).isEqualTo(2);
+        assertThat(expurgos).hasValue(1);
+    }
+
+    @Test
+    void deveContinuarExpurgo_QuandoRemocaoDeUmaParticaoFalhar() {
+        // Arrange
+        var particionamento = new ParticionamentoMensagem(jdbcTemplate, clock, 0, 1, expurgos::incrementAndGet);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class)))
+                .thenReturn(List.of("mensagem_p2024_01", "mensagem_p2024_02"));
+        doThrow(new DataIntegrityViolationException("partição em uso"))
+                .when(jdbcTemplate).execute("ALTER TABLE mensagem DETACH PARTITION mensagem_p2024_01 CONCURRENTLY");
+
+        // Act
+        var removidas = particionamento.expurgar();
+
+        // Assert
+        assertThat(removidas).containsExactly("mensagem_p2024_02");
+        verify(jdbcTemplate, never()).execute("DROP TABLE mensagem_p2024_01");
+    }
+
+    @Test
+    void naoDeveRemoverParticoes_QuandoRetencaoDesabilitada() {
+        // Arrange
+        var particionamento = new ParticionamentoMensagem(jdbcTemplate, clock, 0, 0, expurgos::incrementAndGet);
+
+        // Act
+        var removidas = particionamento.expurgar();
+
+        // Assert
+        assertThat(removidas).isEmpty();
+        assertThat(expurgos).hasValue(0);
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void naoDeveCriarParticoes_QuandoTabelaNaoParticionada() {
+        // Arrange
+        when(jdbcTemplate.queryForObject(anyString(), eq(String.class))).thenReturn("r");
+        var particionamento = new ParticionamentoMensagem(jdbcTemplate, clock, 3, 12, expurgos::incrementAndGet);
+
+        // Act
+        particionamento.iniciar();
+        particionamento.manter();
+
+        // Assert
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    void deveNomearParticao_PeloAnoEMes() {
+        // Act & Assert
+        assertThat(ParticionamentoMensagem.nome(YearMonth.of(2025, 1))).isEqualTo("mensagem_p2025_01");
+    }
+}
@@ -0,0 +1,63 @@
+package br.com.fiap.api.performace;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Utilitários compartilhados pelos benchmarks de volume ({@code make benchmark-test}).
+ */
+public abstract class BenchmarkHelper {
+
+    private static final int TAMANHO_LOTE = 10_000;
+
+    public static int registros(int padrao) {
+        return Integer.getInteger("benchmark.registros", padrao);
+    }
+
+    public static void popularMensagens(JdbcTemplate jdbcTemplate, int total) {
+        var inicio = LocalDateTime.now().minusSeconds(total);
+        List<Object[]> lote = new ArrayList<>(TAMANHO_LOTE);
+        for (int i = 0; i < total; i++) {
+            lote.add(new Object[]{
+                    UUID.randomUUID(),
+                    "usuario-" + (i % 1_000),
+                    "conteúdo da mensagem " + i,
+                    Timestamp.valueOf(inicio.plusSeconds(i)),
+                    0
+            });
+            if (lote.size() == TAMANHO_LOTE) {
+                inserir(jdbcTemplate, lote);
+                lote.clear();
+            }
+        }
+        if (!lote.isEmpty()) {
+            inserir(jdbcTemplate, lote);
+        }
+    }
+
+    public static double medirMediaEmMicros(int aquecimento, int iteracoes, Runnable acao) {
+        for (int i = 0; i < aquecimento; i++) {
+            acao.run();
+        }
+        var inicio = System.nanoTime();
+        for (int i = 0; i < iteracoes; i++) {
+            acao.run();
+        }
+        return (System.nanoTime() - inicio) / 1_000.0 / iteracoes;
+    }
+
+    public static void imprimir(String cenario, double micros) {
+        System.out.printf("[benchmark] %-45s %12.1f µs%n", cenario, micros);
+    }
+
+    private static void inserir(JdbcTemplate jdbcTemplate, List<Object[]> lote) {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO mensagem (id, usuario, conteudo, data_criacao, gostei, versao) VALUES (?, ?, ?, ?, ?, 0)",
+                lote);
+    }
+}
@@ -0,0 +1,147 @@
+package br.com.fiap.api.performace;
+
+import br.com.fiap.api.busca.IndiceBuscaMemoria;
+import br.com.fiap.api.busca.IndiceBuscaPostgres;
+import br.com.fiap.api.model.Mensagem;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Latência de consultas de busca textual sobre um corpus de um milhão de mensagens: o índice
+ * invertido em memória e, quando o PostgreSQL de {@code make docker-start} está disponível, o
+ * índice GIN comparado a um {@code LIKE '%termo%'}.
+ */
+class BuscaBenchmark {
+
+    private static final String ESQUEMA = "benchmark_busca";
+
+    private static final int TAMANHO_LOTE = 10_000;
+
+    private static final int VOCABULARIO = 20_000;
+
+    private static final int PALAVRAS_POR_MENSAGEM = 12;
+
+    private static final List<String> CONSULTAS = List.of(
+            "palavra17", "palavra250", "palavra4000", "palavra17 palavra250", "palavra3 palavra90 palavra1500");
+
+    @Test
+    void deveResponderConsultas_QuandoMilhaoDeMensagensIndexadas() {
+        // Arrange
+        var total = BenchmarkHelper.registros(1_000_000);
+        var indice = new IndiceBuscaMemoria(null);
+        var inicioIndexacao = System.nanoTime();
+        gerarCorpus(total, indice::indexar);
+        var segundosIndexacao = (System.nanoTime() - inicioIndexacao) / 1_000_000_000.0;
+        System.out.printf("[benchmark] %-45s %12.0f msg/s%n", "indexação em memória", total / segundosIndexacao);
+
+        // Act & Assert
+        for (var consulta : CONSULTAS) {
+            var micros = BenchmarkHelper.medirMediaEmMicros(50, 500, () -> indice.pesquisar(consulta, 20));
+            BenchmarkHelper.imprimir("memória: " + consulta, micros);
+            assertThat(micros).isLessThan(100_000);
+        }
+        assertThat(indice.pesquisar("palavra17", 20)).hasSize(20);
+    }
+
+    @Test
+    void deveUsarIndiceGin_QuandoPostgresDisponivel() {
+        var jdbcTemplate = conectar();
+        assumeTrue(jdbcTemplate != null, "PostgreSQL indisponível");
+
+        // Arrange
+        var total = BenchmarkHelper.registros(1_000_000);
+        // esquema próprio para não tocar na tabela da aplicação
+        jdbcTemplate.execute("DROP TABLE IF EXISTS mensagem");
+        jdbcTemplate.execute("CREATE TABLE mensagem (id uuid PRIMARY KEY, usuario varchar(255), " +
+                "conteudo varchar(255) NOT NULL, data_criacao timestamp(6), gostei integer NOT NULL, versao bigint)");
+        var lote = new ArrayList<Object[]>();
+        gerarCorpus(total, mensagem -> {
+            lote.add(new Object[]{mensagem.getId(), mensagem.getUsuario(), mensagem.getConteudo(),
+                    mensagem.getDataCriacao(), 0, 0L});
+            if (lote.size() == TAMANHO_LOTE) {
+                inserir(jdbcTemplate, lote);
+            }
+        });
+        inserir(jdbcTemplate, lote);
+        // mesma migração de make migrar-busca, aplicada depois da carga como em uma tabela existente
+        new ResourceDatabasePopulator(new ClassPathResource("db/mensagem-busca.sql"))
+                .execute(Objects.requireNonNull(jdbcTemplate.getDataSource()));
+        var indice = new IndiceBuscaPostgres(jdbcTemplate);
+        indice.verificarIndice();
+        jdbcTemplate.execute("ANALYZE mensagem");
+
+        // Act & Assert
+        for (var consulta : CONSULTAS) {
+            var gin = BenchmarkHelper.medirMediaEmMicros(5, 50, () -> indice.buscar(consulta, 20));
+            BenchmarkHelper.imprimir("postgres GIN: " + consulta, gin);
+        }
+        var termo = CONSULTAS.get(2);
+        var gin = BenchmarkHelper.medirMediaEmMicros(5, 50, () -> indice.buscar(termo, 20));
+        var like = BenchmarkHelper.medirMediaEmMicros(1, 5, () -> jdbcTemplate.queryForList(
+                "SELECT id FROM mensagem WHERE conteudo LIKE ? ORDER BY data_criacao DESC LIMIT 20",
+                UUID.class, "%" + termo + " %"));
+        BenchmarkHelper.imprimir("postgres LIKE: " + termo, like);
+        assertThat(gin).isLessThan(like);
+    }
+
+    // palavras com distribuição de Zipf: poucas muito frequentes e uma cauda longa de raras
+    private static void gerarCorpus(int total, Consumer<Mensagem> destino) {
+        var aleatorio = new Random(42);
+        var acumulado = new double[VOCABULARIO];
+        double soma = 0;
+        for (int i = 0; i < VOCABULARIO; i++) {
+            soma += 1.0 / (i + 1);
+            acumulado[i] = soma;
+        }
+        var inicio = LocalDateTime.now().minusSeconds(total);
+        var texto = new StringBuilder();
+        for (int i = 0; i < total; i++) {
+            texto.setLength(0);
+            for (int p = 0; p < PALAVRAS_POR_MENSAGEM; p++) {
+                var posicao = Arrays.binarySearch(acumulado, aleatorio.nextDouble() * soma);
+                texto.append("palavra").append(posicao < 0 ? -posicao - 1 : posicao).append(' ');
+            }
+            destino.accept(Mensagem.builder()
+                    .id(UUID.randomUUID())
+                    .usuario("usuario-" + (i % 1_000))
+                    .conteudo(texto.toString())
+                    .dataCriacao(inicio.plusSeconds(i))
+                    .build());
+        }
+    }
+
+    private static void inserir(JdbcTemplate jdbcTemplate, List<Object[]> lote) {
+        jdbcTemplate.batchUpdate("INSERT INTO mensagem VALUES (?, ?, ?, ?, ?, ?)", lote);
+        lote.clear();
+    }
+
+    private static JdbcTemplate conectar() {
+        var url = System.getProperty("benchmark.postgres.url", "jdbc:postgresql://localhost:5432/backend?reWriteBatchedInserts=true");
+        var usuario = System.getProperty("benchmark.postgres.usuario", "root");
+        var senha = System.getProperty("benchmark.postgres.senha", "toor");
+        try {
+            new JdbcTemplate(new DriverManagerDataSource(url, usuario, senha))
+                    .execute("CREATE SCHEMA IF NOT EXISTS " + ESQUEMA);
+        } catch (DataAccessException e) {
+            return null;
+        }
+        var separador = url.contains("?") ? "&" : "?";
+        return new JdbcTemplate(new DriverManagerDataSource(url + separador + "currentSchema=" + ESQUEMA, usuario, senha));
+    }
+}
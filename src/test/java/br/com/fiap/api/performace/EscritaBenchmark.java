@@ -0,0 +1,100 @@
+package br.com.fiap.api.performace;
+
+import br.com.fiap.api.model.Mensagem;
+import br.com.fiap.api.repository.MensagemRepository;
+import br.com.fiap.api.service.MensagemService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compara comandos SQL e latência de alteração e remoção por ID entre o caminho antigo, que carrega
+ * a entidade antes de salvar ou remover, e os comandos únicos de {@link MensagemService}.
+ */
+@SpringBootTest(properties = "mensagem.cache.habilitado=false")
+@AutoConfigureTestDatabase
+@ActiveProfiles("test")
+class EscritaBenchmark {
+
+    private static final int AQUECIMENTO = 2_000;
+
+    @Autowired
+    private MensagemService mensagemService;
+
+    @Autowired
+    private MensagemRepository mensagemRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estatisticas;
+
+    private int iteracoes;
+
+    @BeforeEach
+    void setup() {
+        estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        iteracoes = BenchmarkHelper.registros(20_000);
+        jdbcTemplate.execute("DELETE FROM mensagem");
+        // cada cenário remove as suas próprias mensagens
+        BenchmarkHelper.popularMensagens(jdbcTemplate, 4 * (AQUECIMENTO + iteracoes));
+    }
+
+    @Test
+    void deveUsarUmComandoPorEscrita_QuandoAlterarOuRemoverPorId() {
+        var ids = jdbcTemplate.queryForList("SELECT id FROM mensagem", UUID.class).iterator();
+
+        // Act
+        var alterarAntigo = medir(ids, id -> {
+            var mensagem = mensagemRepository.findById(id).orElseThrow();
+            mensagem.setConteudo("conteúdo alterado");
+            mensagemRepository.save(mensagem);
+        });
+        var alterarNovo = medir(ids, id ->
+                mensagemService.alterarMensagem(id, Mensagem.builder().id(id).conteudo("conteúdo alterado").build()));
+        var removerAntigo = medir(ids, id -> mensagemRepository.delete(mensagemRepository.findById(id).orElseThrow()));
+        var removerNovo = medir(ids, mensagemService::removerMensagem);
+
+        // Assert
+        imprimir("alterar: carregar e salvar", alterarAntigo);
+        imprimir("alterar: UPDATE único + leitura da resposta", alterarNovo);
+        imprimir("remover: carregar e remover", removerAntigo);
+        imprimir("remover: DELETE único", removerNovo);
+        assertThat(alterarNovo.comandos()).isLessThan(alterarAntigo.comandos());
+        assertThat(removerNovo.comandos()).isEqualTo(1.0);
+        assertThat(removerNovo.comandos()).isLessThan(removerAntigo.comandos());
+    }
+
+    private Resultado medir(Iterator<UUID> ids, Consumer<UUID> escrita) {
+        for (int i = 0; i < AQUECIMENTO; i++) {
+            escrita.accept(ids.next());
+        }
+        var comandosAntes = estatisticas.getPrepareStatementCount();
+        var micros = BenchmarkHelper.medirMediaEmMicros(0, iteracoes, () -> escrita.accept(ids.next()));
+        var comandos = (estatisticas.getPrepareStatementCount() - comandosAntes) / (double) iteracoes;
+        return new Resultado(comandos, micros);
+    }
+
+    private static void imprimir(String cenario, Resultado resultado) {
+        System.out.printf("[benchmark] %-45s %12.1f µs %6.1f comandos%n", cenario, resultado.micros(), resultado.comandos());
+    }
+
+    private record Resultado(double comandos, double micros) {
+    }
+}
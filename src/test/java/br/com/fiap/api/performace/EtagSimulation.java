@@ -0,0 +1,140 @@
+package br.com.fiap.api.performace;
+
+import io.gatling.javaapi.core.ChainBuilder;
+import io.gatling.javaapi.core.ScenarioBuilder;
+import io.gatling.javaapi.core.Session;
+import io.gatling.javaapi.core.Simulation;
+import io.gatling.javaapi.http.HttpProtocolBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+import static io.gatling.javaapi.core.CoreDsl.*;
+import static io.gatling.javaapi.http.HttpDsl.header;
+import static io.gatling.javaapi.http.HttpDsl.http;
+import static io.gatling.javaapi.http.HttpDsl.status;
+
+/**
+ * Clientes que consultam repetidamente a mesma mensagem e a primeira página da listagem, com e sem
+ * {@code If-None-Match}. As latências aparecem separadas no relatório do Gatling ("sem etag" e
+ * "com etag"); ao final são impressos os bytes de corpo recebidos por requisição em cada cenário.
+ * <p>
+ * O cache HTTP do Gatling fica desabilitado para que o cabeçalho só seja enviado pelo cenário
+ * "com etag", que guarda o último ETag recebido na sessão.
+ */
+public class EtagSimulation extends Simulation {
+
+    private static final String BASE_URL = System.getProperty("baseUrl", "http://localhost:8080");
+    private static final int USUARIOS = Integer.getInteger("etag.usuarios", 50);
+    private static final Duration DURACAO = Duration.ofSeconds(Integer.getInteger("etag.duracao", 30));
+
+    private final HttpClient cliente = HttpClient.newHttpClient();
+
+    private final String mensagemId = registrarMensagem();
+
+    private final LongAdder bytesSemEtag = new LongAdder();
+    private final LongAdder requisicoesSemEtag = new LongAdder();
+    private final LongAdder bytesComEtag = new LongAdder();
+    private final LongAdder requisicoesComEtag = new LongAdder();
+
+    private final HttpProtocolBuilder httpProtocol =
+            http.baseUrl(BASE_URL)
+                    .disableCaching();
+
+    ChainBuilder consultarSemEtag = exec(
+            http("sem etag: buscar mensagem")
+                    .get("/mensagens/" + mensagemId)
+                    .check(status().is(200))
+                    .check(bodyLength().saveAs("tamanho")),
+            exec(session -> contabilizar(session.getInt("tamanho"), bytesSemEtag, requisicoesSemEtag, session)),
+            http("sem etag: listar mensagens")
+                    .get("/mensagens?page=0&size=20")
+                    .check(status().is(200))
+                    .check(bodyLength().saveAs("tamanho")),
+            exec(session -> contabilizar(session.getInt("tamanho"), bytesSemEtag, requisicoesSemEtag, session))
+    );
+
+    // o primeiro pedido sai sem cabeçalho; os seguintes reaproveitam o ETag guardado na sessão
+    ChainBuilder consultarComEtag = exec(
+            http("com etag: buscar mensagem")
+                    .get("/mensagens/" + mensagemId)
+                    .header("If-None-Match", "#{etagMensagem}")
+                    .check(status().in(200, 304))
+                    .check(header("ETag").saveAs("etagMensagem"))
+                    .check(bodyLength().saveAs("tamanho")),
+            exec(session -> contabilizar(session.getInt("tamanho"), bytesComEtag, requisicoesComEtag, session)),
+            http("com etag: listar mensagens")
+                    .get("/mensagens?page=0&size=20")
+                    .header("If-None-Match", "#{etagPagina}")
+                    .check(status().in(200, 304))
+                    .check(header("ETag").saveAs("etagPagina"))
+                    .check(bodyLength().saveAs("tamanho")),
+            exec(session -> contabilizar(session.getInt("tamanho"), bytesComEtag, requisicoesComEtag, session))
+    );
+
+    ScenarioBuilder cenarioSemEtag = scenario("sem etag")
+            .forever().on(consultarSemEtag);
+
+    ScenarioBuilder cenarioComEtag = scenario("com etag")
+            .exec(session -> session.set("etagMensagem", "").set("etagPagina", ""))
+            .forever().on(consultarComEtag);
+
+    {
+        setUp(
+                cenarioSemEtag.injectClosed(constantConcurrentUsers(USUARIOS).during(DURACAO)),
+                cenarioComEtag.injectClosed(constantConcurrentUsers(USUARIOS).during(DURACAO))
+        )
+                .protocols(httpProtocol)
+                .maxDuration(DURACAO)
+                .assertions(
+                        global().failedRequests().percent().lt(1.0)
+                );
+    }
+
+    @Override
+    public void after() {
+        var mediaSemEtag = media(bytesSemEtag, requisicoesSemEtag);
+        var mediaComEtag = media(bytesComEtag, requisicoesComEtag);
+        System.out.printf("bytes de corpo por requisição: sem etag %.1f, com etag %.1f (%.1f%% a menos)%n",
+                mediaSemEtag, mediaComEtag, mediaSemEtag == 0 ? 0 : 100 * (1 - mediaComEtag / mediaSemEtag));
+    }
+
+    private static Session contabilizar(int tamanho, LongAdder bytes, LongAdder requisicoes, Session session) {
+        bytes.add(tamanho);
+        requisicoes.increment();
+        return session;
+    }
+
+    private static double media(LongAdder bytes, LongAdder requisicoes) {
+        var total = requisicoes.sum();
+        return total == 0 ? 0 : (double) bytes.sum() / total;
+    }
+
+    private String registrarMensagem() {
+        try {
+            var resposta = cliente.send(
+                    HttpRequest.newBuilder(URI.create(BASE_URL + "/mensagens"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(
+                                    "{\"usuario\": \"user\", \"conteudo\": \"mensagem consultada\"}"))
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString());
+            var matcher = Pattern.compile("\"id\"\\s*:\\s*\"([^\"]+)\"").matcher(resposta.body());
+            if (!matcher.find()) {
+                throw new IllegalStateException("Campo id ausente em " + resposta.body());
+            }
+            return matcher.group(1);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package br.com.fiap.api.performace;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Exporta milhões de mensagens por GET /mensagens/export e verifica que a memória retida após as
+ * coletas de lixo não cresce durante a transmissão. O banco H2 é gravado em arquivo para que os
+ * dados não ocupem o heap medido.
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.url=jdbc:h2:file:./target/benchmark/exportacao;DB_CLOSE_DELAY=-1"
+)
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ExportacaoBenchmark {
+
+    private static final long CRESCIMENTO_MAXIMO_HEAP = 64L * 1024 * 1024;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private int total;
+
+    @BeforeAll
+    void popular() {
+        jdbcTemplate.execute("DELETE FROM mensagem");
+        total = BenchmarkHelper.registros(3_000_000);
+        BenchmarkHelper.popularMensagens(jdbcTemplate, total);
+    }
+
+    @Test
+    void deveExportarComMemoriaConstante_QuandoMilhoesDeMensagens() throws Exception {
+        // Arrange
+        System.gc();
+        var retidoAntes = memoriaRetida();
+        var picoRetido = new AtomicLong(retidoAntes);
+        var amostragem = Executors.newSingleThreadScheduledExecutor();
+        amostragem.scheduleAtFixedRate(() -> picoRetido.accumulateAndGet(memoriaRetida(), Math::max),
+                0, 100, TimeUnit.MILLISECONDS);
+        var cliente = HttpClient.newHttpClient();
+        var requisicao = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/mensagens/export"))
+                .header("Accept-Encoding", "gzip")
+                .GET()
+                .build();
+
+        // Act
+        var inicio = System.nanoTime();
+        long linhas = 0;
+        var resposta = cliente.send(requisicao, HttpResponse.BodyHandlers.ofInputStream());
+        try (var leitor = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(resposta.body()), StandardCharsets.UTF_8))) {
+            while (leitor.readLine() != null) {
+                linhas++;
+            }
+        }
+        var segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+        amostragem.shutdownNow();
+
+        // Assert
+        var crescimento = picoRetido.get() - retidoAntes;
+        System.out.printf("[benchmark] exportação de %,d mensagens em %.1f s (%.0f msg/s), crescimento do heap retido: %,d bytes%n",
+                linhas, segundos, linhas / segundos, crescimento);
+        assertThat(linhas).isEqualTo(total);
+        assertThat(crescimento).isLessThan(CRESCIMENTO_MAXIMO_HEAP);
+    }
+
+    // soma do uso de heap medido logo após a última coleta de cada área: aproxima os objetos vivos
+    private static long memoriaRetida() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .map(MemoryPoolMXBean::getCollectionUsage)
+                .filter(uso -> uso != null)
+                .mapToLong(uso -> uso.getUsed())
+                .sum();
+    }
+}
@@ -0,0 +1,106 @@
+package br.com.fiap.api.performace;
+
+import br.com.fiap.api.model.Mensagem;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bytes transferidos e tempo de serialização de uma mensagem e de uma página de 100 mensagens em
+ * JSON, CBOR e Smile, com e sem gzip (como o Tomcat compacta acima de {@code min-response-size}).
+ * A medição de CPU com mais rigor está em {@code SerializacaoJmh}.
+ */
+class FormatoBenchmark {
+
+    private static final int TAMANHO_PAGINA = 100;
+
+    private final Map<String, ObjectMapper> formatos = new LinkedHashMap<>();
+
+    FormatoBenchmark() {
+        formatos.put("json", criarObjectMapper(new JsonFactory()));
+        formatos.put("cbor", criarObjectMapper(new CBORFactory()));
+        formatos.put("smile", criarObjectMapper(new SmileFactory()));
+    }
+
+    @Test
+    void deveReduzirBytes_QuandoSerializarEmFormatoBinario() {
+        // Arrange
+        var mensagem = gerarMensagem(0);
+        var pagina = new PageImpl<>(
+                IntStream.range(0, TAMANHO_PAGINA).mapToObj(FormatoBenchmark::gerarMensagem).toList(),
+                PageRequest.of(0, TAMANHO_PAGINA),
+                1_000_000);
+        var bytesPagina = new LinkedHashMap<String, Integer>();
+
+        // Act
+        formatos.forEach((formato, objectMapper) -> {
+            var mensagemSerializada = serializar(objectMapper, mensagem);
+            var paginaSerializada = serializar(objectMapper, pagina);
+            bytesPagina.put(formato, paginaSerializada.length);
+            System.out.printf("[benchmark] %-6s mensagem: %6d bytes (gzip %6d)  página de %d: %7d bytes (gzip %6d)%n",
+                    formato, mensagemSerializada.length, compactar(mensagemSerializada).length, TAMANHO_PAGINA,
+                    paginaSerializada.length, compactar(paginaSerializada).length);
+            BenchmarkHelper.imprimir(formato + ": serializar mensagem",
+                    BenchmarkHelper.medirMediaEmMicros(10_000, 100_000, () -> serializar(objectMapper, mensagem)));
+            BenchmarkHelper.imprimir(formato + ": serializar página de " + TAMANHO_PAGINA,
+                    BenchmarkHelper.medirMediaEmMicros(1_000, 10_000, () -> serializar(objectMapper, pagina)));
+            BenchmarkHelper.imprimir(formato + ": serializar e compactar página",
+                    BenchmarkHelper.medirMediaEmMicros(500, 2_000,
+                            () -> compactar(serializar(objectMapper, pagina))));
+        });
+
+        // Assert
+        assertThat(bytesPagina.get("cbor")).isLessThan(bytesPagina.get("json"));
+        assertThat(bytesPagina.get("smile")).isLessThan(bytesPagina.get("json"));
+    }
+
+    private static ObjectMapper criarObjectMapper(JsonFactory factory) {
+        return new ObjectMapper(factory).registerModule(new JavaTimeModule());
+    }
+
+    private static byte[] serializar(ObjectMapper objectMapper, Object valor) {
+        try {
+            return objectMapper.writeValueAsBytes(valor);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] compactar(byte[] dados) {
+        var saida = new ByteArrayOutputStream(dados.length);
+        try (var gzip = new GZIPOutputStream(saida)) {
+            gzip.write(dados);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return saida.toByteArray();
+    }
+
+    private static Mensagem gerarMensagem(int indice) {
+        return Mensagem.builder()
+                .id(UUID.randomUUID())
+                .usuario("usuario-" + indice)
+                .conteudo("conteúdo da mensagem " + indice)
+                .dataCriacao(LocalDateTime.now().minusSeconds(indice))
+                .gostei(indice)
+                .versao(0L)
+                .build();
+    }
+}
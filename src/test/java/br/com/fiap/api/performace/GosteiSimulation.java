@@ -0,0 +1,118 @@
+package br.com.fiap.api.performace;
+
+import io.gatling.javaapi.core.ScenarioBuilder;
+import io.gatling.javaapi.core.Simulation;
+import io.gatling.javaapi.http.HttpProtocolBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.regex.Pattern;
+
+import static io.gatling.javaapi.core.CoreDsl.*;
+import static io.gatling.javaapi.http.HttpDsl.http;
+import static io.gatling.javaapi.http.HttpDsl.status;
+
+/**
+ * Milhares de "gostei" simultâneos na mesma mensagem enquanto {@code GET /mensagens/top} é
+ * consultado; ao final confere se o total gravado no banco corresponde ao número de requisições e se
+ * a mensagem lidera o ranking.
+ */
+public class GosteiSimulation extends Simulation {
+
+    private static final String BASE_URL = System.getProperty("baseUrl", "http://localhost:8080");
+    private static final int USUARIOS_SIMULTANEOS = Integer.getInteger("gostei.usuarios", 2_000);
+    private static final int USUARIOS_RAMPA = Integer.getInteger("gostei.rampa", 20_000);
+    private static final int LEITURAS_RANKING_POR_SEGUNDO = Integer.getInteger("gostei.leituras-ranking", 500);
+
+    private final HttpClient cliente = HttpClient.newHttpClient();
+
+    private final String mensagemId = registrarMensagem();
+
+    private final HttpProtocolBuilder httpProtocol =
+            http.baseUrl(BASE_URL)
+                    .header("Content-Type", "application/json");
+
+    // Cenário para registrar gostei na mesma mensagem
+    ScenarioBuilder cenarioRegistrarGostei = scenario("registrar gostei")
+            .exec(http("request: registrar gostei")
+                    .post("/mensagens/" + mensagemId + "/gostei")
+                    .check(status().is(200)));
+
+    ScenarioBuilder cenarioRanking = scenario("consultar ranking")
+            .exec(http("request: mais curtidas")
+                    .get("/mensagens/top?n=10")
+                    .check(status().is(200)));
+
+    {
+        setUp(
+                cenarioRegistrarGostei.injectOpen(
+                        atOnceUsers(USUARIOS_SIMULTANEOS),
+                        rampUsers(USUARIOS_RAMPA).during(Duration.ofSeconds(10))
+                ),
+                cenarioRanking.injectOpen(constantUsersPerSec(LEITURAS_RANKING_POR_SEGUNDO).during(Duration.ofSeconds(10)))
+        )
+                .protocols(httpProtocol)
+                .assertions(
+                        global().failedRequests().count().is(0L),
+                        global().responseTime().percentile(99.0).lt(100),
+                        details("request: mais curtidas").responseTime().percentile(99.0).lt(20)
+                );
+    }
+
+    @Override
+    public void after() {
+        var esperado = USUARIOS_SIMULTANEOS + USUARIOS_RAMPA;
+        try {
+            // aguarda a gravação periódica dos incrementos pendentes
+            Thread.sleep(3_000);
+            var resposta = cliente.send(
+                    HttpRequest.newBuilder(URI.create(BASE_URL + "/mensagens/" + mensagemId)).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            var obtido = extrair(resposta.body(), "gostei");
+            System.out.printf("gostei esperado: %d, obtido: %s%n", esperado, obtido);
+            if (!String.valueOf(esperado).equals(obtido)) {
+                throw new IllegalStateException("Total de gostei divergente");
+            }
+            var ranking = cliente.send(
+                    HttpRequest.newBuilder(URI.create(BASE_URL + "/mensagens/top?n=1")).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (!mensagemId.equals(extrair(ranking.body(), "id"))) {
+                throw new IllegalStateException("A mensagem mais curtida não lidera o ranking");
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private String registrarMensagem() {
+        try {
+            var resposta = cliente.send(
+                    HttpRequest.newBuilder(URI.create(BASE_URL + "/mensagens"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(
+                                    "{\"usuario\": \"user\", \"conteudo\": \"mensagem viral\"}"))
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString());
+            return extrair(resposta.body(), "id");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String extrair(String json, String campo) {
+        var matcher = Pattern.compile("\"" + campo + "\"\\s*:\\s*\"?([^\",}]+)").matcher(json);
+        if (!matcher.find()) {
+            throw new IllegalStateException("Campo " + campo + " ausente em " + json);
+        }
+        return matcher.group(1);
+    }
+}
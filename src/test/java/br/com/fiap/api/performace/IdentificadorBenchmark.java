@@ -0,0 +1,86 @@
+package br.com.fiap.api.performace;
+
+import br.com.fiap.api.id.UuidV7IdGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.IdGenerator;
+import org.springframework.util.JdkIdGenerator;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Compara a vazão de inclusão e o tamanho do índice da chave primária entre UUID v4 e v7 no
+ * PostgreSQL ({@code make docker-start}). A conexão pode ser alterada com
+ * {@code -Dbenchmark.postgres.url}, {@code -Dbenchmark.postgres.usuario} e {@code -Dbenchmark.postgres.senha}.
+ */
+class IdentificadorBenchmark {
+
+    private static final int TAMANHO_LOTE = 1_000;
+
+    @Test
+    void deveGerarIndiceMenor_QuandoUsarUuidV7() throws SQLException {
+        try (var conexao = conectar()) {
+            assumeTrue(conexao != null, "PostgreSQL indisponível");
+            var total = BenchmarkHelper.registros(5_000_000);
+
+            // Act
+            var v4 = inserir(conexao, "benchmark_uuid_v4", new JdkIdGenerator(), total);
+            var v7 = inserir(conexao, "benchmark_uuid_v7", new UuidV7IdGenerator(), total);
+
+            // Assert
+            System.out.printf("[benchmark] %-10s %12.0f linhas/s  índice %,d bytes%n", "uuid v4", v4.vazao(), v4.tamanhoIndice());
+            System.out.printf("[benchmark] %-10s %12.0f linhas/s  índice %,d bytes%n", "uuid v7", v7.vazao(), v7.tamanhoIndice());
+            assertThat(v7.tamanhoIndice()).isLessThan(v4.tamanhoIndice());
+        }
+    }
+
+    private static Resultado inserir(Connection conexao, String tabela, IdGenerator gerador, int total)
+            throws SQLException {
+        try (var comando = conexao.createStatement()) {
+            comando.execute("DROP TABLE IF EXISTS " + tabela);
+            comando.execute("CREATE TABLE " + tabela + " (id uuid PRIMARY KEY, conteudo varchar(255) NOT NULL)");
+        }
+
+        var inicio = System.nanoTime();
+        try (var insercao = conexao.prepareStatement("INSERT INTO " + tabela + " (id, conteudo) VALUES (?, ?)")) {
+            for (int i = 1; i <= total; i++) {
+                insercao.setObject(1, gerador.generateId());
+                insercao.setString(2, "conteúdo da mensagem " + i);
+                insercao.addBatch();
+                if (i % TAMANHO_LOTE == 0) {
+                    insercao.executeBatch();
+                    conexao.commit();
+                }
+            }
+            insercao.executeBatch();
+            conexao.commit();
+        }
+        var vazao = total / ((System.nanoTime() - inicio) / 1_000_000_000.0);
+
+        try (var consulta = conexao.createStatement();
+             var resultado = consulta.executeQuery("SELECT pg_relation_size('" + tabela + "_pkey')")) {
+            resultado.next();
+            return new Resultado(vazao, resultado.getLong(1));
+        }
+    }
+
+    private static Connection conectar() {
+        try {
+            var conexao = DriverManager.getConnection(
+                    System.getProperty("benchmark.postgres.url", "jdbc:postgresql://localhost:5432/backend?reWriteBatchedInserts=true"),
+                    System.getProperty("benchmark.postgres.usuario", "root"),
+                    System.getProperty("benchmark.postgres.senha", "toor"));
+            conexao.setAutoCommit(false);
+            return conexao;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+
+    private record Resultado(double vazao, long tamanhoIndice) {
+    }
+}
@@ -0,0 +1,73 @@
+package br.com.fiap.api.performace;
+
+import br.com.fiap.api.model.Mensagem;
+import br.com.fiap.api.service.MensagemService;
+import br.com.fiap.api.utils.MensagemHelper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compara a vazão (mensagens/s) do registro individual com o registro em lote via INSERTs agrupados.
+ */
+@SpringBootTest
+@AutoConfigureTestDatabase
+@ActiveProfiles("test")
+class IngestaoBenchmark {
+
+    private static final int TAMANHO_LOTE = 5_000;
+
+    @Autowired
+    private MensagemService mensagemService;
+
+    @Test
+    void deveRegistrarMaisMensagensPorSegundo_QuandoRegistrarEmLote() {
+        // Arrange
+        var total = BenchmarkHelper.registros(50_000);
+        aquecer();
+
+        // Act
+        var inicioIndividual = System.nanoTime();
+        for (int i = 0; i < total; i++) {
+            mensagemService.registrarMensagem(MensagemHelper.gerarMensagem());
+        }
+        var vazaoIndividual = total / segundosDesde(inicioIndividual);
+
+        var inicioLote = System.nanoTime();
+        for (int registradas = 0; registradas < total; registradas += TAMANHO_LOTE) {
+            mensagemService.registrarMensagens(gerarLote(Math.min(TAMANHO_LOTE, total - registradas)));
+        }
+        var vazaoLote = total / segundosDesde(inicioLote);
+
+        // Assert
+        System.out.printf("[benchmark] %-45s %12.0f msg/s%n", "registro individual", vazaoIndividual);
+        System.out.printf("[benchmark] %-45s %12.0f msg/s%n", "registro em lote (" + TAMANHO_LOTE + ")", vazaoLote);
+        assertThat(vazaoLote).isGreaterThan(vazaoIndividual);
+    }
+
+    private void aquecer() {
+        for (int i = 0; i < 1_000; i++) {
+            mensagemService.registrarMensagem(MensagemHelper.gerarMensagem());
+        }
+        mensagemService.registrarMensagens(gerarLote(1_000));
+    }
+
+    private static List<Mensagem> gerarLote(int tamanho) {
+        var lote = new ArrayList<Mensagem>(tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            lote.add(MensagemHelper.gerarMensagem());
+        }
+        return lote;
+    }
+
+    private static double segundosDesde(long inicio) {
+        return (System.nanoTime() - inicio) / 1_000_000_000.0;
+    }
+}
@@ -0,0 +1,178 @@
+package br.com.fiap.api.performace;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Tempo até a aplicação responder UP em {@code /actuator/health}, latência da primeira requisição
+ * real e memória residente do container depois dela, medidos do {@code docker run} em diante. A
+ * primeira imagem de {@code -Dbenchmark.imagens} é a referência: a atual ({@code make docker-build});
+ * as demais são a de inicialização rápida ({@code make docker-build-inicio-rapido}: AOT, CDS e
+ * inicialização tardia) e a nativa ({@code make docker-build-nativo}), quando existirem.
+ * Cada imagem é iniciada {@code -Dbenchmark.repeticoes} vezes e são impressas as medianas; todas
+ * usam o PostgreSQL de {@code make docker-start}. A vazão sob carga é comparada com
+ * {@code make imagem-performance-test}.
+ */
+class InicializacaoBenchmark {
+
+    private static final List<String> IMAGENS = List.of(System.getProperty("benchmark.imagens",
+            "backend:dev,backend:inicio-rapido,backend:nativo").split(","));
+
+    private static final String URL_BANCO = System.getProperty("benchmark.postgres.url-container",
+            "jdbc:postgresql://host.docker.internal:5432/backend");
+
+    private static final int REPETICOES = Integer.getInteger("benchmark.repeticoes", 5);
+
+    private static final int PORTA = Integer.getInteger("benchmark.porta", 18080);
+
+    private static final Duration TEMPO_MAXIMO = Duration.ofMinutes(2);
+
+    private static final Pattern INICIADA = Pattern.compile("Started \\w+ in ([\\d.]+) seconds");
+
+    private static final Pattern MEMORIA = Pattern.compile("([\\d.]+)\\s*([KMG]i?B)");
+
+    private final HttpClient cliente = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+    @Test
+    void deveReduzirTempoAtePronto_QuandoImagemOtimizada() throws Exception {
+        var imagens = IMAGENS.stream().filter(InicializacaoBenchmark::imagemDisponivel).toList();
+        assumeTrue(imagens.size() > 1 && imagens.getFirst().equals(IMAGENS.getFirst()),
+                "Docker ou imagens indisponíveis");
+
+        // Arrange
+        var medicoes = new LinkedHashMap<String, List<Medicao>>();
+        imagens.forEach(imagem -> medicoes.put(imagem, new ArrayList<>()));
+
+        // Act
+        // alterna as imagens para que variações do host afetem todas igualmente
+        for (int i = 0; i < REPETICOES; i++) {
+            for (var imagem : imagens) {
+                medicoes.get(imagem).add(medir(imagem));
+            }
+        }
+
+        // Assert
+        medicoes.forEach(InicializacaoBenchmark::imprimir);
+        var referencia = mediana(medicoes.get(imagens.getFirst()), Medicao::msAtePronto);
+        for (var imagem : imagens.subList(1, imagens.size())) {
+            assertThat(mediana(medicoes.get(imagem), Medicao::msAtePronto)).as(imagem).isLessThan(referencia);
+        }
+    }
+
+    private Medicao medir(String imagem) throws Exception {
+        var inicio = System.nanoTime();
+        var container = docker("run", "-d", "--rm", "-p", PORTA + ":8080",
+                "--add-host=host.docker.internal:host-gateway",
+                "-e", "SPRING_DATASOURCE_URL=" + URL_BANCO,
+                "-e", "SPRING_DATASOURCE_USERNAME=root",
+                "-e", "SPRING_DATASOURCE_PASSWORD=toor",
+                imagem).strip();
+        try {
+            aguardarPronto();
+            var msAtePronto = (System.nanoTime() - inicio) / 1_000_000.0;
+            var msPrimeira = cronometrar("/mensagens?modo=cursor&size=10");
+            var msSegunda = cronometrar("/mensagens?modo=cursor&size=10");
+            var matcher = INICIADA.matcher(docker("logs", container));
+            var msSpring = matcher.find() ? Double.parseDouble(matcher.group(1)) * 1_000 : Double.NaN;
+            var mbMemoria = memoriaEmMb(docker("stats", "--no-stream", "--format", "{{.MemUsage}}", container));
+            return new Medicao(msAtePronto, msSpring, msPrimeira, msSegunda, mbMemoria);
+        } finally {
+            docker("rm", "-f", container);
+        }
+    }
+
+    private void aguardarPronto() throws Exception {
+        var limite = System.nanoTime() + TEMPO_MAXIMO.toNanos();
+        var requisicao = HttpRequest.newBuilder(URI.create("http://localhost:" + PORTA + "/actuator/health")).GET().build();
+        while (System.nanoTime() < limite) {
+            try {
+                var resposta = cliente.send(requisicao, HttpResponse.BodyHandlers.ofString());
+                if (resposta.statusCode() == 200 && resposta.body().contains("\"UP\"")) {
+                    return;
+                }
+            } catch (IOException e) {
+                // porta ainda fechada ou conexão encerrada enquanto o Tomcat inicia
+            }
+            Thread.sleep(10);
+        }
+        throw new IllegalStateException("A aplicação não ficou pronta em " + TEMPO_MAXIMO);
+    }
+
+    private double cronometrar(String caminho) throws Exception {
+        var requisicao = HttpRequest.newBuilder(URI.create("http://localhost:" + PORTA + caminho)).GET().build();
+        var inicio = System.nanoTime();
+        var resposta = cliente.send(requisicao, HttpResponse.BodyHandlers.ofString());
+        var ms = (System.nanoTime() - inicio) / 1_000_000.0;
+        assertThat(resposta.statusCode()).isEqualTo(200);
+        return ms;
+    }
+
+    private static boolean imagemDisponivel(String imagem) {
+        try {
+            docker("image", "inspect", imagem);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static String docker(String... argumentos) throws IOException, InterruptedException {
+        var comando = new ArrayList<String>(List.of("docker"));
+        comando.addAll(Arrays.asList(argumentos));
+        var processo = new ProcessBuilder(comando).redirectErrorStream(true).start();
+        var saida = new String(processo.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        if (processo.waitFor() != 0) {
+            throw new IllegalStateException(String.join(" ", comando) + ": " + saida);
+        }
+        return saida;
+    }
+
+    // uso de memória do container informado pelo Docker, por exemplo "212.4MiB / 15.5GiB"
+    private static double memoriaEmMb(String uso) {
+        var matcher = MEMORIA.matcher(uso);
+        if (!matcher.find()) {
+            return Double.NaN;
+        }
+        var valor = Double.parseDouble(matcher.group(1));
+        return switch (matcher.group(2).charAt(0)) {
+            case 'K' -> valor / 1_024;
+            case 'G' -> valor * 1_024;
+            default -> valor;
+        };
+    }
+
+    private static void imprimir(String imagem, List<Medicao> medicoes) {
+        System.out.printf("[benchmark] %-25s até pronto %8.0f ms  (Spring %8.0f ms)  1ª requisição %7.1f ms  2ª %7.1f ms  memória %7.1f MB%n",
+                imagem, mediana(medicoes, Medicao::msAtePronto), mediana(medicoes, Medicao::msSpring),
+                mediana(medicoes, Medicao::msPrimeiraRequisicao), mediana(medicoes, Medicao::msSegundaRequisicao),
+                mediana(medicoes, Medicao::mbMemoria));
+    }
+
+    private static double mediana(List<Medicao> medicoes, ToDoubleFunction<Medicao> valor) {
+        var ordenados = medicoes.stream().mapToDouble(valor).sorted().toArray();
+        return ordenados[ordenados.length / 2];
+    }
+
+    private record Medicao(double msAtePronto, double msSpring, double msPrimeiraRequisicao,
+                           double msSegundaRequisicao, double mbMemoria) {
+    }
+}
@@ -0,0 +1,71 @@
+package br.com.fiap.api.performace;
+
+import br.com.fiap.api.model.MensagemCursor;
+import br.com.fiap.api.repository.MensagemRepository;
+import br.com.fiap.api.service.MensagemService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compara a paginação por OFFSET com a paginação por cursor na primeira página e na página 10.000.
+ * O volume padrão pode ser alterado com {@code -Dbenchmark.registros}.
+ */
+@SpringBootTest
+@AutoConfigureTestDatabase
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PaginacaoBenchmark {
+
+    private static final int TAMANHO_PAGINA = 10;
+    private static final int PAGINA_PROFUNDA = 10_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MensagemRepository mensagemRepository;
+
+    @Autowired
+    private MensagemService mensagemService;
+
+    @BeforeAll
+    void popular() {
+        BenchmarkHelper.popularMensagens(jdbcTemplate, BenchmarkHelper.registros(2_000_000));
+    }
+
+    @Test
+    void deveManterLatenciaConstante_QuandoPaginarPorCursor() {
+        // Arrange
+        var ultimaDaPaginaAnterior = mensagemRepository
+                .listarMensagem(PageRequest.of(PAGINA_PROFUNDA - 1, TAMANHO_PAGINA))
+                .getContent()
+                .get(TAMANHO_PAGINA - 1);
+        var cursorProfundo = MensagemCursor.de(ultimaDaPaginaAnterior);
+
+        // Act
+        var offsetPrimeira = BenchmarkHelper.medirMediaEmMicros(20, 100,
+                () -> mensagemService.listarMensagens(PageRequest.of(0, TAMANHO_PAGINA)));
+        var offsetProfunda = BenchmarkHelper.medirMediaEmMicros(5, 20,
+                () -> mensagemService.listarMensagens(PageRequest.of(PAGINA_PROFUNDA, TAMANHO_PAGINA)));
+        var cursorPrimeira = BenchmarkHelper.medirMediaEmMicros(20, 100,
+                () -> mensagemService.listarMensagens(null, TAMANHO_PAGINA));
+        var cursorProfunda = BenchmarkHelper.medirMediaEmMicros(20, 100,
+                () -> mensagemService.listarMensagens(cursorProfundo, TAMANHO_PAGINA));
+
+        // Assert
+        BenchmarkHelper.imprimir("offset - página 1", offsetPrimeira);
+        BenchmarkHelper.imprimir("offset - página " + PAGINA_PROFUNDA, offsetProfunda);
+        BenchmarkHelper.imprimir("cursor - página 1", cursorPrimeira);
+        BenchmarkHelper.imprimir("cursor - página " + PAGINA_PROFUNDA, cursorProfunda);
+        assertThat(cursorProfunda).isLessThan(offsetProfunda);
+    }
+}
@@ -0,0 +1,132 @@
+package br.com.fiap.api.performace;
+
+import br.com.fiap.api.particionamento.ParticionamentoMensagem;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Tabela com e sem particionamento mensal no PostgreSQL de {@code make docker-start}, com 50 milhões
+ * de mensagens (uma por segundo, cerca de 19 meses): latência da primeira página e de uma página por
+ * cursor das mais recentes, e custo de remover os meses mais antigos com DROP de partições em
+ * comparação ao DELETE por data.
+ */
+class ParticionamentoBenchmark {
+
+    private static final String ESQUEMA_PARTICIONADO = "benchmark_particionado";
+
+    private static final String ESQUEMA_SIMPLES = "benchmark_simples";
+
+    private static final int RETENCAO_MESES = 12;
+
+    private static final String PRIMEIRA_PAGINA = "SELECT id, usuario, conteudo, data_criacao, gostei, versao " +
+            "FROM mensagem ORDER BY data_criacao DESC, id DESC LIMIT 20";
+
+    private static final String PAGINA_APOS = "SELECT id, usuario, conteudo, data_criacao, gostei, versao " +
+            "FROM mensagem WHERE data_criacao <= ? AND (data_criacao < ? OR id < ?) " +
+            "ORDER BY data_criacao DESC, id DESC LIMIT 20";
+
+    // gera as mensagens no próprio banco, terminando no instante atual
+    private static final String POPULAR = "INSERT INTO mensagem (id, usuario, conteudo, data_criacao, gostei, versao) " +
+            "SELECT gen_random_uuid(), 'usuario-' || (i % 1000), 'conteúdo da mensagem ' || i, " +
+            "?::timestamp - make_interval(secs => ? - i), 0, 0 FROM generate_series(?, ?) i";
+
+    private static final int TAMANHO_LOTE = 1_000_000;
+
+    @Test
+    void deveManterLatenciaEReduzirCustoDoExpurgo_QuandoParticionada() {
+        var particionada = conectar(ESQUEMA_PARTICIONADO);
+        var simples = conectar(ESQUEMA_SIMPLES);
+        assumeTrue(particionada != null && simples != null, "PostgreSQL indisponível");
+
+        // Arrange
+        var total = BenchmarkHelper.registros(50_000_000);
+        var fim = LocalDateTime.now();
+        var inicio = fim.minusSeconds(total);
+
+        particionada.execute("DROP TABLE IF EXISTS mensagem");
+        particionada.execute("CREATE TABLE mensagem (id uuid NOT NULL, usuario varchar(255) NOT NULL, " +
+                "conteudo varchar(255) NOT NULL, data_criacao timestamp(6) NOT NULL, gostei integer NOT NULL, " +
+                "versao bigint, PRIMARY KEY (id, data_criacao)) PARTITION BY RANGE (data_criacao)");
+        var particionamento = new ParticionamentoMensagem(particionada, Clock.systemDefaultZone(), 1,
+                RETENCAO_MESES, () -> { });
+        particionamento.garantirParticoes(YearMonth.from(inicio), YearMonth.from(fim).plusMonths(1));
+
+        simples.execute("DROP TABLE IF EXISTS mensagem");
+        simples.execute("CREATE TABLE mensagem (id uuid PRIMARY KEY, usuario varchar(255) NOT NULL, " +
+                "conteudo varchar(255) NOT NULL, data_criacao timestamp(6) NOT NULL, gostei integer NOT NULL, " +
+                "versao bigint)");
+
+        for (var jdbcTemplate : new JdbcTemplate[]{particionada, simples}) {
+            popular(jdbcTemplate, fim, total);
+            jdbcTemplate.execute("CREATE INDEX idx_mensagem_data_criacao_id ON mensagem (data_criacao DESC, id DESC)");
+            jdbcTemplate.execute("ANALYZE mensagem");
+        }
+        System.out.printf("[benchmark] %-45s %12d partições%n", "mensagem particionada",
+                particionamento.particoes().size());
+
+        // Act
+        var primeiraParticionada = BenchmarkHelper.medirMediaEmMicros(20, 200,
+                () -> particionada.queryForList(PRIMEIRA_PAGINA));
+        var primeiraSimples = BenchmarkHelper.medirMediaEmMicros(20, 200, () -> simples.queryForList(PRIMEIRA_PAGINA));
+        var cursor = fim.minusHours(6);
+        var ultimoId = new UUID(Long.MAX_VALUE, Long.MAX_VALUE);
+        var aposParticionada = BenchmarkHelper.medirMediaEmMicros(20, 200,
+                () -> particionada.queryForList(PAGINA_APOS, cursor, cursor, ultimoId));
+        var aposSimples = BenchmarkHelper.medirMediaEmMicros(20, 200,
+                () -> simples.queryForList(PAGINA_APOS, cursor, cursor, ultimoId));
+        var plano = String.join("\n", particionada.queryForList("EXPLAIN " + PRIMEIRA_PAGINA, String.class));
+
+        var limite = YearMonth.from(fim.minusMonths(RETENCAO_MESES)).atDay(1).atStartOfDay();
+        var inicioDrop = System.nanoTime();
+        var removidas = particionamento.expurgar();
+        var microsDrop = (System.nanoTime() - inicioDrop) / 1_000.0;
+        var inicioDelete = System.nanoTime();
+        var linhasRemovidas = simples.update("DELETE FROM mensagem WHERE data_criacao < ?", limite);
+        var microsDelete = (System.nanoTime() - inicioDelete) / 1_000.0;
+
+        // Assert
+        BenchmarkHelper.imprimir("1ª página, particionada", primeiraParticionada);
+        BenchmarkHelper.imprimir("1ª página, sem partições", primeiraSimples);
+        BenchmarkHelper.imprimir("página por cursor (6h atrás), particionada", aposParticionada);
+        BenchmarkHelper.imprimir("página por cursor (6h atrás), sem partições", aposSimples);
+        BenchmarkHelper.imprimir("expurgo: DROP de " + removidas.size() + " partições", microsDrop);
+        BenchmarkHelper.imprimir("expurgo: DELETE de " + linhasRemovidas + " linhas", microsDelete);
+        System.out.println(plano);
+
+        // percorre as partições em ordem (Append) em vez de juntar todas (Merge Append)
+        assertThat(plano).doesNotContain("Merge Append");
+        assertThat(removidas).isNotEmpty();
+        assertThat(primeiraParticionada).isLessThan(primeiraSimples * 3);
+        assertThat(microsDrop).isLessThan(microsDelete);
+    }
+
+    private static void popular(JdbcTemplate jdbcTemplate, LocalDateTime fim, int total) {
+        for (int inicio = 1; inicio <= total; inicio += TAMANHO_LOTE) {
+            jdbcTemplate.update(POPULAR, fim, total, inicio, Math.min(total, inicio + TAMANHO_LOTE - 1));
+        }
+    }
+
+    private static JdbcTemplate conectar(String esquema) {
+        var url = System.getProperty("benchmark.postgres.url", "jdbc:postgresql://localhost:5432/backend");
+        var usuario = System.getProperty("benchmark.postgres.usuario", "root");
+        var senha = System.getProperty("benchmark.postgres.senha", "toor");
+        try {
+            new JdbcTemplate(new DriverManagerDataSource(url, usuario, senha))
+                    .execute("CREATE SCHEMA IF NOT EXISTS " + esquema);
+        } catch (DataAccessException e) {
+            return null;
+        }
+        var separador = url.contains("?") ? "&" : "?";
+        return new JdbcTemplate(new DriverManagerDataSource(url + separador + "currentSchema=" + esquema, usuario, senha));
+    }
+}
@@ -1,38 +1,163 @@
 package br.com.fiap.api.performace;
 
-import io.gatling.javaapi.core.ActionBuilder;
+import io.gatling.javaapi.core.Assertion;
+import io.gatling.javaapi.core.ChainBuilder;
+import io.gatling.javaapi.core.OpenInjectionStep;
 import io.gatling.javaapi.core.ScenarioBuilder;
 import io.gatling.javaapi.core.Simulation;
 import io.gatling.javaapi.http.HttpProtocolBuilder;
+import io.gatling.javaapi.http.HttpRequestActionBuilder;
 
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 import static io.gatling.javaapi.core.CoreDsl.*;
 import static io.gatling.javaapi.http.HttpDsl.http;
 import static io.gatling.javaapi.http.HttpDsl.status;
 
+/**
+ * Simulação de carga da API de mensagens.
+ * <p>
+ * Antes da carga são registradas {@code -Dperformace.semente} mensagens (100 mil por padrão) de mil
+ * usuários por {@code POST /mensagens/lote}, para que as listagens e a página profunda trabalhem sobre
+ * um volume realista. O cenário é escolhido por {@code -Dperformace.cenario}:
+ * <ul>
+ *     <li>{@code padrao}: cada operação (adicionar, buscar, alterar, remover, primeira página, página
+ *     profunda e listagem por cursor) com sua própria taxa, ajustada por
+ *     {@code -Dperformace.taxa.<operação>} em requisições por segundo;</li>
+ *     <li>{@code misto}: leituras e escritas sobre as mensagens semeadas na proporção de
+ *     {@code -Dperformace.leitura} por cento de leituras, a {@code -Dperformace.taxa} usuários por segundo;</li>
+ *     <li>{@code soak}: o cenário misto por 30 minutos, comparando ao final os percentis da primeira e
+ *     da última janela de {@code -Dperformace.soak.janela} segundos;</li>
+ *     <li>{@code capacidade}: o cenário misto em degraus crescentes de carga, imprimindo vazão e
+ *     percentis de cada degrau e o ponto em que a vazão deixa de acompanhar a carga oferecida;</li>
+ *     <li>{@code concorrencia}: um modelo fechado com muitos usuários simultâneos, usado para comparar
+ *     a aplicação iniciada com e sem o perfil {@code threads-virtuais} (ver {@code make run} e
+ *     {@code make run-threads-virtuais}), com {@code -Dperformace.usuarios} usuários.</li>
+ * </ul>
+ * A duração de cada cenário é ajustada por {@code -Dperformace.duracao} (em segundos). Os objetivos
+ * de p50, p95 e p99 de cada requisição podem ser alterados por
+ * {@code -Dperformace.slo.<operação>.p95=...} e a taxa de falhas aceita por {@code -Dperformace.slo.erros}.
+ */
 public class PerformaceSimulation extends Simulation {
 
+    private static final String BASE_URL = System.getProperty("performace.url", "http://localhost:8080");
+    private static final String CENARIO = System.getProperty("performace.cenario", "padrao");
+    private static final int USUARIOS_CONCORRENTES = Integer.getInteger("performace.usuarios", 1_000);
+    private static final int SEMENTE = Integer.getInteger("performace.semente", 100_000);
+    private static final int TAXA = Integer.getInteger("performace.taxa", 50);
+    private static final int PERCENTUAL_LEITURA = Integer.getInteger("performace.leitura", 90);
+    private static final int PAGINAS_CURSOR = Integer.getInteger("performace.paginas-cursor", 50);
+    private static final double FALHAS_ACEITAS = Double.parseDouble(System.getProperty("performace.slo.erros", "0.1"));
+
+    private static final int CAPACIDADE_INICIO = Integer.getInteger("performace.capacidade.inicio", 50);
+    private static final int CAPACIDADE_DEGRAU = Integer.getInteger("performace.capacidade.degrau", 50);
+    private static final int CAPACIDADE_DEGRAUS = Integer.getInteger("performace.capacidade.degraus", 10);
+    private static final int CAPACIDADE_DURACAO_DEGRAU = Integer.getInteger("performace.capacidade.duracao-degrau", 30);
+    private static final int CAPACIDADE_RAMPA = 5;
+    private static final int CAPACIDADE_P95 = Integer.getInteger("performace.capacidade.p95", 200);
+
+    private static final int SOAK_JANELA = Integer.getInteger("performace.soak.janela", 300);
+    private static final double SOAK_DEGRADACAO =
+            Double.parseDouble(System.getProperty("performace.soak.degradacao", "2.0"));
+
+    private static final int TAMANHO_PAGINA = 20;
+    private static final int TAMANHO_LOTE_SEMENTE = 5_000;
+    private static final int USUARIOS_SEMENTE = 1_000;
+    // última página completa das mensagens semeadas
+    private static final int PAGINA_PROFUNDA = Math.max(0, SEMENTE / TAMANHO_PAGINA - 1);
+
+    private static final String ADICIONAR = "request: adicionar mensagem";
+    private static final String BUSCAR = "request:  buscar mensagem";
+    private static final String ALTERAR = "request: alterar mensagem";
+    private static final String REMOVER = "request:  remover mensagem";
+    private static final String GOSTEI = "request: registrar gostei";
+    private static final String PRIMEIRA_PAGINA = "request: listar primeira página";
+    private static final String PAGINA_PROFUNDA_REQUEST = "request: listar página profunda";
+    private static final String LISTAR_CURSOR = "request:  listar mensagens";
+    private static final String PAGINA_SEGUINTE = "request: listar página seguinte por cursor";
+
+    private static final Pattern UUID_JSON = Pattern.compile("\"([0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12})\"");
+
+    private final HttpClient cliente = HttpClient.newHttpClient();
+
+    private final List<String> mensagensSemeadas = semear();
+
+    private final RegistroLatencias latencias = new RegistroLatencias();
+
     private final HttpProtocolBuilder httpProtocol =
-            http.baseUrl("http://localhost:8080")
+            http.baseUrl(BASE_URL)
                     .header("Content-Type", "application/json");
 
+    // sorteia uma das mensagens semeadas para as leituras e alterações do cenário misto
+    private final Iterator<Map<String, Object>> mensagemSemeada =
+            Stream.generate(() -> Map.<String, Object>of("mensagemId", sortearMensagemSemeada())).iterator();
+
     // Request para adicionar mensagem
-    ActionBuilder adicionarMensagemRequest =  http("request: adicionar mensagem")
+    ChainBuilder adicionarMensagemRequest = medir(http(ADICIONAR)
             .post("/mensagens")
             .body(StringBody("{\"usuario\":   \"user\", \"conteudo\": \"teste de mensagem\"}"))
-            .check(status().is(201))
-            .check(jsonPath("$.id").saveAs("mensagemId"));
+            .check(status().in(201, 202))
+            .check(jsonPath("$.id").saveAs("mensagemId")));
 
     // Request para buscar mensagem
-    ActionBuilder buscarMensagemRequest = http("request:  buscar mensagem")
+    ChainBuilder buscarMensagemRequest = medir(http(BUSCAR)
             .get("/mensagens/#{mensagemId}")
-            .check(status().is(200));
+            .check(status().is(200)));
+
+    // Request para alterar o conteúdo da mensagem
+    ChainBuilder alterarMensagemRequest = medir(http(ALTERAR)
+            .put("/mensagens/#{mensagemId}")
+            .body(StringBody("{\"id\": \"#{mensagemId}\", \"usuario\": \"user\", \"conteudo\": \"mensagem alterada\"}"))
+            .check(status().is(202)));
 
     // Request para remover mensagem
-    ActionBuilder removerMensagemRequest = http("request:  remover mensagem")
+    ChainBuilder removerMensagemRequest = medir(http(REMOVER)
             .delete("/mensagens/#{mensagemId}")
-            .check(status().is(200));
+            .check(status().is(200)));
+
+    // Request para registrar gostei
+    ChainBuilder registrarGosteiRequest = medir(http(GOSTEI)
+            .post("/mensagens/#{mensagemId}/gostei")
+            .check(status().is(200)));
+
+    // Request para a primeira página da listagem paginada
+    ChainBuilder listarPrimeiraPaginaRequest = medir(http(PRIMEIRA_PAGINA)
+            .get("/mensagens?page=0&size=" + TAMANHO_PAGINA)
+            .check(status().is(200)));
+
+    // Request para a última página das mensagens semeadas: o custo do OFFSET cresce com a página
+    ChainBuilder listarPaginaProfundaRequest = medir(http(PAGINA_PROFUNDA_REQUEST)
+            .get("/mensagens?page=" + PAGINA_PROFUNDA + "&size=" + TAMANHO_PAGINA)
+            .check(status().is(200)));
+
+    // Request para listar a primeira página por cursor
+    ChainBuilder listarMensagensRequest = medir(http(LISTAR_CURSOR)
+            .get("/mensagens?modo=cursor&size=" + TAMANHO_PAGINA)
+            .check(status().is(200))
+            .check(jsonPath("$.hasNext").ofBoolean().saveAs("haMais"))
+            .check(jsonPath("$.nextCursor").optional().saveAs("cursor")));
+
+    // Request para a página seguinte, a partir do cursor da anterior
+    ChainBuilder listarPaginaSeguinteRequest = medir(http(PAGINA_SEGUINTE)
+            .get("/mensagens")
+            .queryParam("modo", "cursor")
+            .queryParam("size", TAMANHO_PAGINA)
+            .queryParam("cursor", "#{cursor}")
+            .check(status().is(200))
+            .check(jsonPath("$.hasNext").ofBoolean().saveAs("haMais"))
+            .check(jsonPath("$.nextCursor").optional().saveAs("cursor")));
 
     // Cenário para adicionar mensagem
     ScenarioBuilder cenarioAdicionarMensagem = scenario("adicionar mensagem")
@@ -43,53 +168,272 @@ public class PerformaceSimulation extends Simulation {
             .exec(adicionarMensagemRequest)
             .exec(buscarMensagemRequest);
 
+    // Cenário para alterar mensagem
+    ScenarioBuilder cenarioAlterarMensagem = scenario("alterar mensagem")
+            .exec(adicionarMensagemRequest)
+            .exec(alterarMensagemRequest);
+
     // Cenário para remover mensagem
     ScenarioBuilder cenarioRemoverMensagem = scenario("remover mensagem")
             .exec(adicionarMensagemRequest)
             .exec(removerMensagemRequest);
 
+    // Cenário para a primeira página e a página profunda da listagem paginada
+    ScenarioBuilder cenarioListarPaginas = scenario("listar paginas")
+            .exec(listarPrimeiraPaginaRequest)
+            .exec(listarPaginaProfundaRequest);
+
+    // Cenário que percorre a listagem por cursor, página a página
+    ScenarioBuilder cenarioPercorrerCursor = scenario("percorrer cursor")
+            .exec(listarMensagensRequest)
+            .repeat(PAGINAS_CURSOR).on(
+                    doIf("#{haMais}").then(listarPaginaSeguinteRequest)
+            );
+
+    // Uma requisição por usuário, sorteada entre leituras e escritas das mensagens semeadas
+    ScenarioBuilder cenarioMisto = scenario("misto")
+            .feed(mensagemSemeada)
+            .randomSwitch().on(
+                    percent(PERCENTUAL_LEITURA * 0.65).then(buscarMensagemRequest),
+                    percent(PERCENTUAL_LEITURA * 0.30).then(listarPrimeiraPaginaRequest),
+                    percent(PERCENTUAL_LEITURA * 0.05).then(listarPaginaProfundaRequest),
+                    percent((100 - PERCENTUAL_LEITURA) * 0.60).then(adicionarMensagemRequest),
+                    percent((100 - PERCENTUAL_LEITURA) * 0.30).then(alterarMensagemRequest),
+                    percent((100 - PERCENTUAL_LEITURA) * 0.10).then(registrarGosteiRequest)
+            );
+
+    // Cenário com muitos usuários simultâneos, limitado pelo banco e não pelas threads do servidor
+    ScenarioBuilder cenarioConcorrencia = scenario("alta concorrencia")
+            .forever().on(
+                    exec(adicionarMensagemRequest)
+                            .exec(buscarMensagemRequest)
+                            .exec(listarMensagensRequest)
+            );
+
     {
-        setUp(
+        switch (CENARIO) {
+            case "concorrencia" -> configurarConcorrencia();
+            case "misto" -> configurarMisto(duracao(120));
+            case "soak" -> configurarMisto(duracao(1_800));
+            case "capacidade" -> configurarCapacidade();
+            default -> configurarPadrao();
+        }
+    }
 
-                // Cenário para adicionar mensagem
-                cenarioAdicionarMensagem.injectOpen(
-                        rampUsersPerSec(1)
-                                .to(2)
-                                .during(Duration.ofSeconds(10)),
-                        constantUsersPerSec(2)
-                                .during(Duration.ofSeconds(20)),
-                        rampUsersPerSec(2)
-                                        .to(1)
-                                        .during(Duration.ofSeconds(10))
-                ),
-
-                // Cenário para buscar mensagem
-                cenarioBuscarMensagem.injectOpen(
-                        rampUsersPerSec(1)
-                                .to(10)
-                                .during(Duration.ofSeconds(10)),
-                        constantUsersPerSec(10)
-                                .during(Duration.ofSeconds(20)),
-                        rampUsersPerSec(10)
-                                .to(1)
-                                .during(Duration.ofSeconds(10))
-                ),
-
-                // Cenário para remover mensagem
-                cenarioRemoverMensagem.injectOpen(
-                        rampUsersPerSec(1)
-                                .to(5)
+    @Override
+    public void after() {
+        if ("capacidade".equals(CENARIO)) {
+            relatarCapacidade();
+        } else if ("soak".equals(CENARIO)) {
+            relatarSoak();
+        }
+    }
+
+    private void configurarConcorrencia() {
+        var duracao = duracao(60);
+        setUp(
+                cenarioConcorrencia.injectClosed(
+                        rampConcurrentUsers(1)
+                                .to(USUARIOS_CONCORRENTES)
                                 .during(Duration.ofSeconds(10)),
-                        constantUsersPerSec(5)
-                                .during(Duration.ofSeconds(20)),
-                        rampUsersPerSec(5)
-                                .to(1)
-                                .during(Duration.ofSeconds(10))
+                        constantConcurrentUsers(USUARIOS_CONCORRENTES)
+                                .during(duracao)
                 )
         )
                 .protocols(httpProtocol)
+                .maxDuration(duracao.plusSeconds(10))
                 .assertions(
-                        global().responseTime().max().lt(50)
+                        global().failedRequests().percent().lt(1.0)
                 );
     }
-}
\ No newline at end of file
+
+    private void configurarPadrao() {
+        var duracao = duracao(20);
+        setUp(
+                cenarioAdicionarMensagem.injectOpen(perfilAberto(taxa("adicionar", 2), duracao)),
+                cenarioBuscarMensagem.injectOpen(perfilAberto(taxa("buscar", 10), duracao)),
+                cenarioAlterarMensagem.injectOpen(perfilAberto(taxa("alterar", 5), duracao)),
+                cenarioRemoverMensagem.injectOpen(perfilAberto(taxa("remover", 5), duracao)),
+                cenarioListarPaginas.injectOpen(perfilAberto(taxa("listar", 5), duracao)),
+                cenarioPercorrerCursor.injectOpen(perfilAberto(taxa("cursor", 1), duracao))
+        )
+                .protocols(httpProtocol)
+                .assertions(juntar(
+                        slo(ADICIONAR, "adicionar", 20, 50, 100),
+                        slo(BUSCAR, "buscar", 10, 30, 50),
+                        slo(ALTERAR, "alterar", 20, 50, 100),
+                        slo(REMOVER, "remover", 20, 50, 100),
+                        slo(PRIMEIRA_PAGINA, "primeira-pagina", 20, 50, 100),
+                        slo(PAGINA_PROFUNDA_REQUEST, "pagina-profunda", 50, 200, 400),
+                        slo(LISTAR_CURSOR, "cursor", 10, 30, 50),
+                        slo(PAGINA_SEGUINTE, "cursor", 10, 30, 50)
+                ));
+    }
+
+    private void configurarMisto(Duration duracao) {
+        setUp(
+                cenarioMisto.injectOpen(
+                        rampUsersPerSec(1)
+                                .to(TAXA)
+                                .during(Duration.ofSeconds(10)),
+                        constantUsersPerSec(TAXA)
+                                .during(duracao)
+                )
+        )
+                .protocols(httpProtocol)
+                .assertions(juntar(
+                        slo(BUSCAR, "buscar", 10, 30, 50),
+                        slo(PRIMEIRA_PAGINA, "primeira-pagina", 20, 50, 100),
+                        slo(PAGINA_PROFUNDA_REQUEST, "pagina-profunda", 50, 200, 400),
+                        slo(ADICIONAR, "adicionar", 20, 50, 100),
+                        slo(ALTERAR, "alterar", 20, 50, 100),
+                        slo(GOSTEI, "gostei", 10, 30, 50)
+                ));
+    }
+
+    // incrementa a carga em degraus até encontrar o ponto em que a vazão para de crescer
+    private void configurarCapacidade() {
+        setUp(
+                cenarioMisto.injectOpen(
+                        incrementUsersPerSec(CAPACIDADE_DEGRAU)
+                                .times(CAPACIDADE_DEGRAUS)
+                                .eachLevelLasting(Duration.ofSeconds(CAPACIDADE_DURACAO_DEGRAU))
+                                .separatedByRampsLasting(Duration.ofSeconds(CAPACIDADE_RAMPA))
+                                .startingFrom(CAPACIDADE_INICIO)
+                )
+        )
+                .protocols(httpProtocol);
+    }
+
+    private void relatarCapacidade() {
+        var capacidade = -1.0;
+        var joelho = -1;
+        for (int degrau = 0; degrau < CAPACIDADE_DEGRAUS; degrau++) {
+            var inicio = degrau * (CAPACIDADE_DURACAO_DEGRAU + CAPACIDADE_RAMPA);
+            var resumo = latencias.resumir(inicio, inicio + CAPACIDADE_DURACAO_DEGRAU);
+            var oferecida = CAPACIDADE_INICIO + degrau * CAPACIDADE_DEGRAU;
+            System.out.printf("[capacidade] oferecida %6d req/s  vazão %8.1f req/s  p50 %5d ms  p95 %5d ms  p99 %5d ms  falhas %6.2f%%%n",
+                    oferecida, resumo.vazao(), resumo.p50(), resumo.p95(), resumo.p99(), resumo.percentualFalhas());
+            var saturado = resumo.vazao() < oferecida * 0.9 || resumo.p95() > CAPACIDADE_P95
+                    || resumo.percentualFalhas() > FALHAS_ACEITAS;
+            if (saturado && joelho < 0) {
+                joelho = oferecida;
+            } else if (joelho < 0) {
+                capacidade = resumo.vazao();
+            }
+        }
+        if (joelho < 0) {
+            System.out.printf("[capacidade] sem saturação até %d req/s; aumente performace.capacidade.degraus%n",
+                    CAPACIDADE_INICIO + (CAPACIDADE_DEGRAUS - 1) * CAPACIDADE_DEGRAU);
+        } else {
+            System.out.printf("[capacidade] saturação a partir de %d req/s; capacidade sustentada: %.1f req/s%n",
+                    joelho, Math.max(0, capacidade));
+        }
+    }
+
+    private void relatarSoak() {
+        var duracao = latencias.duracaoEmSegundos();
+        var janela = Math.min(SOAK_JANELA, duracao / 2);
+        // a primeira janela começa depois da rampa
+        var primeira = latencias.resumir(10, 10 + janela);
+        var ultima = latencias.resumir(duracao - janela, duracao);
+        System.out.printf("[soak] início: vazão %8.1f req/s  p50 %5d ms  p95 %5d ms  p99 %5d ms  falhas %6.2f%%%n",
+                primeira.vazao(), primeira.p50(), primeira.p95(), primeira.p99(), primeira.percentualFalhas());
+        System.out.printf("[soak] fim:    vazão %8.1f req/s  p50 %5d ms  p95 %5d ms  p99 %5d ms  falhas %6.2f%%%n",
+                ultima.vazao(), ultima.p50(), ultima.p95(), ultima.p99(), ultima.percentualFalhas());
+        if (ultima.p95() > Math.max(1, primeira.p95()) * SOAK_DEGRADACAO) {
+            throw new IllegalStateException("p95 degradou ao longo da execução: " + primeira.p95() + " ms -> "
+                    + ultima.p95() + " ms");
+        }
+    }
+
+    // registra o tempo de resposta da requisição, ou a falha quando o check não salvou o tempo
+    private ChainBuilder medir(HttpRequestActionBuilder requisicao) {
+        return exec(requisicao.check(responseTimeInMillis().saveAs("tempo")))
+                .exec(session -> {
+                    latencias.registrar(session.contains("tempo") ? session.getInt("tempo") : null);
+                    return session.remove("tempo");
+                });
+    }
+
+    private List<String> semear() {
+        var ids = new ArrayList<String>(SEMENTE);
+        while (ids.size() < SEMENTE) {
+            var tamanho = Math.min(TAMANHO_LOTE_SEMENTE, SEMENTE - ids.size());
+            var corpo = new StringBuilder("[");
+            for (int i = 0; i < tamanho; i++) {
+                var indice = ids.size() + i;
+                corpo.append(i == 0 ? "" : ",")
+                        .append("{\"usuario\": \"usuario-").append(indice % USUARIOS_SEMENTE)
+                        .append("\", \"conteudo\": \"mensagem semeada ").append(indice).append("\"}");
+            }
+            var resposta = enviar(HttpRequest.newBuilder(URI.create(BASE_URL + "/mensagens/lote"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(corpo.append("]").toString()))
+                    .build());
+            if (resposta.statusCode() != 201) {
+                throw new IllegalStateException("Falha ao semear mensagens: " + resposta.body());
+            }
+            var matcher = UUID_JSON.matcher(resposta.body());
+            while (matcher.find()) {
+                ids.add(matcher.group(1));
+            }
+        }
+        System.out.printf("[semente] %d mensagens registradas%n", ids.size());
+        return ids;
+    }
+
+    private HttpResponse<String> enviar(HttpRequest requisicao) {
+        try {
+            return cliente.send(requisicao, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String sortearMensagemSemeada() {
+        if (mensagensSemeadas.isEmpty()) {
+            throw new IllegalStateException("Nenhuma mensagem semeada; informe performace.semente maior que zero");
+        }
+        return mensagensSemeadas.get(ThreadLocalRandom.current().nextInt(mensagensSemeadas.size()));
+    }
+
+    private static OpenInjectionStep[] perfilAberto(int taxa, Duration duracao) {
+        return new OpenInjectionStep[]{
+                rampUsersPerSec(1)
+                        .to(taxa)
+                        .during(Duration.ofSeconds(10)),
+                constantUsersPerSec(taxa)
+                        .during(duracao),
+                rampUsersPerSec(taxa)
+                        .to(1)
+                        .during(Duration.ofSeconds(10))
+        };
+    }
+
+    private static List<Assertion> slo(String requisicao, String operacao, int p50, int p95, int p99) {
+        var prefixo = "performace.slo." + operacao + ".";
+        return List.of(
+                details(requisicao).responseTime().percentile(50.0).lt(Integer.getInteger(prefixo + "p50", p50)),
+                details(requisicao).responseTime().percentile(95.0).lt(Integer.getInteger(prefixo + "p95", p95)),
+                details(requisicao).responseTime().percentile(99.0).lt(Integer.getInteger(prefixo + "p99", p99)),
+                details(requisicao).failedRequests().percent().lt(FALHAS_ACEITAS)
+        );
+    }
+
+    @SafeVarargs
+    private static List<Assertion> juntar(List<Assertion>... slos) {
+        return Stream.of(slos).flatMap(List::stream).toList();
+    }
+
+    private static int taxa(String operacao, int padrao) {
+        return Integer.getInteger("performace.taxa." + operacao, padrao);
+    }
+
+    private static Duration duracao(int padraoSegundos) {
+        return Duration.ofSeconds(Integer.getInteger("performace.duracao", padraoSegundos));
+    }
+}
@@ -0,0 +1,138 @@
+package br.com.fiap.api.performace;
+
+import br.com.fiap.api.ranking.MensagemGostei;
+import br.com.fiap.api.ranking.RankingGostei;
+import br.com.fiap.api.service.MensagemGosteiAcumulador;
+import br.com.fiap.api.service.MensagemService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Vazão de "gostei" concorrentes com o ranking sendo atualizado a cada gravação e latência da
+ * leitura das mais curtidas, comparada ao {@code ORDER BY gostei} na tabela. Ao final, o ranking
+ * deve ser igual ao resultado da consulta.
+ */
+@SpringBootTest(properties = "mensagem.gostei.intervalo-gravacao=PT1H")
+@AutoConfigureTestDatabase
+@ActiveProfiles("test")
+class RankingBenchmark {
+
+    private static final int THREADS = 16;
+
+    private static final int GOSTEI_POR_THREAD = 50_000;
+
+    private static final int MENSAGENS_POPULARES = 1_000;
+
+    private static final int TAMANHO_RANKING = 100;
+
+    private static final String MAIS_CURTIDAS =
+            "SELECT id, gostei FROM mensagem WHERE gostei > 0 ORDER BY gostei DESC LIMIT " + TAMANHO_RANKING;
+
+    @Autowired
+    private MensagemService mensagemService;
+
+    @Autowired
+    private MensagemGosteiAcumulador gosteiAcumulador;
+
+    @Autowired
+    private RankingGostei rankingGostei;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void deveAtualizarRankingSemOrdenarATabela_QuandoGosteiConcorrentes() throws Exception {
+        // Arrange
+        jdbcTemplate.execute("DELETE FROM mensagem");
+        BenchmarkHelper.popularMensagens(jdbcTemplate, BenchmarkHelper.registros(200_000));
+        jdbcTemplate.update("UPDATE mensagem SET gostei = CAST(RAND() * 1000 AS INT)");
+        var ids = jdbcTemplate.queryForList("SELECT id FROM mensagem", UUID.class);
+        gosteiAcumulador.iniciarRanking();
+
+        // Act
+        var executor = Executors.newVirtualThreadPerTaskExecutor();
+        var inicio = new CountDownLatch(1);
+        var ativo = new AtomicBoolean(true);
+        List<Future<?>> tarefas = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            tarefas.add(executor.submit((Callable<Void>) () -> {
+                inicio.await();
+                var aleatorio = ThreadLocalRandom.current();
+                for (int i = 0; i < GOSTEI_POR_THREAD; i++) {
+                    // 80% dos "gostei" concentrados em poucas mensagens, como em um assunto do momento
+                    var indice = aleatorio.nextInt(10) < 8
+                            ? aleatorio.nextInt(MENSAGENS_POPULARES)
+                            : aleatorio.nextInt(ids.size());
+                    mensagemService.registrarGostei(ids.get(indice));
+                }
+                return null;
+            }));
+        }
+        var gravacoes = executor.submit((Callable<Void>) () -> {
+            inicio.await();
+            while (ativo.get()) {
+                gosteiAcumulador.gravar();
+                Thread.sleep(50);
+            }
+            return null;
+        });
+        var leituras = executor.submit(() -> {
+            inicio.await();
+            var micros = new ArrayList<Double>();
+            while (ativo.get()) {
+                micros.add(BenchmarkHelper.medirMediaEmMicros(0, 1_000, () -> rankingGostei.maisCurtidas(10)));
+            }
+            return micros.stream().mapToDouble(Double::doubleValue).average().orElse(0);
+        });
+
+        var inicioGostei = System.nanoTime();
+        inicio.countDown();
+        for (var tarefa : tarefas) {
+            tarefa.get(5, TimeUnit.MINUTES);
+        }
+        var segundos = (System.nanoTime() - inicioGostei) / 1_000_000_000.0;
+        ativo.set(false);
+        gravacoes.get(1, TimeUnit.MINUTES);
+        var microsRankingDuranteGostei = leituras.get(1, TimeUnit.MINUTES);
+        executor.shutdown();
+        gosteiAcumulador.gravar();
+
+        var microsRanking = BenchmarkHelper.medirMediaEmMicros(10_000, 100_000, () -> rankingGostei.maisCurtidas(10));
+        var microsServico = BenchmarkHelper.medirMediaEmMicros(100, 1_000, () -> mensagemService.listarMaisCurtidas(10));
+        var microsConsulta = BenchmarkHelper.medirMediaEmMicros(5, 20, () -> jdbcTemplate.queryForList(MAIS_CURTIDAS));
+
+        // Assert
+        System.out.printf("[benchmark] %-45s %12.0f gostei/s%n", "gostei concorrentes (" + THREADS + " threads)",
+                THREADS * GOSTEI_POR_THREAD / segundos);
+        BenchmarkHelper.imprimir("ranking, 10 primeiras durante os gostei", microsRankingDuranteGostei);
+        BenchmarkHelper.imprimir("ranking, 10 primeiras", microsRanking);
+        BenchmarkHelper.imprimir("GET /mensagens/top (serviço)", microsServico);
+        BenchmarkHelper.imprimir("ORDER BY gostei na tabela", microsConsulta);
+
+        var esperado = jdbcTemplate.query(MAIS_CURTIDAS,
+                (resultado, linha) -> new MensagemGostei(resultado.getObject(1, UUID.class), resultado.getInt(2)));
+        assertThat(rankingGostei.maisCurtidas(TAMANHO_RANKING)).extracting(MensagemGostei::gostei)
+                .containsExactlyElementsOf(esperado.stream().map(MensagemGostei::gostei).toList());
+        assertThat(rankingGostei.maisCurtidas(TAMANHO_RANKING)).allSatisfy(mensagem -> assertThat(
+                jdbcTemplate.queryForObject("SELECT gostei FROM mensagem WHERE id = ?", Integer.class, mensagem.id()))
+                .isEqualTo(mensagem.gostei()));
+        assertThat(microsServico).isLessThan(microsConsulta);
+    }
+}
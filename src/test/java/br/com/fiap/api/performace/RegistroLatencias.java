@@ -0,0 +1,114 @@
+package br.com.fiap.api.performace;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tempos de resposta agrupados por segundo desde a primeira requisição, para calcular vazão e
+ * percentis de um trecho da simulação (um degrau de carga, o início ou o fim de uma execução longa),
+ * o que o relatório do Gatling só mostra para a execução inteira.
+ * <p>
+ * Cada segundo guarda um histograma com resolução de 1 ms até 1 s e de 10 ms até 10 s; acima disso
+ * as respostas caem no último intervalo.
+ */
+class RegistroLatencias {
+
+    private static final int LIMITE_RESOLUCAO_FINA = 1_000;
+
+    private static final int INTERVALOS = LIMITE_RESOLUCAO_FINA + 900;
+
+    private final AtomicLong inicio = new AtomicLong();
+
+    private final ConcurrentMap<Integer, Segundo> segundos = new ConcurrentHashMap<>();
+
+    /**
+     * @param tempoMs tempo de resposta, ou nulo quando a requisição falhou
+     */
+    void registrar(Integer tempoMs) {
+        var agora = System.currentTimeMillis();
+        inicio.compareAndSet(0, agora);
+        var segundo = segundos.computeIfAbsent((int) ((agora - inicio.get()) / 1_000), chave -> new Segundo());
+        if (tempoMs == null) {
+            segundo.falhas.increment();
+        } else {
+            segundo.histograma.incrementAndGet(intervalo(tempoMs));
+        }
+    }
+
+    /**
+     * Resumo das requisições concluídas de {@code deSegundo} (inclusive) a {@code ateSegundo} (exclusive).
+     */
+    Resumo resumir(int deSegundo, int ateSegundo) {
+        var histograma = new long[INTERVALOS];
+        long falhas = 0;
+        for (int i = deSegundo; i < ateSegundo; i++) {
+            var segundo = segundos.get(i);
+            if (segundo == null) {
+                continue;
+            }
+            falhas += segundo.falhas.sum();
+            for (int j = 0; j < INTERVALOS; j++) {
+                histograma[j] += segundo.histograma.get(j);
+            }
+        }
+        long sucessos = 0;
+        for (var quantidade : histograma) {
+            sucessos += quantidade;
+        }
+        var duracao = Math.max(1, ateSegundo - deSegundo);
+        return new Resumo(sucessos, falhas, (double) sucessos / duracao, percentil(histograma, sucessos, 50),
+                percentil(histograma, sucessos, 95), percentil(histograma, sucessos, 99));
+    }
+
+    int duracaoEmSegundos() {
+        return segundos.keySet().stream().mapToInt(Integer::intValue).max().orElse(-1) + 1;
+    }
+
+    private static int percentil(long[] histograma, long total, int percentil) {
+        if (total == 0) {
+            return 0;
+        }
+        var posicao = (long) Math.ceil(total * percentil / 100.0);
+        long acumulado = 0;
+        for (int i = 0; i < histograma.length; i++) {
+            acumulado += histograma[i];
+            if (acumulado >= posicao) {
+                return tempo(i);
+            }
+        }
+        return tempo(histograma.length - 1);
+    }
+
+    private static int intervalo(int tempoMs) {
+        if (tempoMs < LIMITE_RESOLUCAO_FINA) {
+            return Math.max(0, tempoMs);
+        }
+        return Math.min(INTERVALOS - 1, LIMITE_RESOLUCAO_FINA + (tempoMs - LIMITE_RESOLUCAO_FINA) / 10);
+    }
+
+    // limite superior do intervalo, para não subestimar o percentil
+    private static int tempo(int intervalo) {
+        if (intervalo < LIMITE_RESOLUCAO_FINA) {
+            return intervalo;
+        }
+        return LIMITE_RESOLUCAO_FINA + (intervalo - LIMITE_RESOLUCAO_FINA + 1) * 10;
+    }
+
+    record Resumo(long sucessos, long falhas, double vazao, int p50, int p95, int p99) {
+
+        double percentualFalhas() {
+            var total = sucessos + falhas;
+            return total == 0 ? 0 : falhas * 100.0 / total;
+        }
+    }
+
+    private static final class Segundo {
+
+        private final LongAdder falhas = new LongAdder();
+
+        private final AtomicIntegerArray histograma = new AtomicIntegerArray(INTERVALOS);
+    }
+}
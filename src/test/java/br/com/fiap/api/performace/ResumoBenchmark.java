@@ -0,0 +1,122 @@
+package br.com.fiap.api.performace;
+
+import br.com.fiap.api.controller.CamposResponseBodyAdvice;
+import br.com.fiap.api.service.MensagemService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Página de 100 mensagens lida como entidades completas, lida pela projeção {@code modo=resumo} e
+ * serializada com {@code fields=}: bytes da resposta JSON (com e sem gzip), bytes alocados por
+ * requisição e latência da consulta mais a serialização. O conteúdo é estendido até o tamanho da
+ * coluna para que a prévia faça diferença. O volume padrão pode ser alterado com
+ * {@code -Dbenchmark.registros}.
+ */
+@SpringBootTest
+@AutoConfigureTestDatabase
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ResumoBenchmark {
+
+    private static final int TAMANHO_PAGINA = 100;
+    private static final int TAMANHO_PREVIA = 80;
+    private static final String CAMPOS = "usuario,dataCriacao,gostei";
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MensagemService mensagemService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeAll
+    void popular() {
+        BenchmarkHelper.popularMensagens(jdbcTemplate, BenchmarkHelper.registros(100_000));
+        jdbcTemplate.update("UPDATE mensagem SET conteudo = RPAD(conteudo, 255, ' lorem ipsum dolor sit amet')");
+    }
+
+    @Test
+    void deveReduzirBytesEAlocacao_QuandoListarResumos() {
+        // Arrange
+        var completo = objectMapper.writer();
+        var parcial = objectMapper.writer(CamposResponseBodyAdvice.filtro(CAMPOS));
+        Supplier<Object> entidades = () -> mensagemService.listarMensagens(null, TAMANHO_PAGINA);
+        Supplier<Object> resumos = () -> mensagemService.listarResumos(null, TAMANHO_PAGINA, TAMANHO_PREVIA);
+        Supplier<Object> resumosSemPrevia = () -> mensagemService.listarResumos(null, TAMANHO_PAGINA, 0);
+
+        // Act
+        var bytesEntidades = medir("entidades", entidades, completo);
+        var bytesResumos = medir("resumo (prévia " + TAMANHO_PREVIA + ")", resumos, completo);
+        medir("entidades com fields=" + CAMPOS, entidades, parcial);
+        var bytesSemPrevia = medir("resumo sem prévia com fields", resumosSemPrevia, parcial);
+        var alocadoEntidades = alocadoPorRequisicao(entidades, completo);
+        var alocadoResumos = alocadoPorRequisicao(resumos, completo);
+
+        // Assert
+        assertThat(bytesResumos).isLessThan(bytesEntidades);
+        assertThat(bytesSemPrevia).isLessThan(bytesResumos);
+        assertThat(alocadoResumos).isLessThan(alocadoEntidades);
+    }
+
+    private int medir(String cenario, Supplier<Object> consulta, ObjectWriter writer) {
+        var serializada = serializar(writer, consulta.get());
+        System.out.printf("[benchmark] %-45s %7d bytes (gzip %6d)  %9d bytes alocados%n", cenario,
+                serializada.length, compactar(serializada).length, alocadoPorRequisicao(consulta, writer));
+        BenchmarkHelper.imprimir(cenario, BenchmarkHelper.medirMediaEmMicros(200, 1_000,
+                () -> serializar(writer, consulta.get())));
+        return serializada.length;
+    }
+
+    private long alocadoPorRequisicao(Supplier<Object> consulta, ObjectWriter writer) {
+        var iteracoes = 500;
+        for (int i = 0; i < iteracoes; i++) {
+            serializar(writer, consulta.get());
+        }
+        var thread = Thread.currentThread().threadId();
+        var inicio = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < iteracoes; i++) {
+            serializar(writer, consulta.get());
+        }
+        return (threads.getThreadAllocatedBytes(thread) - inicio) / iteracoes;
+    }
+
+    private static byte[] serializar(ObjectWriter writer, Object valor) {
+        try {
+            return writer.writeValueAsBytes(valor);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] compactar(byte[] dados) {
+        var saida = new ByteArrayOutputStream(dados.length);
+        try (var gzip = new GZIPOutputStream(saida)) {
+            gzip.write(dados);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return saida.toByteArray();
+    }
+}
@@ -0,0 +1,156 @@
+package br.com.fiap.api.performace;
+
+import io.gatling.javaapi.core.ScenarioBuilder;
+import io.gatling.javaapi.core.Simulation;
+import io.gatling.javaapi.http.HttpProtocolBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import static io.gatling.javaapi.core.CoreDsl.*;
+import static io.gatling.javaapi.http.HttpDsl.http;
+import static io.gatling.javaapi.http.HttpDsl.sse;
+import static io.gatling.javaapi.http.HttpDsl.status;
+
+/**
+ * Milhares de assinantes de {@code GET /mensagens/stream} em um único nó: a maior parte fica apenas
+ * conectada ("ociosos") e o restante aguarda os eventos das mensagens criadas durante o teste
+ * ("ativos"). A heap usada antes do teste é comparada à de quando quase todos estão conectados: o
+ * custo por assinante deve ficar abaixo de {@code -Dstream.bytesPorAssinante}. A aplicação deve
+ * estar com ulimit de arquivos abertos acima do número de assinantes.
+ */
+public class StreamSimulation extends Simulation {
+
+    private static final String BASE_URL = System.getProperty("baseUrl", "http://localhost:8080");
+    private static final int OCIOSOS = Integer.getInteger("stream.ociosos", 9_000);
+    private static final int ATIVOS = Integer.getInteger("stream.ativos", 1_000);
+    private static final int ESCRITAS_POR_SEGUNDO = Integer.getInteger("stream.escritas", 50);
+    private static final int EVENTOS_POR_ATIVO = Integer.getInteger("stream.eventos", 100);
+    private static final Duration RAMPA = Duration.ofSeconds(Integer.getInteger("stream.rampa", 30));
+    private static final Duration DURACAO = Duration.ofSeconds(Integer.getInteger("stream.duracao", 120));
+    private static final long BYTES_POR_ASSINANTE = Long.getLong("stream.bytesPorAssinante", 100_000);
+    // os ativos saem depois dos seus eventos; os ociosos seguram a maior parte das conexões até o fim
+    private static final int MINIMO_CONECTADOS = (OCIOSOS + ATIVOS) * 8 / 10;
+
+    private final HttpClient cliente = HttpClient.newHttpClient();
+
+    private final ScheduledExecutorService amostragem = Executors.newSingleThreadScheduledExecutor();
+
+    private double heapInicial;
+
+    // escritos apenas pela amostragem; o after() a encerra antes de ler
+    private volatile double heapNoPico;
+
+    private volatile double assinantesNoPico;
+
+    private final HttpProtocolBuilder httpProtocol =
+            http.baseUrl(BASE_URL)
+                    .header("Content-Type", "application/json");
+
+    ScenarioBuilder cenarioOciosos = scenario("assinantes ociosos")
+            .exec(sse("ocioso: conectar").get("/mensagens/stream"))
+            .pause(DURACAO)
+            .exec(sse("ocioso: encerrar").close());
+
+    // os batimentos (comentários) são ignorados; cada espera consome o próximo evento "criada"
+    ScenarioBuilder cenarioAtivos = scenario("assinantes ativos")
+            .exec(sse("ativo: conectar").get("/mensagens/stream"))
+            .repeat(EVENTOS_POR_ATIVO).on(
+                    exec(sse("ativo: aguardar evento").setCheck()
+                            .await(Duration.ofSeconds(30)).on(
+                                    sse.checkMessage("evento criada")
+                                            .matching(substring("criada"))
+                                            .check(substring("criada"))))
+            )
+            .exec(sse("ativo: encerrar").close());
+
+    ScenarioBuilder cenarioEscritores = scenario("escritores")
+            .exec(http("request: adicionar mensagem")
+                    .post("/mensagens")
+                    .body(StringBody("{\"usuario\": \"stream\", \"conteudo\": \"mensagem transmitida\"}"))
+                    .check(status().in(201, 202)));
+
+    {
+        setUp(
+                cenarioOciosos.injectOpen(rampUsers(OCIOSOS).during(RAMPA)),
+                cenarioAtivos.injectOpen(rampUsers(ATIVOS).during(RAMPA)),
+                // as escritas começam depois que todos os assinantes estão conectados
+                cenarioEscritores.injectOpen(
+                        nothingFor(RAMPA.plusSeconds(5)),
+                        constantUsersPerSec(ESCRITAS_POR_SEGUNDO).during(DURACAO.minus(RAMPA)))
+        )
+                .protocols(httpProtocol)
+                .assertions(
+                        global().failedRequests().percent().lt(1.0),
+                        details("request: adicionar mensagem").responseTime().percentile(99.0).lt(200)
+                );
+    }
+
+    @Override
+    public void before() {
+        heapInicial = metrica("jvm.memory.used?tag=area:heap");
+        amostragem.scheduleAtFixedRate(this::amostrar, 1, 1, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void after() {
+        amostragem.shutdown();
+        try {
+            amostragem.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (assinantesNoPico < MINIMO_CONECTADOS) {
+            throw new IllegalStateException(String.format("Apenas %.0f de %d assinantes conectados ao mesmo tempo",
+                    assinantesNoPico, OCIOSOS + ATIVOS));
+        }
+        var bytesPorAssinante = (heapNoPico - heapInicial) / assinantesNoPico;
+        if (bytesPorAssinante > BYTES_POR_ASSINANTE) {
+            throw new IllegalStateException(String.format("Heap de %.0f bytes por assinante, acima de %d",
+                    bytesPorAssinante, BYTES_POR_ASSINANTE));
+        }
+    }
+
+    // com quase todos conectados, a menor heap observada é a que menos inclui lixo ainda não coletado
+    private void amostrar() {
+        try {
+            var assinantes = metrica("mensagem.stream.assinantes");
+            if (assinantes < MINIMO_CONECTADOS) {
+                return;
+            }
+            var heap = metrica("jvm.memory.used?tag=area:heap");
+            if (assinantesNoPico == 0 || heap < heapNoPico) {
+                heapNoPico = heap;
+                assinantesNoPico = assinantes;
+            }
+        } catch (IllegalStateException e) {
+            // uma amostra perdida não invalida as demais; uma exceção encerraria o agendamento
+        }
+    }
+
+    private double metrica(String nome) {
+        try {
+            var resposta = cliente.send(
+                    HttpRequest.newBuilder(URI.create(BASE_URL + "/actuator/metrics/" + nome)).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            var matcher = Pattern.compile("\"value\"\\s*:\\s*([0-9.E+-]+)").matcher(resposta.body());
+            if (!matcher.find()) {
+                throw new IllegalStateException("Métrica " + nome + " indisponível");
+            }
+            return Double.parseDouble(matcher.group(1));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
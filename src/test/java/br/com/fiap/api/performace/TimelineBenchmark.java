@@ -0,0 +1,83 @@
+package br.com.fiap.api.performace;
+
+import br.com.fiap.api.cache.TimelineCache;
+import br.com.fiap.api.model.MensagemCursor;
+import br.com.fiap.api.repository.MensagemRepository;
+import br.com.fiap.api.service.MensagemService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Mede a timeline de um usuário enquanto a tabela cresce: com o índice (usuario, data_criacao, id)
+ * a latência da primeira página e de uma página profunda não deve acompanhar o total de mensagens.
+ */
+@SpringBootTest(properties = "mensagem.timeline.habilitado=false")
+@AutoConfigureTestDatabase
+@ActiveProfiles("test")
+class TimelineBenchmark {
+
+    private static final String USUARIO = "usuario-7";
+
+    private static final int TAMANHO_PAGINA = 20;
+
+    @Autowired
+    private MensagemService mensagemService;
+
+    @Autowired
+    private MensagemRepository mensagemRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void deveManterLatenciaConstante_QuandoTabelaCresce() {
+        // Arrange
+        jdbcTemplate.execute("DELETE FROM mensagem");
+        var etapa = BenchmarkHelper.registros(1_000_000) / 4;
+        List<Double> latencias = new ArrayList<>();
+
+        // Act
+        for (int total = etapa; total <= 4 * etapa; total += etapa) {
+            BenchmarkHelper.popularMensagens(jdbcTemplate, etapa);
+            var primeira = mensagemService.listarMensagensPorUsuario(USUARIO, null, TAMANHO_PAGINA);
+            var profunda = posicionar(primeira.nextCursor(), 5);
+
+            var microsPrimeira = BenchmarkHelper.medirMediaEmMicros(200, 2_000,
+                    () -> mensagemService.listarMensagensPorUsuario(USUARIO, null, TAMANHO_PAGINA));
+            var microsProfunda = BenchmarkHelper.medirMediaEmMicros(200, 2_000,
+                    () -> mensagemService.listarMensagensPorUsuario(USUARIO, profunda, TAMANHO_PAGINA));
+            BenchmarkHelper.imprimir("timeline, 1ª página (" + total + " linhas)", microsPrimeira);
+            BenchmarkHelper.imprimir("timeline, 6ª página (" + total + " linhas)", microsProfunda);
+            latencias.add(microsPrimeira);
+        }
+
+        var timelineCache = new TimelineCache(true, 1_000, 100, Duration.ofMinutes(1));
+        var microsCache = BenchmarkHelper.medirMediaEmMicros(200, 20_000, () -> timelineCache.buscar(USUARIO, null,
+                TAMANHO_PAGINA, limite -> mensagemRepository.listarMensagemPorUsuario(USUARIO, Limit.of(limite))));
+        BenchmarkHelper.imprimir("timeline, 1ª página em cache", microsCache);
+
+        // Assert
+        assertThat(latencias.get(latencias.size() - 1)).isLessThan(latencias.get(0) * 3);
+        assertThat(microsCache).isLessThan(latencias.get(latencias.size() - 1));
+    }
+
+    private MensagemCursor posicionar(String cursor, int paginas) {
+        var posicao = MensagemCursor.decodificar(cursor);
+        for (int i = 1; i < paginas; i++) {
+            var pagina = mensagemService.listarMensagensPorUsuario(USUARIO, posicao, TAMANHO_PAGINA);
+            posicao = MensagemCursor.decodificar(pagina.nextCursor());
+        }
+        return posicao;
+    }
+}
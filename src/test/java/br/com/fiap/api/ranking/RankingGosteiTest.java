@@ -0,0 +1,147 @@
+package br.com.fiap.api.ranking;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RankingGosteiTest {
+
+    @Test
+    void deveOrdenarMensagens_DaMaisParaAMenosCurtida() {
+        // Arrange
+        var ranking = new RankingGostei(10, 3);
+        var mensagens = gerarMensagens(5, 1);
+
+        // Act
+        ranking.reconstruir(mensagens);
+
+        // Assert
+        assertThat(ranking.maisCurtidas(3)).extracting(MensagemGostei::gostei).containsExactly(5, 4, 3);
+        assertThat(ranking.maisCurtidas(2)).hasSize(2);
+        assertThat(ranking.maisCurtidas(10)).hasSize(3);
+        assertThat(ranking.reconstrucoes()).isEqualTo(1);
+    }
+
+    @Test
+    void deveIncluirMensagemDeFora_QuandoTotalSuperarPiso() {
+        // Arrange
+        var ranking = new RankingGostei(3, 2);
+        ranking.reconstruir(gerarMensagens(3, 10));
+        var nova = UUID.randomUUID();
+        var outra = UUID.randomUUID();
+
+        // Act
+        ranking.somar(Map.of(nova, 5L, outra, 1L), Map.of(nova, 35, outra, 5));
+
+        // Assert
+        assertThat(ranking.maisCurtidas(2)).extracting(MensagemGostei::gostei).containsExactly(35, 30);
+        assertThat(ranking.maisCurtidas(1)).containsExactly(new MensagemGostei(nova, 35));
+        assertThat(ranking.foraDoRanking(List.of(nova, outra))).containsExactly(outra);
+    }
+
+    @Test
+    void deveSomarIncremento_QuandoMensagemNoRanking() {
+        // Arrange
+        var ranking = new RankingGostei(5, 5);
+        var mensagens = gerarMensagens(3, 1);
+        ranking.reconstruir(mensagens);
+        var ultima = mensagens.get(0).id();
+
+        // Act
+        ranking.somar(Map.of(ultima, 10L), Map.of());
+
+        // Assert
+        assertThat(ranking.maisCurtidas(1)).containsExactly(new MensagemGostei(ultima, 11));
+    }
+
+    @Test
+    void deveSolicitarReconstrucao_QuandoRemocoesDeixaremMenosQueOTamanhoMaximo() {
+        // Arrange
+        var ranking = new RankingGostei(3, 2);
+        var mensagens = gerarMensagens(5, 1);
+        ranking.reconstruir(mensagens.subList(2, 5));
+
+        // Act
+        ranking.remover(mensagens.get(4).id());
+        var aposPrimeiraRemocao = ranking.isReconstrucaoPendente();
+        ranking.remover(mensagens.get(3).id());
+
+        // Assert
+        assertThat(aposPrimeiraRemocao).isFalse();
+        assertThat(ranking.isReconstrucaoPendente()).isTrue();
+        ranking.reconstruir(mensagens.subList(0, 3));
+        assertThat(ranking.isReconstrucaoPendente()).isFalse();
+    }
+
+    @Test
+    void deveManterAsMaisCurtidas_QuandoSomasAleatorias() {
+        // Arrange
+        var ranking = new RankingGostei(50, 10);
+        var aleatorio = new Random(42);
+        var ids = IntStream.range(0, 500).mapToObj(i -> UUID.randomUUID()).toList();
+        // simula a coluna "gostei" no banco
+        var gravados = new HashMap<UUID, Integer>();
+        ranking.reconstruir(List.of());
+
+        // Act
+        for (int gravacao = 0; gravacao < 200; gravacao++) {
+            var incrementos = new HashMap<UUID, Long>();
+            for (int i = 0; i < 50; i++) {
+                incrementos.merge(ids.get(aleatorio.nextInt(ids.size())), (long) aleatorio.nextInt(5) + 1, Long::sum);
+            }
+            incrementos.forEach((id, incremento) -> gravados.merge(id, incremento.intValue(), Integer::sum));
+            var totais = new HashMap<UUID, Integer>();
+            ranking.foraDoRanking(incrementos.keySet()).forEach(id -> totais.put(id, gravados.get(id)));
+            ranking.somar(incrementos, totais);
+        }
+
+        // Assert
+        var esperado = new ArrayList<>(gravados.values());
+        esperado.sort(Comparator.reverseOrder());
+        assertThat(ranking.maisCurtidas(10)).extracting(MensagemGostei::gostei)
+                .containsExactlyElementsOf(esperado.subList(0, 10));
+        assertThat(ranking.maisCurtidas(10))
+                .allSatisfy(mensagem -> assertThat(gravados.get(mensagem.id())).isEqualTo(mensagem.gostei()));
+    }
+
+    @Test
+    void deveGerarExcecao_QuandoTamanhoMaximoExcederCapacidade() {
+        // Act & Assert
+        assertThatThrownBy(() -> new RankingGostei(5, 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("O tamanho máximo não pode exceder a capacidade do ranking");
+    }
+
+    @Test
+    void naoDeveAcompanharMensagens_QuandoDesabilitado() {
+        // Arrange
+        var ranking = RankingGostei.desabilitado();
+        var id = UUID.randomUUID();
+
+        // Act
+        ranking.registrar(id, 10);
+        ranking.somar(Map.of(id, 1L), Map.of(id, 11));
+
+        // Assert
+        assertThat(ranking.isHabilitado()).isFalse();
+        assertThat(ranking.maisCurtidas(10)).isEmpty();
+        assertThat(ranking.foraDoRanking(List.of(id))).isEmpty();
+    }
+
+    // mensagens com 1 a "quantidade" gostei vezes "passo", da menos para a mais curtida
+    private static List<MensagemGostei> gerarMensagens(int quantidade, int passo) {
+        return IntStream.rangeClosed(1, quantidade)
+                .mapToObj(i -> new MensagemGostei(UUID.randomUUID(), i * passo))
+                .toList();
+    }
+}
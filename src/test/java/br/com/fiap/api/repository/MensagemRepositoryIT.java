@@ -1,12 +1,14 @@
 package br.com.fiap.api.repository;
 
 import br.com.fiap.api.model.Mensagem;
+import br.com.fiap.api.model.MensagemVersao;
 import br.com.fiap.api.utils.MensagemHelper;
 import jakarta.transaction.Transactional;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.util.UUID;
@@ -75,6 +77,87 @@ class MensagemRepositoryIT {
         assertThat(mensagemRecebidaOpcional).isEmpty();
     }
 
+    @Test
+    void devePermitirAlterarConteudo_ComUmUnicoComando() {
+        // Arrange
+        var id = UUID.fromString("a520c636-6205-48bb-ac5f-3e4eaddb56f4");
+
+        // Act
+        var alteradas = mensagemRepository.alterarConteudo(id, "ABCD 12345");
+        var inexistentes = mensagemRepository.alterarConteudo(UUID.randomUUID(), "ABCD 12345");
+
+        // Assert
+        assertThat(alteradas).isEqualTo(1);
+        assertThat(inexistentes).isZero();
+        assertThat(mensagemRepository.findById(id))
+                .hasValueSatisfying(mensagem -> assertThat(mensagem.getConteudo()).isEqualTo("ABCD 12345"));
+    }
+
+    @Test
+    void deveIncrementarVersao_QuandoAlterarConteudo() {
+        // Arrange
+        var id = UUID.fromString("3ab78d54-fe97-4044-806f-583f88065d3b");
+        var versaoInicial = mensagemRepository.buscarVersao(id).orElseThrow().versao();
+
+        // Act
+        var desatualizadas = mensagemRepository.alterarNaVersao(id, null, "ABCD 12345", versaoInicial + 1);
+        var alteradas = mensagemRepository.alterarNaVersao(id, null, "ABCD 12345", versaoInicial);
+
+        // Assert
+        assertThat(desatualizadas).isZero();
+        assertThat(alteradas).isEqualTo(1);
+        assertThat(mensagemRepository.buscarVersao(id))
+                .hasValueSatisfying(versao -> assertThat(versao.versao()).isEqualTo(versaoInicial + 1));
+        assertThat(mensagemRepository.findById(id))
+                .hasValueSatisfying(mensagem -> assertThat(mensagem.getVersao()).isEqualTo(versaoInicial + 1));
+    }
+
+    @Test
+    void deveManterCamposNaoInformados_QuandoAlterarNaVersao() {
+        // Arrange
+        var id = UUID.fromString("3ab78d54-fe97-4044-806f-583f88065d3b");
+        var versao = mensagemRepository.buscarVersao(id).orElseThrow().versao();
+
+        // Act
+        var alteradas = mensagemRepository.alterarNaVersao(id, "Lucas Silva", null, versao);
+
+        // Assert
+        assertThat(alteradas).isEqualTo(1);
+        assertThat(mensagemRepository.findById(id)).hasValueSatisfying(mensagem -> {
+            assertThat(mensagem.getUsuario()).isEqualTo("Lucas Silva");
+            assertThat(mensagem.getConteudo()).isEqualTo("Conteúdo da mensagem 03");
+        });
+    }
+
+    @Test
+    void devePermitirListarVersoes_NaOrdemDaListagem() {
+        // Arrange
+        var pageable = PageRequest.of(0, 10);
+
+        // Act
+        var versoes = mensagemRepository.listarVersoes(pageable);
+
+        // Assert
+        assertThat(versoes.map(MensagemVersao::id).getContent())
+                .containsExactlyElementsOf(mensagemRepository.listarMensagem(pageable).map(Mensagem::getId));
+        assertThat(versoes.getTotalElements()).isEqualTo(mensagemRepository.count());
+    }
+
+    @Test
+    void devePermitirRemoverMensagem_ComUmUnicoComando() {
+        // Arrange
+        var id = UUID.fromString("4f38bddc-3358-4e6a-8bd7-38048fb0ea1c");
+
+        // Act
+        var removidas = mensagemRepository.removerPorId(id);
+        var inexistentes = mensagemRepository.removerPorId(id);
+
+        // Assert
+        assertThat(removidas).isEqualTo(1);
+        assertThat(inexistentes).isZero();
+        assertThat(mensagemRepository.findById(id)).isEmpty();
+    }
+
     @Test
     void devePermitirListarMensagem() {
         // Act
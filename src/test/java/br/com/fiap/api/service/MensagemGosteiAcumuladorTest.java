@@ -0,0 +1,252 @@
+package br.com.fiap.api.service;
+
+import br.com.fiap.api.cache.MensagemCache;
+import br.com.fiap.api.cache.TimelineCache;
+import br.com.fiap.api.ingestao.IngestaoAssincrona;
+import br.com.fiap.api.ranking.MensagemGostei;
+import br.com.fiap.api.ranking.RankingGostei;
+import br.com.fiap.api.utils.MensagemHelper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class MensagemGosteiAcumuladorTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private MensagemGosteiAcumulador gosteiAcumulador;
+
+    // simula a coluna "gostei" no banco
+    private final Map<UUID, Long> gravados = new ConcurrentHashMap<>();
+
+    AutoCloseable openMocks;
+
+    @BeforeEach
+    void setup() {
+        openMocks = MockitoAnnotations.openMocks(this);
+        gosteiAcumulador = new MensagemGosteiAcumulador(jdbcTemplate, TransactionOperations.withoutTransaction(),
+                MensagemCache.desabilitado(), TimelineCache.desabilitado(), RankingGostei.desabilitado(),
+                IngestaoAssincrona.desabilitada());
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            List<Object[]> parametros = invocation.getArgument(1);
+            var atualizadas = new int[parametros.size()];
+            for (int i = 0; i < parametros.size(); i++) {
+                gravados.merge((UUID) parametros.get(i)[1], (Long) parametros.get(i)[0], Long::sum);
+                atualizadas[i] = 1;
+            }
+            return atualizadas;
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        openMocks.close();
+    }
+
+    @Test
+    void devePermitirGravarGosteiEmLote() {
+        // Arrange
+        var id1 = UUID.randomUUID();
+        var id2 = UUID.randomUUID();
+        gosteiAcumulador.registrar(id1);
+        gosteiAcumulador.registrar(id1);
+        gosteiAcumulador.registrar(id2);
+
+        // Act
+        gosteiAcumulador.gravar();
+
+        // Assert
+        assertThat(gravados).containsEntry(id1, 2L).containsEntry(id2, 1L);
+        assertThat(gosteiAcumulador.pendente(id1)).isZero();
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void naoDeveAcessarBanco_QuandoNaoHouverGosteiPendente() {
+        // Act
+        gosteiAcumulador.gravar();
+
+        // Assert
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void deveAplicarGosteiPendente_SemAlterarMensagemOriginal() {
+        // Arrange
+        var mensagem = MensagemHelper.gerarMensagem();
+        mensagem.setId(UUID.randomUUID());
+        mensagem.setGostei(10);
+        gosteiAcumulador.registrar(mensagem.getId());
+
+        // Act
+        var mensagemAtualizada = gosteiAcumulador.aplicarPendentes(mensagem);
+
+        // Assert
+        assertThat(mensagemAtualizada.getGostei()).isEqualTo(11);
+        assertThat(mensagem.getGostei()).isEqualTo(10);
+    }
+
+    @Test
+    void deveAtualizarRanking_QuandoGravarGostei() {
+        // Arrange
+        var rankingGostei = new RankingGostei(10, 5);
+        gosteiAcumulador = new MensagemGosteiAcumulador(jdbcTemplate, TransactionOperations.withoutTransaction(),
+                MensagemCache.desabilitado(), TimelineCache.desabilitado(), rankingGostei,
+                IngestaoAssincrona.desabilitada());
+        var noRanking = UUID.randomUUID();
+        var foraDoRanking = UUID.randomUUID();
+        rankingGostei.reconstruir(List.of(new MensagemGostei(noRanking, 3)));
+        // total gravado de quem não está no ranking, lido depois do incremento
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            var resultado = mock(ResultSet.class);
+            when(resultado.getObject(1, UUID.class)).thenReturn(foraDoRanking);
+            when(resultado.getInt(2)).thenReturn(7);
+            handler.processRow(resultado);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+        gosteiAcumulador.registrar(noRanking);
+        gosteiAcumulador.registrar(foraDoRanking);
+
+        // Act
+        gosteiAcumulador.gravar();
+
+        // Assert
+        assertThat(rankingGostei.maisCurtidas(5)).containsExactly(
+                new MensagemGostei(foraDoRanking, 7), new MensagemGostei(noRanking, 4));
+        verify(jdbcTemplate, times(1)).query(anyString(), any(RowCallbackHandler.class), eq(foraDoRanking));
+    }
+
+    @Test
+    void deveManterGosteiPendente_QuandoGravacaoFalhar() {
+        // Arrange
+        var id = UUID.randomUUID();
+        gosteiAcumulador.registrar(id);
+        gosteiAcumulador.registrar(id);
+        doThrow(new DataAccessResourceFailureException("banco indisponível"))
+                .when(jdbcTemplate).batchUpdate(anyString(), anyList());
+
+        // Act & Assert
+        assertThatThrownBy(() -> gosteiAcumulador.gravar())
+                .isInstanceOf(DataAccessResourceFailureException.class);
+        assertThat(gosteiAcumulador.pendente(id)).isEqualTo(2);
+    }
+
+    @Test
+    void deveManterGosteiPendente_QuandoMensagemAindaNaFilaDeIngestao() {
+        // Arrange
+        var liberarIngestao = new CountDownLatch(1);
+        var ingestao = new IngestaoAssincrona(true, 16, 10);
+        ingestao.definirGravador(lote -> {
+            try {
+                liberarIngestao.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        ingestao.start();
+        gosteiAcumulador = new MensagemGosteiAcumulador(jdbcTemplate, TransactionOperations.withoutTransaction(),
+                MensagemCache.desabilitado(), TimelineCache.desabilitado(), RankingGostei.desabilitado(), ingestao);
+        var naFila = MensagemHelper.gerarMensagem();
+        naFila.setId(UUID.randomUUID());
+        var removida = UUID.randomUUID();
+        ingestao.enfileirar(naFila);
+        gosteiAcumulador.registrar(naFila.getId());
+        gosteiAcumulador.registrar(removida);
+        // nenhuma das linhas existe ainda no banco
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenAnswer(invocation -> new int[((List<?>) invocation.getArgument(1)).size()]);
+
+        try {
+            // Act
+            gosteiAcumulador.gravar();
+
+            // Assert
+            assertThat(gosteiAcumulador.pendente(naFila.getId())).isEqualTo(1);
+            assertThat(gosteiAcumulador.pendente(removida)).isZero();
+        } finally {
+            liberarIngestao.countDown();
+            ingestao.stop();
+        }
+    }
+
+    @Test
+    void naoDevePerderGostei_QuandoMilharesDeGosteiConcorrentesNaMesmaMensagem() throws Exception {
+        // Arrange
+        var id = UUID.randomUUID();
+        var threads = 16;
+        var gosteiPorThread = 20_000;
+        var executor = Executors.newFixedThreadPool(threads + 1);
+        var inicio = new CountDownLatch(1);
+        var ativo = new AtomicBoolean(true);
+        List<Future<?>> tarefas = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            tarefas.add(executor.submit(() -> {
+                inicio.await();
+                for (int i = 0; i < gosteiPorThread; i++) {
+                    gosteiAcumulador.registrar(id);
+                }
+                return null;
+            }));
+        }
+        var gravacoes = executor.submit(() -> {
+            inicio.await();
+            while (ativo.get()) {
+                gosteiAcumulador.gravar();
+                Thread.sleep(5);
+            }
+            return null;
+        });
+
+        // Act
+        inicio.countDown();
+        for (var tarefa : tarefas) {
+            tarefa.get(30, TimeUnit.SECONDS);
+        }
+        ativo.set(false);
+        gravacoes.get(30, TimeUnit.SECONDS);
+        executor.shutdown();
+        gosteiAcumulador.encerrar();
+
+        // Assert
+        assertThat(gravados.get(id)).isEqualTo((long) threads * gosteiPorThread);
+        assertThat(gosteiAcumulador.pendente(id)).isZero();
+    }
+
+    @Test
+    void deveConsiderarSemPendentes_QuandoMensagemSemId() {
+        // Arrange
+        var mensagem = MensagemHelper.gerarMensagem();
+        mensagem.setId(null);
+
+        // Act
+        var resultado = gosteiAcumulador.aplicarPendentes(mensagem);
+
+        // Assert
+        assertThat(gosteiAcumulador.pendente(null)).isZero();
+        assertThat(resultado).isSameAs(mensagem);
+    }
+}
@@ -2,6 +2,7 @@ package br.com.fiap.api.service;
 
 import br.com.fiap.api.exception.MensagemNotFoundException;
 import br.com.fiap.api.model.Mensagem;
+import br.com.fiap.api.model.MensagemCursor;
 import br.com.fiap.api.repository.MensagemRepository;
 import br.com.fiap.api.utils.MensagemHelper;
 import jakarta.transaction.Transactional;
@@ -13,6 +14,7 @@ import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabas
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.util.UUID;
@@ -32,6 +34,12 @@ class MensagemServiceIT {
     @Autowired
     private MensagemService mensagemService;
 
+    @Autowired
+    private MensagemGosteiAcumulador gosteiAcumulador;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @Nested
     class RegistrarMensagem {
 
@@ -54,6 +62,30 @@ class MensagemServiceIT {
         }
     }
 
+    @Nested
+    class RegistrarMensagensEmLote {
+
+        @Test
+        void devePermitirRegistrarMensagensEmLote() {
+            // Arrange
+            var totalAntes = mensagemRepository.count();
+            var mensagens = new java.util.ArrayList<Mensagem>();
+            for (int i = 0; i < 1_200; i++) {
+                mensagens.add(MensagemHelper.gerarMensagem());
+            }
+            mensagens.add(Mensagem.builder().conteudo("sem usuário").build());
+
+            // Act
+            var resultado = mensagemService.registrarMensagens(mensagens);
+
+            // Assert
+            Assertions.assertThat(resultado.registradas()).hasSize(1_200);
+            Assertions.assertThat(resultado.erros()).hasSize(1);
+            assertThat(mensagemRepository.count()).isEqualTo(totalAntes + 1_200);
+            assertThat(mensagemService.buscarMensagem(resultado.registradas().get(0))).isNotNull();
+        }
+    }
+
     @Nested
     class BuscarMensagem {
 
@@ -88,6 +120,57 @@ class MensagemServiceIT {
         }
     }
 
+    @Nested
+    class RegistrarGostei {
+
+        @Test
+        void devePermitirRegistrarGostei() {
+            // Arrange
+            var id = UUID.fromString("a520c636-6205-48bb-ac5f-3e4eaddb56f4");
+
+            // Act
+            mensagemService.registrarGostei(id);
+            mensagemService.registrarGostei(id);
+            var mensagemCurtida = mensagemService.registrarGostei(id);
+            gosteiAcumulador.gravar();
+
+            // Assert
+            assertThat(mensagemCurtida.getGostei()).isEqualTo(3);
+            assertThat(jdbcTemplate.queryForObject("SELECT gostei FROM mensagem WHERE id = ?", Integer.class, id))
+                    .isEqualTo(3);
+        }
+    }
+
+    @Nested
+    class ListarMaisCurtidas {
+
+        @Test
+        void deveManterRankingIgualAoBanco_QuandoGravarGostei() {
+            // Arrange
+            var primeira = UUID.fromString("a520c636-6205-48bb-ac5f-3e4eaddb56f4");
+            var segunda = UUID.fromString("4f38bddc-3358-4e6a-8bd7-38048fb0ea1c");
+            var terceira = UUID.fromString("3ab78d54-fe97-4044-806f-583f88065d3b");
+            // o ranking é compartilhado pelo contexto; parte do estado atual do banco
+            gosteiAcumulador.iniciarRanking();
+
+            // Act
+            mensagemService.registrarGostei(primeira);
+            for (int i = 0; i < 3; i++) {
+                mensagemService.registrarGostei(segunda);
+            }
+            mensagemService.registrarGostei(terceira);
+            mensagemService.registrarGostei(terceira);
+            gosteiAcumulador.gravar();
+            var maisCurtidas = mensagemService.listarMaisCurtidas(2);
+
+            // Assert
+            Assertions.assertThat(maisCurtidas).extracting(Mensagem::getId).containsExactly(segunda, terceira);
+            Assertions.assertThat(mensagemService.listarMaisCurtidas(10)).extracting(Mensagem::getId)
+                    .containsExactlyElementsOf(jdbcTemplate.queryForList(
+                            "SELECT id FROM mensagem WHERE gostei > 0 ORDER BY gostei DESC", UUID.class));
+        }
+    }
+
     @Nested
     class AlterarMensagem {
         @Test
@@ -182,4 +265,48 @@ class MensagemServiceIT {
                     });
         }
     }
+
+    @Nested
+    class ListarMensagensPorCursor {
+
+        @Test
+        void devePermitirPercorrerMensagens_PorCursor() {
+            // Act
+            var primeiraPagina = mensagemService.listarMensagens(null, 2);
+            var segundaPagina = mensagemService.listarMensagens(
+                    MensagemCursor.decodificar(primeiraPagina.nextCursor()), 2);
+
+            // Assert
+            Assertions.assertThat(primeiraPagina.content())
+                    .extracting(Mensagem::getUsuario)
+                    .containsExactly("Lucas", "Matheus");
+            assertThat(primeiraPagina.hasNext()).isTrue();
+            Assertions.assertThat(segundaPagina.content())
+                    .extracting(Mensagem::getUsuario)
+                    .containsExactly("José");
+            assertThat(segundaPagina.hasNext()).isFalse();
+            assertThat(segundaPagina.nextCursor()).isNull();
+        }
+    }
+
+    @Nested
+    class ListarMensagensPorUsuario {
+
+        @Test
+        void devePermitirListarMensagensDoUsuario() {
+            // Arrange
+            var mensagem = MensagemHelper.gerarMensagem();
+            mensagem.setUsuario("Matheus");
+            mensagemService.registrarMensagem(mensagem);
+
+            // Act
+            var pagina = mensagemService.listarMensagensPorUsuario("Matheus", null, 10);
+
+            // Assert
+            Assertions.assertThat(pagina.content())
+                    .extracting(Mensagem::getConteudo)
+                    .containsExactly("conteúdo da mensagem", "Conteúdo da mensagem 02");
+            assertThat(pagina.hasNext()).isFalse();
+        }
+    }
 }
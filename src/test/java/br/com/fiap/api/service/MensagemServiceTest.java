@@ -1,22 +1,51 @@
 package br.com.fiap.api.service;
 
+import br.com.fiap.api.busca.IndiceBuscaMemoria;
+import br.com.fiap.api.cache.MensagemCache;
+import br.com.fiap.api.cache.TimelineCache;
+import br.com.fiap.api.exception.MensagemConflitoException;
 import br.com.fiap.api.exception.MensagemNotFoundException;
+import br.com.fiap.api.exception.MensagemPendenteException;
+import br.com.fiap.api.id.UuidV7IdGenerator;
+import br.com.fiap.api.ingestao.IngestaoAssincrona;
 import br.com.fiap.api.model.Mensagem;
+import br.com.fiap.api.model.MensagemAlteracao;
+import br.com.fiap.api.model.MensagemCursor;
+import br.com.fiap.api.model.MensagemResumo;
+import br.com.fiap.api.model.MensagemVersao;
+import br.com.fiap.api.model.ResultadoLote;
+import br.com.fiap.api.ranking.MensagemGostei;
+import br.com.fiap.api.ranking.RankingGostei;
 import br.com.fiap.api.repository.MensagemRepository;
+import br.com.fiap.api.stream.MensagemEvento;
+import br.com.fiap.api.stream.TransmissorMensagens;
 import br.com.fiap.api.utils.MensagemHelper;
 import io.qameta.allure.Severity;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import io.qameta.allure.SeverityLevel;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionOperations;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
 
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -29,12 +58,47 @@ class MensagemServiceTest {
     @Mock
     private MensagemRepository mensagemRepository;
 
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransmissorMensagens transmissorMensagens;
+
+    private MensagemContador mensagemContador;
+
+    private MensagemGosteiAcumulador gosteiAcumulador;
+
+    private IndiceBuscaMemoria indiceBusca;
+
+    private final RankingGostei rankingGostei = new RankingGostei(10, 5);
+
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
     AutoCloseable openMocks;
 
     @BeforeEach
     void setup() {
         openMocks = MockitoAnnotations.openMocks(this);
-        mensagemService = new MensagemServiceImpl(mensagemRepository);
+        mensagemContador = new MensagemContador(mensagemRepository);
+        mensagemService = criarServico(MensagemCache.desabilitado());
+    }
+
+    private MensagemService criarServico(MensagemCache mensagemCache) {
+        return criarServico(mensagemCache, TimelineCache.desabilitado());
+    }
+
+    private MensagemService criarServico(MensagemCache mensagemCache, TimelineCache timelineCache) {
+        return criarServico(mensagemCache, timelineCache, IngestaoAssincrona.desabilitada());
+    }
+
+    private MensagemService criarServico(MensagemCache mensagemCache, TimelineCache timelineCache,
+                                         IngestaoAssincrona ingestaoAssincrona) {
+        gosteiAcumulador = new MensagemGosteiAcumulador(jdbcTemplate, TransactionOperations.withoutTransaction(),
+                mensagemCache, timelineCache, rankingGostei, ingestaoAssincrona);
+        indiceBusca = new IndiceBuscaMemoria(mensagemRepository);
+        return new MensagemServiceImpl(mensagemRepository, mensagemCache, mensagemContador, validator,
+                new UuidV7IdGenerator(), gosteiAcumulador, indiceBusca, timelineCache, ingestaoAssincrona,
+                transmissorMensagens, rankingGostei);
     }
 
     @AfterEach
@@ -61,6 +125,174 @@ class MensagemServiceTest {
         verify(mensagemRepository, times(1)).save(any(Mensagem.class));
     }
 
+    @Test
+    void deveManterDataCriacaoInformada_QuandoParticionamentoDesabilitado() {
+        // Arrange
+        var dataInformada = LocalDateTime.of(2024, 10, 4, 0, 0);
+        var mensagem = MensagemHelper.gerarMensagem();
+        mensagem.setDataCriacao(dataInformada);
+        var semData = MensagemHelper.gerarMensagem();
+        semData.setDataCriacao(null);
+        when(mensagemRepository.save(any(Mensagem.class))).thenAnswer(i -> i.getArgument(0));
+        var antes = LocalDateTime.now();
+
+        // Act
+        mensagemService.registrarMensagem(mensagem);
+        mensagemService.registrarMensagem(semData);
+
+        // Assert
+        assertThat(mensagem.getDataCriacao()).isEqualTo(dataInformada);
+        assertThat(semData.getDataCriacao()).isAfterOrEqualTo(antes);
+    }
+
+    @Test
+    void deveDefinirDataCriacao_IgnorandoDataInformada_QuandoParticionamentoHabilitado() {
+        // Arrange
+        ReflectionTestUtils.setField(mensagemService, "particionamentoHabilitado", true);
+        var mensagem = MensagemHelper.gerarMensagem();
+        mensagem.setDataCriacao(LocalDateTime.of(2024, 10, 4, 0, 0));
+        var lote = List.of(MensagemHelper.gerarMensagem().toBuilder().dataCriacao(LocalDateTime.of(1999, 1, 1, 0, 0))
+                .build());
+        when(mensagemRepository.save(any(Mensagem.class))).thenAnswer(i -> i.getArgument(0));
+        var antes = LocalDateTime.now();
+
+        // Act
+        mensagemService.registrarMensagem(mensagem);
+        mensagemService.registrarMensagens(lote);
+
+        // Assert
+        assertThat(mensagem.getDataCriacao()).isAfterOrEqualTo(antes);
+        assertThat(lote.get(0).getDataCriacao()).isAfterOrEqualTo(antes);
+    }
+
+    @Test
+    void devePermitirLerMensagemAceita_AntesDaGravacaoAssincrona() {
+        // Arrange
+        var ingestao = new IngestaoAssincrona(true, 16, 10);
+        var servicoAssincrono = (MensagemServiceImpl) criarServico(MensagemCache.desabilitado(),
+                TimelineCache.desabilitado(), ingestao);
+        servicoAssincrono.configurarIngestao();
+        ingestao.start();
+        var mensagem = MensagemHelper.gerarMensagem();
+        // segura a gravação para que a leitura aconteça com a mensagem ainda na fila
+        var liberarGravacao = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            liberarGravacao.await();
+            return null;
+        }).when(mensagemRepository).inserirEmLote(anyList());
+
+        // Act
+        var mensagemAceita = servicoAssincrono.registrarMensagem(mensagem);
+        var mensagemObtida = servicoAssincrono.buscarMensagem(mensagemAceita.getId());
+        liberarGravacao.countDown();
+        ingestao.stop();
+
+        // Assert
+        assertThat(servicoAssincrono.registroAssincrono()).isTrue();
+        assertThat(mensagemAceita.getId()).isNotNull();
+        assertThat(mensagemObtida.getConteudo()).isEqualTo(mensagem.getConteudo());
+        verify(mensagemRepository, never()).save(any(Mensagem.class));
+        verify(mensagemRepository, times(1)).inserirEmLote(List.of(mensagemAceita));
+        verify(mensagemRepository, never()).findById(any(UUID.class));
+        assertThat(ingestao.pendente(mensagemAceita.getId())).isEmpty();
+    }
+
+    @Test
+    void deveGerarExcecao_QuandoAlterarOuRemoverMensagem_AntesDaGravacaoAssincrona() {
+        // Arrange
+        var ingestao = new IngestaoAssincrona(true, 16, 10);
+        var servicoAssincrono = (MensagemServiceImpl) criarServico(MensagemCache.desabilitado(),
+                TimelineCache.desabilitado(), ingestao);
+        servicoAssincrono.configurarIngestao();
+        ingestao.start();
+        var liberarGravacao = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            liberarGravacao.await();
+            return null;
+        }).when(mensagemRepository).inserirEmLote(anyList());
+        var mensagemAceita = servicoAssincrono.registrarMensagem(MensagemHelper.gerarMensagem());
+        var id = mensagemAceita.getId();
+        var mensagemNova = new Mensagem();
+        mensagemNova.setId(id);
+        mensagemNova.setConteudo("ABCD 12345");
+
+        // Act & Assert
+        try {
+            assertThatThrownBy(() -> servicoAssincrono.alterarMensagem(id, mensagemNova))
+                    .isInstanceOf(MensagemPendenteException.class)
+                    .hasMessage("A mensagem ainda está sendo gravada, tente novamente");
+            assertThatThrownBy(() -> servicoAssincrono.alterarMensagem(id, new MensagemAlteracao(null, "ABCD 12345"), 0L))
+                    .isInstanceOf(MensagemPendenteException.class);
+            assertThatThrownBy(() -> servicoAssincrono.removerMensagem(id))
+                    .isInstanceOf(MensagemPendenteException.class);
+        } finally {
+            liberarGravacao.countDown();
+            ingestao.stop();
+        }
+        verify(mensagemRepository, never()).alterarConteudo(any(UUID.class), anyString());
+        verify(mensagemRepository, never()).alterarNaVersao(any(UUID.class), any(), any(), anyLong());
+        verify(mensagemRepository, never()).removerPorId(any(UUID.class));
+    }
+
+    @Test
+    void deveGerarExcecao_QuandoRegistrarMensagem_Invalida() {
+        // Arrange
+        var ingestao = new IngestaoAssincrona(true, 16, 10);
+        var servicoAssincrono = criarServico(MensagemCache.desabilitado(), TimelineCache.desabilitado(), ingestao);
+        var mensagemSemConteudo = Mensagem.builder().usuario("Jose").build();
+        var mensagemLonga = Mensagem.builder().usuario("Jose").conteudo("a".repeat(Mensagem.TAMANHO_MAXIMO + 1)).build();
+
+        // Act & Assert
+        assertThatThrownBy(() -> servicoAssincrono.registrarMensagem(mensagemSemConteudo))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("O campo conteudo é obrigatório");
+        assertThatThrownBy(() -> mensagemService.registrarMensagem(mensagemLonga))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("O campo conteudo deve ter no máximo 255 caracteres");
+        assertThat(ingestao.tamanhoFila()).isZero();
+        verify(mensagemRepository, never()).save(any(Mensagem.class));
+    }
+
+    @Test
+    void devePermitirRegistrarMensagensEmLote() {
+        // Arrange
+        var mensagens = Arrays.asList(
+                MensagemHelper.gerarMensagem(),
+                Mensagem.builder().usuario("Jose").build(),
+                MensagemHelper.gerarMensagem(),
+                null
+        );
+
+        // Act
+        var resultado = mensagemService.registrarMensagens(mensagens);
+
+        // Assert
+        assertThat(resultado.total()).isEqualTo(4);
+        assertThat(resultado.registradas())
+                .hasSize(2)
+                .containsExactly(mensagens.get(0).getId(), mensagens.get(2).getId());
+        assertThat(resultado.erros())
+                .extracting(ResultadoLote.Erro::indice)
+                .containsExactly(1, 3);
+        assertThat(resultado.erros().get(0).mensagens())
+                .containsExactly("O campo conteudo é obrigatório");
+        verify(mensagemRepository, times(1)).inserirEmLote(List.of(mensagens.get(0), mensagens.get(2)));
+        verify(mensagemRepository, never()).save(any(Mensagem.class));
+    }
+
+    @Test
+    void deveGerarExcecao_QuandoRegistrarMensagensEmLote_LoteExcedeLimite() {
+        // Arrange
+        var mensagens = java.util.Collections.nCopies(MensagemServiceImpl.TAMANHO_MAXIMO_LOTE + 1,
+                MensagemHelper.gerarMensagem());
+
+        // Act & Assert
+        assertThatThrownBy(() -> mensagemService.registrarMensagens(mensagens))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("O lote excede o limite de 5000 mensagens");
+        verify(mensagemRepository, never()).inserirEmLote(any());
+    }
+
     @Test
     @Severity(SeverityLevel.CRITICAL)
     void devePermitirBuscarMensagens() {
@@ -79,6 +311,184 @@ class MensagemServiceTest {
         verify(mensagemRepository, times(1)).findById(id);
     }
 
+    @Test
+    void devePermitirBuscarMensagens_QuandoEmCache() {
+        // Arrange
+        var servicoComCache = criarServico(new MensagemCache(true, 100, Duration.ofMinutes(5)));
+        var id = UUID.randomUUID();
+        var mensagem = MensagemHelper.gerarMensagem();
+        mensagem.setId(id);
+        when(mensagemRepository.findById(any(UUID.class)))
+                .thenReturn(java.util.Optional.of(mensagem));
+
+        // Act
+        servicoComCache.buscarMensagem(id);
+        var mensagemObtida = servicoComCache.buscarMensagem(id);
+
+        // Assert
+        assertThat(mensagemObtida).isEqualTo(mensagem);
+        verify(mensagemRepository, times(1)).findById(id);
+    }
+
+    @Test
+    void deveInvalidarCache_QuandoAlterarMensagem() {
+        // Arrange
+        var servicoComCache = criarServico(new MensagemCache(true, 100, Duration.ofMinutes(5)));
+        var id = UUID.randomUUID();
+        var mensagemEmCache = MensagemHelper.gerarMensagem();
+        mensagemEmCache.setId(id);
+        mensagemEmCache.setVersao(0L);
+        var mensagemNova = MensagemHelper.gerarMensagem();
+        mensagemNova.setId(id);
+        mensagemNova.setConteudo("ABCD 12345");
+        when(mensagemRepository.findById(any(UUID.class)))
+                .thenReturn(java.util.Optional.of(mensagemEmCache))
+                .thenReturn(java.util.Optional.of(mensagemNova));
+        when(mensagemRepository.alterarNaVersao(any(UUID.class), isNull(), anyString(), anyLong())).thenReturn(1);
+        servicoComCache.buscarMensagem(id);
+
+        // Act
+        var mensagemAlterada = servicoComCache.alterarMensagem(id, mensagemNova);
+        var mensagemObtida = servicoComCache.buscarMensagem(id);
+
+        // Assert
+        assertThat(mensagemAlterada.getConteudo()).isEqualTo("ABCD 12345");
+        assertThat(mensagemAlterada.getVersao()).isEqualTo(1L);
+        assertThat(mensagemEmCache.getConteudo()).isEqualTo("conteúdo da mensagem");
+        assertThat(mensagemObtida.getConteudo()).isEqualTo("ABCD 12345");
+        verify(mensagemRepository, times(2)).findById(id);
+        verify(mensagemRepository, never()).save(any(Mensagem.class));
+    }
+
+    @Test
+    void deveRecarregarMensagem_QuandoVersaoEmCacheDesatualizada() {
+        // Arrange
+        var servicoComCache = criarServico(new MensagemCache(true, 100, Duration.ofMinutes(5)));
+        var id = UUID.randomUUID();
+        var mensagemEmCache = MensagemHelper.gerarMensagem();
+        mensagemEmCache.setId(id);
+        mensagemEmCache.setVersao(0L);
+        var mensagemNova = MensagemHelper.gerarMensagem();
+        mensagemNova.setId(id);
+        mensagemNova.setConteudo("ABCD 12345");
+        mensagemNova.setVersao(2L);
+        when(mensagemRepository.findById(any(UUID.class)))
+                .thenReturn(java.util.Optional.of(mensagemEmCache))
+                .thenReturn(java.util.Optional.of(mensagemNova));
+        when(mensagemRepository.alterarNaVersao(any(UUID.class), isNull(), anyString(), anyLong())).thenReturn(0);
+        when(mensagemRepository.alterarConteudo(any(UUID.class), anyString())).thenReturn(1);
+        servicoComCache.buscarMensagem(id);
+
+        // Act
+        var mensagemAlterada = servicoComCache.alterarMensagem(id, mensagemNova);
+
+        // Assert
+        assertThat(mensagemAlterada.getVersao()).isEqualTo(2L);
+        verify(mensagemRepository, times(1)).alterarNaVersao(id, null, "ABCD 12345", 0L);
+        verify(mensagemRepository, times(1)).alterarConteudo(id, "ABCD 12345");
+        verify(mensagemRepository, times(2)).findById(id);
+    }
+
+    @Test
+    void devePermitirObterETagMensagem_SemCarregarConteudo() {
+        // Arrange
+        var id = UUID.randomUUID();
+        when(mensagemRepository.buscarVersao(any(UUID.class)))
+                .thenReturn(java.util.Optional.of(new MensagemVersao(id, 3L, 7)));
+        gosteiAcumulador.registrar(id);
+
+        // Act
+        var etag = mensagemService.etagMensagem(id);
+
+        // Assert
+        assertThat(etag).isEqualTo("v3g8");
+        verify(mensagemRepository, never()).findById(any(UUID.class));
+    }
+
+    @Test
+    void devePermitirObterETagMensagem_QuandoEmCache() {
+        // Arrange
+        var servicoComCache = criarServico(new MensagemCache(true, 100, Duration.ofMinutes(5)));
+        var id = UUID.randomUUID();
+        var mensagem = MensagemHelper.gerarMensagem();
+        mensagem.setId(id);
+        mensagem.setVersao(1L);
+        when(mensagemRepository.findById(any(UUID.class))).thenReturn(java.util.Optional.of(mensagem));
+        servicoComCache.buscarMensagem(id);
+
+        // Act
+        var etag = servicoComCache.etagMensagem(id);
+
+        // Assert
+        assertThat(etag).isEqualTo(MensagemVersao.de(servicoComCache.buscarMensagem(id)).etag());
+        verify(mensagemRepository, never()).buscarVersao(any(UUID.class));
+    }
+
+    @Test
+    void deveGerarExcecao_QuandoObterETagMensagem_IdNaoExistir() {
+        // Arrange
+        var id = UUID.randomUUID();
+        when(mensagemRepository.buscarVersao(any(UUID.class))).thenReturn(java.util.Optional.empty());
+
+        // Act & Assert
+        assertThatThrownBy(() -> mensagemService.etagMensagem(id))
+                .isInstanceOf(MensagemNotFoundException.class)
+                .hasMessage("Mensagem não encontrada");
+    }
+
+    @Test
+    void deveAlterarETagPagina_QuandoGosteiPendente() {
+        // Arrange
+        var id = UUID.randomUUID();
+        var pageable = PageRequest.of(0, 10);
+        when(mensagemRepository.listarVersoes(any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(new MensagemVersao(id, 0L, 0)), pageable, 1));
+        var antes = mensagemService.etagMensagens(pageable);
+
+        // Act
+        gosteiAcumulador.registrar(id);
+        var depois = mensagemService.etagMensagens(pageable);
+
+        // Assert
+        assertThat(depois).isNotEqualTo(antes);
+        verify(mensagemRepository, never()).listarMensagem(any(Pageable.class));
+    }
+
+    @Test
+    void devePermitirRegistrarGostei() {
+        // Arrange
+        var id = UUID.randomUUID();
+        var mensagem = MensagemHelper.gerarMensagem();
+        mensagem.setId(id);
+        when(mensagemRepository.findById(any(UUID.class)))
+                .thenReturn(java.util.Optional.of(mensagem));
+
+        // Act
+        mensagemService.registrarGostei(id);
+        var mensagemCurtida = mensagemService.registrarGostei(id);
+        var mensagemObtida = mensagemService.buscarMensagem(id);
+
+        // Assert
+        assertThat(mensagemCurtida.getGostei()).isEqualTo(2);
+        assertThat(mensagemObtida.getGostei()).isEqualTo(2);
+        assertThat(mensagem.getGostei()).isZero();
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void deveGerarExcecao_QuandoRegistrarGostei_IdNaoExistir() {
+        // Arrange
+        var id = UUID.randomUUID();
+        when(mensagemRepository.findById(any(UUID.class)))
+                .thenReturn(java.util.Optional.empty());
+
+        // Act & Assert
+        assertThatThrownBy(() -> mensagemService.registrarGostei(id))
+                .isInstanceOf(MensagemNotFoundException.class)
+                .hasMessage("Mensagem não encontrada");
+        assertThat(gosteiAcumulador.pendente(id)).isZero();
+    }
+
     @Test
     @Severity(SeverityLevel.MINOR)
     void deveGerarExcecao_QuandoBuscarMensagem_IdNaoExistir() {
@@ -107,11 +517,11 @@ class MensagemServiceTest {
         mensagemNova.setUsuario(mensagemAntiga.getUsuario());
         mensagemNova.setConteudo("ABCD 12345");
 
-        when(mensagemRepository.findById(any(UUID.class)))
-                .thenReturn(java.util.Optional.of(mensagemAntiga));
+        when(mensagemRepository.alterarConteudo(any(UUID.class), anyString()))
+                .thenReturn(1);
 
-        when(mensagemRepository.save(any(Mensagem.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(mensagemRepository.findById(any(UUID.class)))
+                .thenReturn(java.util.Optional.of(mensagemNova));
 
         // Act
         var mensagemAlterada = mensagemService.alterarMensagem(id, mensagemNova);
@@ -121,8 +531,8 @@ class MensagemServiceTest {
         assertThat(mensagemAlterada.getId()).isEqualTo(mensagemNova.getId());
         assertThat(mensagemAlterada.getUsuario()).isEqualTo(mensagemNova.getUsuario());
         assertThat(mensagemAlterada.getConteudo()).isEqualTo(mensagemNova.getConteudo());
-        verify(mensagemRepository, times(1)).findById(any(UUID.class));
-        verify(mensagemRepository, times(1)).save(any(Mensagem.class));
+        verify(mensagemRepository, times(1)).alterarConteudo(id, "ABCD 12345");
+        verify(mensagemRepository, never()).save(any(Mensagem.class));
     }
 
     @Test
@@ -132,38 +542,156 @@ class MensagemServiceTest {
         var mensagem = MensagemHelper.gerarMensagem();
         mensagem.setId(id);
 
-        when(mensagemRepository.findById(any(UUID.class)))
-                .thenReturn(java.util.Optional.empty());
+        when(mensagemRepository.alterarConteudo(any(UUID.class), anyString()))
+                .thenReturn(0);
 
         // Act & Assert
         assertThatThrownBy(() -> mensagemService.alterarMensagem(id, mensagem))
                 .isInstanceOf(br.com.fiap.api.exception.MensagemNotFoundException.class)
                 .hasMessage("Mensagem não encontrada");
-        verify(mensagemRepository, times(1)).findById(any(UUID.class));
+        verify(mensagemRepository, times(1)).alterarConteudo(any(UUID.class), anyString());
+        verify(mensagemRepository, never()).findById(any(UUID.class));
+    }
+
+    @Test
+    void deveGerarExcecao_QuandoAlterarMensagem_ConteudoInvalido() {
+        // Arrange
+        var id = UUID.randomUUID();
+        var semConteudo = Mensagem.builder().id(id).usuario("Jose").build();
+        var conteudoVazio = Mensagem.builder().id(id).usuario("Jose").conteudo("").build();
+        var conteudoLongo = Mensagem.builder().id(id).usuario("Jose")
+                .conteudo("a".repeat(Mensagem.TAMANHO_MAXIMO + 1)).build();
+
+        // Act & Assert
+        assertThatThrownBy(() -> mensagemService.alterarMensagem(id, semConteudo))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("O campo conteudo é obrigatório");
+        assertThatThrownBy(() -> mensagemService.alterarMensagem(id, conteudoVazio))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("O campo conteudo é obrigatório");
+        assertThatThrownBy(() -> mensagemService.alterarMensagem(id, conteudoLongo))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("O campo conteudo deve ter no máximo 255 caracteres");
+        verifyNoInteractions(mensagemRepository);
     }
 
     @Test
     void deveGerarExecao_QuandoAlterarMensagem_IdDaMensagemNovaApresentaValorDiferente() {
         // Arrange
         var id = UUID.randomUUID();
-        var mensagemAntiga = MensagemHelper.gerarMensagem();
-        mensagemAntiga.setId(id);
 
         var mensagemNova = MensagemHelper.gerarMensagem();
         mensagemNova.setId(UUID.randomUUID());
         mensagemNova.setConteudo("ABCD 12345");
 
-        when(mensagemRepository.findById(any(UUID.class)))
-                .thenReturn(java.util.Optional.of(mensagemAntiga));
-
         // Act & Assert
         assertThatThrownBy(() -> mensagemService.alterarMensagem(id, mensagemNova))
                 .isInstanceOf(MensagemNotFoundException.class)
                 .hasMessage("Mensagem atualizada não apresenta o ID correto");
-        verify(mensagemRepository, times(1)).findById(any(UUID.class));
+        verify(mensagemRepository, never()).alterarConteudo(any(UUID.class), anyString());
         verify(mensagemRepository, never()).save(any(Mensagem.class));
     }
 
+    @Test
+    void devePermitirAlterarMensagemParcialmente_NaVersaoEsperada() {
+        // Arrange
+        var id = UUID.randomUUID();
+        var mensagemAlterada = MensagemHelper.gerarMensagem();
+        mensagemAlterada.setId(id);
+        mensagemAlterada.setConteudo("ABCD 12345");
+        mensagemAlterada.setVersao(4L);
+        when(mensagemRepository.alterarNaVersao(any(UUID.class), isNull(), anyString(), anyLong())).thenReturn(1);
+        when(mensagemRepository.findById(any(UUID.class))).thenReturn(java.util.Optional.of(mensagemAlterada));
+
+        // Act
+        var mensagem = mensagemService.alterarMensagem(id, new MensagemAlteracao(null, "ABCD 12345"), 3L);
+
+        // Assert
+        assertThat(mensagem.getConteudo()).isEqualTo("ABCD 12345");
+        assertThat(mensagem.getVersao()).isEqualTo(4L);
+        verify(mensagemRepository, times(1)).alterarNaVersao(id, null, "ABCD 12345", 3L);
+        verify(mensagemRepository, never()).alterarConteudo(any(UUID.class), anyString());
+    }
+
+    @Test
+    void devePermitirAlterarMensagemParcialmente_SemRecarregar_QuandoEmCache() {
+        // Arrange
+        var servicoComCache = criarServico(new MensagemCache(true, 100, Duration.ofMinutes(5)));
+        var id = UUID.randomUUID();
+        var mensagemEmCache = MensagemHelper.gerarMensagem();
+        mensagemEmCache.setId(id);
+        mensagemEmCache.setVersao(3L);
+        when(mensagemRepository.findById(any(UUID.class))).thenReturn(java.util.Optional.of(mensagemEmCache));
+        when(mensagemRepository.alterarNaVersao(any(UUID.class), anyString(), isNull(), anyLong())).thenReturn(1);
+        servicoComCache.buscarMensagem(id);
+
+        // Act
+        var mensagem = servicoComCache.alterarMensagem(id, new MensagemAlteracao("Maria", null), 3L);
+
+        // Assert
+        assertThat(mensagem.getUsuario()).isEqualTo("Maria");
+        assertThat(mensagem.getConteudo()).isEqualTo("conteúdo da mensagem");
+        assertThat(mensagem.getVersao()).isEqualTo(4L);
+        assertThat(mensagemEmCache.getUsuario()).isEqualTo("Jose");
+        verify(mensagemRepository, times(1)).findById(id);
+    }
+
+    @Test
+    void deveGerarConflito_QuandoAlterarMensagemParcialmente_VersaoDesatualizada() {
+        // Arrange
+        var id = UUID.randomUUID();
+        when(mensagemRepository.alterarNaVersao(any(UUID.class), isNull(), anyString(), anyLong())).thenReturn(0);
+        when(mensagemRepository.buscarVersao(any(UUID.class)))
+                .thenReturn(java.util.Optional.of(new MensagemVersao(id, 5L, 2)));
+
+        // Act & Assert
+        assertThatThrownBy(() -> mensagemService.alterarMensagem(id, new MensagemAlteracao(null, "ABCD 12345"), 3L))
+                .isInstanceOf(MensagemConflitoException.class)
+                .hasMessage("A mensagem foi alterada por outra requisição")
+                .extracting("etag").isEqualTo("v5g2");
+        verify(mensagemRepository, never()).findById(any(UUID.class));
+    }
+
+    @Test
+    void deveGerarExcecao_QuandoAlterarMensagemParcialmente_IdNaoExiste() {
+        // Arrange
+        var id = UUID.randomUUID();
+        when(mensagemRepository.alterarNaVersao(any(UUID.class), isNull(), anyString(), anyLong())).thenReturn(0);
+        when(mensagemRepository.buscarVersao(any(UUID.class))).thenReturn(java.util.Optional.empty());
+
+        // Act & Assert
+        assertThatThrownBy(() -> mensagemService.alterarMensagem(id, new MensagemAlteracao(null, "ABCD 12345"), 0L))
+                .isInstanceOf(MensagemNotFoundException.class)
+                .hasMessage("Mensagem não encontrada");
+    }
+
+    @Test
+    void deveGerarExcecao_QuandoAlterarMensagemParcialmente_SemCampos() {
+        // Act & Assert
+        assertThatThrownBy(() -> mensagemService.alterarMensagem(UUID.randomUUID(), new MensagemAlteracao(null, null), 0L))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Nenhum campo informado para alteração");
+        assertThatThrownBy(() -> mensagemService.alterarMensagem(UUID.randomUUID(), new MensagemAlteracao(null, " "), 0L))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("O campo conteudo é obrigatório");
+        verifyNoInteractions(mensagemRepository);
+    }
+
+    @Test
+    void deveGerarExcecao_QuandoAlterarMensagemParcialmente_CampoAcimaDoTamanho() {
+        // Arrange
+        var longo = "a".repeat(Mensagem.TAMANHO_MAXIMO + 1);
+
+        // Act & Assert
+        assertThatThrownBy(() -> mensagemService.alterarMensagem(UUID.randomUUID(), new MensagemAlteracao(longo, null), 0L))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("O campo usuario deve ter no máximo 255 caracteres");
+        assertThatThrownBy(() -> mensagemService.alterarMensagem(UUID.randomUUID(), new MensagemAlteracao(null, longo), 0L))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("O campo conteudo deve ter no máximo 255 caracteres");
+        verifyNoInteractions(mensagemRepository);
+    }
+
     @Test
     void devePermitirRemoverMesagens() {
         // Arrange
@@ -171,33 +699,30 @@ class MensagemServiceTest {
         var mensagem = MensagemHelper.gerarMensagem();
         mensagem.setId(id);
 
-        when(mensagemRepository.findById(any(UUID.class)))
-                .thenReturn(java.util.Optional.of(mensagem));
-
-        doNothing().when(mensagemRepository).delete(any(Mensagem.class));
+        when(mensagemRepository.removerPorId(any(UUID.class)))
+                .thenReturn(1);
 
         // Act
         var mensagemRemovida = mensagemService.removerMensagem(id);
 
         // Assert
         assertThat(mensagemRemovida).isTrue();
-        verify(mensagemRepository, times(1)).findById(any(UUID.class));
-        verify(mensagemRepository, times(1)).delete(any(Mensagem.class));
+        verify(mensagemRepository, times(1)).removerPorId(id);
+        verify(mensagemRepository, never()).findById(any(UUID.class));
     }
 
     @Test
     void deveGerarExcecao_QuandoRemoverMensagem_IdNaoExiste() {
         // Arrange
         var id = UUID.randomUUID();
-        when(mensagemRepository.findById(any(UUID.class)))
-                .thenReturn(java.util.Optional.empty());
+        when(mensagemRepository.removerPorId(any(UUID.class)))
+                .thenReturn(0);
 
         // Act & Assert
         assertThatThrownBy(() -> mensagemService.removerMensagem(id))
                 .isInstanceOf(br.com.fiap.api.exception.MensagemNotFoundException.class)
                 .hasMessage("Mensagem não encontrada");
-        verify(mensagemRepository, times(1)).findById(any(UUID.class));
-        verify(mensagemRepository, never()).delete(any(Mensagem.class));
+        verify(mensagemRepository, times(1)).removerPorId(any(UUID.class));
         verify(mensagemRepository, never()).delete(any(Mensagem.class));
     }
 
@@ -221,4 +746,284 @@ class MensagemServiceTest {
                 });
         verify(mensagemRepository, times(1)).listarMensagem(any(Pageable.class));
     }
+
+    @Test
+    void devePermitirListarFatiaMensagens() {
+        // Arrange
+        Slice<Mensagem> fatia = new SliceImpl<>(Arrays.asList(
+                MensagemHelper.gerarMensagem(),
+                MensagemHelper.gerarMensagem()
+        ), PageRequest.of(0, 2), true);
+        when(mensagemRepository.listarFatiaMensagem(any(Pageable.class))).thenReturn(fatia);
+
+        // Act
+        var mensagens = mensagemService.listarFatiaMensagens(PageRequest.of(0, 2));
+
+        // Assert
+        assertThat(mensagens.getContent()).hasSize(2);
+        assertThat(mensagens.hasNext()).isTrue();
+        verify(mensagemRepository, times(1)).listarFatiaMensagem(any(Pageable.class));
+        verify(mensagemRepository, never()).count();
+    }
+
+    @Test
+    void devePermitirListarMaisCurtidas_ComGosteiPendente() {
+        // Arrange
+        var primeira = gerarMensagemComGostei(5);
+        var segunda = gerarMensagemComGostei(4);
+        var removida = UUID.randomUUID();
+        rankingGostei.reconstruir(List.of(new MensagemGostei(primeira.getId(), 5),
+                new MensagemGostei(segunda.getId(), 4), new MensagemGostei(removida, 3)));
+        when(mensagemRepository.findAllById(anyIterable())).thenReturn(List.of(primeira, segunda));
+        gosteiAcumulador.registrar(segunda.getId());
+        gosteiAcumulador.registrar(segunda.getId());
+
+        // Act
+        var mensagens = mensagemService.listarMaisCurtidas(3);
+
+        // Assert
+        assertThat(mensagens).extracting(Mensagem::getId).containsExactly(segunda.getId(), primeira.getId());
+        assertThat(mensagens).extracting(Mensagem::getGostei).containsExactly(6, 5);
+        assertThat(rankingGostei.maisCurtidas(3)).extracting(MensagemGostei::id)
+                .containsExactly(primeira.getId(), segunda.getId());
+        verify(mensagemRepository, times(1)).findAllById(anyIterable());
+    }
+
+    @Test
+    void deveRetirarDoRanking_QuandoRemoverMensagem() {
+        // Arrange
+        var mensagem = gerarMensagemComGostei(2);
+        rankingGostei.reconstruir(List.of(new MensagemGostei(mensagem.getId(), 2)));
+        when(mensagemRepository.removerPorId(any(UUID.class))).thenReturn(1);
+
+        // Act
+        mensagemService.removerMensagem(mensagem.getId());
+
+        // Assert
+        assertThat(mensagemService.listarMaisCurtidas(5)).isEmpty();
+        verify(mensagemRepository, never()).findAllById(anyIterable());
+    }
+
+    @Test
+    void deveManterTotalMensagens_QuandoRegistrarERemoverMensagens() {
+        // Arrange
+        var mensagem = MensagemHelper.gerarMensagem();
+        when(mensagemRepository.count()).thenReturn(5L);
+        when(mensagemRepository.save(any(Mensagem.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(mensagemRepository.removerPorId(any(UUID.class))).thenReturn(1);
+        mensagemContador.recalcular();
+
+        // Act
+        mensagemService.registrarMensagem(mensagem);
+        mensagemService.registrarMensagem(MensagemHelper.gerarMensagem());
+        mensagemService.removerMensagem(mensagem.getId());
+        var total = mensagemService.totalMensagens();
+
+        // Assert
+        assertThat(total).isEqualTo(6);
+        verify(mensagemRepository, times(1)).count();
+    }
+
+    @Test
+    void deveAtualizarIndiceBusca_QuandoRegistrarAlterarERemoverMensagem() {
+        // Arrange
+        var mensagem = MensagemHelper.gerarMensagem();
+        mensagem.setConteudo("reunião de planejamento");
+        when(mensagemRepository.save(any(Mensagem.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(mensagemRepository.alterarConteudo(any(UUID.class), anyString())).thenReturn(1);
+        when(mensagemRepository.removerPorId(any(UUID.class))).thenReturn(1);
+        when(mensagemRepository.findAllById(anyIterable())).thenReturn(List.of(mensagem));
+
+        // Act
+        mensagemService.registrarMensagem(mensagem);
+        var encontradas = mensagemService.buscarMensagens("planejamento", 10);
+
+        var mensagemNova = mensagem.toBuilder().conteudo("retrospectiva da sprint").build();
+        when(mensagemRepository.findById(any(UUID.class))).thenReturn(java.util.Optional.of(mensagemNova));
+        mensagemService.alterarMensagem(mensagem.getId(), mensagemNova);
+        var aposAlteracao = indiceBusca.pesquisar("planejamento", 10);
+        var porNovoConteudo = indiceBusca.pesquisar("retrospectiva", 10);
+
+        mensagemService.removerMensagem(mensagem.getId());
+        var aposRemocao = indiceBusca.pesquisar("retrospectiva", 10);
+
+        // Assert
+        assertThat(encontradas).extracting(Mensagem::getId).containsExactly(mensagem.getId());
+        assertThat(aposAlteracao).isEmpty();
+        assertThat(porNovoConteudo).containsExactly(mensagem.getId());
+        assertThat(aposRemocao).isEmpty();
+    }
+
+    @Test
+    void devePublicarEventos_QuandoRegistrarAlterarERemoverMensagem() {
+        // Arrange
+        var mensagem = MensagemHelper.gerarMensagem();
+        when(mensagemRepository.save(any(Mensagem.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(mensagemRepository.alterarConteudo(any(UUID.class), anyString())).thenReturn(1);
+        when(mensagemRepository.removerPorId(any(UUID.class))).thenReturn(1);
+
+        // Act
+        mensagemService.registrarMensagem(mensagem);
+        var mensagemNova = mensagem.toBuilder().conteudo("conteúdo alterado").build();
+        when(mensagemRepository.findById(any(UUID.class))).thenReturn(java.util.Optional.of(mensagemNova));
+        var mensagemAlterada = mensagemService.alterarMensagem(mensagem.getId(), mensagemNova);
+        mensagemService.removerMensagem(mensagem.getId());
+
+        // Assert
+        var ordem = inOrder(transmissorMensagens);
+        ordem.verify(transmissorMensagens).publicar(MensagemEvento.Tipo.CRIADA, mensagem.getId(), mensagem);
+        ordem.verify(transmissorMensagens).publicar(MensagemEvento.Tipo.ALTERADA, mensagem.getId(), mensagemAlterada);
+        ordem.verify(transmissorMensagens).publicar(MensagemEvento.Tipo.REMOVIDA, mensagem.getId(), null);
+    }
+
+    @Test
+    void naoDevePublicarEvento_QuandoRemoverMensagem_IdNaoExiste() {
+        // Arrange
+        when(mensagemRepository.removerPorId(any(UUID.class))).thenReturn(0);
+
+        // Act & Assert
+        assertThatThrownBy(() -> mensagemService.removerMensagem(UUID.randomUUID()))
+                .isInstanceOf(MensagemNotFoundException.class);
+        verifyNoInteractions(transmissorMensagens);
+    }
+
+    @Test
+    void devePermitirListarMensagens_PorCursor() {
+        // Arrange
+        var mensagens = Arrays.asList(
+                MensagemHelper.gerarMensagem(),
+                MensagemHelper.gerarMensagem(),
+                MensagemHelper.gerarMensagem()
+        );
+        mensagens.forEach(m -> m.setId(UUID.randomUUID()));
+        when(mensagemRepository.listarMensagem(any(Limit.class))).thenReturn(mensagens);
+
+        // Act
+        var pagina = mensagemService.listarMensagens(null, 2);
+
+        // Assert
+        assertThat(pagina.content()).hasSize(2);
+        assertThat(pagina.hasNext()).isTrue();
+        assertThat(MensagemCursor.decodificar(pagina.nextCursor()))
+                .isEqualTo(MensagemCursor.de(mensagens.get(1)));
+        verify(mensagemRepository, times(1)).listarMensagem(Limit.of(3));
+    }
+
+    @Test
+    void devePermitirListarMensagens_PorCursor_UltimaPagina() {
+        // Arrange
+        var mensagem = MensagemHelper.gerarMensagem();
+        var cursor = new MensagemCursor(LocalDateTime.now(), UUID.randomUUID());
+        when(mensagemRepository.listarMensagemApos(any(LocalDateTime.class), any(UUID.class), any(Limit.class)))
+                .thenReturn(List.of(mensagem));
+
+        // Act
+        var pagina = mensagemService.listarMensagens(cursor, 2);
+
+        // Assert
+        assertThat(pagina.content()).containsExactly(mensagem);
+        assertThat(pagina.hasNext()).isFalse();
+        assertThat(pagina.nextCursor()).isNull();
+        verify(mensagemRepository, times(1))
+                .listarMensagemApos(cursor.dataCriacao(), cursor.id(), Limit.of(3));
+    }
+
+    @Test
+    void devePermitirListarResumos_PorCursor() {
+        // Arrange
+        var resumos = List.of(
+                new MensagemResumo(UUID.randomUUID(), "Jose", "Olá", LocalDateTime.now(), 1),
+                new MensagemResumo(UUID.randomUUID(), "Maria", "Bom", LocalDateTime.now().minusSeconds(1), 0),
+                new MensagemResumo(UUID.randomUUID(), "Ana", "Oi", LocalDateTime.now().minusSeconds(2), 0)
+        );
+        when(mensagemRepository.listarResumos(anyInt(), any(Limit.class))).thenReturn(resumos);
+        gosteiAcumulador.registrar(resumos.get(0).id());
+
+        // Act
+        var pagina = mensagemService.listarResumos(null, 2, 3);
+
+        // Assert
+        assertThat(pagina.content()).extracting(MensagemResumo::usuario).containsExactly("Jose", "Maria");
+        assertThat(pagina.content().get(0).gostei()).isEqualTo(2);
+        assertThat(pagina.hasNext()).isTrue();
+        assertThat(MensagemCursor.decodificar(pagina.nextCursor()))
+                .isEqualTo(MensagemCursor.de(resumos.get(1)));
+        verify(mensagemRepository, times(1)).listarResumos(3, Limit.of(3));
+        verify(mensagemRepository, never()).listarMensagem(any(Limit.class));
+    }
+
+    @Test
+    void devePermitirListarResumos_PorCursor_UltimaPagina() {
+        // Arrange
+        var resumo = new MensagemResumo(UUID.randomUUID(), "Jose", "", LocalDateTime.now(), 0);
+        var cursor = new MensagemCursor(LocalDateTime.now(), UUID.randomUUID());
+        when(mensagemRepository.listarResumosApos(any(LocalDateTime.class), any(UUID.class), anyInt(),
+                any(Limit.class))).thenReturn(List.of(resumo));
+
+        // Act
+        var pagina = mensagemService.listarResumos(cursor, 2, 0);
+
+        // Assert
+        assertThat(pagina.content()).containsExactly(resumo);
+        assertThat(pagina.hasNext()).isFalse();
+        assertThat(pagina.nextCursor()).isNull();
+        verify(mensagemRepository, times(1))
+                .listarResumosApos(cursor.dataCriacao(), cursor.id(), 0, Limit.of(3));
+    }
+
+    @Test
+    void devePermitirListarMensagensPorUsuario_UsandoTimelineEmCache() {
+        // Arrange
+        var servicoComTimeline = criarServico(MensagemCache.desabilitado(),
+                new TimelineCache(true, 10, 50, Duration.ofMinutes(1)));
+        var mensagens = Arrays.asList(
+                MensagemHelper.gerarMensagem(),
+                MensagemHelper.gerarMensagem(),
+                MensagemHelper.gerarMensagem()
+        );
+        mensagens.forEach(m -> m.setId(UUID.randomUUID()));
+        when(mensagemRepository.listarMensagemPorUsuario(anyString(), any(Limit.class))).thenReturn(mensagens);
+        when(mensagemRepository.save(any(Mensagem.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        var primeiraPagina = servicoComTimeline.listarMensagensPorUsuario("Jose", null, 2);
+        var segundaPagina = servicoComTimeline.listarMensagensPorUsuario("Jose",
+                MensagemCursor.decodificar(primeiraPagina.nextCursor()), 2);
+        servicoComTimeline.registrarMensagem(MensagemHelper.gerarMensagem());
+        servicoComTimeline.listarMensagensPorUsuario("Jose", null, 2);
+
+        // Assert
+        assertThat(primeiraPagina.content()).containsExactlyElementsOf(mensagens.subList(0, 2));
+        assertThat(segundaPagina.content()).containsExactly(mensagens.get(2));
+        assertThat(segundaPagina.hasNext()).isFalse();
+        verify(mensagemRepository, times(2)).listarMensagemPorUsuario("Jose", Limit.of(51));
+        verify(mensagemRepository, never())
+                .listarMensagemPorUsuarioApos(anyString(), any(LocalDateTime.class), any(UUID.class), any(Limit.class));
+    }
+
+    @Test
+    void devePermitirListarMensagensPorUsuario_PorCursorNoBanco() {
+        // Arrange
+        var mensagem = MensagemHelper.gerarMensagem();
+        var cursor = new MensagemCursor(LocalDateTime.now(), UUID.randomUUID());
+        when(mensagemRepository.listarMensagemPorUsuarioApos(anyString(), any(LocalDateTime.class), any(UUID.class),
+                any(Limit.class)))
+                .thenReturn(List.of(mensagem));
+
+        // Act
+        var pagina = mensagemService.listarMensagensPorUsuario("Jose", cursor, 2);
+
+        // Assert
+        assertThat(pagina.content()).containsExactly(mensagem);
+        assertThat(pagina.hasNext()).isFalse();
+        verify(mensagemRepository, times(1))
+                .listarMensagemPorUsuarioApos("Jose", cursor.dataCriacao(), cursor.id(), Limit.of(3));
+    }
+
+    private static Mensagem gerarMensagemComGostei(int gostei) {
+        var mensagem = MensagemHelper.gerarMensagem();
+        mensagem.setId(UUID.randomUUID());
+        mensagem.setGostei(gostei);
+        return mensagem;
+    }
 }
@@ -0,0 +1,240 @@
+package br.com.fiap.api.stream;
+
+import br.com.fiap.api.exception.AssinaturaRecusadaException;
+import br.com.fiap.api.model.Mensagem;
+import br.com.fiap.api.utils.MensagemHelper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TransmissorMensagensTest {
+
+    private final CountDownLatch liberarEnvio = new CountDownLatch(1);
+
+    private TransmissorMensagens transmissor;
+
+    @AfterEach
+    void tearDown() {
+        liberarEnvio.countDown();
+        if (transmissor != null) {
+            transmissor.stop();
+        }
+    }
+
+    private TransmissorMensagens criarTransmissor(int capacidadeAssinante, int tamanhoHistorico,
+                                                  int maximoAssinantes) {
+        var transmissorMensagens = new TransmissorMensagens(true, new ObjectMapper().registerModule(new JavaTimeModule()),
+                capacidadeAssinante, tamanhoHistorico, maximoAssinantes, Duration.ofMinutes(1), Duration.ofMinutes(1));
+        transmissorMensagens.start();
+        return transmissorMensagens;
+    }
+
+    @Test
+    void deveEntregarEventos_NaOrdemDePublicacao() {
+        // Arrange
+        transmissor = criarTransmissor(16, 100, 10);
+        var assinante = assinar(null);
+        var mensagem = gerarMensagem();
+
+        // Act
+        transmissor.publicar(MensagemEvento.Tipo.CRIADA, mensagem.getId(), mensagem);
+        transmissor.publicar(MensagemEvento.Tipo.ALTERADA, mensagem.getId(), mensagem);
+        transmissor.publicar(MensagemEvento.Tipo.REMOVIDA, mensagem.getId(), null);
+        aguardar(() -> assinante.eventos.size() == 3);
+
+        // Assert
+        assertThat(assinante.eventos).extracting(MensagemEvento::tipo).containsExactly(
+                MensagemEvento.Tipo.CRIADA, MensagemEvento.Tipo.ALTERADA, MensagemEvento.Tipo.REMOVIDA);
+        assertThat(assinante.eventos).extracting(MensagemEvento::sequencia).containsExactly(1L, 2L, 3L);
+        assertThat(assinante.eventos.get(0).dados()).contains("\"conteudo\":\"conteúdo da mensagem\"");
+        assertThat(assinante.eventos.get(2).dados()).isEqualTo("{\"id\":\"" + mensagem.getId() + "\"}");
+        assertThat(transmissor.eventosPublicados()).isEqualTo(3);
+    }
+
+    @Test
+    void deveReenviarEventos_APartirDoUltimoEventoId() {
+        // Arrange
+        transmissor = criarTransmissor(16, 100, 10);
+        var primeiro = assinar(null);
+        publicar(5);
+        aguardar(() -> primeiro.eventos.size() == 5);
+
+        // Act
+        var reconectado = assinar(primeiro.eventos.get(1).id());
+        aguardar(() -> reconectado.eventos.size() == 3);
+
+        // Assert
+        assertThat(reconectado.eventos).extracting(MensagemEvento::id)
+                .containsExactlyElementsOf(primeiro.eventos.subList(2, 5).stream().map(MensagemEvento::id).toList());
+    }
+
+    @Test
+    void deveEnviarReinicio_QuandoUltimoEventoIdForaDoHistorico() {
+        // Arrange
+        transmissor = criarTransmissor(16, 4, 10);
+        var primeiro = assinar(null);
+        publicar(10);
+        aguardar(() -> primeiro.eventos.size() == 10);
+
+        // Act
+        var antigo = assinar(primeiro.eventos.get(1).id());
+        var desconhecido = assinar("outra-geracao-7");
+        aguardar(() -> antigo.eventos.size() == 1 && desconhecido.eventos.size() == 1);
+
+        // Assert
+        assertThat(antigo.eventos.get(0).tipo()).isEqualTo(MensagemEvento.Tipo.REINICIO);
+        assertThat(antigo.eventos.get(0).id()).isEqualTo(primeiro.eventos.get(9).id());
+        assertThat(desconhecido.eventos.get(0).tipo()).isEqualTo(MensagemEvento.Tipo.REINICIO);
+    }
+
+    @Test
+    void deveDescartarAssinanteLento_SemAtrasarOsDemais() {
+        // Arrange
+        transmissor = criarTransmissor(2, 100, 10);
+        var lento = new AssinanteFalso(liberarEnvio);
+        transmissor.assinar(null, lento);
+        var rapido = assinar(null);
+        aguardar(() -> lento.batimentos.get() == 1);
+
+        // Act: um evento por vez, para que apenas a fila do assinante lento encha
+        for (int i = 1; i <= 10; i++) {
+            publicar(1);
+            var entregues = i;
+            aguardar(() -> rapido.eventos.size() == entregues);
+        }
+        aguardar(() -> lento.encerrado);
+
+        // Assert
+        assertThat(lento.eventos).isEmpty();
+        assertThat(transmissor.assinantesDescartados()).isEqualTo(1);
+        assertThat(transmissor.assinantes()).isEqualTo(1);
+    }
+
+    @Test
+    void deveGerarExcecao_QuandoAssinar_LimiteAtingido() {
+        // Arrange
+        transmissor = criarTransmissor(16, 100, 1);
+        assinar(null);
+
+        // Act & Assert
+        assertThatThrownBy(() -> transmissor.assinar(null, new AssinanteFalso(null)))
+                .isInstanceOf(AssinaturaRecusadaException.class)
+                .hasMessage("Limite de assinantes atingido, tente novamente");
+    }
+
+    @Test
+    void deveEncerrarAssinaturas_QuandoParar() {
+        // Arrange
+        transmissor = criarTransmissor(16, 100, 10);
+        var assinante = assinar(null);
+
+        // Act
+        transmissor.stop();
+
+        // Assert
+        assertThat(assinante.encerrado).isTrue();
+        assertThat(transmissor.assinantes()).isZero();
+        assertThatThrownBy(() -> transmissor.assinar(null, new AssinanteFalso(null)))
+                .isInstanceOf(AssinaturaRecusadaException.class);
+    }
+
+    @Test
+    void naoDevePublicar_QuandoDesabilitado() {
+        // Arrange
+        var desabilitado = TransmissorMensagens.desabilitado();
+
+        // Act & Assert
+        desabilitado.publicar(MensagemEvento.Tipo.REMOVIDA, UUID.randomUUID(), null);
+        assertThat(desabilitado.isHabilitado()).isFalse();
+        assertThat(desabilitado.eventosPublicados()).isZero();
+        assertThatThrownBy(() -> desabilitado.assinar(null, new AssinanteFalso(null)))
+                .isInstanceOf(AssinaturaRecusadaException.class);
+    }
+
+    // aguarda o batimento inicial, que confirma o registro da assinatura
+    private AssinanteFalso assinar(String ultimoEventoId) {
+        var assinante = new AssinanteFalso(null);
+        transmissor.assinar(ultimoEventoId, assinante);
+        aguardar(() -> assinante.batimentos.get() > 0);
+        return assinante;
+    }
+
+    private void publicar(int quantidade) {
+        for (int i = 0; i < quantidade; i++) {
+            var mensagem = gerarMensagem();
+            transmissor.publicar(MensagemEvento.Tipo.CRIADA, mensagem.getId(), mensagem);
+        }
+    }
+
+    private static Mensagem gerarMensagem() {
+        var mensagem = MensagemHelper.gerarMensagem();
+        mensagem.setId(UUID.randomUUID());
+        return mensagem;
+    }
+
+    private static void aguardar(BooleanSupplier condicao) {
+        var limite = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condicao.getAsBoolean()) {
+            if (System.nanoTime() - limite > 0) {
+                throw new AssertionError("Condição não atendida em 5 segundos");
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private static final class AssinanteFalso implements Assinante {
+
+        private final List<MensagemEvento> eventos = new CopyOnWriteArrayList<>();
+
+        private final AtomicInteger batimentos = new AtomicInteger();
+
+        // quando presente, o envio fica bloqueado até a liberação, como um cliente que não lê a conexão
+        private final CountDownLatch liberar;
+
+        private volatile boolean encerrado;
+
+        private AssinanteFalso(CountDownLatch liberar) {
+            this.liberar = liberar;
+        }
+
+        @Override
+        public void enviar(List<MensagemEvento> lote) {
+            aguardarLiberacao();
+            eventos.addAll(lote);
+        }
+
+        @Override
+        public void batimento() {
+            batimentos.incrementAndGet();
+            aguardarLiberacao();
+        }
+
+        @Override
+        public void encerrar() {
+            encerrado = true;
+        }
+
+        private void aguardarLiberacao() {
+            if (liberar == null) {
+                return;
+            }
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -1,6 +1,6 @@
 INSERT INTO mensagem
-    (id, usuario, conteudo, data_criacao, gostei)
+    (id, usuario, conteudo, data_criacao, gostei, versao)
 VALUES
-    ('a520c636-6205-48bb-ac5f-3e4eaddb56f4', 'José', 'Conteúdo da mensagem 01', '2024-10-04 00:00:00.10000', 0),
-    ('4f38bddc-3358-4e6a-8bd7-38048fb0ea1c', 'Matheus', 'Conteúdo da mensagem 02', '2024-10-04 00:00:00.20000', 0),
-    ('3ab78d54-fe97-4044-806f-583f88065d3b', 'Lucas', 'Conteúdo da mensagem 03', '2024-10-04 00:00:00.30000', 0);
+    ('a520c636-6205-48bb-ac5f-3e4eaddb56f4', 'José', 'Conteúdo da mensagem 01', '2024-10-04 00:00:00.10000', 0, 0),
+    ('4f38bddc-3358-4e6a-8bd7-38048fb0ea1c', 'Matheus', 'Conteúdo da mensagem 02', '2024-10-04 00:00:00.20000', 0, 0),
+    ('3ab78d54-fe97-4044-806f-583f88065d3b', 'Lucas', 'Conteúdo da mensagem 03', '2024-10-04 00:00:00.30000', 0, 0);